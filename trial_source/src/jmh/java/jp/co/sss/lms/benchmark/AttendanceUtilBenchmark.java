@@ -0,0 +1,73 @@
+package jp.co.sss.lms.benchmark;
+
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jp.co.sss.lms.enums.AttendanceStatusEnum;
+import jp.co.sss.lms.util.AttendanceUtil;
+import jp.co.sss.lms.util.TrainingTime;
+
+/**
+ * AttendanceUtilベンチマーク<br>
+ * 勤怠の登録・一覧で実行される遅刻早退の判定と、勤怠画面の表示ごとに作成される中抜け時間の選択肢を計測する。
+ *
+ * @author 東京ITスクール
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AttendanceUtilBenchmark {
+
+	/** 出勤時刻,退勤時刻(定時・遅刻・早退・未退勤) */
+	@Param({ "09:00,18:00", "09:31,18:00", "09:00,17:15", "09:00," })
+	private String trainingTime;
+
+	private AttendanceUtil attendanceUtil;
+	private TrainingTime trainingStartTime;
+	private TrainingTime trainingEndTime;
+
+	@Setup
+	public void setup() {
+		// getStatus・setBlankTimeはDIされる項目を使用しない
+		attendanceUtil = new AttendanceUtil();
+		String[] times = trainingTime.split(",", -1);
+		trainingStartTime = new TrainingTime(times[0]);
+		trainingEndTime = new TrainingTime(times[1]);
+	}
+
+	/**
+	 * 遅刻早退の判定
+	 *
+	 * @return 判定結果
+	 */
+	@Benchmark
+	public AttendanceStatusEnum getStatus() {
+		return attendanceUtil.getStatus(trainingStartTime, trainingEndTime);
+	}
+
+	/**
+	 * 中抜け時間の選択肢の作成
+	 *
+	 * @return 中抜け時間
+	 */
+	@Benchmark
+	public LinkedHashMap<Integer, String> setBlankTime() {
+		return attendanceUtil.setBlankTime();
+	}
+
+}
@@ -0,0 +1,69 @@
+package jp.co.sss.lms.benchmark;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jp.co.sss.lms.util.DateUtil;
+
+/**
+ * DateUtilベンチマーク<br>
+ * ログイン中の全リクエストで実行される日付文字列の正規化・Calendarへの変換(パスワード有効期限の判定)と、
+ * 画面表示での日付の書式化を計測する。
+ *
+ * @author 東京ITスクール
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateUtilBenchmark {
+
+	/** 日付文字列(日付のみ・区切りなし・日付+時刻) */
+	@Param({ "2024/04/01", "20240401", "2024/04/01 09:30:15.123" })
+	private String strDate;
+
+	private DateUtil dateUtil;
+	private Date date;
+
+	@Setup
+	public void setup() {
+		dateUtil = new DateUtil();
+		date = dateUtil.toCalendar(strDate).getTime();
+	}
+
+	/**
+	 * 日付文字列からCalendarへの変換
+	 *
+	 * @return Calendar
+	 */
+	@Benchmark
+	public Calendar toCalendar() {
+		return dateUtil.toCalendar(strDate);
+	}
+
+	/**
+	 * 日付の書式化
+	 *
+	 * @return 日付文字列
+	 */
+	@Benchmark
+	public String dateToString() {
+		return dateUtil.dateToString(date, "yyyy/MM/dd HH:mm:ss.SSS");
+	}
+
+}
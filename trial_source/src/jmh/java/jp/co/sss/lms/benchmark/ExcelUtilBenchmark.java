@@ -0,0 +1,108 @@
+package jp.co.sss.lms.benchmark;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jp.co.sss.lms.util.ExcelUtil;
+
+/**
+ * ExcelUtilベンチマーク<br>
+ * 日報のダウンロードで実行されるセルへの値の設定と、フィードバックコメント欄の複製を計測する。
+ *
+ * @author 東京ITスクール
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExcelUtilBenchmark {
+
+	/** 日報テンプレート */
+	private static final String TEMPLATE_PATH = "static/template/日報_テンプレート.xlsx";
+	/** フィードバックコメントシート */
+	private static final String SHEET_NAME = "フィードバックコメント";
+	/** フィードバックコメント欄の開始行 */
+	private static final int BLOCK_START = 6;
+	/** フィードバックコメント欄の最終行 */
+	private static final int BLOCK_END = 8;
+
+	/**
+	 * 値を設定するワークブック(計測中は同じセルに上書きする)
+	 */
+	@State(Scope.Benchmark)
+	public static class SetValState {
+
+		ExcelUtil excelUtil;
+		Date date;
+
+		@Setup
+		public void setup() {
+			excelUtil = new ExcelUtil(TEMPLATE_PATH);
+			date = new Date();
+		}
+	}
+
+	/**
+	 * 複製するワークブック(複製で行・結合状態が増えるため、実行ごとに読み込み直す)
+	 */
+	@State(Scope.Thread)
+	public static class SheetCopyState {
+
+		/** フィードバックの件数 */
+		@Param({ "10", "50" })
+		int fbCount;
+
+		ExcelUtil excelUtil;
+
+		@Setup(Level.Invocation)
+		public void setup() {
+			excelUtil = new ExcelUtil(TEMPLATE_PATH);
+		}
+	}
+
+	/**
+	 * セルへの値の設定(文字列・数値・日付)
+	 *
+	 * @param state
+	 * @return ワークブック
+	 */
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.NANOSECONDS)
+	public ExcelUtil setVal(SetValState state) {
+		ExcelUtil excelUtil = state.excelUtil;
+		excelUtil.setVal(SHEET_NAME, BLOCK_START, 1, "東京ITスクール");
+		excelUtil.setVal(SHEET_NAME, BLOCK_START, 2, Integer.valueOf(3));
+		excelUtil.setVal(SHEET_NAME, BLOCK_START + 1, 1, state.date);
+		return excelUtil;
+	}
+
+	/**
+	 * フィードバックの件数分のコメント欄の複製
+	 *
+	 * @param state
+	 * @return ワークブック
+	 */
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public ExcelUtil sheetCopy(SheetCopyState state) {
+		ExcelUtil excelUtil = state.excelUtil;
+		for (int i = 1; i < state.fbCount; i++) {
+			excelUtil.sheetCopy(SHEET_NAME, BLOCK_START, BLOCK_END, i);
+		}
+		return excelUtil;
+	}
+
+}
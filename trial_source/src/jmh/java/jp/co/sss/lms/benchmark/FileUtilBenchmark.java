@@ -0,0 +1,64 @@
+package jp.co.sss.lms.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jp.co.sss.lms.util.FileUtil;
+
+/**
+ * FileUtilベンチマーク<br>
+ * ファイル一覧でファイルごとに実行されるファイルサイズの表示形式への変換を計測する。
+ *
+ * @author 東京ITスクール
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileUtilBenchmark {
+
+	/** ファイルサイズ(Byte・KB・MB・GB) */
+	@Param({ "512", "204800", "52428800", "3221225472" })
+	private String fileSize;
+
+	private Long fileSizeLong;
+
+	@Setup
+	public void setup() {
+		fileSizeLong = Long.valueOf(fileSize);
+	}
+
+	/**
+	 * 文字列のファイルサイズの変換
+	 *
+	 * @return 単位をつけたファイルサイズ
+	 */
+	@Benchmark
+	public String parseFileSize() {
+		return FileUtil.parseFileSize(fileSize);
+	}
+
+	/**
+	 * 数値のファイルサイズの変換
+	 *
+	 * @return 単位をつけたファイルサイズ
+	 */
+	@Benchmark
+	public String parseFileSizeLong() {
+		return FileUtil.parseFileSize(fileSizeLong);
+	}
+
+}
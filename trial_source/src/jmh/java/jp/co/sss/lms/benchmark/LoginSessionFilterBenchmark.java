@@ -0,0 +1,91 @@
+package jp.co.sss.lms.benchmark;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jp.co.sss.lms.dto.LoginUserDto;
+import jp.co.sss.lms.filter.LoginSessionFilter;
+import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.DateUtil;
+import jp.co.sss.lms.util.LoginUserUtil;
+
+/**
+ * LoginSessionFilterベンチマーク<br>
+ * 全リクエストで実行されるログイン判定・権限ごとのアクセス可否・パスワード有効期限の判定による遷移先の決定を計測する。
+ * 受講生でログインした状態で、URIごとの経路を計測する。
+ *
+ * @author 東京ITスクール
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoginSessionFilterBenchmark {
+
+	/** コンテキストパス */
+	private static final String CONTEXT_PATH = "/lms";
+
+	/** URI(静的ファイル・ログイン不要・アクセス可能・アクセス不可) */
+	@Param({ "/lms/css/style.css", "/lms/login", "/lms/attendance/detail", "/lms/exam/list" })
+	private String uri;
+
+	private LoginSessionFilter loginSessionFilter;
+
+	/** 後続のフィルター(何もしない) */
+	private final FilterChain chain = (request, response) -> {
+	};
+
+	@Setup
+	public void setup() {
+		LoginUserDto loginUserDto = new LoginUserDto();
+		loginUserDto.setUserId(2);
+		loginUserDto.setLmsUserId(2);
+		loginUserDto.setRole(Constants.CODE_VAL_ROLL_STUDENT);
+		loginUserDto.setSecurityAgreeFlg((short) 1);
+		loginUserDto.setPasswordChangeDate(new Date());
+		LoginUserUtil loginUserUtil = new LoginUserUtil();
+		ReflectionTestUtils.setField(loginUserUtil, "loginUserDto", loginUserDto);
+
+		loginSessionFilter = new LoginSessionFilter();
+		ReflectionTestUtils.setField(loginSessionFilter, "loginUserUtil", loginUserUtil);
+		ReflectionTestUtils.setField(loginSessionFilter, "loginUserDto", loginUserDto);
+		ReflectionTestUtils.setField(loginSessionFilter, "dateUtil", new DateUtil());
+	}
+
+	/**
+	 * フィルターの実行
+	 *
+	 * @return レスポンス(遷移先・ステータス)
+	 * @throws IOException
+	 * @throws ServletException
+	 */
+	@Benchmark
+	public MockHttpServletResponse doFilter() throws IOException, ServletException {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+		request.setContextPath(CONTEXT_PATH);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		loginSessionFilter.doFilter(request, response, chain);
+		return response;
+	}
+
+}
@@ -0,0 +1,49 @@
+package jp.co.sss.lms.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jp.co.sss.lms.util.PasswordUtil;
+
+/**
+ * PasswordUtilベンチマーク<br>
+ * ログイン・パスワード変更で実行されるパスワードのハッシュ化(salt + ストレッチング)を計測する。
+ *
+ * @author 東京ITスクール
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PasswordUtilBenchmark {
+
+	private PasswordUtil passwordUtil;
+
+	@Setup
+	public void setup() {
+		passwordUtil = new PasswordUtil();
+	}
+
+	/**
+	 * パスワードのハッシュ化
+	 *
+	 * @return ハッシュ化したパスワード
+	 */
+	@Benchmark
+	public String getSaltedAndStrechedPassword() {
+		return passwordUtil.getSaltedAndStrechedPassword("Perf0000", "student000001");
+	}
+
+}
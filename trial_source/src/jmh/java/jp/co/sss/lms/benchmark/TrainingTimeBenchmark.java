@@ -0,0 +1,93 @@
+package jp.co.sss.lms.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jp.co.sss.lms.util.TrainingTime;
+
+/**
+ * TrainingTimeベンチマーク<br>
+ * 勤怠の登録・一覧で時刻ごとに実行される文字列の解析と時刻の計算を計測する。
+ *
+ * @author 東京ITスクール
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrainingTimeBenchmark {
+
+	/** 出勤時刻(コロン区切り・数値4桁) */
+	@Param({ "9:07", "0907" })
+	private String startTimeStr;
+
+	/** 退勤時刻 */
+	private static final String END_TIME_STR = "18:42";
+
+	private TrainingTime startTime;
+	private TrainingTime endTime;
+	private TrainingTime blankTime;
+
+	@Setup
+	public void setup() {
+		startTime = new TrainingTime(startTimeStr);
+		endTime = new TrainingTime(END_TIME_STR);
+		blankTime = new TrainingTime(1, 15);
+	}
+
+	/**
+	 * 文字列の解析
+	 *
+	 * @return 時刻
+	 */
+	@Benchmark
+	public TrainingTime parse() {
+		return new TrainingTime(startTimeStr);
+	}
+
+	/**
+	 * 勤務時間の計算(退勤 - 出勤 - 中抜け)
+	 *
+	 * @return 勤務時間
+	 */
+	@Benchmark
+	public TrainingTime subtract() {
+		return endTime.subtract(startTime).subtract(blankTime);
+	}
+
+	/**
+	 * 時刻の加算
+	 *
+	 * @return 時刻
+	 */
+	@Benchmark
+	public TrainingTime add() {
+		return startTime.add(blankTime);
+	}
+
+	/**
+	 * 15分刻みの丸めと表示形式への変換
+	 *
+	 * @return HH:mm
+	 */
+	@Benchmark
+	public String roundAndFormat() {
+		// roundUp・roundDownは自身を変更するため、新しいインスタンスに対して実行する
+		return new TrainingTime(startTimeStr).roundUp().getFormattedString()
+				+ new TrainingTime(END_TIME_STR).roundDown().getFormattedString();
+	}
+
+}
@@ -2,6 +2,9 @@ package jp.co.sss.lms.controller;
 
 import java.text.ParseException;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -29,11 +32,14 @@ public class CourseController {
 	 * コース詳細画面 初期表示
 	 * 
 	 * @param model
-	 * @return コース詳細画面
+	 * @param request
+	 * @param response
+	 * @return コース詳細画面(更新がない場合は304)
 	 * @throws ParseException
 	 */
 	@RequestMapping(path = "/detail")
-	public String detail(Model model) throws ParseException {
+	public String detail(Model model, HttpServletRequest request, HttpServletResponse response)
+			throws ParseException {
 
 		// パラメータチェック
 		String message = courseService.checkCourseId(loginUserDto.getCourseId());
@@ -41,6 +47,11 @@ public class CourseController {
 			return "illegal";
 		}
 
+		// クライアントが同じバージョンを保持している場合は304
+		if (courseService.checkNotModified(loginUserDto.getCourseId(), request, response)) {
+			return null;
+		}
+
 		// コース詳細関連情報の取得
 		CourseServiceCourseDto courseServiceCourseDto = courseService
 				.getCourseDetail(loginUserDto.getCourseId());
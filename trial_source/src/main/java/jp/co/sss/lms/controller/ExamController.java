@@ -1,6 +1,7 @@
 package jp.co.sss.lms.controller;
 
 import java.util.Date;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
@@ -8,12 +9,18 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
 
 import jp.co.sss.lms.dto.ExamDetailDto;
 import jp.co.sss.lms.dto.ExamResultDetailDto;
+import jp.co.sss.lms.dto.ItemAnalysisDto;
 import jp.co.sss.lms.dto.LoginUserDto;
 import jp.co.sss.lms.form.ExamQuestionForm;
 import jp.co.sss.lms.service.ExamService;
+import jp.co.sss.lms.service.ItemAnalysisService;
+import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.MessageUtil;
+import net.arnx.jsonic.JSON;
 
 /**
  * 試験コントローラー
@@ -28,6 +35,10 @@ public class ExamController {
 	private ExamService examService;
 	@Autowired
 	private LoginUserDto loginUserDto;
+	@Autowired
+	private ItemAnalysisService itemAnalysisService;
+	@Autowired
+	private MessageUtil messageUtil;
 
 	/**
 	 * 試験詳細画面 初期表示
@@ -51,8 +62,11 @@ public class ExamController {
 	@RequestMapping(path = "/resultDetail", method = RequestMethod.POST)
 	public String resultDetail(Integer examResultId, Model model) {
 
-		// 試験結果詳細の取得
+		// 試験結果詳細の取得(未登録の場合はエラーメッセージを表示)
 		ExamResultDetailDto examResultDetailDto = examService.getExamResultDetail(examResultId);
+		if (examResultDetailDto == null) {
+			model.addAttribute("error", messageUtil.getMessage(Constants.VALID_KEY_EXAM_RESULT_PENDING));
+		}
 		model.addAttribute("examResultDetailDto", examResultDetailDto);
 
 		return "exam/resultDetail";
@@ -133,4 +147,20 @@ public class ExamController {
 		return "exam/result";
 	}
 
+	/**
+	 * 項目分析
+	 * 
+	 * @param examId
+	 * @return 問題ごとの項目分析(JSON形式)
+	 */
+	@RequestMapping(path = "/analysis", method = RequestMethod.GET)
+	@ResponseBody
+	public String analysis(Integer examId) {
+
+		// 項目分析取得
+		List<ItemAnalysisDto> itemAnalysisDtoList = itemAnalysisService.getItemAnalysisDtoList(examId);
+		// JSON形式で返す
+		return JSON.encode(itemAnalysisDtoList);
+	}
+
 }
@@ -9,10 +9,9 @@ import org.springframework.web.bind.annotation.ResponseBody;
 
 import com.fasterxml.jackson.core.JsonParseException;
 
-import jakarta.servlet.http.HttpSession;
-import jp.co.sss.lms.dto.InfoDto;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jp.co.sss.lms.service.InfoService;
-import net.arnx.jsonic.JSON;
 
 /**
  * お知らせコントローラー
@@ -25,26 +24,23 @@ public class InfoController {
 
 	@Autowired
 	private InfoService infoService;
-	@Autowired
-	private HttpSession session;
 
 	/**
 	 * お知らせ情報取得
 	 * 
+	 * @param request
+	 * @param response
 	 * @return お知らせ情報
 	 * @throws JsonParseException
 	 * @throws IOException
 	 */
 	@RequestMapping(path = "")
 	@ResponseBody
-	public String index() throws JsonParseException, IOException {
-
-		// お知らせ情報を取得
-		InfoDto infoDto = infoService.getInfo();
-		// セッションに格納
-		session.setAttribute("infoDto", infoDto);
-		// JSON形式で返す
-		return JSON.encode(infoDto);
+	public String index(HttpServletRequest request, HttpServletResponse response)
+			throws JsonParseException, IOException {
+
+		// JSON形式で返す(更新がない場合は304)
+		return infoService.getInfoJson(request, response);
 
 	}
 
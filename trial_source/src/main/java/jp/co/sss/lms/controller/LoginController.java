@@ -52,12 +52,19 @@ public class LoginController {
 		if (loginUserUtil.isLogin()) {
 			return loginUserUtil.sendDisp();
 		}
-		// お知らせ情報取得
-		InfoDto infoDto = infoService.getInfo();
-		session.setAttribute("infoDto", infoDto);
 		return "login/index";
 	}
 
+	/**
+	 * お知らせ情報取得
+	 * 
+	 * @return お知らせ情報
+	 */
+	@ModelAttribute("infoDto")
+	public InfoDto infoDto() {
+		return infoService.getInfo();
+	}
+
 	/**
 	 * ログイン画面 『ログイン』ボタン押下
 	 * 
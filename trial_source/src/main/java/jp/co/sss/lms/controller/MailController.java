@@ -0,0 +1,38 @@
+package jp.co.sss.lms.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import jp.co.sss.lms.service.MailDispatchService;
+import net.arnx.jsonic.JSON;
+
+/**
+ * メールコントローラー
+ * 
+ * @author 東京ITスクール
+ */
+@Controller
+@RequestMapping("/mail")
+public class MailController {
+
+	@Autowired
+	private MailDispatchService mailDispatchService;
+
+	/**
+	 * メール送信キューの状況取得
+	 * 
+	 * @return メール送信キュー状況(JSON)
+	 */
+	@RequestMapping(path = "/metrics", method = RequestMethod.GET)
+	@ResponseBody
+	public String metrics() {
+
+		// JSON形式で返す
+		return JSON.encode(mailDispatchService.getMetrics());
+
+	}
+
+}
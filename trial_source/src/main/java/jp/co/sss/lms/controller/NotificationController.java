@@ -0,0 +1,37 @@
+package jp.co.sss.lms.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jp.co.sss.lms.dto.LoginUserDto;
+import jp.co.sss.lms.service.NotificationService;
+
+/**
+ * 通知コントローラー
+ * 
+ * @author 東京ITスクール
+ */
+@Controller
+@RequestMapping("/notification")
+public class NotificationController {
+
+	@Autowired
+	private NotificationService notificationService;
+	@Autowired
+	private LoginUserDto loginUserDto;
+
+	/**
+	 * 通知の購読(Server-Sent Events)
+	 * 
+	 * @return 接続
+	 */
+	@RequestMapping(path = "", method = RequestMethod.GET, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter index() {
+		return notificationService.subscribe(loginUserDto.getLmsUserId());
+	}
+
+}
@@ -2,6 +2,7 @@ package jp.co.sss.lms.controller;
 
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -13,12 +14,15 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jp.co.sss.lms.form.ChangePasswordGroup;
 import jp.co.sss.lms.form.LoginForm;
 import jp.co.sss.lms.form.MailAddressForm;
 import jp.co.sss.lms.form.ResetPasswordGroup;
 import jp.co.sss.lms.service.LoginService;
 import jp.co.sss.lms.service.PasswordService;
+import jp.co.sss.lms.service.RateLimitService;
+import jp.co.sss.lms.util.Constants;
 import jp.co.sss.lms.util.LoginUserUtil;
 import jp.co.sss.lms.util.MessageUtil;
 
@@ -39,6 +43,8 @@ public class PasswordController {
 	private LoginUserUtil loginUserUtil;
 	@Autowired
 	private MessageUtil messageUtil;
+	@Autowired
+	private RateLimitService rateLimitService;
 
 	/**
 	 * パスワード変更画面 初期表示
@@ -100,20 +106,27 @@ public class PasswordController {
 	 */
 	@RequestMapping(value = "/resetPassword/complete", method = RequestMethod.POST)
 	public String complete(MailAddressForm mailAddressForm, BindingResult result,
-			HttpServletRequest request, Model model) {
+			HttpServletRequest request, HttpServletResponse response, Model model) {
+
+		// 要求回数の制限（DBにアクセスする前に判定）
+		if (!rateLimitService.tryAcquire(request.getRemoteAddr(), mailAddressForm.getMailAddress())) {
+			response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+			model.addAttribute("error", messageUtil.getMessage(Constants.VALID_KEY_REQUEST_TOO_MANY));
+			return "password/resetPassword";
+		}
 
 		// フォームの入力チェック
 		if (result.hasErrors()) {
 			return "password/resetPassword";
 		}
 
-		// パスワード変更テーブル登録
-		passwordService.registTemporaryPassStorage(mailAddressForm);
+		// パスワード再設定トークン発行
+		String token = passwordService.registPasswordResetToken(mailAddressForm);
 
 		// パスワード再設定メール送信
 		String sendFlg = messageUtil.getMessage("setting.mail.send.flg");
 		if (!sendFlg.equals("0")) {
-			passwordService.sendPasswordResetMail(request, mailAddressForm);
+			passwordService.sendPasswordResetMail(request, mailAddressForm, token);
 		}
 
 		model.addAttribute("mailAddress", mailAddressForm.getMailAddress());
@@ -179,7 +192,13 @@ public class PasswordController {
 	@RequestMapping(value = "/changePassword/mailComplete", method = RequestMethod.POST)
 	public String mailComplete(
 			@Validated(ResetPasswordGroup.class) @ModelAttribute LoginForm loginForm,
-			BindingResult result, Model model) {
+			BindingResult result, HttpServletRequest request, HttpServletResponse response, Model model) {
+		// 要求回数の制限（DBにアクセスする前に判定）
+		if (!rateLimitService.tryAcquire(request.getRemoteAddr(), loginForm.getLoginId())) {
+			response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+			model.addAttribute("error", messageUtil.getMessage(Constants.VALID_KEY_REQUEST_TOO_MANY));
+			return "password/mailInput";
+		}
 		// 入力チェック（再設定用）
 		passwordService.resetPasswordInputCheck(loginForm, result);
 		if (result.hasErrors()) {
@@ -2,6 +2,7 @@ package jp.co.sss.lms.controller;
 
 import java.io.IOException;
 import java.text.ParseException;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
@@ -11,10 +12,18 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.ResponseBody;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import jp.co.sss.lms.dto.IntelligibilityRollupDto;
+import jp.co.sss.lms.dto.ReportSearchDto;
 import jp.co.sss.lms.form.DailyReportDownloadForm;
 import jp.co.sss.lms.form.DailyReportSubmitForm;
+import jp.co.sss.lms.form.IntelligibilityRollupForm;
+import jp.co.sss.lms.form.ReportSearchForm;
+import jp.co.sss.lms.service.IntelligibilityRollupService;
+import jp.co.sss.lms.service.ReportSearchService;
 import jp.co.sss.lms.service.ReportService;
+import net.arnx.jsonic.JSON;
 
 /**
  * レポートコントローラー
@@ -27,6 +36,10 @@ public class ReportController {
 
 	@Autowired
 	private ReportService reportService;
+	@Autowired
+	private ReportSearchService reportSearchService;
+	@Autowired
+	private IntelligibilityRollupService intelligibilityRollupService;
 
 	/**
 	 * レポート登録画面 初期表示
@@ -77,17 +90,54 @@ public class ReportController {
 	 * ユーザー詳細画面 『ダウンロード（レポート）』ボタン押下
 	 * 
 	 * @param reportDownloadForm
+	 * @param request
 	 * @param response
 	 * @throws IOException
 	 */
-	@RequestMapping(path = "/download", method = RequestMethod.POST)
+	@RequestMapping(path = "/download", method = { RequestMethod.GET, RequestMethod.POST })
 	@ResponseBody
 	public void download(DailyReportDownloadForm dailyReportDownloadForm,
-			HttpServletResponse response) throws IOException {
+			HttpServletRequest request, HttpServletResponse response) throws IOException {
 
 		// レポートダウンロード
 		reportService.download(dailyReportDownloadForm.getDailyReportId(),
-				dailyReportDownloadForm.getDailyReportSubmitId(), response);
+				dailyReportDownloadForm.getDailyReportSubmitId(), request, response);
+	}
+
+	/**
+	 * レポート検索
+	 * 
+	 * @param reportSearchForm
+	 * @return レポート検索結果(JSON形式)
+	 * @throws ParseException
+	 */
+	@RequestMapping(path = "/search", method = RequestMethod.GET)
+	@ResponseBody
+	public String search(ReportSearchForm reportSearchForm) throws ParseException {
+
+		// レポート検索
+		List<ReportSearchDto> reportSearchDtoList = reportSearchService.search(reportSearchForm);
+		// JSON形式で返す
+		return JSON.encode(reportSearchDtoList);
+	}
+
+	/**
+	 * 理解度集計
+	 * 
+	 * @param intelligibilityRollupForm
+	 * @return 理解度集計(JSON形式)
+	 * @throws ParseException
+	 */
+	@RequestMapping(path = "/intelligibility")
+	@ResponseBody
+	public String intelligibility(IntelligibilityRollupForm intelligibilityRollupForm)
+			throws ParseException {
+
+		// 理解度集計取得
+		List<IntelligibilityRollupDto> intelligibilityRollupDtoList = intelligibilityRollupService
+				.getIntelligibilityRollupDtoList(intelligibilityRollupForm);
+		// JSON形式で返す
+		return JSON.encode(intelligibilityRollupDtoList);
 	}
 
 }
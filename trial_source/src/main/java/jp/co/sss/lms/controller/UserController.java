@@ -6,11 +6,14 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 
+import jp.co.sss.lms.dto.GenreProfileDto;
 import jp.co.sss.lms.dto.LmsUserDto;
 import jp.co.sss.lms.service.UserService;
 import jp.co.sss.lms.util.Constants;
 import jp.co.sss.lms.util.MessageUtil;
+import net.arnx.jsonic.JSON;
 
 /**
  * ユーザーコントローラー
@@ -76,4 +79,20 @@ public class UserController {
 		return "user/detail";
 	}
 
+	/**
+	 * ジャンル別苦手傾向
+	 * 
+	 * @param lmsUserId
+	 * @return 受講生・所属コースの苦手ジャンル(JSON形式)
+	 */
+	@RequestMapping(path = "/genreProfile")
+	@ResponseBody
+	public String genreProfile(@RequestParam(required = false) Integer lmsUserId) {
+
+		// ジャンル別苦手傾向の取得
+		GenreProfileDto genreProfileDto = userService.getGenreProfile(lmsUserId);
+		// JSON形式で返す
+		return JSON.encode(genreProfileDto);
+	}
+
 }
@@ -0,0 +1,117 @@
+package jp.co.sss.lms.dto;
+
+import java.util.List;
+
+import lombok.Getter;
+
+/**
+ * レポート定義DTO<br>
+ * 日報マスタ・日報詳細マスタの内容を保持する。キャッシュで共有するため生成後は変更しない。
+ *
+ * @author 東京ITスクール
+ */
+@Getter
+public class DailyReportDefinitionDto {
+
+	/** 日報ID */
+	private final Integer dailyReportId;
+	/** 日報名 */
+	private final String reportName;
+	/** 学習理解度入力フラグ */
+	private final Short intelligibilityFlg;
+	/** 学習理解度項目数 */
+	private final Short intelligibilityFieldNum;
+	/** 学習理解度数 */
+	private final Short intelligibilityNum;
+	/** バージョン(最終更新日時と項目数) */
+	private final String version;
+	/** 項目数 */
+	private final int fieldCount;
+
+	/* 項目番号 */
+	private final Integer[] fieldNumArray;
+	/* 項目名 */
+	private final String[] fieldNameArray;
+	/* 必須フラグ */
+	private final Short[] requiredFlgArray;
+	/* 型 */
+	private final Short[] inputTypeArray;
+	/* 範囲From */
+	private final Integer[] rangeFromArray;
+	/* 範囲To */
+	private final Integer[] rangeToArray;
+
+	/**
+	 * レポートDTOからレポート定義を生成
+	 *
+	 * @param dailyReportDto
+	 * @param version
+	 */
+	public DailyReportDefinitionDto(DailyReportDto dailyReportDto, String version) {
+		this.dailyReportId = dailyReportDto.getDailyReportId();
+		this.reportName = dailyReportDto.getReportName();
+		this.intelligibilityFlg = dailyReportDto.getIntelligibilityFlg();
+		this.intelligibilityFieldNum = dailyReportDto.getIntelligibilityFieldNum();
+		this.intelligibilityNum = dailyReportDto.getIntelligibilityNum();
+		this.version = version;
+
+		List<DailyReportDetailDto> dailyReportDetailDtoList = dailyReportDto
+				.getDailyReportDetailDtoList();
+		this.fieldCount = dailyReportDetailDtoList.size();
+		this.fieldNumArray = new Integer[fieldCount];
+		this.fieldNameArray = new String[fieldCount];
+		this.requiredFlgArray = new Short[fieldCount];
+		this.inputTypeArray = new Short[fieldCount];
+		this.rangeFromArray = new Integer[fieldCount];
+		this.rangeToArray = new Integer[fieldCount];
+		for (int j = 0; j < fieldCount; j++) {
+			DailyReportDetailDto dailyReportDetailDto = dailyReportDetailDtoList.get(j);
+			fieldNumArray[j] = dailyReportDetailDto.getFieldNum();
+			fieldNameArray[j] = dailyReportDetailDto.getFieldName();
+			requiredFlgArray[j] = dailyReportDetailDto.getRequiredFlg();
+			inputTypeArray[j] = dailyReportDetailDto.getInputType();
+			rangeFromArray[j] = dailyReportDetailDto.getRangeFrom();
+			rangeToArray[j] = dailyReportDetailDto.getRangeTo();
+		}
+	}
+
+	/**
+	 * 学習理解度の入力があるか判定
+	 *
+	 * @return 学習理解度入力フラグが1の場合true
+	 */
+	public boolean hasIntelligibility() {
+		return intelligibilityFlg != null && intelligibilityFlg == 1;
+	}
+
+	/** @return 項目番号 */
+	public Integer[] getFieldNumArray() {
+		return fieldNumArray.clone();
+	}
+
+	/** @return 項目名 */
+	public String[] getFieldNameArray() {
+		return fieldNameArray.clone();
+	}
+
+	/** @return 必須フラグ */
+	public Short[] getRequiredFlgArray() {
+		return requiredFlgArray.clone();
+	}
+
+	/** @return 型 */
+	public Short[] getInputTypeArray() {
+		return inputTypeArray.clone();
+	}
+
+	/** @return 範囲From */
+	public Integer[] getRangeFromArray() {
+		return rangeFromArray.clone();
+	}
+
+	/** @return 範囲To */
+	public Integer[] getRangeToArray() {
+		return rangeToArray.clone();
+	}
+
+}
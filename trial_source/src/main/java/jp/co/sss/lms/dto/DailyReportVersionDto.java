@@ -0,0 +1,39 @@
+package jp.co.sss.lms.dto;
+
+import java.util.Date;
+
+import lombok.Data;
+
+/**
+ * レポートバージョンDTO<br>
+ * 提出内容・フィードバック・日報マスタ・出力する氏名と企業名の更新状況を保持する
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class DailyReportVersionDto {
+
+	/** 日報提出ID */
+	private Integer dailyReportSubmitId;
+	/** 日報ID */
+	private Integer dailyReportId;
+	/** 提出内容の最終更新日時 */
+	private Date lastModifiedDate;
+	/** 日報マスタの最終更新日時 */
+	private Date reportLastModifiedDate;
+	/** 日報詳細マスタの最終更新日時 */
+	private Date reportDetailLastModifiedDate;
+	/** 日報詳細マスタの項目数 */
+	private Integer reportDetailCount;
+	/** 企業名 */
+	private String companyName;
+	/** 受講生名 */
+	private String userName;
+	/** フィードバックカウント */
+	private Integer fbCount;
+	/** フィードバックの最終更新日時 */
+	private Date lastFeedbackDate;
+	/** フィードバックしたユーザーの最終更新日時 */
+	private Date feedbackUserLastModifiedDate;
+
+}
@@ -0,0 +1,179 @@
+package jp.co.sss.lms.dto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * 試験問題セットDTO<br>
+ * 試験の問題・選択肢・正答を保持する。キャッシュで全ユーザーが共有するため生成後は変更せず、
+ * 問題DTOは変更可能なため取得のたびに複製して返す。
+ *
+ * @author 東京ITスクール
+ */
+@Getter
+public class ExamQuestionSetDto {
+
+	/** 試験ID */
+	private final Integer examId;
+	/** 試験名 */
+	private final String examName;
+	/** 制限時間 */
+	private final Integer limitTime;
+	/** バージョン */
+	private final String version;
+	/* 画面表示用の問題DTOリスト(回答リスト設定済み・正答なし) */
+	@Getter(AccessLevel.NONE)
+	private final List<QuestionDto> questionDtoList;
+	/** 問題数 */
+	private final int questionCount;
+
+	/* 問題ID */
+	@Getter(AccessLevel.NONE)
+	private final int[] questionIds;
+	/* 正答番号 */
+	@Getter(AccessLevel.NONE)
+	private final byte[] answerKey;
+	/* ジャンル詳細ID(未設定は0) */
+	@Getter(AccessLevel.NONE)
+	private final int[] genreDetailIds;
+	/* 解説(正答を含むため画面表示用の問題とは別に保持) */
+	@Getter(AccessLevel.NONE)
+	private final String[] explains;
+
+	/**
+	 * 試験問題DTOから試験問題セットを生成
+	 *
+	 * @param examQuestionDto
+	 * @param version
+	 */
+	public ExamQuestionSetDto(ExamQuestionDto examQuestionDto, String version) {
+		this.examId = examQuestionDto.getExamId();
+		this.examName = examQuestionDto.getExamName();
+		this.limitTime = examQuestionDto.getLimitTime();
+		this.version = version;
+
+		List<QuestionDto> sourceList = examQuestionDto.getQuestionDtoList();
+		this.questionCount = sourceList.size();
+		this.questionIds = new int[questionCount];
+		this.answerKey = new byte[questionCount];
+		this.genreDetailIds = new int[questionCount];
+		this.explains = new String[questionCount];
+		List<QuestionDto> list = new ArrayList<>(questionCount);
+		for (int i = 0; i < questionCount; i++) {
+			QuestionDto source = sourceList.get(i);
+			questionIds[i] = source.getQuestionId();
+			answerKey[i] = source.getAnswerNum() == null ? 0 : source.getAnswerNum().byteValue();
+			genreDetailIds[i] = source.getGenreDetailId() == null ? 0 : source.getGenreDetailId();
+			explains[i] = source.getExplain();
+
+			// 画面表示用の問題には正答を含めない
+			QuestionDto questionDto = new QuestionDto();
+			questionDto.setQuestionId(source.getQuestionId());
+			questionDto.setGenreDetailName(source.getGenreDetailName());
+			questionDto.setQuestion(source.getQuestion());
+			questionDto.setChoice1(source.getChoice1());
+			questionDto.setChoice2(source.getChoice2());
+			questionDto.setChoice3(source.getChoice3());
+			questionDto.setChoice4(source.getChoice4());
+			questionDto.setAnswerList(Collections.unmodifiableList(Arrays.asList(source.getChoice1(),
+					source.getChoice2(), source.getChoice3(), source.getChoice4())));
+			list.add(questionDto);
+		}
+		this.questionDtoList = Collections.unmodifiableList(list);
+	}
+
+	/**
+	 * 問題DTOリストの取得<br>
+	 * 共有の問題DTOを変更されないよう、複製したリストを返す
+	 *
+	 * @return 問題DTOリスト(回答リスト設定済み・正答なし)
+	 */
+	public List<QuestionDto> getQuestionDtoList() {
+		List<QuestionDto> list = new ArrayList<>(questionCount);
+		for (QuestionDto source : questionDtoList) {
+			QuestionDto questionDto = new QuestionDto();
+			questionDto.setQuestionId(source.getQuestionId());
+			questionDto.setGenreDetailName(source.getGenreDetailName());
+			questionDto.setQuestion(source.getQuestion());
+			questionDto.setChoice1(source.getChoice1());
+			questionDto.setChoice2(source.getChoice2());
+			questionDto.setChoice3(source.getChoice3());
+			questionDto.setChoice4(source.getChoice4());
+			questionDto.setAnswerList(source.getAnswerList());
+			list.add(questionDto);
+		}
+		return list;
+	}
+
+	/**
+	 * 問題文の取得
+	 *
+	 * @param index 問題の順番(0始まり)
+	 * @return 問題文
+	 */
+	public String getQuestion(int index) {
+		return questionDtoList.get(index).getQuestion();
+	}
+
+	/**
+	 * 問題IDの取得
+	 *
+	 * @param index 問題の順番(0始まり)
+	 * @return 問題ID
+	 */
+	public int getQuestionId(int index) {
+		return questionIds[index];
+	}
+
+	/**
+	 * 正答番号の取得
+	 *
+	 * @param index 問題の順番(0始まり)
+	 * @return 正答番号
+	 */
+	public short getAnswerNum(int index) {
+		return answerKey[index];
+	}
+
+	/**
+	 * ジャンル詳細IDの取得
+	 *
+	 * @param index 問題の順番(0始まり)
+	 * @return ジャンル詳細ID(未設定は0)
+	 */
+	public int getGenreDetailId(int index) {
+		return genreDetailIds[index];
+	}
+
+	/**
+	 * 解説の取得
+	 *
+	 * @param index 問題の順番(0始まり)
+	 * @return 解説
+	 */
+	public String getExplain(int index) {
+		return explains[index];
+	}
+
+	/**
+	 * 採点
+	 *
+	 * @param answerArray 回答
+	 * @return 得点
+	 */
+	public short score(Short[] answerArray) {
+		short score = 0;
+		for (int i = 0; answerArray != null && i < answerArray.length && i < questionCount; i++) {
+			if (answerArray[i] != null && answerArray[i] == answerKey[i]) {
+				score++;
+			}
+		}
+		return score;
+	}
+
+}
@@ -16,6 +16,8 @@ public class ExamResultDetailDto {
 	private Integer examResultId;
 	/** 試験・セクション紐付けID */
 	private Integer examSectionId;
+	/** 試験ID */
+	private Integer examId;
 	/** 試験名 */
 	private String examName;
 	/** 得点 */
@@ -26,7 +26,7 @@ public class ExamResultDto {
 	private Short score;
 	/** 問題数 */
 	private Integer numOfQuestion;
-	/** 点数 */
-	private double point;
+	/** 点数(問題数が不明な場合null) */
+	private Double point;
 
 }
@@ -0,0 +1,18 @@
+package jp.co.sss.lms.dto;
+
+import lombok.Data;
+
+/**
+ * 得点別件数DTO
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class ExamScoreCountDto {
+
+	/** 得点 */
+	private Short score;
+	/** 件数 */
+	private Long count;
+
+}
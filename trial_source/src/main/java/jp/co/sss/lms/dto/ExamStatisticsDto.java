@@ -0,0 +1,34 @@
+package jp.co.sss.lms.dto;
+
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * 試験統計DTO
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class ExamStatisticsDto {
+
+	/** 試験・セクション紐づけID */
+	private Integer examSectionId;
+	/** 試験ID */
+	private Integer examId;
+	/** 問題数 */
+	private Integer numOfQuestion;
+	/** 受験者数(採点対象の試験結果件数) */
+	private Long attemptCount;
+	/** 得点の合計 */
+	private Long scoreSum;
+	/** 得点の2乗の合計 */
+	private Long scoreSquareSum;
+	/** 平均点(正答数) */
+	private Double average;
+	/** 標準偏差(正答数) */
+	private Double standardDeviation;
+	/** 得点ごとの件数(添字：得点) */
+	private List<Long> histogram;
+
+}
@@ -0,0 +1,20 @@
+package jp.co.sss.lms.dto;
+
+import lombok.Data;
+
+/**
+ * 試験統計構築用DTO
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class ExamStatisticsSourceDto {
+
+	/** 試験結果ID */
+	private Integer examResultId;
+	/** 試験・セクション紐づけID */
+	private Integer examSectionId;
+	/** 得点 */
+	private Short score;
+
+}
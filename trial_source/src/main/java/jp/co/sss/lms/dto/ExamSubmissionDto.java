@@ -0,0 +1,41 @@
+package jp.co.sss.lms.dto;
+
+import java.util.Date;
+
+import lombok.Data;
+
+/**
+ * 試験回答送信DTO<br>
+ * 遅延書込みのジャーナルに1行ずつJSON形式で記録する。
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class ExamSubmissionDto {
+
+	/** 試験結果ID(採番済み) */
+	private Integer examResultId;
+	/** 試験ID */
+	private Integer examId;
+	/** 試験・セクション紐づけID */
+	private Integer examSectionId;
+	/** LMSユーザーID */
+	private Integer lmsUserId;
+	/** ユーザー名 */
+	private String userName;
+	/** アカウントID */
+	private Integer accountId;
+	/** 得点 */
+	private Short score;
+	/** 経過時間 */
+	private Integer time;
+	/** 回答 */
+	private Short[] answer;
+	/** 問題ID(採点した試験問題セットの出題順) */
+	private Integer[] questionIdArray;
+	/** 採点した試験問題セットのバージョン */
+	private String questionSetVersion;
+	/** 送信日時 */
+	private Date submitDate;
+
+}
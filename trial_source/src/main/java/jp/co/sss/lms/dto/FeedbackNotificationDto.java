@@ -0,0 +1,26 @@
+package jp.co.sss.lms.dto;
+
+import java.util.Date;
+
+import lombok.Data;
+
+/**
+ * フィードバック通知DTO
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class FeedbackNotificationDto {
+
+	/** 日報フィードバックコメントID */
+	private Integer dailyReportFbId;
+	/** 日報提出ID */
+	private Integer dailyReportSubmitId;
+	/** 日報ID */
+	private Integer dailyReportId;
+	/** 日報提出者のLMSユーザーID */
+	private Integer lmsUserId;
+	/** 日付 */
+	private Date date;
+
+}
@@ -0,0 +1,22 @@
+package jp.co.sss.lms.dto;
+
+import lombok.Data;
+
+/**
+ * ジャンル詳細DTO
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class GenreDetailDto {
+
+	/** ジャンルID */
+	private Integer genreId;
+	/** ジャンル名 */
+	private String genreName;
+	/** ジャンル詳細ID */
+	private Integer genreDetailId;
+	/** ジャンル詳細名 */
+	private String genreDetailName;
+
+}
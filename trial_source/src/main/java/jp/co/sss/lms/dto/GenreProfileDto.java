@@ -0,0 +1,24 @@
+package jp.co.sss.lms.dto;
+
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * ジャンル別苦手傾向DTO
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class GenreProfileDto {
+
+	/** LMSユーザーID */
+	private Integer lmsUserId;
+	/** コースID */
+	private Integer courseId;
+	/** 受講生の苦手ジャンルリスト(正答率の低い順) */
+	private List<GenreWeaknessDto> userWeaknessList;
+	/** コース全体の苦手ジャンルリスト(正答率の低い順) */
+	private List<GenreWeaknessDto> courseWeaknessList;
+
+}
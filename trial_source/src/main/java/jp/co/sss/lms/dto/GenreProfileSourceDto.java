@@ -0,0 +1,26 @@
+package jp.co.sss.lms.dto;
+
+import lombok.Data;
+
+/**
+ * ジャンル別正答状況構築用DTO
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class GenreProfileSourceDto {
+
+	/** 試験結果ID */
+	private Integer examResultId;
+	/** LMSユーザーID */
+	private Integer lmsUserId;
+	/** アカウントID */
+	private Integer accountId;
+	/** コースID */
+	private Integer courseId;
+	/** ジャンル詳細ID */
+	private Integer genreDetailId;
+	/** 正答フラグ */
+	private Short correctFlg;
+
+}
@@ -0,0 +1,28 @@
+package jp.co.sss.lms.dto;
+
+import lombok.Data;
+
+/**
+ * ジャンル別正答状況DTO
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class GenreWeaknessDto {
+
+	/** ジャンルID */
+	private Integer genreId;
+	/** ジャンル名 */
+	private String genreName;
+	/** ジャンル詳細ID */
+	private Integer genreDetailId;
+	/** ジャンル詳細名 */
+	private String genreDetailName;
+	/** 正答数 */
+	private Long correctCount;
+	/** 回答数 */
+	private Long totalCount;
+	/** 正答率 */
+	private Double correctRate;
+
+}
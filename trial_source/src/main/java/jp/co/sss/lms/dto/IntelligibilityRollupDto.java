@@ -0,0 +1,35 @@
+package jp.co.sss.lms.dto;
+
+import java.util.Date;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * 理解度集計DTO
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class IntelligibilityRollupDto {
+
+	/** コースID */
+	private Integer courseId;
+	/** LMSユーザーID */
+	private Integer lmsUserId;
+	/** 日付 */
+	private Date date;
+	/** 項目番号 */
+	private Integer fieldNum;
+	/** 項目名 */
+	private String fieldName;
+	/** 件数 */
+	private Long count;
+	/** 合計 */
+	private Long sum;
+	/** 平均 */
+	private Double average;
+	/** 理解度ごとの件数(添字：理解度) */
+	private List<Long> histogram;
+
+}
@@ -0,0 +1,35 @@
+package jp.co.sss.lms.dto;
+
+import java.util.Date;
+
+import lombok.Data;
+
+/**
+ * 理解度集計構築用DTO<br>
+ * 理解度が登録されていない提出は項目番号をnullとする
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class IntelligibilitySourceDto {
+
+	/** 日報提出ID */
+	private Integer dailyReportSubmitId;
+	/** LMSユーザーID */
+	private Integer lmsUserId;
+	/** 企業アカウントID */
+	private Integer accountId;
+	/** コースID */
+	private Integer courseId;
+	/** 日付 */
+	private Date date;
+	/** 日報提出の最終更新日時 */
+	private Date lastModifiedDate;
+	/** 項目番号 */
+	private Integer fieldNum;
+	/** 項目名 */
+	private String fieldName;
+	/** 理解度 */
+	private Short fieldValue;
+
+}
@@ -0,0 +1,47 @@
+package jp.co.sss.lms.dto;
+
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * 項目分析DTO<br>
+ * 試験の問題ごとの正答率・識別力・選択肢ごとの回答数を保持する。
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class ItemAnalysisDto {
+
+	/** 試験ID */
+	private Integer examId;
+	/** 問題番号(1始まり) */
+	private Integer questionNum;
+	/** 問題ID */
+	private Integer questionId;
+	/** 問題 */
+	private String question;
+	/** 正答番号 */
+	private Short answerNum;
+	/** 受験者数 */
+	private Long attemptCount;
+	/** 正答者数 */
+	private Long correctCount;
+	/** 正答率(困難度) */
+	private Double difficulty;
+	/** 識別指数(上位群と下位群の正答率の差) */
+	private Double discrimination;
+	/** 点双列相関係数 */
+	private Double pointBiserial;
+	/** 選択肢ごとの回答数(添字：選択肢番号、0は無回答) */
+	private List<Long> choiceCountList;
+	/** 易しすぎる問題 */
+	private boolean tooEasy;
+	/** 難しすぎる問題 */
+	private boolean tooHard;
+	/** 識別力が低い問題 */
+	private boolean lowDiscrimination;
+	/** 識別指数が負の問題(正答の誤り等の可能性) */
+	private boolean negativeDiscrimination;
+
+}
@@ -0,0 +1,20 @@
+package jp.co.sss.lms.dto;
+
+import lombok.Data;
+
+/**
+ * 項目分析構築用DTO
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class ItemAnalysisSourceDto {
+
+	/** 試験結果ID */
+	private Integer examResultId;
+	/** 問題ID */
+	private Integer questionId;
+	/** 回答 */
+	private Short reply;
+
+}
@@ -16,6 +16,8 @@ public class LmsUserDto {
 	private UserDetailDto userDetailDto;
 	/** 試験結果DTOリスト */
 	private List<ExamResultDto> examResultDtoList;
+	/** ジャンル別苦手傾向DTO */
+	private GenreProfileDto genreProfileDto;
 	/** 成果物詳細DTOリスト */
 	private List<DeliverablesResultDto> deliverablesResultDtoList;
 	/** レポートDTOリスト */
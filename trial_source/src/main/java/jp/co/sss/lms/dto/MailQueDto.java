@@ -0,0 +1,35 @@
+package jp.co.sss.lms.dto;
+
+import java.util.Date;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * メール送信キューDTO
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class MailQueDto {
+
+	/** メール送信キューID */
+	private Integer mailQueId;
+	/** メールアドレスTo */
+	private String mailAddressTo;
+	/** メールアドレスCC */
+	private String mailAddressCc;
+	/** メールアドレスBCC */
+	private String mailAddressBcc;
+	/** 件名 */
+	private String subject;
+	/** 本文 */
+	private String body;
+	/** 再送回数 */
+	private Integer retryCount;
+	/** 初回作成日時 */
+	private Date firstCreateDate;
+	/** 添付ファイルDTOリスト */
+	private List<MailQueFileDto> fileDtoList;
+
+}
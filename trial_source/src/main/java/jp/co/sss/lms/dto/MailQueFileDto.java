@@ -0,0 +1,20 @@
+package jp.co.sss.lms.dto;
+
+import lombok.Data;
+
+/**
+ * メール送信キュー添付ファイルDTO
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class MailQueFileDto {
+
+	/** ファイルID */
+	private Integer fileId;
+	/** ファイル名 */
+	private String fileName;
+	/** ファイルパス */
+	private String filePath;
+
+}
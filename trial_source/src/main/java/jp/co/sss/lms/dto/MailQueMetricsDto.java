@@ -0,0 +1,28 @@
+package jp.co.sss.lms.dto;
+
+import java.util.Date;
+
+import lombok.Data;
+
+/**
+ * メール送信キュー状況DTO
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class MailQueMetricsDto {
+
+	/** 未送信・送信中の件数 */
+	private Integer queueDepth;
+	/** 送信中の件数 */
+	private Integer sendingCount;
+	/** 最も古い未送信・送信中のメールの作成日時 */
+	private Date oldestCreateDate;
+	/** 最も古い未送信・送信中のメールの経過秒数 */
+	private Long oldestAgeSecond;
+	/** 直近の1秒あたりの送信数(このノード) */
+	private Double sendsPerSecond;
+	/** 送信スレッド数(このノード) */
+	private Integer workerCount;
+
+}
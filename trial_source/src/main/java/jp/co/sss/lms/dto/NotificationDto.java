@@ -0,0 +1,21 @@
+package jp.co.sss.lms.dto;
+
+import lombok.Data;
+
+/**
+ * 通知DTO<br>
+ * アプリケーション内のイベントとして発行し、通知サービスが接続中のユーザへ配信する
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class NotificationDto {
+
+	/** 通知先LMSユーザーID(全員に通知する場合null) */
+	private Integer lmsUserId;
+	/** イベント名 */
+	private String name;
+	/** 通知内容(JSON形式で配信する) */
+	private Object data;
+
+}
@@ -0,0 +1,18 @@
+package jp.co.sss.lms.dto;
+
+import lombok.Data;
+
+/**
+ * 出力ファイルDTO
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class OutputFileDto {
+
+	/** ファイル名 */
+	private String fileName;
+	/** ファイル内容 */
+	private byte[] content;
+
+}
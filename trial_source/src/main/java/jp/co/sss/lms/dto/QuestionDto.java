@@ -14,6 +14,8 @@ public class QuestionDto {
 
 	/** 問題ID */
 	private Integer questionId;
+	/** ジャンル詳細ID */
+	private Integer genreDetailId;
 	/** ジャンル詳細 */
 	private String genreDetailName;
 	/** 問題 */
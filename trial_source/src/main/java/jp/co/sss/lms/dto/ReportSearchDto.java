@@ -0,0 +1,27 @@
+package jp.co.sss.lms.dto;
+
+import java.util.Date;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * レポート検索結果DTO
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class ReportSearchDto {
+
+	/** 日報提出ID */
+	private Integer dailyReportSubmitId;
+	/** 日報ID */
+	private Integer dailyReportId;
+	/** LMSユーザーID */
+	private Integer lmsUserId;
+	/** 日付 */
+	private Date date;
+	/** 一致した項目番号 */
+	private List<Integer> fieldNumList;
+
+}
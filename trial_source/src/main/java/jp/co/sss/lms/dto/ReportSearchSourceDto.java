@@ -0,0 +1,32 @@
+package jp.co.sss.lms.dto;
+
+import java.util.Date;
+
+import lombok.Data;
+
+/**
+ * レポート検索インデックス構築用DTO
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class ReportSearchSourceDto {
+
+	/** 日報提出ID */
+	private Integer dailyReportSubmitId;
+	/** 日報ID */
+	private Integer dailyReportId;
+	/** LMSユーザーID */
+	private Integer lmsUserId;
+	/** 企業アカウントID */
+	private Integer accountId;
+	/** 日付 */
+	private Date date;
+	/** 最終更新日時 */
+	private Date lastModifiedDate;
+	/** 項目番号 */
+	private Integer fieldNum;
+	/** 内容 */
+	private String content;
+
+}
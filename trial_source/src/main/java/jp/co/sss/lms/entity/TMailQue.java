@@ -24,6 +24,20 @@ public class TMailQue {
 	private String subject;
 	/** 本文 */
 	private String body;
+	/** 送信状態 */
+	private Short sendStatus;
+	/** 再送回数 */
+	private Integer retryCount;
+	/** 次回送信日時 */
+	private Date nextSendDate;
+	/** 送信日時 */
+	private Date sendDate;
+	/** エラーメッセージ */
+	private String errorMessage;
+	/** 送信担当の識別子 */
+	private String claimToken;
+	/** 送信担当の期限 */
+	private Date leaseExpireDate;
 	/** 削除フラグ */
 	private Short deleteFlg;
 	/** 初回作成者 */
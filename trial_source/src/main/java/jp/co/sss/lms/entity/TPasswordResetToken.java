@@ -0,0 +1,34 @@
+package jp.co.sss.lms.entity;
+
+import java.util.Date;
+
+import lombok.Data;
+
+/**
+ * パスワード再設定トークンテーブルエンティティ
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class TPasswordResetToken {
+
+	/** パスワード再設定トークンID */
+	private Integer passwordResetTokenId;
+	/** ユーザーID */
+	private Integer userId;
+	/** トークンのハッシュ値 */
+	private String tokenHash;
+	/** 期限 */
+	private Date timeLimit;
+	/** 使用日時 */
+	private Date usedDate;
+	/** 初回作成者 */
+	private Integer firstCreateUser;
+	/** 初回作成日時 */
+	private Date firstCreateDate;
+	/** 最終更新者 */
+	private Integer lastModifiedUser;
+	/** 最終更新日時 */
+	private Date lastModifiedDate;
+
+}
@@ -211,7 +211,9 @@ public class LoginSessionFilter implements Filter {
 		studentAcessList.add("/lms/faq");
 		studentAcessList.add("/lms/info");
 		studentAcessList.add("/lms/info/json");
+		studentAcessList.add("/lms/notification");
 		studentAcessList.add("/lms/user/detail");
+		studentAcessList.add("/lms/user/genreProfile");
 		studentAcessList.add("/lms/password/changePassword");
 	}
 
@@ -230,10 +232,13 @@ public class LoginSessionFilter implements Filter {
 		teacherAcessList.add("/lms/meeting/download");
 		teacherAcessList.add("/lms/user/list");
 		teacherAcessList.add("/lms/user/detail");
+		teacherAcessList.add("/lms/user/genreProfile");
 		teacherAcessList.add("/lms/password/reissuePassword");
 		teacherAcessList.add("/lms/report/list");
 		teacherAcessList.add("/lms/report/detail");
 		teacherAcessList.add("/lms/report/downloadList");
+		teacherAcessList.add("/lms/report/search");
+		teacherAcessList.add("/lms/report/intelligibility");
 		teacherAcessList.add("/lms/report/regist");
 		teacherAcessList.add("/lms/report/feedback/delete");
 		teacherAcessList.add("/lms/report/feedback/regist");
@@ -245,6 +250,7 @@ public class LoginSessionFilter implements Filter {
 		teacherAcessList.add("/lms/exam/resultDetail");
 		teacherAcessList.add("/lms/exam/resultList");
 		teacherAcessList.add("/lms/exam/deleteResultList");
+		teacherAcessList.add("/lms/exam/analysis");
 		teacherAcessList.add("/lms/attendance/list");
 		teacherAcessList.add("/lms/attendance/detail");
 		teacherAcessList.add("/lms/attendance/bulkRegist");
@@ -264,6 +270,7 @@ public class LoginSessionFilter implements Filter {
 		teacherAcessList.add("/lms/faq");
 		teacherAcessList.add("/lms/info");
 		teacherAcessList.add("/lms/info/json");
+		teacherAcessList.add("/lms/notification");
 		teacherAcessList.add("/lms/user/myAccount");
 		teacherAcessList.add("/lms/password/changePassword");
 	}
@@ -277,6 +284,7 @@ public class LoginSessionFilter implements Filter {
 		companyAcessList.add("/lms/user/list/student");
 		companyAcessList.add("/lms/student/update");
 		companyAcessList.add("/lms/user/detail");
+		companyAcessList.add("/lms/user/genreProfile");
 		companyAcessList.add("/lms/report/list");
 		companyAcessList.add("/lms/report/detail");
 		companyAcessList.add("/lms/report/feedback/delete");
@@ -307,6 +315,7 @@ public class LoginSessionFilter implements Filter {
 		companyAcessList.add("/lms/help");
 		companyAcessList.add("/lms/info");
 		companyAcessList.add("/lms/info/json");
+		companyAcessList.add("/lms/notification");
 		companyAcessList.add("/lms/user/myAccount");
 		companyAcessList.add("/lms/password/changePassword");
 	}
@@ -319,6 +328,7 @@ public class LoginSessionFilter implements Filter {
 		adminAcessList.add("/lms/illegal");
 		adminAcessList.add("/lms/password/changePassword");
 		adminAcessList.add("/lms/contract/history/list");
+		adminAcessList.add("/lms/mail/metrics");
 	}
 
 	// 育成担当者権限のアクセス可能URL
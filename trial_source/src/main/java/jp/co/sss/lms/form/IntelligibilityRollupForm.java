@@ -0,0 +1,22 @@
+package jp.co.sss.lms.form;
+
+import lombok.Data;
+
+/**
+ * 理解度集計フォーム
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class IntelligibilityRollupForm {
+
+	/** コースID */
+	private Integer courseId;
+	/** LMSユーザーID */
+	private Integer lmsUserId;
+	/** 日付From(yyyy/M/d) */
+	private String dateFrom;
+	/** 日付To(yyyy/M/d) */
+	private String dateTo;
+
+}
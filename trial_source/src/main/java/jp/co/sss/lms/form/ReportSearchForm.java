@@ -0,0 +1,24 @@
+package jp.co.sss.lms.form;
+
+import lombok.Data;
+
+/**
+ * レポート検索フォーム
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class ReportSearchForm {
+
+	/** キーワード */
+	private String keyword;
+	/** コースID */
+	private Integer courseId;
+	/** LMSユーザーID */
+	private Integer lmsUserId;
+	/** 日付From(yyyy/M/d) */
+	private String dateFrom;
+	/** 日付To(yyyy/M/d) */
+	private String dateTo;
+
+}
@@ -25,11 +25,14 @@ public interface MCourseMapper {
 			@Param("deleteFlg") Short deleteFlg);
 
 	/**
-	 * コース数取得
+	 * コース詳細のバージョン取得<br>
+	 * コース・セクション・カテゴリの最終更新日時とセクション数から生成する
 	 * 
 	 * @param courseId
-	 * @return コース数
+	 * @param deleteFlg
+	 * @return バージョン(コースが存在しない場合null)
 	 */
-	Integer getCourseCount(Integer courseId);
+	String getCourseDetailVersion(@Param("courseId") Integer courseId,
+			@Param("deleteFlg") Short deleteFlg);
 
 }
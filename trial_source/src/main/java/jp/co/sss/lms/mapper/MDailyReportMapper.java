@@ -0,0 +1,34 @@
+package jp.co.sss.lms.mapper;
+
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import jp.co.sss.lms.dto.DailyReportDto;
+
+/**
+ * 日報マスタマッパー
+ * 
+ * @author 東京ITスクール
+ */
+@Mapper
+public interface MDailyReportMapper {
+
+	/**
+	 * レポート定義取得（日報マスタ・日報詳細マスタ）
+	 * 
+	 * @param dailyReportId
+	 * @return レポートDTO
+	 */
+	DailyReportDto getDailyReportDefinition(@Param("dailyReportId") Integer dailyReportId);
+
+	/**
+	 * レポート定義のバージョン取得（日報マスタ・日報詳細マスタの最終更新日時と項目数）<br>
+	 * 項目数を含めるため、日報詳細マスタの行が削除された場合もバージョンが変わる
+	 * 
+	 * @param dailyReportId
+	 * @return バージョン
+	 */
+	String getDailyReportDefinitionVersion(@Param("dailyReportId") Integer dailyReportId);
+
+}
@@ -1,5 +1,7 @@
 package jp.co.sss.lms.mapper;
 
+import java.util.List;
+
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
@@ -14,13 +16,32 @@ import jp.co.sss.lms.dto.ExamQuestionDto;
 public interface MExamMapper {
 
 	/**
-	 * 試験問題DTO取得
+	 * 試験問題セット取得(正答を含む)
 	 * 
 	 * @param examId
 	 * @param deleteFlg
 	 * @return 試験問題DTO
 	 */
-	ExamQuestionDto getExamQuestion(@Param("examId") Integer examId,
+	ExamQuestionDto getExamQuestionSet(@Param("examId") Integer examId,
 			@Param("deleteFlg") Short deleteFlg);
 
+	/**
+	 * 試験問題セットのバージョン取得<br>
+	 * 試験・試験問題の最終更新日時と問題数から生成する
+	 * 
+	 * @param examId
+	 * @param deleteFlg
+	 * @return バージョン
+	 */
+	String getExamQuestionSetVersion(@Param("examId") Integer examId,
+			@Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * 試験IDリスト取得
+	 * 
+	 * @param deleteFlg
+	 * @return 試験IDリスト
+	 */
+	List<Integer> findExamIdList(@Param("deleteFlg") Short deleteFlg);
+
 }
@@ -0,0 +1,26 @@
+package jp.co.sss.lms.mapper;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import jp.co.sss.lms.dto.GenreDetailDto;
+
+/**
+ * ジャンル詳細マスタマッパー
+ * 
+ * @author 東京ITスクール
+ */
+@Mapper
+public interface MGenreDetailMapper {
+
+	/**
+	 * ジャンル詳細DTOリスト取得(ジャンル名を含む)
+	 * 
+	 * @param deleteFlg
+	 * @return ジャンル詳細DTOリスト
+	 */
+	List<GenreDetailDto> findGenreDetailDtoList(@Param("deleteFlg") Short deleteFlg);
+
+}
@@ -1,10 +1,15 @@
 package jp.co.sss.lms.mapper;
 
 import java.util.Date;
+import java.util.List;
 
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import jp.co.sss.lms.dto.SectionServiceDailyReportDto;
+import jp.co.sss.lms.dto.SectionServiceDeliverablesSectionDto;
+import jp.co.sss.lms.dto.SectionServiceExamDto;
+import jp.co.sss.lms.dto.SectionServiceFileDto;
 import jp.co.sss.lms.dto.SectionServiceSectionDto;
 
 /**
@@ -16,15 +21,66 @@ import jp.co.sss.lms.dto.SectionServiceSectionDto;
 public interface MSectionMapper {
 
 	/**
-	 * セクションサービスDTO取得
+	 * セクションサービスDTO取得(セクションの基本情報のみ)
 	 * 
 	 * @param sectionId
 	 * @param accountId
-	 * @param lmsUserId
 	 * @param deleteFlg
 	 * @return セクションサービスDTO
 	 */
-	SectionServiceSectionDto getSectionDetail(@Param("sectionId") Integer sectionId,
+	SectionServiceSectionDto getSectionServiceSectionDto(@Param("sectionId") Integer sectionId,
+			@Param("accountId") Integer accountId, @Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * セクション定義のバージョン取得<br>
+	 * セクション・ファイル・試験・成果物の最終更新日時と件数から生成する
+	 * 
+	 * @param sectionId
+	 * @param accountId
+	 * @param deleteFlg
+	 * @return バージョン(存在しない場合null)
+	 */
+	String getSectionDefinitionVersion(@Param("sectionId") Integer sectionId,
+			@Param("accountId") Integer accountId, @Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * セクションサービスファイルDTOリスト取得
+	 * 
+	 * @param sectionId
+	 * @return セクションサービスファイルDTOリスト
+	 */
+	List<SectionServiceFileDto> findSectionServiceFileDtoList(@Param("sectionId") Integer sectionId);
+
+	/**
+	 * セクションサービス試験DTOリスト取得(公開フラグは未設定)
+	 * 
+	 * @param sectionId
+	 * @param deleteFlg
+	 * @return セクションサービス試験DTOリスト
+	 */
+	List<SectionServiceExamDto> findSectionServiceExamDtoList(@Param("sectionId") Integer sectionId,
+			@Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * セクションサービス成果物セクションDTOリスト取得
+	 * 
+	 * @param sectionId
+	 * @param deleteFlg
+	 * @return セクションサービス成果物セクションDTOリスト
+	 */
+	List<SectionServiceDeliverablesSectionDto> findSectionServiceDeliverablesSectionDtoList(
+			@Param("sectionId") Integer sectionId, @Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * コースに紐付く日報と提出状況の取得
+	 * 
+	 * @param sectionId
+	 * @param accountId
+	 * @param lmsUserId
+	 * @param deleteFlg
+	 * @return セクションサービス日報DTOリスト
+	 */
+	List<SectionServiceDailyReportDto> findCourseDailyReportDtoList(@Param("sectionId") Integer sectionId,
 			@Param("accountId") Integer accountId, @Param("lmsUserId") Integer lmsUserId,
 			@Param("deleteFlg") Short deleteFlg);
 
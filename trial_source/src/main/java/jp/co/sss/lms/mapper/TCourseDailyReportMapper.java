@@ -1,12 +1,10 @@
 package jp.co.sss.lms.mapper;
 
-import java.util.Date;
+import java.util.List;
 
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
-import jp.co.sss.lms.dto.DailyReportDto;
-
 /**
  * コース・日報紐付けテーブルマッパー
  * 
@@ -16,19 +14,14 @@ import jp.co.sss.lms.dto.DailyReportDto;
 public interface TCourseDailyReportMapper {
 
 	/**
-	 * レポートDTO取得
+	 * 日報IDリスト取得（コースID）
 	 * 
-	 * @param dailyReportId
 	 * @param courseId
 	 * @param accountId
-	 * @param lmsUserId
 	 * @param deleteFlg
-	 * @param date
-	 * @return レポートDTO
+	 * @return 日報IDリスト
 	 */
-	DailyReportDto getDailyReportDto(@Param("dailyReportId") Integer dailyReportId,
-			@Param("courseId") Integer courseId, @Param("accountId") Integer accountId,
-			@Param("lmsUserId") Integer lmsUserId, @Param("deleteFlg") Short deleteFlg,
-			@Param("date") Date date);
+	List<Integer> findDailyReportIdList(@Param("courseId") Integer courseId,
+			@Param("accountId") Integer accountId, @Param("deleteFlg") Short deleteFlg);
 
 }
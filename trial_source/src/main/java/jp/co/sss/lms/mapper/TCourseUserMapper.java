@@ -0,0 +1,39 @@
+package jp.co.sss.lms.mapper;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * コース・ユーザー紐付けテーブルマッパー
+ * 
+ * @author 東京ITスクール
+ */
+@Mapper
+public interface TCourseUserMapper {
+
+	/**
+	 * LMSユーザーIDリスト取得（コースID）
+	 * 
+	 * @param courseId
+	 * @param accountId
+	 * @param deleteFlg
+	 * @return LMSユーザーIDリスト
+	 */
+	List<Integer> findLmsUserIdList(@Param("courseId") Integer courseId,
+			@Param("accountId") Integer accountId, @Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * 現在のコースID取得（LMSユーザーID）<br>
+	 * 複数のコースに所属している場合は開講中のコース、開講中のコースがない場合は開講日時が最も新しいコースを返す
+	 * 
+	 * @param lmsUserId
+	 * @param accountId
+	 * @param deleteFlg
+	 * @return コースID
+	 */
+	Integer findCourseId(@Param("lmsUserId") Integer lmsUserId, @Param("accountId") Integer accountId,
+			@Param("deleteFlg") Short deleteFlg);
+
+}
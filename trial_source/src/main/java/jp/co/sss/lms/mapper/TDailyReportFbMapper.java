@@ -0,0 +1,49 @@
+package jp.co.sss.lms.mapper;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import jp.co.sss.lms.dto.DailyReportFbDto;
+import jp.co.sss.lms.dto.FeedbackNotificationDto;
+
+/**
+ * 日報フィードバックコメントテーブルマッパー
+ * 
+ * @author 東京ITスクール
+ */
+@Mapper
+public interface TDailyReportFbMapper {
+
+	/**
+	 * レポートフィードバックDTOリスト取得（日報提出ID）
+	 * 
+	 * @param dailyReportSubmitId
+	 * @param deleteFlg
+	 * @return レポートフィードバックDTOリスト
+	 */
+	List<DailyReportFbDto> getDailyReportFbDtoList(
+			@Param("dailyReportSubmitId") Integer dailyReportSubmitId,
+			@Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * 日報フィードバックコメントIDの最大値取得
+	 * 
+	 * @return 日報フィードバックコメントIDの最大値(存在しない場合0)
+	 */
+	Integer getMaxDailyReportFbId();
+
+	/**
+	 * フィードバック通知DTOリスト取得（指定したIDより後に登録されたフィードバック）
+	 * 
+	 * @param dailyReportFbId
+	 * @param deleteFlg
+	 * @param limit
+	 * @return フィードバック通知DTOリスト
+	 */
+	List<FeedbackNotificationDto> findFeedbackNotificationDtoList(
+			@Param("dailyReportFbId") Integer dailyReportFbId,
+			@Param("deleteFlg") Short deleteFlg, @Param("limit") Integer limit);
+
+}
@@ -1,8 +1,13 @@
 package jp.co.sss.lms.mapper;
 
+import java.util.List;
+
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
+import jp.co.sss.lms.dto.DailyReportDetailDto;
+import jp.co.sss.lms.dto.ReportSearchSourceDto;
 import jp.co.sss.lms.entity.TDailyReportSubmitDetail;
 
 /**
@@ -14,28 +19,61 @@ import jp.co.sss.lms.entity.TDailyReportSubmitDetail;
 public interface TDailyReportSubmitDetailMapper {
 
 	/**
-	 * 日報提出詳細件数取得（日報提出ＩＤ）
+	 * 日報提出詳細取得（日報提出ＩＤ）
 	 * 
 	 * @param dailyReportSubmitId
-	 * @return 件数
+	 * @return 日報提出詳細エンティティリスト
 	 */
-	Integer getCountByDailyReportSubmitId(
+	List<TDailyReportSubmitDetail> findByDailyReportSubmitId(
 			@Param("dailyReportSubmitId") Integer dailyReportSubmitId);
 
 	/**
-	 * 日報提出詳細削除
+	 * レポート詳細DTOリスト取得（出力位置付き）
+	 * 
+	 * @param dailyReportSubmitId
+	 * @param dailyReportId
+	 * @param deleteFlg
+	 * @return レポート詳細DTOリスト
+	 */
+	List<DailyReportDetailDto> getDailyReportDetailDtoList(
+			@Param("dailyReportSubmitId") Integer dailyReportSubmitId,
+			@Param("dailyReportId") Integer dailyReportId, @Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * レポート検索インデックス構築用DTO取得<br>
+	 * 全件を日報提出ID・項目番号の順に1件ずつ処理する
+	 * 
+	 * @param deleteFlg
+	 * @param resultHandler
+	 */
+	void findReportSearchSource(@Param("deleteFlg") Short deleteFlg,
+			ResultHandler<ReportSearchSourceDto> resultHandler);
+
+	/**
+	 * 日報提出詳細削除（指定項目番号より後ろの項目）
 	 * 
 	 * @param dailyReportSubmitId
+	 * @param fieldNum
 	 * @return 削除結果
 	 */
-	Boolean delete(@Param("dailyReportSubmitId") Integer dailyReportSubmitId);
+	Boolean deleteOverFieldNum(@Param("dailyReportSubmitId") Integer dailyReportSubmitId,
+			@Param("fieldNum") Integer fieldNum);
 
 	/**
-	 * 日報提出詳細登録
+	 * 日報提出詳細一括登録
 	 * 
-	 * @param tDailyReportSubmitDetail
+	 * @param tDailyReportSubmitDetailList
 	 * @return 登録結果
 	 */
-	Boolean insert(TDailyReportSubmitDetail tDailyReportSubmitDetail);
+	Boolean insertBulk(
+			@Param("tDailyReportSubmitDetailList") List<TDailyReportSubmitDetail> tDailyReportSubmitDetailList);
+
+	/**
+	 * 日報提出詳細更新
+	 * 
+	 * @param tDailyReportSubmitDetail
+	 * @return 更新結果
+	 */
+	Boolean update(TDailyReportSubmitDetail tDailyReportSubmitDetail);
 
 }
@@ -1,5 +1,6 @@
 package jp.co.sss.lms.mapper;
 
+import java.util.Date;
 import java.util.List;
 
 import org.apache.ibatis.annotations.Mapper;
@@ -7,6 +8,7 @@ import org.apache.ibatis.annotations.Param;
 
 import jp.co.sss.lms.dto.DailyReportDownloadDto;
 import jp.co.sss.lms.dto.DailyReportDto;
+import jp.co.sss.lms.dto.DailyReportVersionDto;
 import jp.co.sss.lms.entity.TDailyReportSubmit;
 
 /**
@@ -55,6 +57,18 @@ public interface TDailyReportSubmitMapper {
 			@Param("dailyReportSubmitId") Integer dailyReportSubmitId,
 			@Param("dailyReportId") Integer dailyReportId, @Param("deleteFlg") Short deleteFlg);
 
+	/**
+	 * レポートバージョンDTO取得
+	 * 
+	 * @param dailyReportSubmitId
+	 * @param dailyReportId
+	 * @param deleteFlg
+	 * @return レポートバージョンDTO
+	 */
+	DailyReportVersionDto getDailyReportVersionDto(
+			@Param("dailyReportSubmitId") Integer dailyReportSubmitId,
+			@Param("dailyReportId") Integer dailyReportId, @Param("deleteFlg") Short deleteFlg);
+
 	/**
 	 * レポートDTO取得
 	 * 
@@ -65,4 +79,17 @@ public interface TDailyReportSubmitMapper {
 	DailyReportDto getDailyReportDto(@Param("dailyReportSubmitId") Integer dailyReportSubmitId,
 			@Param("deleteFlg") Short deleteFlg);
 
+	/**
+	 * 提出済みレポートDTO取得（提出内容のみ）
+	 * 
+	 * @param dailyReportId
+	 * @param lmsUserId
+	 * @param date
+	 * @param deleteFlg
+	 * @return レポートDTOリスト
+	 */
+	List<DailyReportDto> getSubmittedDailyReportDto(@Param("dailyReportId") Integer dailyReportId,
+			@Param("lmsUserId") Integer lmsUserId, @Param("date") Date date,
+			@Param("deleteFlg") Short deleteFlg);
+
 }
@@ -1,7 +1,13 @@
 package jp.co.sss.lms.mapper;
 
+import java.util.List;
+
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
+import jp.co.sss.lms.dto.GenreProfileSourceDto;
+import jp.co.sss.lms.dto.ItemAnalysisSourceDto;
 import jp.co.sss.lms.entity.TExamResultDetail;
 
 /**
@@ -12,6 +18,27 @@ import jp.co.sss.lms.entity.TExamResultDetail;
 @Mapper
 public interface TExamResultDetailMapper {
 
+	/**
+	 * 項目分析構築用DTO取得<br>
+	 * 試験の採点対象の試験結果詳細を試験結果IDの順に1件ずつ処理する
+	 * 
+	 * @param examId
+	 * @param deleteFlg
+	 * @param resultHandler
+	 */
+	void findItemAnalysisSource(@Param("examId") Integer examId,
+			@Param("deleteFlg") Short deleteFlg, ResultHandler<ItemAnalysisSourceDto> resultHandler);
+
+	/**
+	 * ジャンル別正答状況構築用DTO取得<br>
+	 * 採点対象の試験結果詳細を試験結果IDの順に1件ずつ処理する
+	 * 
+	 * @param deleteFlg
+	 * @param resultHandler
+	 */
+	void findGenreProfileSource(@Param("deleteFlg") Short deleteFlg,
+			ResultHandler<GenreProfileSourceDto> resultHandler);
+
 	/**
 	 * 試験結果詳細登録
 	 * 
@@ -20,4 +47,13 @@ public interface TExamResultDetailMapper {
 	 */
 	Boolean insert(TExamResultDetail tExamResultDetail);
 
+	/**
+	 * 試験結果詳細一括登録
+	 * 
+	 * @param tExamResultDetailList
+	 * @return 登録結果
+	 */
+	Boolean insertBulk(
+			@Param("tExamResultDetailList") List<TExamResultDetail> tExamResultDetailList);
+
 }
@@ -4,10 +4,13 @@ import java.util.List;
 
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
 import jp.co.sss.lms.dto.ExamDetailDto;
 import jp.co.sss.lms.dto.ExamResultDetailDto;
 import jp.co.sss.lms.dto.ExamResultDto;
+import jp.co.sss.lms.dto.ExamScoreCountDto;
+import jp.co.sss.lms.dto.ExamStatisticsSourceDto;
 import jp.co.sss.lms.entity.TExamResult;
 
 /**
@@ -51,7 +54,30 @@ public interface TExamResultMapper {
 			@Param("deleteFlg") Short deleteFlg);
 
 	/**
-	 * 試験結果登録
+	 * 試験統計構築用DTO取得<br>
+	 * 採点対象の試験結果を試験結果IDの順に1件ずつ処理する
+	 * 
+	 * @param deleteFlg
+	 * @param resultHandler
+	 */
+	void findExamStatisticsSource(@Param("deleteFlg") Short deleteFlg,
+			ResultHandler<ExamStatisticsSourceDto> resultHandler);
+
+	/**
+	 * 得点別件数取得<br>
+	 * 試験統計の構築前に、採点対象の試験結果を試験・セクション紐づけごとに集計する
+	 * 
+	 * @param examSectionId
+	 * @param deleteFlg
+	 * @return 得点別件数DTOリスト
+	 */
+	List<ExamScoreCountDto> getExamScoreCount(@Param("examSectionId") Integer examSectionId,
+			@Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * 試験結果登録<br>
+	 * 採点フラグは同一試験セクションの登録済み結果の有無から同じSQL内で判定し、
+	 * 採番した試験結果IDとともにエンティティへ設定する
 	 * 
 	 * @param tExamResult
 	 * @return 登録結果
@@ -59,14 +85,30 @@ public interface TExamResultMapper {
 	Boolean insert(TExamResult tExamResult);
 
 	/**
-	 * 試験件数取得
+	 * 試験結果IDの採番<br>
+	 * 試験結果IDのシーケンスから指定件数分をまとめて採番する
 	 * 
-	 * @param examSectionId
-	 * @param lmsUserId
-	 * @param deleteFlg
-	 * @return 件数
+	 * @param count
+	 * @return 試験結果IDリスト
 	 */
-	Integer getExamCount(@Param("examSectionId") Integer examSectionId,
-			@Param("lmsUserId") Integer lmsUserId, @Param("deleteFlg") Short deleteFlg);
+	List<Integer> findNextExamResultIdList(@Param("count") Integer count);
+
+	/**
+	 * 登録済み試験結果IDの取得
+	 * 
+	 * @param examResultIdList
+	 * @return 登録済み試験結果IDリスト
+	 */
+	List<Integer> findExamResultIdList(@Param("examResultIdList") List<Integer> examResultIdList);
+
+	/**
+	 * 試験結果一括登録<br>
+	 * 採番済みの試験結果IDで登録する。採点フラグは登録済み結果と同じリスト内の先行する結果の有無から判定し、
+	 * 各エンティティへ設定する
+	 * 
+	 * @param tExamResultList 試験結果IDの昇順
+	 * @return 登録結果
+	 */
+	Boolean insertBulk(@Param("tExamResultList") List<TExamResult> tExamResultList);
 
 }
@@ -1,8 +1,13 @@
 package jp.co.sss.lms.mapper;
 
+import java.util.List;
+
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
+import jp.co.sss.lms.dto.IntelligibilityDto;
+import jp.co.sss.lms.dto.IntelligibilitySourceDto;
 import jp.co.sss.lms.entity.TIntelligibility;
 
 /**
@@ -14,28 +19,59 @@ import jp.co.sss.lms.entity.TIntelligibility;
 public interface TIntelligibilityMapper {
 
 	/**
-	 * 理解度件数取得（日報提出ID）
+	 * 理解度取得（日報提出ID）
 	 * 
 	 * @param dailyReportSubmitId
-	 * @return 件数
+	 * @return 理解度エンティティリスト
 	 */
-	Integer getCountByDailyReportSubmitId(
+	List<TIntelligibility> findByDailyReportSubmitId(
 			@Param("dailyReportSubmitId") Integer dailyReportSubmitId);
 
 	/**
-	 * 理解度削除
+	 * 理解度DTOリスト取得（日報提出ID）
+	 * 
+	 * @param dailyReportSubmitId
+	 * @param deleteFlg
+	 * @return 理解度DTOリスト
+	 */
+	List<IntelligibilityDto> getIntelligibilityDtoList(
+			@Param("dailyReportSubmitId") Integer dailyReportSubmitId,
+			@Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * 理解度集計構築用DTO取得<br>
+	 * 全件を日報提出ID・項目番号の順に1件ずつ処理する
+	 * 
+	 * @param deleteFlg
+	 * @param resultHandler
+	 */
+	void findIntelligibilitySource(@Param("deleteFlg") Short deleteFlg,
+			ResultHandler<IntelligibilitySourceDto> resultHandler);
+
+	/**
+	 * 理解度削除（指定項目番号より後ろの項目）
 	 * 
 	 * @param dailyReportSubmitId
+	 * @param fieldNum
 	 * @return 削除結果
 	 */
-	Boolean delete(@Param("dailyReportSubmitId") Integer dailyReportSubmitId);
+	Boolean deleteOverFieldNum(@Param("dailyReportSubmitId") Integer dailyReportSubmitId,
+			@Param("fieldNum") Integer fieldNum);
 
 	/**
-	 * 理解度登録
+	 * 理解度一括登録
 	 * 
-	 * @param tIntelligibility
+	 * @param tIntelligibilityList
 	 * @return 登録結果
 	 */
-	Boolean insert(TIntelligibility tIntelligibility);
+	Boolean insertBulk(@Param("tIntelligibilityList") List<TIntelligibility> tIntelligibilityList);
+
+	/**
+	 * 理解度更新
+	 * 
+	 * @param tIntelligibility
+	 * @return 更新結果
+	 */
+	Boolean update(TIntelligibility tIntelligibility);
 
 }
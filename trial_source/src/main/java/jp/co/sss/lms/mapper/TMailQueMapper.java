@@ -1,7 +1,13 @@
 package jp.co.sss.lms.mapper;
 
+import java.util.Date;
+import java.util.List;
+
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 
+import jp.co.sss.lms.dto.MailQueDto;
+import jp.co.sss.lms.dto.MailQueMetricsDto;
 import jp.co.sss.lms.entity.TMailQue;
 
 /**
@@ -20,4 +26,64 @@ public interface TMailQueMapper {
 	 */
 	Boolean insert(TMailQue tMailQue);
 
+	/**
+	 * 送信対象のメール送信キューの確保<br>
+	 * 未送信で送信日時に達したもの・送信担当の期限が切れたものを、他のノードが確保中の行を飛ばして確保する
+	 * 
+	 * @param claimToken
+	 * @param unsentStatus
+	 * @param sendingStatus
+	 * @param deleteFlg
+	 * @param now
+	 * @param leaseExpireDate
+	 * @param limit
+	 * @return 確保件数
+	 */
+	Integer claimSendTarget(@Param("claimToken") String claimToken, @Param("unsentStatus") Short unsentStatus,
+			@Param("sendingStatus") Short sendingStatus, @Param("deleteFlg") Short deleteFlg,
+			@Param("now") Date now, @Param("leaseExpireDate") Date leaseExpireDate, @Param("limit") Integer limit);
+
+	/**
+	 * 確保したメール送信キュー取得（添付ファイルを含む）
+	 * 
+	 * @param claimToken
+	 * @param sendingStatus
+	 * @param deleteFlg
+	 * @return メール送信キューDTOリスト
+	 */
+	List<MailQueDto> findClaimedList(@Param("claimToken") String claimToken,
+			@Param("sendingStatus") Short sendingStatus, @Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * 送信状態の更新<br>
+	 * 送信担当の期限切れにより他で確保し直された場合は更新しない
+	 * 
+	 * @param tMailQue
+	 * @return 更新結果
+	 */
+	Boolean updateSendStatus(TMailQue tMailQue);
+
+	/**
+	 * 確保の解除<br>
+	 * 送信しなかったメールを未送信に戻す
+	 * 
+	 * @param claimToken
+	 * @param unsentStatus
+	 * @param sendingStatus
+	 * @return 解除件数
+	 */
+	Integer releaseClaim(@Param("claimToken") String claimToken, @Param("unsentStatus") Short unsentStatus,
+			@Param("sendingStatus") Short sendingStatus);
+
+	/**
+	 * メール送信キューの状況取得
+	 * 
+	 * @param unsentStatus
+	 * @param sendingStatus
+	 * @param deleteFlg
+	 * @return メール送信キュー状況DTO
+	 */
+	MailQueMetricsDto getQueueMetrics(@Param("unsentStatus") Short unsentStatus,
+			@Param("sendingStatus") Short sendingStatus, @Param("deleteFlg") Short deleteFlg);
+
 }
@@ -0,0 +1,56 @@
+package jp.co.sss.lms.mapper;
+
+import java.util.Date;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import jp.co.sss.lms.entity.TPasswordResetToken;
+
+/**
+ * パスワード再設定トークンテーブルマッパー
+ * 
+ * @author 東京ITスクール
+ */
+@Mapper
+public interface TPasswordResetTokenMapper {
+
+	/**
+	 * パスワード再設定トークン登録
+	 * 
+	 * @param tPasswordResetToken
+	 * @return 登録結果
+	 */
+	Boolean insert(TPasswordResetToken tPasswordResetToken);
+
+	/**
+	 * 有効なパスワード再設定トークン取得（トークンのハッシュ値）
+	 * 
+	 * @param tokenHash
+	 * @param now
+	 * @return パスワード再設定トークンエンティティ
+	 */
+	TPasswordResetToken findValidByTokenHash(@Param("tokenHash") String tokenHash, @Param("now") Date now);
+
+	/**
+	 * ユーザーの有効なパスワード再設定トークンを使用済みにする<br>
+	 * 期限も使用日時にして、期限切れと同様に削除対象とする
+	 * 
+	 * @param userId
+	 * @param now
+	 * @param lastModifiedUser
+	 * @return 更新件数
+	 */
+	Integer updateUsedByUserId(@Param("userId") Integer userId, @Param("now") Date now,
+			@Param("lastModifiedUser") Integer lastModifiedUser);
+
+	/**
+	 * 期限切れ・使用済みのパスワード再設定トークン削除
+	 * 
+	 * @param now
+	 * @param limit
+	 * @return 削除件数
+	 */
+	Integer deleteExpired(@Param("now") Date now, @Param("limit") Integer limit);
+
+}
@@ -1,12 +1,10 @@
 package jp.co.sss.lms.mapper;
 
-import java.util.Date;
 import java.util.List;
 
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
-import jp.co.sss.lms.dto.DailyReportDto;
 import jp.co.sss.lms.dto.SectionServiceDailyReportDto;
 
 /**
@@ -30,19 +28,14 @@ public interface TSectionDailyReportMapper {
 			@Param("deleteFlg") Short deleteFlg);
 
 	/**
-	 * レポートDTO取得
+	 * 日報IDリスト取得（セクションID）
 	 * 
-	 * @param dailyReportId
 	 * @param sectionId
 	 * @param accountId
-	 * @param lmsUserId
 	 * @param deleteFlg
-	 * @param date
-	 * @return レポートDTO
+	 * @return 日報IDリスト
 	 */
-	DailyReportDto getDailyReportDto(@Param("dailyReportId") Integer dailyReportId,
-			@Param("sectionId") Integer sectionId, @Param("accountId") Integer accountId,
-			@Param("lmsUserId") Integer lmsUserId, @Param("deleteFlg") Short deleteFlg,
-			@Param("date") Date date);
+	List<Integer> findDailyReportIdList(@Param("sectionId") Integer sectionId,
+			@Param("accountId") Integer accountId, @Param("deleteFlg") Short deleteFlg);
 
 }
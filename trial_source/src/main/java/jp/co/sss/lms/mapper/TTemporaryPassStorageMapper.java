@@ -1,12 +1,15 @@
 package jp.co.sss.lms.mapper;
 
+import java.util.Date;
+
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
 import jp.co.sss.lms.entity.TTemporaryPassStorage;
 
 /**
- * パスワード変更テーブルマッパー
+ * パスワード変更テーブルマッパー<br>
+ * パスワード再設定トークンへの移行前に発行したリンクの照合のみに使用する
  * 
  * @author 東京ITスクール
  */
@@ -14,47 +17,26 @@ import jp.co.sss.lms.entity.TTemporaryPassStorage;
 public interface TTemporaryPassStorageMapper {
 
 	/**
-	 * パスワード変更取得（ユーザーID）
+	 * 有効なパスワード変更取得（変更キー）
 	 * 
-	 * @param userId
+	 * @param key
+	 * @param now
 	 * @param deleteFlg
 	 * @return パスワード変更エンティティ
 	 */
-	TTemporaryPassStorage findByUserId(@Param("userId") Integer userId,
+	TTemporaryPassStorage findValidByChangeKey(@Param("key") String key, @Param("now") Date now,
 			@Param("deleteFlg") Short deleteFlg);
 
 	/**
-	 * パスワード変更登録
-	 * 
-	 * @param tTemporaryPassStorage
-	 * @return 登録結果
-	 */
-	Boolean insert(TTemporaryPassStorage tTemporaryPassStorage);
-
-	/**
-	 * パスワード変更更新
-	 * 
-	 * @param tTemporaryPassStorage
-	 * @return 更新結果
-	 */
-	Boolean update(TTemporaryPassStorage tTemporaryPassStorage);
-
-	/**
-	 * パスワード変更削除
-	 * 
-	 * @param tTemporaryPassStorage
-	 * @return 更新結果
-	 */
-	Boolean deleteUpdate(TTemporaryPassStorage tTemporaryPassStorage);
-
-	/**
-	 * パスワード変更取得（変更キー）
+	 * パスワード変更削除（ユーザーID）
 	 * 
-	 * @param key
-	 * @param deleteFlg
-	 * @return パスワード変更エンティティ
+	 * @param userId
+	 * @param lastModifiedUser
+	 * @param lastModifiedDate
+	 * @return 更新件数
 	 */
-	TTemporaryPassStorage findByChangeKey(@Param("key") String key,
-			@Param("deleteFlg") Short deleteFlg);
+	Integer deleteUpdateByUserId(@Param("userId") Integer userId,
+			@Param("lastModifiedUser") Integer lastModifiedUser,
+			@Param("lastModifiedDate") Date lastModifiedDate);
 
 }
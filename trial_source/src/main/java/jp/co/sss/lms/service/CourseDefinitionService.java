@@ -0,0 +1,144 @@
+package jp.co.sss.lms.service;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jp.co.sss.lms.dto.CourseServiceCourseDto;
+import jp.co.sss.lms.mapper.MCourseMapper;
+import jp.co.sss.lms.util.Constants;
+
+/**
+ * コース定義サービス<br>
+ * コースごとのコース詳細(セクション・カテゴリの構成)をキャッシュし、同じコースの受講生で共有する。<br>
+ * コース詳細はバージョン(最終更新日時・セクション数)とともに保持し、一定時間(setting.cache.revalidate.second)ごとに
+ * バージョンを確認して変更があった場合のみ再読込みする。コースの存在確認もキャッシュから判定する。
+ * 共有するため取得したコース詳細は変更しない。
+ *
+ * @author 東京ITスクール
+ */
+@Service
+public class CourseDefinitionService {
+
+	@Autowired
+	private MCourseMapper mCourseMapper;
+
+	@Value("${setting.cache.revalidate.second}")
+	private Integer revalidateSecond;
+
+	/* コース詳細(キー：コースID) */
+	private final ConcurrentHashMap<Integer, CacheEntry> courseCache = new ConcurrentHashMap<>();
+	/* コースごとの読込みロック */
+	private final ConcurrentHashMap<Integer, Object> loadLockMap = new ConcurrentHashMap<>();
+
+	/**
+	 * コース詳細取得
+	 *
+	 * @param courseId
+	 * @return コース情報サービス コースDTO(存在しない場合null)
+	 */
+	public CourseServiceCourseDto getCourseDetail(Integer courseId) {
+		return getEntry(courseId).value;
+	}
+
+	/**
+	 * コースの存在確認
+	 *
+	 * @param courseId
+	 * @return 存在する場合true
+	 */
+	public boolean exists(Integer courseId) {
+		return getEntry(courseId).version != null;
+	}
+
+	/**
+	 * コース詳細のバージョン取得
+	 *
+	 * @param courseId
+	 * @return バージョン(存在しない場合null)
+	 */
+	public String getVersion(Integer courseId) {
+		return getEntry(courseId).version;
+	}
+
+	/**
+	 * キャッシュエントリ取得
+	 *
+	 * @param courseId
+	 * @return キャッシュエントリ
+	 */
+	private CacheEntry getEntry(Integer courseId) {
+		if (courseId == null) {
+			return CacheEntry.NOT_FOUND;
+		}
+		long now = System.currentTimeMillis();
+		CacheEntry entry = courseCache.get(courseId);
+		if (entry != null && !entry.isExpired(now, revalidateSecond)) {
+			return entry;
+		}
+
+		// 同じコースの確認・読込みは1スレッドのみ行い、他のスレッドはその結果を使用する
+		synchronized (loadLockMap.computeIfAbsent(courseId, key -> new Object())) {
+			CacheEntry current = courseCache.get(courseId);
+			if (current != null && current != entry) {
+				return current;
+			}
+			return load(courseId, entry, now);
+		}
+	}
+
+	/**
+	 * コース詳細の確認・読込み
+	 *
+	 * @param courseId
+	 * @param entry 現在のキャッシュエントリ
+	 * @param now
+	 * @return キャッシュエントリ
+	 */
+	private CacheEntry load(Integer courseId, CacheEntry entry, long now) {
+		// バージョンが変わっていなければ再読込みしない
+		String version = mCourseMapper.getCourseDetailVersion(courseId, Constants.DB_FLG_FALSE);
+		CacheEntry newEntry;
+		if (version == null) {
+			newEntry = new CacheEntry(null, null, now);
+		} else if (entry != null && Objects.equals(entry.version, version)) {
+			newEntry = new CacheEntry(entry.value, version, now);
+		} else {
+			newEntry = new CacheEntry(mCourseMapper.getCourseDetail(courseId, Constants.DB_FLG_FALSE),
+					version, now);
+		}
+		courseCache.put(courseId, newEntry);
+		return newEntry;
+	}
+
+	/**
+	 * キャッシュエントリ
+	 */
+	private static final class CacheEntry {
+
+		/* 存在しないコース */
+		private static final CacheEntry NOT_FOUND = new CacheEntry(null, null, 0);
+
+		/* コース詳細 */
+		private final CourseServiceCourseDto value;
+		/* バージョン(存在しない場合null) */
+		private final String version;
+		/* 確認日時 */
+		private final long checkedAt;
+
+		CacheEntry(CourseServiceCourseDto value, String version, long checkedAt) {
+			this.value = value;
+			this.version = version;
+			this.checkedAt = checkedAt;
+		}
+
+		boolean isExpired(long now, int revalidateSecond) {
+			return now - checkedAt >= TimeUnit.SECONDS.toMillis(revalidateSecond);
+		}
+	}
+
+}
@@ -1,14 +1,22 @@
 package jp.co.sss.lms.service;
 
+import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import jp.co.sss.lms.dto.CourseServiceCourseDto;
-import jp.co.sss.lms.mapper.MCourseMapper;
+import jp.co.sss.lms.dto.LoginUserDto;
 import jp.co.sss.lms.util.Constants;
 import jp.co.sss.lms.util.LoggingUtil;
 import jp.co.sss.lms.util.MessageUtil;
@@ -22,7 +30,9 @@ import jp.co.sss.lms.util.MessageUtil;
 public class CourseService {
 
 	@Autowired
-	private MCourseMapper mCourseMapper;
+	private CourseDefinitionService courseDefinitionService;
+	@Autowired
+	private LoginUserDto loginUserDto;
 	@Autowired
 	private MessageUtil messageUtil;
 	@Autowired
@@ -30,15 +40,18 @@ public class CourseService {
 
 	private final Logger logger = LoggerFactory.getLogger(getClass());
 
+	/* 起動日時(画面の変更をETagに反映する) */
+	private final long startedAt = System.currentTimeMillis();
+
 	/**
-	 * パラメータチェック
+	 * パラメータチェック<br>
+	 * コースの存在はコース詳細のキャッシュから判定する
 	 * 
 	 * @param courseId
 	 * @return エラーメッセージ
 	 */
 	public String checkCourseId(Integer courseId) {
-		Integer courseCount = mCourseMapper.getCourseCount(courseId);
-		if (courseCount == 0) {
+		if (!courseDefinitionService.exists(courseId)) {
 			String message = messageUtil.getMessage(Constants.VALID_KEY_ALREADYDELETE,
 					new String[] { "コースID " + courseId });
 			StringBuffer sb = new StringBuffer(message);
@@ -58,11 +71,41 @@ public class CourseService {
 	 */
 	public CourseServiceCourseDto getCourseDetail(Integer courseId) throws ParseException {
 
-		CourseServiceCourseDto courseServiceCourseDto = mCourseMapper.getCourseDetail(courseId,
-				Constants.DB_FLG_FALSE);
+		// 同じコースの受講生で共有するキャッシュから取得
+		CourseServiceCourseDto courseServiceCourseDto = courseDefinitionService
+				.getCourseDetail(courseId);
 
 		return courseServiceCourseDto;
 
 	}
 
+	/**
+	 * コース詳細画面の更新確認<br>
+	 * コース詳細のバージョンと画面の表示内容に影響するログインユーザーの情報(ヘッダーの氏名を含む)からETagを生成し、
+	 * クライアントが同じバージョンを保持している場合は304を返す。<br>
+	 * 同じブラウザで別のユーザーがログインした場合もETagが変わるよう、ユーザーIDを含める。
+	 * 
+	 * @param courseId
+	 * @param request
+	 * @param response
+	 * @return 304を返した場合true
+	 */
+	public boolean checkNotModified(Integer courseId, HttpServletRequest request,
+			HttpServletResponse response) {
+
+		String version = courseDefinitionService.getVersion(courseId);
+		if (version == null) {
+			return false;
+		}
+		String key = "course-" + courseId + "-" + version + "-" + loginUserDto.getLmsUserId() + "-"
+				+ loginUserDto.getUserName() + "-" + loginUserDto.getRole() + "-"
+				+ loginUserDto.getFileShareFlg() + "-" + startedAt;
+		String eTag = "\"" + DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8)) + "\"";
+		response.setHeader(HttpHeaders.ETAG, eTag);
+		response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+		// If-None-Matchは複数指定・弱いETag(W/)も比較する(条件付き取得はGETのみ)
+		return HttpMethod.GET.matches(request.getMethod())
+				&& new ServletWebRequest(request, response).checkNotModified(eTag);
+	}
+
 }
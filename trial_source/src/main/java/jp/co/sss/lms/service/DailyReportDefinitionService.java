@@ -0,0 +1,146 @@
+package jp.co.sss.lms.service;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jp.co.sss.lms.dto.DailyReportDefinitionDto;
+import jp.co.sss.lms.dto.DailyReportDto;
+import jp.co.sss.lms.mapper.MDailyReportMapper;
+import jp.co.sss.lms.mapper.TCourseDailyReportMapper;
+import jp.co.sss.lms.mapper.TSectionDailyReportMapper;
+import jp.co.sss.lms.util.Constants;
+
+/**
+ * レポート定義サービス<br>
+ * 日報マスタ・日報詳細マスタの定義と、コース・セクションへの紐付けをキャッシュする。<br>
+ * 定義は最終更新日時と項目数をバージョンとして保持し、一定時間(setting.cache.revalidate.second)ごとに
+ * バージョンを確認して変更があった場合のみ再読込みする。
+ *
+ * @author 東京ITスクール
+ */
+@Service
+public class DailyReportDefinitionService {
+
+	@Autowired
+	private MDailyReportMapper mDailyReportMapper;
+	@Autowired
+	private TCourseDailyReportMapper tCourseDailyReportMapper;
+	@Autowired
+	private TSectionDailyReportMapper tSectionDailyReportMapper;
+
+	@Value("${setting.cache.revalidate.second}")
+	private Integer revalidateSecond;
+
+	/* レポート定義(キー：日報ID) */
+	private final ConcurrentHashMap<Integer, CacheEntry<DailyReportDefinitionDto>> definitionCache = new ConcurrentHashMap<>();
+	/* コースに紐づく日報ID(キー：コースID-企業アカウントID) */
+	private final ConcurrentHashMap<String, CacheEntry<Set<Integer>>> courseDailyReportCache = new ConcurrentHashMap<>();
+	/* セクションに紐づく日報ID(キー：セクションID-企業アカウントID) */
+	private final ConcurrentHashMap<String, CacheEntry<Set<Integer>>> sectionDailyReportCache = new ConcurrentHashMap<>();
+
+	/**
+	 * レポート定義取得
+	 *
+	 * @param dailyReportId
+	 * @return レポート定義DTO(存在しない場合null)
+	 */
+	public DailyReportDefinitionDto getDefinition(Integer dailyReportId) {
+		long now = System.currentTimeMillis();
+		CacheEntry<DailyReportDefinitionDto> entry = definitionCache.get(dailyReportId);
+		if (entry != null && !entry.isExpired(now, revalidateSecond)) {
+			return entry.value;
+		}
+
+		// バージョンが変わっていなければ再読込みしない
+		String version = mDailyReportMapper.getDailyReportDefinitionVersion(dailyReportId);
+		if (entry != null && Objects.equals(entry.value.getVersion(), version)) {
+			definitionCache.put(dailyReportId, new CacheEntry<>(entry.value, now));
+			return entry.value;
+		}
+
+		DailyReportDto dailyReportDto = mDailyReportMapper.getDailyReportDefinition(dailyReportId);
+		if (dailyReportDto == null) {
+			definitionCache.remove(dailyReportId);
+			return null;
+		}
+		DailyReportDefinitionDto definition = new DailyReportDefinitionDto(dailyReportDto, version);
+		definitionCache.put(dailyReportId, new CacheEntry<>(definition, now));
+		return definition;
+	}
+
+	/**
+	 * コースに紐づくレポートか判定
+	 *
+	 * @param dailyReportId
+	 * @param courseId
+	 * @param accountId
+	 * @return 紐づく場合true
+	 */
+	public boolean isCourseDailyReport(Integer dailyReportId, Integer courseId, Integer accountId) {
+		if (courseId == null) {
+			return false;
+		}
+		String key = courseId + "-" + accountId;
+		long now = System.currentTimeMillis();
+		CacheEntry<Set<Integer>> entry = courseDailyReportCache.get(key);
+		if (entry == null || entry.isExpired(now, revalidateSecond)) {
+			List<Integer> dailyReportIdList = tCourseDailyReportMapper.findDailyReportIdList(courseId,
+					accountId, Constants.DB_FLG_FALSE);
+			entry = new CacheEntry<>(Set.copyOf(dailyReportIdList), now);
+			courseDailyReportCache.put(key, entry);
+		}
+		return entry.value.contains(dailyReportId);
+	}
+
+	/**
+	 * セクションに紐づくレポートか判定
+	 *
+	 * @param dailyReportId
+	 * @param sectionId
+	 * @param accountId
+	 * @return 紐づく場合true
+	 */
+	public boolean isSectionDailyReport(Integer dailyReportId, Integer sectionId, Integer accountId) {
+		if (sectionId == null) {
+			return false;
+		}
+		String key = sectionId + "-" + accountId;
+		long now = System.currentTimeMillis();
+		CacheEntry<Set<Integer>> entry = sectionDailyReportCache.get(key);
+		if (entry == null || entry.isExpired(now, revalidateSecond)) {
+			List<Integer> dailyReportIdList = tSectionDailyReportMapper
+					.findDailyReportIdList(sectionId, accountId, Constants.DB_FLG_FALSE);
+			entry = new CacheEntry<>(Set.copyOf(dailyReportIdList), now);
+			sectionDailyReportCache.put(key, entry);
+		}
+		return entry.value.contains(dailyReportId);
+	}
+
+	/**
+	 * キャッシュエントリ
+	 */
+	private static final class CacheEntry<T> {
+
+		/* キャッシュする値 */
+		private final T value;
+		/* 確認日時 */
+		private final long checkedAt;
+
+		CacheEntry(T value, long checkedAt) {
+			this.value = value;
+			this.checkedAt = checkedAt;
+		}
+
+		boolean isExpired(long now, int revalidateSecond) {
+			return now - checkedAt >= TimeUnit.SECONDS.toMillis(revalidateSecond);
+		}
+	}
+
+}
@@ -0,0 +1,120 @@
+package jp.co.sss.lms.service;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jp.co.sss.lms.dto.ExamQuestionDto;
+import jp.co.sss.lms.dto.ExamQuestionSetDto;
+import jp.co.sss.lms.mapper.MExamMapper;
+import jp.co.sss.lms.util.Constants;
+
+/**
+ * 試験定義サービス<br>
+ * 試験ごとの問題セット(問題・選択肢・正答)をキャッシュし、全ユーザーで共有する。<br>
+ * 問題セットはバージョン(最終更新日時・問題数)とともに保持し、一定時間(setting.cache.revalidate.second)ごとに
+ * バージョンを確認して変更があった場合のみ再読込みする。
+ *
+ * @author 東京ITスクール
+ */
+@Service
+public class ExamDefinitionService {
+
+	@Autowired
+	private MExamMapper mExamMapper;
+
+	@Value("${setting.cache.revalidate.second}")
+	private Integer revalidateSecond;
+
+	/* 試験問題セット(キー：試験ID) */
+	private final ConcurrentHashMap<Integer, CacheEntry> questionSetCache = new ConcurrentHashMap<>();
+	/* 試験ごとの読込みロック */
+	private final ConcurrentHashMap<Integer, Object> loadLockMap = new ConcurrentHashMap<>();
+
+	/**
+	 * 試験問題セット取得
+	 *
+	 * @param examId
+	 * @return 試験問題セットDTO(存在しない場合null)
+	 */
+	public ExamQuestionSetDto getExamQuestionSet(Integer examId) {
+		while (true) {
+			long now = System.currentTimeMillis();
+			CacheEntry entry = questionSetCache.get(examId);
+			if (entry != null && !entry.isExpired(now, revalidateSecond)) {
+				return entry.value;
+			}
+
+			// 同じ試験の確認・読込みは1スレッドのみ行い、他のスレッドはその結果を使用する
+			Object loadLock = loadLockMap.computeIfAbsent(examId, key -> new Object());
+			synchronized (loadLock) {
+				if (loadLockMap.get(examId) != loadLock) {
+					// 待機中に読込みが完了してロックが破棄された場合は、キャッシュから取得し直す
+					continue;
+				}
+				try {
+					CacheEntry current = questionSetCache.get(examId);
+					if (current != null && current != entry) {
+						return current.value;
+					}
+					// 待機中にキャッシュが破棄された場合も読込み直す
+					return load(examId, current, now);
+				} finally {
+					loadLockMap.remove(examId, loadLock);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 試験問題セットの確認・読込み
+	 *
+	 * @param examId
+	 * @param entry 現在のキャッシュエントリ
+	 * @param now
+	 * @return 試験問題セットDTO(存在しない場合null)
+	 */
+	private ExamQuestionSetDto load(Integer examId, CacheEntry entry, long now) {
+		// バージョンが変わっていなければ再読込みしない
+		String version = mExamMapper.getExamQuestionSetVersion(examId, Constants.DB_FLG_FALSE);
+		if (entry != null && Objects.equals(entry.value.getVersion(), version)) {
+			questionSetCache.put(examId, new CacheEntry(entry.value, now));
+			return entry.value;
+		}
+
+		ExamQuestionDto examQuestionDto = mExamMapper.getExamQuestionSet(examId,
+				Constants.DB_FLG_FALSE);
+		if (examQuestionDto == null) {
+			questionSetCache.remove(examId);
+			return null;
+		}
+		ExamQuestionSetDto examQuestionSetDto = new ExamQuestionSetDto(examQuestionDto, version);
+		questionSetCache.put(examId, new CacheEntry(examQuestionSetDto, now));
+		return examQuestionSetDto;
+	}
+
+	/**
+	 * キャッシュエントリ
+	 */
+	private static final class CacheEntry {
+
+		/* 試験問題セット */
+		private final ExamQuestionSetDto value;
+		/* 確認日時 */
+		private final long checkedAt;
+
+		CacheEntry(ExamQuestionSetDto value, long checkedAt) {
+			this.value = value;
+			this.checkedAt = checkedAt;
+		}
+
+		boolean isExpired(long now, int revalidateSecond) {
+			return now - checkedAt >= TimeUnit.SECONDS.toMillis(revalidateSecond);
+		}
+	}
+
+}
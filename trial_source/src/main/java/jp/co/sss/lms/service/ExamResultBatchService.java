@@ -0,0 +1,192 @@
+package jp.co.sss.lms.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import jp.co.sss.lms.dto.ExamQuestionSetDto;
+import jp.co.sss.lms.dto.ExamSubmissionDto;
+import jp.co.sss.lms.entity.TExamResult;
+import jp.co.sss.lms.entity.TExamResultDetail;
+import jp.co.sss.lms.mapper.TExamResultDetailMapper;
+import jp.co.sss.lms.mapper.TExamResultMapper;
+import jp.co.sss.lms.util.Constants;
+
+/**
+ * 試験結果一括登録サービス<br>
+ * 遅延書込みのジャーナルのセグメントから取り出した試験回答を、まとめて1トランザクションで登録する。
+ *
+ * @author 東京ITスクール
+ */
+@Service
+public class ExamResultBatchService {
+
+	/** 試験結果詳細の1文あたりの登録件数(バインド変数の上限を超えないよう分割する) */
+	private static final int DETAIL_BULK_SIZE = 1000;
+
+	@Autowired
+	private TExamResultMapper tExamResultMapper;
+	@Autowired
+	private TExamResultDetailMapper tExamResultDetailMapper;
+	@Autowired
+	private ExamDefinitionService examDefinitionService;
+	@Autowired
+	private ExamStatisticsService examStatisticsService;
+	@Autowired
+	private ItemAnalysisService itemAnalysisService;
+	@Autowired
+	private GenreProfileService genreProfileService;
+
+	/**
+	 * 試験結果一括登録<br>
+	 * 全件を1トランザクションで登録し、1文あたりの試験結果の件数は一括登録件数までとする。
+	 * 登録済みの試験結果ID(障害後の再実行分)は除いて登録する。
+	 * 試験結果詳細は送信時に記録した問題IDで登録し、登録時点の試験問題セットは使用しない。
+	 * 問題IDが記録されていない試験回答を含む場合は、一部のみ登録せず例外とする(再試行後に隔離される)。
+	 * 試験統計・項目分析・ジャンル別正答状況へはコミット後に反映する
+	 *
+	 * @param examSubmissionDtoList
+	 * @param bulkSize 一括登録件数
+	 * @return 登録件数
+	 */
+	@Transactional
+	public int insert(List<ExamSubmissionDto> examSubmissionDtoList, int bulkSize) {
+
+		if (examSubmissionDtoList.isEmpty()) {
+			return 0;
+		}
+		for (ExamSubmissionDto examSubmissionDto : examSubmissionDtoList) {
+			if (examSubmissionDto.getQuestionIdArray() == null) {
+				throw new IllegalStateException(
+						"問題IDが記録されていない試験回答です。examResultId=" + examSubmissionDto.getExamResultId());
+			}
+		}
+
+		// 登録済みの試験結果を除く
+		Set<Integer> registeredIdSet = new HashSet<>();
+		List<Integer> examResultIdList = new ArrayList<>(bulkSize);
+		for (ExamSubmissionDto examSubmissionDto : examSubmissionDtoList) {
+			examResultIdList.add(examSubmissionDto.getExamResultId());
+			if (examResultIdList.size() >= bulkSize) {
+				registeredIdSet.addAll(tExamResultMapper.findExamResultIdList(examResultIdList));
+				examResultIdList = new ArrayList<>(bulkSize);
+			}
+		}
+		if (!examResultIdList.isEmpty()) {
+			registeredIdSet.addAll(tExamResultMapper.findExamResultIdList(examResultIdList));
+		}
+		List<ExamSubmissionDto> targetList = new ArrayList<>(examSubmissionDtoList.size());
+		for (ExamSubmissionDto examSubmissionDto : examSubmissionDtoList) {
+			if (!registeredIdSet.contains(examSubmissionDto.getExamResultId())) {
+				targetList.add(examSubmissionDto);
+			}
+		}
+		if (targetList.isEmpty()) {
+			return 0;
+		}
+		// 採点フラグは試験結果IDの昇順で判定する
+		targetList.sort(Comparator.comparing(ExamSubmissionDto::getExamResultId));
+
+		// 試験結果を一括登録
+		List<TExamResult> tExamResultList = new ArrayList<>(targetList.size());
+		for (ExamSubmissionDto examSubmissionDto : targetList) {
+			tExamResultList.add(toTExamResult(examSubmissionDto));
+		}
+		for (int from = 0; from < tExamResultList.size(); from += bulkSize) {
+			tExamResultMapper.insertBulk(
+					tExamResultList.subList(from, Math.min(from + bulkSize, tExamResultList.size())));
+		}
+
+		// 試験結果詳細を一括登録
+		List<TExamResultDetail> tExamResultDetailList = new ArrayList<>(DETAIL_BULK_SIZE);
+		for (ExamSubmissionDto examSubmissionDto : targetList) {
+			Integer[] questionIdArray = examSubmissionDto.getQuestionIdArray();
+			Short[] answerArray = examSubmissionDto.getAnswer();
+			for (int j = 0; j < questionIdArray.length; j++) {
+				Short reply = 0;
+				if (answerArray != null && j < answerArray.length) {
+					reply = answerArray[j];
+				}
+				tExamResultDetailList.add(toTExamResultDetail(examSubmissionDto, questionIdArray[j], reply));
+				if (tExamResultDetailList.size() >= DETAIL_BULK_SIZE) {
+					tExamResultDetailMapper.insertBulk(tExamResultDetailList);
+					tExamResultDetailList = new ArrayList<>(DETAIL_BULK_SIZE);
+				}
+			}
+		}
+		if (!tExamResultDetailList.isEmpty()) {
+			tExamResultDetailMapper.insertBulk(tExamResultDetailList);
+		}
+
+		// 試験統計・項目分析・ジャンル別正答状況に反映
+		// (項目分析・ジャンル別正答状況は採点時と同じバージョンの試験問題セットの場合のみ反映し、異なる場合は試験結果詳細からの再構築で反映する)
+		for (int i = 0; i < targetList.size(); i++) {
+			ExamSubmissionDto examSubmissionDto = targetList.get(i);
+			TExamResult tExamResult = tExamResultList.get(i);
+			examStatisticsService.update(tExamResult);
+			ExamQuestionSetDto examQuestionSetDto = examDefinitionService
+					.getExamQuestionSet(examSubmissionDto.getExamId());
+			if (examQuestionSetDto != null
+					&& examQuestionSetDto.getVersion().equals(examSubmissionDto.getQuestionSetVersion())) {
+				Short[] answerArray = examSubmissionDto.getAnswer();
+				itemAnalysisService.update(tExamResult, examQuestionSetDto, answerArray);
+				genreProfileService.update(tExamResult, examQuestionSetDto, answerArray);
+			}
+		}
+
+		return targetList.size();
+	}
+
+	/**
+	 * 試験結果エンティティの生成
+	 *
+	 * @param examSubmissionDto
+	 * @return 試験結果エンティティ
+	 */
+	private TExamResult toTExamResult(ExamSubmissionDto examSubmissionDto) {
+		TExamResult tExamResult = new TExamResult();
+		tExamResult.setExamResultId(examSubmissionDto.getExamResultId());
+		tExamResult.setExamSectionId(examSubmissionDto.getExamSectionId());
+		tExamResult.setLmsUserId(examSubmissionDto.getLmsUserId());
+		tExamResult.setScore(examSubmissionDto.getScore());
+		tExamResult.setTime(examSubmissionDto.getTime());
+		tExamResult.setAccountId(examSubmissionDto.getAccountId());
+		tExamResult.setDeleteFlg(Constants.DB_FLG_FALSE);
+		tExamResult.setFirstCreateUser(examSubmissionDto.getLmsUserId());
+		tExamResult.setFirstCreateDate(examSubmissionDto.getSubmitDate());
+		tExamResult.setLastModifiedUser(examSubmissionDto.getLmsUserId());
+		tExamResult.setLastModifiedDate(examSubmissionDto.getSubmitDate());
+		return tExamResult;
+	}
+
+	/**
+	 * 試験結果詳細エンティティの生成
+	 *
+	 * @param examSubmissionDto
+	 * @param questionId
+	 * @param reply
+	 * @return 試験結果詳細エンティティ
+	 */
+	private TExamResultDetail toTExamResultDetail(ExamSubmissionDto examSubmissionDto, Integer questionId,
+			Short reply) {
+		TExamResultDetail tExamResultDetail = new TExamResultDetail();
+		tExamResultDetail.setExamResultId(examSubmissionDto.getExamResultId());
+		tExamResultDetail.setLmsUserId(examSubmissionDto.getLmsUserId());
+		tExamResultDetail.setQuestionId(questionId);
+		tExamResultDetail.setReply(reply);
+		tExamResultDetail.setAccountId(examSubmissionDto.getAccountId());
+		tExamResultDetail.setDeleteFlg(Constants.DB_FLG_FALSE);
+		tExamResultDetail.setFirstCreateUser(examSubmissionDto.getLmsUserId());
+		tExamResultDetail.setFirstCreateDate(examSubmissionDto.getSubmitDate());
+		tExamResultDetail.setLastModifiedUser(examSubmissionDto.getLmsUserId());
+		tExamResultDetail.setLastModifiedDate(examSubmissionDto.getSubmitDate());
+		return tExamResultDetail;
+	}
+
+}
@@ -1,24 +1,30 @@
 package jp.co.sss.lms.service;
 
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
 
-import org.springframework.beans.BeanUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import jakarta.annotation.PostConstruct;
 import jp.co.sss.lms.dto.ExamDetailDto;
-import jp.co.sss.lms.dto.ExamQuestionDto;
+import jp.co.sss.lms.dto.ExamQuestionSetDto;
 import jp.co.sss.lms.dto.ExamResultDetailDto;
+import jp.co.sss.lms.dto.ExamResultDto;
+import jp.co.sss.lms.dto.ExamStatisticsDto;
+import jp.co.sss.lms.dto.ExamSubmissionDto;
 import jp.co.sss.lms.dto.LoginUserDto;
 import jp.co.sss.lms.dto.QuestionDto;
-import jp.co.sss.lms.entity.MQuestion;
 import jp.co.sss.lms.entity.TExamResult;
 import jp.co.sss.lms.entity.TExamResultDetail;
 import jp.co.sss.lms.form.ExamQuestionForm;
-import jp.co.sss.lms.mapper.MExamMapper;
-import jp.co.sss.lms.mapper.MQuestionMapper;
 import jp.co.sss.lms.mapper.TExamResultDetailMapper;
 import jp.co.sss.lms.mapper.TExamResultMapper;
 import jp.co.sss.lms.util.Constants;
@@ -34,13 +40,34 @@ public class ExamService {
 	@Autowired
 	private TExamResultMapper tExamResultMapper;
 	@Autowired
-	private MExamMapper mExamMapper;
-	@Autowired
 	private TExamResultDetailMapper tExamResultDetailMapper;
 	@Autowired
-	private MQuestionMapper mQuestionMapper;
+	private ExamDefinitionService examDefinitionService;
+	@Autowired
+	private ExamStatisticsService examStatisticsService;
+	@Autowired
+	private ItemAnalysisService itemAnalysisService;
+	@Autowired
+	private GenreProfileService genreProfileService;
+	@Autowired
+	private ExamWriteBehindService examWriteBehindService;
 	@Autowired
 	private LoginUserDto loginUserDto;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/* 試験結果登録のトランザクション */
+	private TransactionTemplate transactionTemplate;
+
+	/**
+	 * 初期化
+	 */
+	@PostConstruct
+	public void init() {
+		transactionTemplate = new TransactionTemplate(transactionManager);
+	}
 
 	/**
 	 * 試験詳細情報を取得
@@ -54,21 +81,49 @@ public class ExamService {
 		// 試験詳細DTOを取得
 		ExamDetailDto examDetailDto = tExamResultMapper.getExamDetailDto(examSectionId, lmsUserId,
 				Constants.DB_FLG_FALSE);
+		if (examDetailDto == null) {
+			return null;
+		}
+
+		// 問題数・平均点・点数を試験統計から設定
+		ExamStatisticsDto examStatisticsDto = examStatisticsService
+				.getExamStatisticsDto(examSectionId, examDetailDto.getExamId());
+		Integer numOfQuestion = examStatisticsDto.getNumOfQuestion();
+		examDetailDto.setNumOfQuestion(numOfQuestion);
+		examDetailDto.setAvgScore(examStatisticsService.toAveragePoint(examStatisticsDto));
+		for (ExamResultDto examResultDto : examDetailDto.getExamResultDtoList()) {
+			examResultDto.setNumOfQuestion(numOfQuestion);
+			examResultDto
+					.setPoint(examStatisticsService.toPoint(examResultDto.getScore(), numOfQuestion));
+		}
 
 		return examDetailDto;
 	}
 
 	/**
-	 * 試験結果詳細情報取得
+	 * 試験結果詳細情報取得<br>
+	 * 遅延書込みで他のサーバーが受け付けた未登録の試験結果はnullを返す
 	 * 
 	 * @param examResultId
 	 * @return 試験結果詳細情報
 	 */
 	public ExamResultDetailDto getExamResultDetail(Integer examResultId) {
 
-		// 試験結果詳細を取得
-		ExamResultDetailDto examResultDetailDto = tExamResultMapper
-				.getExamResultDetail(examResultId, Constants.DB_FLG_FALSE);
+		// 試験結果詳細を取得(遅延書込みで未登録の場合は受付内容から生成)
+		ExamSubmissionDto examSubmissionDto = examWriteBehindService.getPending(examResultId);
+		ExamResultDetailDto examResultDetailDto = examSubmissionDto != null
+				? toExamResultDetailDto(examSubmissionDto)
+				: tExamResultMapper.getExamResultDetail(examResultId, Constants.DB_FLG_FALSE);
+		if (examResultDetailDto == null) {
+			return null;
+		}
+
+		// 問題数・点数を設定
+		Integer numOfQuestion = examStatisticsService
+				.getNumOfQuestion(examResultDetailDto.getExamId());
+		examResultDetailDto.setNumOfQuestion(numOfQuestion);
+		examResultDetailDto.setPoint(
+				examStatisticsService.toPoint(examResultDetailDto.getScore(), numOfQuestion));
 
 		// 試験結果詳細を基に試験結果詳細DTO．問題DTOリスト．回答リストを設定
 		for (QuestionDto questionDto : examResultDetailDto.getQuestionDtoList()) {
@@ -90,29 +145,22 @@ public class ExamService {
 	 * @param examQuestionForm
 	 */
 	public void setExamQuestionForm(ExamQuestionForm examQuestionForm) {
-		// 試験問題情報を取得
-		ExamQuestionDto examQuestionDto = mExamMapper.getExamQuestion(examQuestionForm.getExamId(),
-				Constants.DB_FLG_FALSE);
-		BeanUtils.copyProperties(examQuestionDto, examQuestionForm);
-		// 試験問題情報を基に試験問題DTO．問題DTOリスト．回答リストを設定
-		for (QuestionDto questionDto : examQuestionForm.getQuestionDtoList()) {
-			List<String> answerList = new LinkedList<>();
-			answerList.add(questionDto.getChoice1());
-			answerList.add(questionDto.getChoice2());
-			answerList.add(questionDto.getChoice3());
-			answerList.add(questionDto.getChoice4());
-			questionDto.setAnswerList(answerList);
-		}
+		// 試験問題セットを取得(回答リスト設定済み)
+		ExamQuestionSetDto examQuestionSetDto = getExamQuestionSet(examQuestionForm.getExamId());
+		examQuestionForm.setExamId(examQuestionSetDto.getExamId());
+		examQuestionForm.setExamName(examQuestionSetDto.getExamName());
+		examQuestionForm.setLimitTime(examQuestionSetDto.getLimitTime());
+		examQuestionForm.setQuestionDtoList(examQuestionSetDto.getQuestionDtoList());
 		// 経過時間の初期化
 		if (examQuestionForm.getTime() == null) {
 			examQuestionForm.setTime(0);
 		}
 		// 回答の再設定
-		int questionCount = examQuestionDto.getQuestionDtoList().size();
+		int questionCount = examQuestionSetDto.getQuestionCount();
 		Short[] answerArray = new Short[questionCount];
 		Short[] userAnswer = examQuestionForm.getAnswer();
 		if (userAnswer != null) {
-			for (int i = 0; i < userAnswer.length; i++) {
+			for (int i = 0; i < userAnswer.length && i < questionCount; i++) {
 				answerArray[i] = userAnswer[i];
 			}
 		}
@@ -120,46 +168,78 @@ public class ExamService {
 	}
 
 	/**
-	 * 試験結果登録
+	 * 試験結果登録<br>
+	 * 得点はキャッシュした正答で採点する。
+	 * 遅延書込みが有効な場合はジャーナルへの追記のみ行い、登録はバックグラウンドで行う。
+	 * 採点・ジャーナルへの追記はトランザクション外で行い、DBの接続を使用しない。
+	 * 遅延書込みが無効な場合・追記に失敗した場合のみ、トランザクションを開始して即時に登録する。
 	 * 
 	 * @param examQuestionForm
 	 * @return examResultId
 	 */
 	public Integer insert(ExamQuestionForm examQuestionForm) {
 
-		// 試験IDに紐づく試験問題リストを取得
-		List<MQuestion> mQuestionList = mQuestionMapper.findByExamId(examQuestionForm.getExamId(),
-				Constants.DB_FLG_FALSE);
+		// 試験問題セットを取得
+		ExamQuestionSetDto examQuestionSetDto = getExamQuestionSet(examQuestionForm.getExamId());
 
 		// 現在日時情報
 		Date now = new Date();
 
-		// 試験結果エンティティを生成
-		TExamResult tExamResult = new TExamResult();
-
 		// 得点設定
-		Short score = 0;
-		Short[] answerArray = examQuestionForm.getAnswer();
-		for (int i = 0; i < answerArray.length; i++) {
-			if (answerArray[i] != null && answerArray[i] == mQuestionList.get(i).getAnswerNum()) {
-				score++;
+		Short score = examQuestionSetDto.score(examQuestionForm.getAnswer());
+
+		// 遅延書込み(ジャーナルへの追記に失敗した場合は即時に登録する)
+		if (examWriteBehindService.isEnabled()) {
+			ExamSubmissionDto examSubmissionDto = new ExamSubmissionDto();
+			examSubmissionDto.setExamId(examQuestionSetDto.getExamId());
+			examSubmissionDto.setExamSectionId(examQuestionForm.getExamSectionId());
+			examSubmissionDto.setLmsUserId(loginUserDto.getLmsUserId());
+			examSubmissionDto.setUserName(loginUserDto.getUserName());
+			examSubmissionDto.setAccountId(loginUserDto.getAccountId());
+			examSubmissionDto.setScore(score);
+			examSubmissionDto.setTime(examQuestionForm.getTime());
+			examSubmissionDto.setAnswer(examQuestionForm.getAnswer());
+			// 採点した問題セットで試験結果詳細を登録するため、問題IDとバージョンを記録する
+			Integer[] questionIdArray = new Integer[examQuestionSetDto.getQuestionCount()];
+			for (int j = 0; j < questionIdArray.length; j++) {
+				questionIdArray[j] = examQuestionSetDto.getQuestionId(j);
+			}
+			examSubmissionDto.setQuestionIdArray(questionIdArray);
+			examSubmissionDto.setQuestionSetVersion(examQuestionSetDto.getVersion());
+			examSubmissionDto.setSubmitDate(now);
+			try {
+				return examWriteBehindService.submit(examSubmissionDto);
+			} catch (UncheckedIOException e) {
+				logger.warn("ジャーナルへの追記に失敗したため試験結果を即時に登録します", e);
 			}
 		}
 
-		// 試験結果件数取得
-		Integer examCount = tExamResultMapper.getExamCount(examQuestionForm.getExamSectionId(),
-				loginUserDto.getLmsUserId(), Constants.DB_FLG_FALSE);
+		return transactionTemplate
+				.execute(status -> insertExamResult(examQuestionForm, examQuestionSetDto, score, now));
+	}
 
-		// 試験結果の設定
+	/**
+	 * 試験結果の即時登録<br>
+	 * 試験結果と試験結果詳細を1トランザクションで登録する。
+	 * 採点フラグは試験結果の登録SQL内で判定し、試験結果詳細は全問を1回の一括登録で登録する。
+	 * 
+	 * @param examQuestionForm
+	 * @param examQuestionSetDto
+	 * @param score
+	 * @param now
+	 * @return examResultId
+	 */
+	private Integer insertExamResult(ExamQuestionForm examQuestionForm, ExamQuestionSetDto examQuestionSetDto,
+			Short score, Date now) {
+
+		// 試験結果エンティティを生成
+		TExamResult tExamResult = new TExamResult();
+
+		// 試験結果の設定(採点フラグは登録時に判定)
 		tExamResult.setExamSectionId(examQuestionForm.getExamSectionId());
 		tExamResult.setLmsUserId(loginUserDto.getLmsUserId());
 		tExamResult.setScore(score);
 		tExamResult.setTime(examQuestionForm.getTime());
-		if (examCount == 0) {
-			tExamResult.setMarkFlg(Constants.DB_FLG_TRUE);
-		} else {
-			tExamResult.setMarkFlg(Constants.DB_FLG_FALSE);
-		}
 		tExamResult.setAccountId(loginUserDto.getAccountId());
 		tExamResult.setDeleteFlg(Constants.DB_FLG_FALSE);
 		tExamResult.setFirstCreateUser(loginUserDto.getLmsUserId());
@@ -169,19 +249,23 @@ public class ExamService {
 
 		// 試験結果へ登録
 		tExamResultMapper.insert(tExamResult);
+		// 試験統計・項目分析・ジャンル別正答状況に反映
+		examStatisticsService.update(tExamResult);
+		itemAnalysisService.update(tExamResult, examQuestionSetDto, examQuestionForm.getAnswer());
+		genreProfileService.update(tExamResult, examQuestionSetDto, examQuestionForm.getAnswer());
 
-		// 試験結果詳細登録
-		for (int j = 0; j < mQuestionList.size(); j++) {
-			// 試験結果詳細を生成
+		// 試験結果詳細を生成
+		Short[] answerArray = examQuestionForm.getAnswer();
+		int questionCount = examQuestionSetDto.getQuestionCount();
+		List<TExamResultDetail> tExamResultDetailList = new ArrayList<>(questionCount);
+		for (int j = 0; j < questionCount; j++) {
 			TExamResultDetail tExamResultDetail = new TExamResultDetail();
 			tExamResultDetail.setExamResultId(tExamResult.getExamResultId());
 			tExamResultDetail.setLmsUserId(loginUserDto.getLmsUserId());
-			tExamResultDetail.setQuestionId(mQuestionList.get(j).getQuestionId());
+			tExamResultDetail.setQuestionId(examQuestionSetDto.getQuestionId(j));
 			Short reply = 0;
-			try {
-				reply = examQuestionForm.getAnswer()[j];
-			} catch (Exception e) {
-				reply = 0;
+			if (answerArray != null && j < answerArray.length) {
+				reply = answerArray[j];
 			}
 			tExamResultDetail.setReply(reply);
 			tExamResultDetail.setAccountId(loginUserDto.getAccountId());
@@ -190,11 +274,57 @@ public class ExamService {
 			tExamResultDetail.setFirstCreateDate(now);
 			tExamResultDetail.setLastModifiedUser(loginUserDto.getLmsUserId());
 			tExamResultDetail.setLastModifiedDate(now);
-			// 試験結果詳細へ登録
-			tExamResultDetailMapper.insert(tExamResultDetail);
+			tExamResultDetailList.add(tExamResultDetail);
+		}
+		// 試験結果詳細へ一括登録
+		if (!tExamResultDetailList.isEmpty()) {
+			tExamResultDetailMapper.insertBulk(tExamResultDetailList);
 		}
 
 		return tExamResult.getExamResultId();
 	}
 
-}
\ No newline at end of file
+	/**
+	 * 未登録の試験回答から試験結果詳細DTOを生成
+	 * 
+	 * @param examSubmissionDto
+	 * @return 試験結果詳細DTO
+	 */
+	private ExamResultDetailDto toExamResultDetailDto(ExamSubmissionDto examSubmissionDto) {
+		ExamQuestionSetDto examQuestionSetDto = getExamQuestionSet(examSubmissionDto.getExamId());
+		ExamResultDetailDto examResultDetailDto = new ExamResultDetailDto();
+		examResultDetailDto.setExamResultId(examSubmissionDto.getExamResultId());
+		examResultDetailDto.setExamSectionId(examSubmissionDto.getExamSectionId());
+		examResultDetailDto.setExamId(examQuestionSetDto.getExamId());
+		examResultDetailDto.setExamName(examQuestionSetDto.getExamName());
+		examResultDetailDto.setScore(examSubmissionDto.getScore().intValue());
+		examResultDetailDto.setLmsUserId(examSubmissionDto.getLmsUserId());
+		examResultDetailDto.setUserName(examSubmissionDto.getUserName());
+		Short[] answerArray = examSubmissionDto.getAnswer();
+		// 問題DTOは複製されるため、そのまま回答・正答・解説を設定する
+		List<QuestionDto> questionDtoList = examQuestionSetDto.getQuestionDtoList();
+		for (int i = 0; i < questionDtoList.size(); i++) {
+			QuestionDto questionDto = questionDtoList.get(i);
+			questionDto.setReply(answerArray != null && i < answerArray.length ? answerArray[i] : null);
+			questionDto.setAnswerNum(examQuestionSetDto.getAnswerNum(i));
+			questionDto.setExplain(examQuestionSetDto.getExplain(i));
+		}
+		examResultDetailDto.setQuestionDtoList(questionDtoList);
+		return examResultDetailDto;
+	}
+
+	/**
+	 * 試験問題セット取得
+	 * 
+	 * @param examId
+	 * @return 試験問題セットDTO
+	 */
+	private ExamQuestionSetDto getExamQuestionSet(Integer examId) {
+		ExamQuestionSetDto examQuestionSetDto = examDefinitionService.getExamQuestionSet(examId);
+		if (examQuestionSetDto == null) {
+			throw new IllegalArgumentException("examId " + examId);
+		}
+		return examQuestionSetDto;
+	}
+
+}
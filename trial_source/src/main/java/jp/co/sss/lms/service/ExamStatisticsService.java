@@ -0,0 +1,219 @@
+package jp.co.sss.lms.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jp.co.sss.lms.dto.ExamQuestionSetDto;
+import jp.co.sss.lms.dto.ExamScoreCountDto;
+import jp.co.sss.lms.dto.ExamStatisticsDto;
+import jp.co.sss.lms.dto.ExamStatisticsSourceDto;
+import jp.co.sss.lms.entity.TExamResult;
+import jp.co.sss.lms.mapper.TExamResultMapper;
+import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.IncrementalAggregate;
+import jp.co.sss.lms.util.IncrementalAggregateUtil;
+import jp.co.sss.lms.util.IntList;
+
+/**
+ * 試験統計サービス<br>
+ * 採点対象の試験結果の件数・得点の合計・2乗の合計・得点ごとの件数を、試験・セクション紐づけごとに保持する。<br>
+ * 統計は試験結果テーブルから一括構築し、以降は試験結果の登録のたびに加算する。
+ * 一括構築が完了するまでは、試験結果テーブルから試験・セクション紐づけごとに集計する。
+ * 試験結果の削除(削除フラグの更新)は画面から行わないため、定期的な再構築で反映する。
+ * 問題数は試験定義サービスの問題セットから取得する。
+ *
+ * @author 東京ITスクール
+ */
+@Service
+public class ExamStatisticsService {
+
+	@Autowired
+	private TExamResultMapper tExamResultMapper;
+	@Autowired
+	private ExamDefinitionService examDefinitionService;
+	@Autowired
+	private IncrementalAggregateUtil incrementalAggregateUtil;
+
+	/* 試験・セクション紐づけごとの統計(キー：試験・セクション紐づけID) */
+	private final IncrementalAggregate<HashMap<Integer, Statistics>, TExamResult> aggregate = new IncrementalAggregate<>(
+			"試験統計", HashMap::new, ExamStatisticsService::add);
+
+	/**
+	 * 初期化
+	 */
+	@PostConstruct
+	public void init() {
+		incrementalAggregateUtil.register(aggregate, this::rebuild);
+	}
+
+	/**
+	 * 統計の一括構築<br>
+	 * 構築中に登録された試験結果は、構築で読込んでいないもののみ再適用する
+	 *
+	 * @return 成功した場合true
+	 */
+	public boolean rebuild() {
+		return aggregate.rebuild(() -> {
+			HashMap<Integer, Statistics> newStatisticsMap = new HashMap<>();
+			// 構築に含めた試験結果ID(昇順)
+			IntList examResultIdList = new IntList();
+			tExamResultMapper.findExamStatisticsSource(Constants.DB_FLG_FALSE, resultContext -> {
+				ExamStatisticsSourceDto source = resultContext.getResultObject();
+				newStatisticsMap.computeIfAbsent(source.getExamSectionId(), key -> new Statistics())
+						.add(source.getScore(), 1);
+				examResultIdList.add(source.getExamResultId());
+			});
+			return new IncrementalAggregate.Loaded<>(statisticsMap -> newStatisticsMap,
+					tExamResult -> !examResultIdList.containsSorted(tExamResult.getExamResultId()),
+					examResultIdList.size());
+		});
+	}
+
+	/**
+	 * 試験結果を統計に反映<br>
+	 * 採点対象の試験結果のみ反映する
+	 *
+	 * @param tExamResult
+	 */
+	public void update(TExamResult tExamResult) {
+		if (!Objects.equals(tExamResult.getMarkFlg(), Constants.DB_FLG_TRUE)) {
+			return;
+		}
+		aggregate.update(tExamResult);
+	}
+
+	/**
+	 * 試験統計取得
+	 *
+	 * @param examSectionId
+	 * @param examId
+	 * @return 試験統計DTO
+	 */
+	public ExamStatisticsDto getExamStatisticsDto(Integer examSectionId, Integer examId) {
+		ExamStatisticsDto examStatisticsDto = new ExamStatisticsDto();
+		examStatisticsDto.setExamSectionId(examSectionId);
+		examStatisticsDto.setExamId(examId);
+		examStatisticsDto.setNumOfQuestion(getNumOfQuestion(examId));
+		if (!aggregate.isReady()) {
+			Statistics statistics = new Statistics();
+			for (ExamScoreCountDto examScoreCountDto : tExamResultMapper.getExamScoreCount(examSectionId,
+					Constants.DB_FLG_FALSE)) {
+				statistics.add(examScoreCountDto.getScore(), examScoreCountDto.getCount());
+			}
+			statistics.setTo(examStatisticsDto);
+			return examStatisticsDto;
+		}
+		aggregate.read(statisticsMap -> {
+			Statistics statistics = statisticsMap.get(examSectionId);
+			if (statistics == null) {
+				statistics = new Statistics();
+			}
+			statistics.setTo(examStatisticsDto);
+			return null;
+		});
+		return examStatisticsDto;
+	}
+
+	/**
+	 * 問題数取得
+	 *
+	 * @param examId
+	 * @return 問題数(試験が存在しない場合null)
+	 */
+	public Integer getNumOfQuestion(Integer examId) {
+		if (examId == null) {
+			return null;
+		}
+		ExamQuestionSetDto examQuestionSetDto = examDefinitionService.getExamQuestionSet(examId);
+		return examQuestionSetDto == null ? null : examQuestionSetDto.getQuestionCount();
+	}
+
+	/**
+	 * 点数(100点満点、小数点第1位まで)に換算
+	 *
+	 * @param score 正答数
+	 * @param numOfQuestion 問題数
+	 * @return 点数(換算できない場合null)
+	 */
+	public Double toPoint(Number score, Integer numOfQuestion) {
+		if (score == null || numOfQuestion == null || numOfQuestion == 0) {
+			return null;
+		}
+		return new BigDecimal(score.toString()).multiply(BigDecimal.valueOf(100))
+				.divide(BigDecimal.valueOf(numOfQuestion), 1, RoundingMode.HALF_UP).doubleValue();
+	}
+
+	/**
+	 * 平均点(100点満点、小数点第1位まで)取得<br>
+	 * 平均の正答数を小数点第1位に丸めてから点数に換算する
+	 *
+	 * @param examStatisticsDto
+	 * @return 平均点(受験者がいない場合null)
+	 */
+	public Double toAveragePoint(ExamStatisticsDto examStatisticsDto) {
+		if (examStatisticsDto.getAttemptCount() == 0) {
+			return null;
+		}
+		BigDecimal average = BigDecimal.valueOf(examStatisticsDto.getScoreSum()).divide(
+				BigDecimal.valueOf(examStatisticsDto.getAttemptCount()), 1, RoundingMode.HALF_UP);
+		return toPoint(average, examStatisticsDto.getNumOfQuestion());
+	}
+
+	/**
+	 * 試験結果の反映
+	 *
+	 * @param statisticsMap
+	 * @param tExamResult
+	 */
+	private static void add(HashMap<Integer, Statistics> statisticsMap, TExamResult tExamResult) {
+		statisticsMap.computeIfAbsent(tExamResult.getExamSectionId(), key -> new Statistics())
+				.add(tExamResult.getScore(), 1);
+	}
+
+	/**
+	 * 試験・セクション紐づけごとの統計値
+	 */
+	private static final class Statistics {
+
+		private long count;
+		private long sum;
+		private long squareSum;
+		private long[] histogram = new long[0];
+
+		void add(Short score, long count) {
+			if (score == null) {
+				return;
+			}
+			this.count += count;
+			sum += score * count;
+			squareSum += (long) score * score * count;
+			if (score >= 0) {
+				if (score >= histogram.length) {
+					histogram = Arrays.copyOf(histogram, score + 1);
+				}
+				histogram[score] += count;
+			}
+		}
+
+		void setTo(ExamStatisticsDto examStatisticsDto) {
+			examStatisticsDto.setAttemptCount(count);
+			examStatisticsDto.setScoreSum(sum);
+			examStatisticsDto.setScoreSquareSum(squareSum);
+			if (count > 0) {
+				double average = (double) sum / count;
+				examStatisticsDto.setAverage(average);
+				examStatisticsDto.setStandardDeviation(
+						Math.sqrt(Math.max(0, (double) squareSum / count - average * average)));
+			}
+			examStatisticsDto.setHistogram(Arrays.stream(histogram).boxed().toList());
+		}
+	}
+
+}
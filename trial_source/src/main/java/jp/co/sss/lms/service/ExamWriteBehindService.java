@@ -0,0 +1,456 @@
+package jp.co.sss.lms.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jp.co.sss.lms.dto.ExamSubmissionDto;
+import jp.co.sss.lms.mapper.TExamResultMapper;
+import net.arnx.jsonic.JSON;
+import net.arnx.jsonic.JSONException;
+
+/**
+ * 試験結果遅延書込みサービス<br>
+ * 試験終了時に集中する回答送信を、ローカルのジャーナルへの追記(fsync済み)で受け付け、
+ * 試験結果・試験結果詳細への登録はバックグラウンドでまとめて行う。<br>
+ * 試験結果IDはシーケンスからまとめて採番しておき、受付時に確定させる。
+ * ジャーナルは書込みのたびに新しいセグメントに切り替え、セグメントごとに1トランザクションで登録して、
+ * 登録が完了したセグメントから削除する。
+ * 起動時に残っているセグメントは未登録分として再登録する(登録済みの試験結果IDは除く)。<br>
+ * ジャーナルの保存先(setting.exam.writeBehind.dir)は再起動後も残るディレクトリを必須とする。
+ * DB停止以外の理由で一定回数(setting.exam.writeBehind.maxRetry)登録に失敗したセグメントは、
+ * 後続のセグメントの登録を妨げないよう隔離ディレクトリに移動する。<br>
+ * 未登録の試験回答は受け付けたサーバーでのみ参照できる。
+ *
+ * @author 東京ITスクール
+ */
+@Service
+public class ExamWriteBehindService {
+
+	/** セグメントのファイル名 */
+	private static final Pattern SEGMENT_NAME = Pattern.compile("exam-(\\d+)\\.journal");
+	/** 隔離ディレクトリ名 */
+	private static final String QUARANTINE_DIR = "quarantine";
+
+	@Autowired
+	private TExamResultMapper tExamResultMapper;
+	@Autowired
+	private ExamResultBatchService examResultBatchService;
+
+	@Value("${setting.exam.writeBehind.enabled}")
+	private boolean enabled;
+	@Value("${setting.exam.writeBehind.dir}")
+	private String dir;
+	@Value("${setting.exam.writeBehind.batchSize}")
+	private Integer batchSize;
+	@Value("${setting.exam.writeBehind.intervalMillis}")
+	private Integer intervalMillis;
+	@Value("${setting.exam.writeBehind.idBlockSize}")
+	private Integer idBlockSize;
+	@Value("${setting.exam.writeBehind.maxRetry}")
+	private Integer maxRetry;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/* 未登録の試験回答(キー：試験結果ID) */
+	private final ConcurrentHashMap<Integer, ExamSubmissionDto> pendingMap = new ConcurrentHashMap<>();
+
+	/* 追記のロック */
+	private final Object journalLock = new Object();
+	/* 書込み中のセグメント */
+	private FileChannel channel;
+	private Path segmentPath;
+	private List<ExamSubmissionDto> segmentList;
+	private long segmentNo;
+	/* 追記済みのバイト数(累計) */
+	private long appendedBytes;
+
+	/* fsyncのロック(追記のロックより先に取得する) */
+	private final Object forceLock = new Object();
+	/* fsync済みのバイト数(累計) */
+	private long forcedBytes;
+
+	/* 登録待ちのセグメント(書込みスレッドのみ参照) */
+	private final ArrayDeque<Segment> closedSegmentQueue = new ArrayDeque<>();
+
+	/* 採番済みの試験結果ID */
+	private final Object idLock = new Object();
+	private List<Integer> idBlock = List.of();
+	private int idPosition;
+
+	/* 書込みスレッド */
+	private ScheduledExecutorService executor;
+
+	/**
+	 * 初期化<br>
+	 * 残っているセグメントを読込み、新しいセグメントを開いて書込みスレッドを開始する
+	 *
+	 * @throws IOException
+	 */
+	@PostConstruct
+	public void init() throws IOException {
+		if (!enabled) {
+			return;
+		}
+		if (dir == null || dir.isBlank()) {
+			throw new IllegalStateException("setting.exam.writeBehind.dir を設定してください");
+		}
+		Files.createDirectories(Paths.get(dir));
+		recover();
+		synchronized (journalLock) {
+			openSegment();
+		}
+		executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "exam-write-behind");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.scheduleWithFixedDelay(this::drain, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * 終了処理<br>
+	 * 書込みスレッドを停止し、残りを登録する。登録できなかった分はジャーナルに残り、次回起動時に登録する
+	 */
+	@PreDestroy
+	public void destroy() {
+		if (executor == null) {
+			return;
+		}
+		executor.shutdown();
+		try {
+			executor.awaitTermination(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		drain();
+		synchronized (journalLock) {
+			try {
+				channel.close();
+			} catch (IOException e) {
+				logger.warn("ジャーナルのクローズに失敗しました", e);
+			}
+		}
+	}
+
+	/**
+	 * 遅延書込みの有効判定
+	 *
+	 * @return 有効な場合true
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * 試験回答の受付<br>
+	 * 試験結果IDを採番してジャーナルに追記し、fsyncの完了後に返す
+	 *
+	 * @param examSubmissionDto
+	 * @return 試験結果ID
+	 * @throws UncheckedIOException ジャーナルへの追記に失敗した場合
+	 */
+	public Integer submit(ExamSubmissionDto examSubmissionDto) {
+		Integer examResultId = nextExamResultId();
+		examSubmissionDto.setExamResultId(examResultId);
+		byte[] bytes = (JSON.encode(examSubmissionDto) + "\n").getBytes(StandardCharsets.UTF_8);
+		pendingMap.put(examResultId, examSubmissionDto);
+		try {
+			append(examSubmissionDto, bytes);
+		} catch (IOException e) {
+			pendingMap.remove(examResultId);
+			throw new UncheckedIOException(e);
+		}
+		return examResultId;
+	}
+
+	/**
+	 * 未登録の試験回答の取得
+	 *
+	 * @param examResultId
+	 * @return 試験回答送信DTO(登録済み・存在しない場合null)
+	 */
+	public ExamSubmissionDto getPending(Integer examResultId) {
+		if (examResultId == null) {
+			return null;
+		}
+		return pendingMap.get(examResultId);
+	}
+
+	/**
+	 * 未登録件数
+	 *
+	 * @return 未登録件数
+	 */
+	public int getPendingCount() {
+		return pendingMap.size();
+	}
+
+	/**
+	 * 登録待ちのセグメントの登録<br>
+	 * 書き込み中のセグメントを切り替えて登録待ちとし、古い順にセグメントごとに1トランザクションで一括登録する。
+	 * 登録に失敗した場合は次回に再実行し、DB停止以外の理由で失敗が続いたセグメントは隔離する
+	 */
+	public void drain() {
+		Segment segment = null;
+		try {
+			segment = rotate();
+			if (segment != null) {
+				closedSegmentQueue.add(segment);
+			}
+			while (!closedSegmentQueue.isEmpty()) {
+				segment = closedSegmentQueue.peek();
+				examResultBatchService.insert(segment.submissionList, batchSize);
+				removePending(segment);
+				Files.deleteIfExists(segment.path);
+				closedSegmentQueue.poll();
+			}
+		} catch (Exception e) {
+			logger.warn("試験結果の遅延書込みに失敗しました(未登録：" + pendingMap.size() + "件)", e);
+			if (segment != null && segment == closedSegmentQueue.peek() && !isTransient(e)
+					&& ++segment.failureCount >= maxRetry) {
+				quarantine(segment);
+			}
+		}
+	}
+
+	/**
+	 * DB停止などの一時的な障害の判定
+	 *
+	 * @param e
+	 * @return 一時的な障害の場合true
+	 */
+	private boolean isTransient(Exception e) {
+		return e instanceof TransientDataAccessException || e instanceof RecoverableDataAccessException
+				|| e instanceof DataAccessResourceFailureException || e instanceof IOException;
+	}
+
+	/**
+	 * セグメントの隔離<br>
+	 * 隔離ディレクトリに移動して登録待ちから除く。隔離した試験回答は手動で確認・再登録する
+	 *
+	 * @param segment
+	 */
+	private void quarantine(Segment segment) {
+		try {
+			Path quarantineDir = Files.createDirectories(Paths.get(dir, QUARANTINE_DIR));
+			Files.move(segment.path, quarantineDir.resolve(segment.path.getFileName()),
+					StandardCopyOption.ATOMIC_MOVE);
+			forceDirectory(quarantineDir);
+			forceDirectory(Paths.get(dir));
+		} catch (IOException e) {
+			logger.warn("ジャーナルの隔離に失敗しました：" + segment.path, e);
+			return;
+		}
+		closedSegmentQueue.poll();
+		removePending(segment);
+		logger.error("登録できない試験結果のジャーナルを隔離しました：" + segment.path.getFileName() + "("
+				+ segment.submissionList.size() + "件)");
+	}
+
+	/**
+	 * セグメントの試験回答を未登録から除く
+	 *
+	 * @param segment
+	 */
+	private void removePending(Segment segment) {
+		for (ExamSubmissionDto examSubmissionDto : segment.submissionList) {
+			pendingMap.remove(examSubmissionDto.getExamResultId());
+		}
+	}
+
+	/**
+	 * 試験結果IDの採番
+	 *
+	 * @return 試験結果ID
+	 */
+	private Integer nextExamResultId() {
+		synchronized (idLock) {
+			if (idPosition >= idBlock.size()) {
+				idBlock = tExamResultMapper.findNextExamResultIdList(idBlockSize);
+				idPosition = 0;
+			}
+			return idBlock.get(idPosition++);
+		}
+	}
+
+	/**
+	 * ジャーナルへの追記<br>
+	 * 同時に追記された分はまとめて1回のfsyncで永続化する
+	 *
+	 * @param examSubmissionDto
+	 * @param bytes
+	 * @throws IOException
+	 */
+	private void append(ExamSubmissionDto examSubmissionDto, byte[] bytes) throws IOException {
+		long position;
+		synchronized (journalLock) {
+			long size = channel.size();
+			try {
+				ByteBuffer buffer = ByteBuffer.wrap(bytes);
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+			} catch (IOException e) {
+				// 書きかけの行を残さない
+				channel.truncate(size);
+				throw e;
+			}
+			segmentList.add(examSubmissionDto);
+			appendedBytes += bytes.length;
+			position = appendedBytes;
+		}
+		synchronized (forceLock) {
+			if (forcedBytes >= position) {
+				return;
+			}
+			FileChannel target;
+			long end;
+			synchronized (journalLock) {
+				target = channel;
+				end = appendedBytes;
+			}
+			target.force(false);
+			forcedBytes = end;
+		}
+	}
+
+	/**
+	 * セグメントの切り替え
+	 *
+	 * @return 切り替え前のセグメント(追記がない場合null)
+	 * @throws IOException
+	 */
+	private Segment rotate() throws IOException {
+		synchronized (forceLock) {
+			synchronized (journalLock) {
+				if (segmentList.isEmpty()) {
+					return null;
+				}
+				channel.force(false);
+				channel.close();
+				Segment segment = new Segment(segmentPath, segmentList);
+				openSegment();
+				forcedBytes = appendedBytes;
+				return segment;
+			}
+		}
+	}
+
+	/**
+	 * 新しいセグメントを開く(追記のロック内で呼ぶ)
+	 *
+	 * @throws IOException
+	 */
+	private void openSegment() throws IOException {
+		segmentNo++;
+		segmentPath = Paths.get(dir, String.format("exam-%019d.journal", segmentNo));
+		channel = FileChannel.open(segmentPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.APPEND);
+		// 障害時にセグメントのファイル自体が失われないよう、ディレクトリのエントリも永続化する
+		forceDirectory(Paths.get(dir));
+		segmentList = new ArrayList<>();
+	}
+
+	/**
+	 * ディレクトリのfsync<br>
+	 * ディレクトリを開けないOS(Windows)では何もしない
+	 *
+	 * @param directory
+	 * @throws IOException
+	 */
+	private void forceDirectory(Path directory) throws IOException {
+		FileChannel directoryChannel;
+		try {
+			directoryChannel = FileChannel.open(directory, StandardOpenOption.READ);
+		} catch (IOException e) {
+			return;
+		}
+		try (directoryChannel) {
+			directoryChannel.force(true);
+		}
+	}
+
+	/**
+	 * 残っているセグメントの読込み<br>
+	 * 書きかけの行(障害時)は読み飛ばす
+	 *
+	 * @throws IOException
+	 */
+	private void recover() throws IOException {
+		List<Path> pathList;
+		try (Stream<Path> stream = Files.list(Paths.get(dir))) {
+			pathList = stream.filter(path -> SEGMENT_NAME.matcher(path.getFileName().toString()).matches())
+					.sorted().toList();
+		}
+		int count = 0;
+		for (Path path : pathList) {
+			Matcher matcher = SEGMENT_NAME.matcher(path.getFileName().toString());
+			matcher.matches();
+			segmentNo = Math.max(segmentNo, Long.parseLong(matcher.group(1)));
+			List<ExamSubmissionDto> list = new ArrayList<>();
+			for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+				if (line.isEmpty()) {
+					continue;
+				}
+				try {
+					ExamSubmissionDto examSubmissionDto = JSON.decode(line, ExamSubmissionDto.class);
+					pendingMap.put(examSubmissionDto.getExamResultId(), examSubmissionDto);
+					list.add(examSubmissionDto);
+				} catch (JSONException e) {
+					logger.warn("ジャーナルの不完全な行を読み飛ばしました：" + path);
+				}
+			}
+			closedSegmentQueue.add(new Segment(path, list));
+			count += list.size();
+		}
+		if (count > 0) {
+			logger.info("ジャーナルから未登録の試験結果を読込みました：" + count + "件");
+		}
+	}
+
+	/**
+	 * ジャーナルのセグメント
+	 */
+	private static final class Segment {
+
+		private final Path path;
+		private final List<ExamSubmissionDto> submissionList;
+		/* 登録の失敗回数(一時的な障害を除く) */
+		private int failureCount;
+
+		Segment(Path path, List<ExamSubmissionDto> submissionList) {
+			this.path = path;
+			this.submissionList = submissionList;
+		}
+	}
+
+}
@@ -0,0 +1,303 @@
+package jp.co.sss.lms.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jp.co.sss.lms.dto.ExamQuestionSetDto;
+import jp.co.sss.lms.dto.GenreDetailDto;
+import jp.co.sss.lms.dto.GenreProfileDto;
+import jp.co.sss.lms.dto.GenreProfileSourceDto;
+import jp.co.sss.lms.dto.GenreWeaknessDto;
+import jp.co.sss.lms.entity.TExamResult;
+import jp.co.sss.lms.mapper.MGenreDetailMapper;
+import jp.co.sss.lms.mapper.TCourseUserMapper;
+import jp.co.sss.lms.mapper.TExamResultDetailMapper;
+import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.IncrementalAggregate;
+import jp.co.sss.lms.util.IncrementalAggregateUtil;
+import jp.co.sss.lms.util.IntList;
+import jp.co.sss.lms.util.IntLongMap;
+
+/**
+ * ジャンル別苦手傾向サービス<br>
+ * 採点対象の試験結果の回答から、受講生ごと・コースごとにジャンル詳細別の正答数・回答数を保持する。<br>
+ * 受講生の正答状況は企業アカウントごとに保持し、コースは受講生の現在のコースとする。<br>
+ * 正答数・回答数はジャンル詳細IDをキーとするプリミティブのマップに1つのlong値(上位32ビット：正答数、下位32ビット：回答数)で保持し、
+ * 試験結果詳細から一括構築して、以降は試験結果の登録のたびに加算する。
+ *
+ * @author 東京ITスクール
+ */
+@Service
+public class GenreProfileService {
+
+	/** 正答1件の加算値 */
+	private static final long CORRECT = (1L << 32) + 1;
+	/** 誤答1件の加算値 */
+	private static final long INCORRECT = 1;
+
+	@Autowired
+	private TExamResultDetailMapper tExamResultDetailMapper;
+	@Autowired
+	private MGenreDetailMapper mGenreDetailMapper;
+	@Autowired
+	private TCourseUserMapper tCourseUserMapper;
+	@Autowired
+	private IncrementalAggregateUtil incrementalAggregateUtil;
+
+	@Value("${setting.exam.genre.weakness.max}")
+	private Integer weaknessMax;
+	@Value("${setting.exam.genre.weakness.minCount}")
+	private Integer weaknessMinCount;
+	@Value("${setting.cache.revalidate.second}")
+	private Integer revalidateSecond;
+
+	/* 正答状況 */
+	private final IncrementalAggregate<ProfileStore, Submission> aggregate = new IncrementalAggregate<>(
+			"ジャンル別正答状況", ProfileStore::new, (store, submission) -> submission.addTo(store));
+	/* ジャンル詳細(キー：ジャンル詳細ID) */
+	private volatile HashMap<Integer, GenreDetailDto> genreDetailMap = new HashMap<>();
+	/* ジャンル詳細の読込日時 */
+	private volatile long genreDetailLoadedAt;
+
+	/**
+	 * 初期化
+	 */
+	@PostConstruct
+	public void init() {
+		incrementalAggregateUtil.register(aggregate, this::rebuild);
+	}
+
+	/**
+	 * 正答状況の一括構築<br>
+	 * 構築中に登録された試験結果は、構築で読込んでいないもののみ再適用する
+	 *
+	 * @return 成功した場合true
+	 */
+	public boolean rebuild() {
+		return aggregate.rebuild(() -> {
+			loadGenreDetail();
+			ProfileStore newStore = new ProfileStore();
+			// 構築に含めた試験結果ID(昇順)
+			IntList examResultIdList = new IntList();
+			tExamResultDetailMapper.findGenreProfileSource(Constants.DB_FLG_FALSE, resultContext -> {
+				GenreProfileSourceDto source = resultContext.getResultObject();
+				int size = examResultIdList.size();
+				if (size == 0 || examResultIdList.get(size - 1) != source.getExamResultId()) {
+					examResultIdList.add(source.getExamResultId());
+				}
+				long delta = Objects.equals(source.getCorrectFlg(), Constants.DB_FLG_TRUE) ? CORRECT
+						: INCORRECT;
+				newStore.add(source.getLmsUserId(), source.getAccountId(), source.getCourseId(),
+						source.getGenreDetailId(), delta);
+			});
+			return new IncrementalAggregate.Loaded<>(store -> newStore,
+					submission -> !examResultIdList.containsSorted(submission.examResultId),
+					examResultIdList.size());
+		});
+	}
+
+	/**
+	 * 試験結果を正答状況に反映<br>
+	 * 採点対象の試験結果のみ反映する
+	 *
+	 * @param tExamResult
+	 * @param examQuestionSetDto 採点に使用した問題セット
+	 * @param answerArray 回答
+	 */
+	public void update(TExamResult tExamResult, ExamQuestionSetDto examQuestionSetDto,
+			Short[] answerArray) {
+		if (!Objects.equals(tExamResult.getMarkFlg(), Constants.DB_FLG_TRUE)) {
+			return;
+		}
+		int questionCount = examQuestionSetDto.getQuestionCount();
+		int[] genreDetailIds = new int[questionCount];
+		long[] deltas = new long[questionCount];
+		for (int i = 0; i < questionCount; i++) {
+			genreDetailIds[i] = examQuestionSetDto.getGenreDetailId(i);
+			Short answer = answerArray != null && i < answerArray.length ? answerArray[i] : null;
+			deltas[i] = answer != null && answer == examQuestionSetDto.getAnswerNum(i) ? CORRECT
+					: INCORRECT;
+		}
+		Submission submission = new Submission(tExamResult.getExamResultId(),
+				tExamResult.getLmsUserId(), tExamResult.getAccountId(),
+				tCourseUserMapper.findCourseId(tExamResult.getLmsUserId(), tExamResult.getAccountId(),
+						Constants.DB_FLG_FALSE),
+				genreDetailIds, deltas);
+		aggregate.update(submission);
+	}
+
+	/**
+	 * ジャンル別苦手傾向取得<br>
+	 * 企業アカウントの受講生と所属コース全体について、回答数が一定以上のジャンル詳細を正答率の低い順に返す
+	 *
+	 * @param lmsUserId
+	 * @param accountId
+	 * @return ジャンル別苦手傾向DTO
+	 */
+	public GenreProfileDto getGenreProfileDto(Integer lmsUserId, Integer accountId) {
+		Integer courseId = tCourseUserMapper.findCourseId(lmsUserId, accountId, Constants.DB_FLG_FALSE);
+		GenreProfileDto genreProfileDto = new GenreProfileDto();
+		genreProfileDto.setLmsUserId(lmsUserId);
+		genreProfileDto.setCourseId(courseId);
+
+		List<GenreWeaknessDto> userWeaknessList = aggregate
+				.read(store -> toWeaknessList(store.userMap.get(toUserKey(lmsUserId, accountId))));
+		List<GenreWeaknessDto> courseWeaknessList = aggregate
+				.read(store -> toWeaknessList(courseId == null ? null : store.courseMap.get(courseId)));
+		setGenreName(userWeaknessList);
+		setGenreName(courseWeaknessList);
+		genreProfileDto.setUserWeaknessList(userWeaknessList);
+		genreProfileDto.setCourseWeaknessList(courseWeaknessList);
+		return genreProfileDto;
+	}
+
+	/**
+	 * 受講生の正答状況のキー
+	 *
+	 * @param lmsUserId
+	 * @param accountId
+	 * @return キー(上位32ビット：アカウントID、下位32ビット：LMSユーザーID)
+	 */
+	private static long toUserKey(Integer lmsUserId, Integer accountId) {
+		return ((long) (accountId == null ? 0 : accountId) << 32) | (lmsUserId & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * 苦手ジャンルリストに変換
+	 *
+	 * @param genreMap
+	 * @return 苦手ジャンルリスト(正答率の低い順、回答数の多い順)
+	 */
+	private List<GenreWeaknessDto> toWeaknessList(IntLongMap genreMap) {
+		List<GenreWeaknessDto> genreWeaknessDtoList = new ArrayList<>();
+		if (genreMap == null) {
+			return genreWeaknessDtoList;
+		}
+		genreMap.forEach((genreDetailId, value) -> {
+			long correctCount = value >>> 32;
+			long totalCount = value & 0xFFFFFFFFL;
+			if (totalCount < weaknessMinCount) {
+				return;
+			}
+			GenreWeaknessDto genreWeaknessDto = new GenreWeaknessDto();
+			genreWeaknessDto.setGenreDetailId(genreDetailId);
+			genreWeaknessDto.setCorrectCount(correctCount);
+			genreWeaknessDto.setTotalCount(totalCount);
+			genreWeaknessDto.setCorrectRate((double) correctCount / totalCount);
+			genreWeaknessDtoList.add(genreWeaknessDto);
+		});
+		genreWeaknessDtoList.sort(Comparator.comparing(GenreWeaknessDto::getCorrectRate)
+				.thenComparing(GenreWeaknessDto::getTotalCount, Comparator.reverseOrder())
+				.thenComparing(GenreWeaknessDto::getGenreDetailId));
+		if (genreWeaknessDtoList.size() > weaknessMax) {
+			return new ArrayList<>(genreWeaknessDtoList.subList(0, weaknessMax));
+		}
+		return genreWeaknessDtoList;
+	}
+
+	/**
+	 * ジャンル名・ジャンル詳細名の設定<br>
+	 * 未読込みのジャンル詳細がある場合は一定時間ごとに再読込みする
+	 *
+	 * @param genreWeaknessDtoList
+	 */
+	private void setGenreName(List<GenreWeaknessDto> genreWeaknessDtoList) {
+		for (GenreWeaknessDto genreWeaknessDto : genreWeaknessDtoList) {
+			GenreDetailDto genreDetailDto = genreDetailMap.get(genreWeaknessDto.getGenreDetailId());
+			if (genreDetailDto == null && System.currentTimeMillis()
+					- genreDetailLoadedAt >= TimeUnit.SECONDS.toMillis(revalidateSecond)) {
+				loadGenreDetail();
+				genreDetailDto = genreDetailMap.get(genreWeaknessDto.getGenreDetailId());
+			}
+			if (genreDetailDto != null) {
+				genreWeaknessDto.setGenreId(genreDetailDto.getGenreId());
+				genreWeaknessDto.setGenreName(genreDetailDto.getGenreName());
+				genreWeaknessDto.setGenreDetailName(genreDetailDto.getGenreDetailName());
+			}
+		}
+	}
+
+	/**
+	 * ジャンル詳細の読込み
+	 */
+	private void loadGenreDetail() {
+		HashMap<Integer, GenreDetailDto> newGenreDetailMap = new HashMap<>();
+		for (GenreDetailDto genreDetailDto : mGenreDetailMapper
+				.findGenreDetailDtoList(Constants.DB_FLG_FALSE)) {
+			newGenreDetailMap.put(genreDetailDto.getGenreDetailId(), genreDetailDto);
+		}
+		genreDetailMap = newGenreDetailMap;
+		genreDetailLoadedAt = System.currentTimeMillis();
+	}
+
+	/**
+	 * 正答状況
+	 */
+	private static final class ProfileStore {
+
+		/* 受講生ごとの正答状況(キー：アカウントID・LMSユーザーID) */
+		private final HashMap<Long, IntLongMap> userMap = new HashMap<>();
+		/* コースごとの正答状況(キー：コースID) */
+		private final HashMap<Integer, IntLongMap> courseMap = new HashMap<>();
+
+		/**
+		 * 正答状況の加算
+		 *
+		 * @param lmsUserId
+		 * @param accountId
+		 * @param courseId
+		 * @param genreDetailId
+		 * @param delta
+		 */
+		void add(Integer lmsUserId, Integer accountId, Integer courseId, Integer genreDetailId,
+				long delta) {
+			if (genreDetailId == null || genreDetailId == 0) {
+				return;
+			}
+			userMap.computeIfAbsent(toUserKey(lmsUserId, accountId), key -> new IntLongMap())
+					.addTo(genreDetailId, delta);
+			if (courseId != null) {
+				courseMap.computeIfAbsent(courseId, key -> new IntLongMap()).addTo(genreDetailId, delta);
+			}
+		}
+	}
+
+	/**
+	 * 試験結果ごとの正誤
+	 */
+	private static final class Submission {
+
+		private final Integer examResultId;
+		private final Integer lmsUserId;
+		private final Integer accountId;
+		private final Integer courseId;
+		private final int[] genreDetailIds;
+		private final long[] deltas;
+
+		Submission(Integer examResultId, Integer lmsUserId, Integer accountId, Integer courseId,
+				int[] genreDetailIds, long[] deltas) {
+			this.examResultId = examResultId;
+			this.lmsUserId = lmsUserId;
+			this.accountId = accountId;
+			this.courseId = courseId;
+			this.genreDetailIds = genreDetailIds;
+			this.deltas = deltas;
+		}
+
+		void addTo(ProfileStore store) {
+			for (int i = 0; i < genreDetailIds.length; i++) {
+				store.add(lmsUserId, accountId, courseId, genreDetailIds[i], deltas[i]);
+			}
+		}
+	}
+
+}
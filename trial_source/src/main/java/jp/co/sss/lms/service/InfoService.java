@@ -1,15 +1,31 @@
 package jp.co.sss.lms.service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import jp.co.sss.lms.dto.InfoDto;
 import jp.co.sss.lms.entity.TInfo;
 import jp.co.sss.lms.mapper.TInfoMapper;
+import net.arnx.jsonic.JSON;
 
 /**
- * お知らせ情報サービス
- * 
+ * お知らせ情報サービス<br>
+ * 最新のお知らせをJSON・ETagとともに保持し、全ユーザで共有する。<br>
+ * 一定時間(setting.cache.revalidate.second)ごとにバージョン(最終更新日時・件数)を確認し、
+ * 変更があった場合のみ再読込みする。共有するため取得したお知らせ情報は変更しない。
+ *
  * @author 東京ITスクール
  */
 @Service
@@ -18,12 +34,88 @@ public class InfoService {
 	@Autowired
 	private TInfoMapper tInfoMapper;
 
+	@Value("${setting.cache.revalidate.second}")
+	private Integer revalidateSecond;
+
+	/* 最新のお知らせ */
+	private volatile Snapshot snapshot;
+	/* 読込みロック */
+	private final Object loadLock = new Object();
+
 	/**
 	 * お知らせ情報取得
-	 * 
+	 *
 	 * @return お知らせ情報
 	 */
 	public InfoDto getInfo() {
+		return getSnapshot().infoDto;
+	}
+
+	/**
+	 * お知らせ情報取得(JSON)<br>
+	 * ETagを設定し、保持しているETagと一致する場合は304とする
+	 *
+	 * @param request
+	 * @param response
+	 * @return お知らせ情報のJSON(更新がない場合null)
+	 */
+	public String getInfoJson(HttpServletRequest request, HttpServletResponse response) {
+
+		Snapshot current = getSnapshot();
+		response.setHeader(HttpHeaders.ETAG, current.eTag);
+		response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+		// If-None-Matchは複数指定・弱いETag(W/)も比較する(条件付き取得はGETのみ)
+		if (HttpMethod.GET.matches(request.getMethod())
+				&& new ServletWebRequest(request, response).checkNotModified(current.eTag)) {
+			return null;
+		}
+		return current.json;
+	}
+
+	/**
+	 * お知らせ情報のキャッシュを破棄
+	 */
+	public void invalidate() {
+		snapshot = null;
+	}
+
+	/**
+	 * 最新のお知らせの取得
+	 *
+	 * @return 最新のお知らせ
+	 */
+	private Snapshot getSnapshot() {
+		long now = System.currentTimeMillis();
+		Snapshot current = snapshot;
+		if (current != null && !current.isExpired(now, revalidateSecond)) {
+			return current;
+		}
+
+		// 確認・読込みは1スレッドのみ行い、他のスレッドはその結果を使用する
+		synchronized (loadLock) {
+			Snapshot loaded = snapshot;
+			if (loaded != null && loaded != current) {
+				return loaded;
+			}
+			// バージョンが変わっていなければ再読込みしない
+			String version = tInfoMapper.getInfoVersion();
+			if (current != null && Objects.equals(current.version, version)) {
+				snapshot = new Snapshot(current.infoDto, current.json, current.eTag, version, now);
+			} else {
+				snapshot = load(version, now);
+			}
+			return snapshot;
+		}
+	}
+
+	/**
+	 * 最新のお知らせの読込み
+	 *
+	 * @param version
+	 * @param now
+	 * @return 最新のお知らせ
+	 */
+	private Snapshot load(String version, long now) {
 
 		// 最新のお知らせを取得
 		TInfo tInfo = tInfoMapper.findBySingleResult();
@@ -35,7 +127,39 @@ public class InfoService {
 			infoDto.setLastModifiedDate(tInfo.getLastModifiedDate());
 		}
 
-		return infoDto;
+		// JSONとETagはバージョンごとに1回だけ生成する
+		String json = JSON.encode(infoDto);
+		String eTag = "\"" + DigestUtils.md5DigestAsHex(json.getBytes(StandardCharsets.UTF_8)) + "\"";
+		return new Snapshot(infoDto, json, eTag, version, now);
+	}
+
+	/**
+	 * 最新のお知らせ
+	 */
+	private static final class Snapshot {
+
+		/* お知らせ情報 */
+		private final InfoDto infoDto;
+		/* お知らせ情報のJSON */
+		private final String json;
+		/* ETag */
+		private final String eTag;
+		/* バージョン */
+		private final String version;
+		/* 確認日時 */
+		private final long checkedAt;
+
+		Snapshot(InfoDto infoDto, String json, String eTag, String version, long checkedAt) {
+			this.infoDto = infoDto;
+			this.json = json;
+			this.eTag = eTag;
+			this.version = version;
+			this.checkedAt = checkedAt;
+		}
+
+		boolean isExpired(long now, int revalidateSecond) {
+			return now - checkedAt >= TimeUnit.SECONDS.toMillis(revalidateSecond);
+		}
 	}
 
 }
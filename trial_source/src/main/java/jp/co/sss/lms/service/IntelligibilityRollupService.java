@@ -0,0 +1,340 @@
+package jp.co.sss.lms.service;
+
+import java.text.ParseException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jp.co.sss.lms.dto.IntelligibilityRollupDto;
+import jp.co.sss.lms.dto.LoginUserDto;
+import jp.co.sss.lms.entity.TDailyReportSubmit;
+import jp.co.sss.lms.entity.TIntelligibility;
+import jp.co.sss.lms.form.IntelligibilityRollupForm;
+import jp.co.sss.lms.mapper.TIntelligibilityMapper;
+import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.DateUtil;
+import jp.co.sss.lms.util.IncrementalAggregate;
+import jp.co.sss.lms.util.IncrementalAggregateUtil;
+import jp.co.sss.lms.util.IntLongMap;
+
+/**
+ * 理解度集計サービス<br>
+ * 学習理解度の件数・合計・理解度ごとの件数を、コース・日付・項目ごと、受講生・項目ごとに集計して保持する。<br>
+ * 集計は理解度テーブルから一括構築し、以降はレポート登録のたびに登録前の値を差し引いて登録後の値を加算する。
+ * 登録前の値は登録処理で読込んだ値を使用し、提出ごとの内容は保持しない。
+ *
+ * @author 東京ITスクール
+ */
+@Service
+public class IntelligibilityRollupService {
+
+	@Autowired
+	private LoginUserDto loginUserDto;
+	@Autowired
+	private DateUtil dateUtil;
+	@Autowired
+	private TIntelligibilityMapper tIntelligibilityMapper;
+	@Autowired
+	private IncrementalAggregateUtil incrementalAggregateUtil;
+
+	/* 集計 */
+	private final IncrementalAggregate<RollupStore, Submission> aggregate = new IncrementalAggregate<>(
+			"理解度集計", RollupStore::new, RollupStore::apply);
+
+	/**
+	 * 初期化
+	 */
+	@PostConstruct
+	public void init() {
+		incrementalAggregateUtil.register(aggregate, this::rebuild);
+	}
+
+	/**
+	 * 集計の一括構築<br>
+	 * 構築中に登録されたレポートは、構築で読込んだ内容より新しいもののみ再適用する
+	 *
+	 * @return 成功した場合true
+	 */
+	public boolean rebuild() {
+		return aggregate.rebuild(() -> {
+			RollupStore newStore = new RollupStore();
+			// 構築に含めた提出の最終更新日時(キー：日報提出ID)
+			IntLongMap versionMap = new IntLongMap();
+			tIntelligibilityMapper.findIntelligibilitySource(Constants.DB_FLG_FALSE, resultContext -> {
+				var source = resultContext.getResultObject();
+				if (versionMap.get(source.getDailyReportSubmitId()) == 0) {
+					versionMap.addTo(source.getDailyReportSubmitId(), toVersion(source.getLastModifiedDate()));
+				}
+				if (source.getFieldNum() == null) {
+					return;
+				}
+				Submission submission = new Submission(source.getDailyReportSubmitId(),
+						source.getLmsUserId(), source.getAccountId(), source.getCourseId(),
+						toEpochDay(source.getDate()), 0);
+				newStore.add(submission, new FieldValue(source.getFieldNum(), source.getFieldName(),
+						source.getFieldValue()), 1);
+			});
+			return new IncrementalAggregate.Loaded<>(store -> newStore,
+					submission -> versionMap.get(submission.dailyReportSubmitId) < submission.version,
+					versionMap.size());
+		});
+	}
+
+	/**
+	 * レポートの登録内容を集計に反映
+	 *
+	 * @param tDailyReportSubmit
+	 * @param courseId 提出した受講生のコースID
+	 * @param registeredIntelligibilityList 登録前の理解度
+	 * @param intFieldNameArray
+	 * @param intFieldValueArray
+	 */
+	public void update(TDailyReportSubmit tDailyReportSubmit, Integer courseId,
+			List<TIntelligibility> registeredIntelligibilityList, String[] intFieldNameArray,
+			Short[] intFieldValueArray) {
+		Submission submission = new Submission(tDailyReportSubmit.getDailyReportSubmitId(),
+				tDailyReportSubmit.getLmsUserId(), tDailyReportSubmit.getAccountId(), courseId,
+				toEpochDay(tDailyReportSubmit.getDate()), toVersion(tDailyReportSubmit.getLastModifiedDate()));
+		for (TIntelligibility registeredIntelligibility : registeredIntelligibilityList) {
+			if (Objects.equals(registeredIntelligibility.getDeleteFlg(), Constants.DB_FLG_FALSE)) {
+				submission.remove(registeredIntelligibility.getFieldNum(),
+						registeredIntelligibility.getFieldName(), registeredIntelligibility.getFieldValue());
+			}
+		}
+		for (int i = 0; intFieldNameArray != null && i < intFieldNameArray.length; i++) {
+			submission.add(i + 1, intFieldNameArray[i], intFieldValueArray[i]);
+		}
+		aggregate.update(submission);
+	}
+
+	/**
+	 * コース・日付・項目ごとの理解度集計取得<br>
+	 * 受講生が指定された場合は受講生・項目ごとの集計を返す
+	 *
+	 * @param intelligibilityRollupForm
+	 * @return 理解度集計DTOリスト
+	 * @throws ParseException
+	 */
+	public List<IntelligibilityRollupDto> getIntelligibilityRollupDtoList(
+			IntelligibilityRollupForm intelligibilityRollupForm) throws ParseException {
+
+		List<IntelligibilityRollupDto> intelligibilityRollupDtoList = new ArrayList<>();
+		Integer accountId = loginUserDto.getAccountId();
+		String dateFrom = intelligibilityRollupForm.getDateFrom();
+		String dateTo = intelligibilityRollupForm.getDateTo();
+		int from = dateFrom == null || dateFrom.isEmpty() ? Integer.MIN_VALUE
+				: toEpochDay(dateUtil.parse(dateFrom));
+		int to = dateTo == null || dateTo.isEmpty() ? Integer.MAX_VALUE
+				: toEpochDay(dateUtil.parse(dateTo));
+		return aggregate.read(store -> {
+			if (intelligibilityRollupForm.getLmsUserId() != null) {
+				Map<Integer, Rollup> fieldMap = store.userMap
+						.get(intelligibilityRollupForm.getLmsUserId() + "-" + accountId);
+				if (fieldMap != null) {
+					for (Rollup rollup : fieldMap.values()) {
+						if (rollup.count == 0) {
+							continue;
+						}
+						IntelligibilityRollupDto intelligibilityRollupDto = rollup.toDto();
+						intelligibilityRollupDto.setLmsUserId(intelligibilityRollupForm.getLmsUserId());
+						intelligibilityRollupDtoList.add(intelligibilityRollupDto);
+					}
+				}
+				return intelligibilityRollupDtoList;
+			}
+
+			NavigableMap<Integer, Map<Integer, Rollup>> dateMap = store.courseMap
+					.get(intelligibilityRollupForm.getCourseId() + "-" + accountId);
+			if (dateMap == null) {
+				return intelligibilityRollupDtoList;
+			}
+			for (Map.Entry<Integer, Map<Integer, Rollup>> entry : dateMap.subMap(from, true, to, true)
+					.entrySet()) {
+				for (Rollup rollup : entry.getValue().values()) {
+					if (rollup.count == 0) {
+						continue;
+					}
+					IntelligibilityRollupDto intelligibilityRollupDto = rollup.toDto();
+					intelligibilityRollupDto.setCourseId(intelligibilityRollupForm.getCourseId());
+					intelligibilityRollupDto.setDate(Date.from(LocalDate.ofEpochDay(entry.getKey())
+							.atStartOfDay(ZoneId.systemDefault()).toInstant()));
+					intelligibilityRollupDtoList.add(intelligibilityRollupDto);
+				}
+			}
+			return intelligibilityRollupDtoList;
+		});
+	}
+
+	/**
+	 * 日付をエポック日に変換
+	 *
+	 * @param date
+	 * @return エポック日
+	 */
+	private int toEpochDay(Date date) {
+		if (date == null) {
+			return 0;
+		}
+		return (int) Instant.ofEpochMilli(date.getTime()).atZone(ZoneId.systemDefault())
+				.toLocalDate().toEpochDay();
+	}
+
+	/**
+	 * 最終更新日時をバージョンに変換
+	 *
+	 * @param date
+	 * @return バージョン(nullの場合1)
+	 */
+	private long toVersion(Date date) {
+		return date == null ? 1 : date.getTime();
+	}
+
+	/**
+	 * 集計
+	 */
+	private static final class RollupStore {
+
+		/* コース・日付・項目ごとの集計(キー：コースID-企業アカウントID、日付、項目番号) */
+		private final HashMap<String, TreeMap<Integer, Map<Integer, Rollup>>> courseMap = new HashMap<>();
+		/* 受講生・項目ごとの集計(キー：LMSユーザーID-企業アカウントID、項目番号) */
+		private final HashMap<String, TreeMap<Integer, Rollup>> userMap = new HashMap<>();
+
+		/**
+		 * 提出の反映(登録前の値を差し引いて登録後の値を加算)
+		 *
+		 * @param submission
+		 */
+		void apply(Submission submission) {
+			for (FieldValue fieldValue : submission.removedList) {
+				add(submission, fieldValue, -1);
+			}
+			for (FieldValue fieldValue : submission.addedList) {
+				add(submission, fieldValue, 1);
+			}
+		}
+
+		private void add(Submission submission, FieldValue fieldValue, int sign) {
+			if (fieldValue.value == null) {
+				return;
+			}
+			if (submission.courseId != null) {
+				courseMap.computeIfAbsent(submission.courseId + "-" + submission.accountId,
+						key -> new TreeMap<>())
+						.computeIfAbsent(submission.epochDay, key -> new TreeMap<>())
+						.computeIfAbsent(fieldValue.fieldNum, key -> new Rollup(fieldValue.fieldNum))
+						.add(fieldValue.fieldName, fieldValue.value, sign);
+			}
+			userMap.computeIfAbsent(submission.lmsUserId + "-" + submission.accountId,
+					key -> new TreeMap<>())
+					.computeIfAbsent(fieldValue.fieldNum, key -> new Rollup(fieldValue.fieldNum))
+					.add(fieldValue.fieldName, fieldValue.value, sign);
+		}
+	}
+
+	/**
+	 * 提出ごとの理解度の変更内容
+	 */
+	private static final class Submission {
+
+		private final Integer dailyReportSubmitId;
+		private final Integer lmsUserId;
+		private final Integer accountId;
+		private final Integer courseId;
+		private final int epochDay;
+		/* バージョン(日報提出の最終更新日時) */
+		private final long version;
+		/* 登録前の値 */
+		private final List<FieldValue> removedList = new ArrayList<>();
+		/* 登録後の値 */
+		private final List<FieldValue> addedList = new ArrayList<>();
+
+		Submission(Integer dailyReportSubmitId, Integer lmsUserId, Integer accountId,
+				Integer courseId, int epochDay, long version) {
+			this.dailyReportSubmitId = dailyReportSubmitId;
+			this.lmsUserId = lmsUserId;
+			this.accountId = accountId;
+			this.courseId = courseId;
+			this.epochDay = epochDay;
+			this.version = version;
+		}
+
+		void add(Integer fieldNum, String fieldName, Short value) {
+			addedList.add(new FieldValue(fieldNum, fieldName, value));
+		}
+
+		void remove(Integer fieldNum, String fieldName, Short value) {
+			removedList.add(new FieldValue(fieldNum, fieldName, value));
+		}
+	}
+
+	/**
+	 * 項目の理解度
+	 */
+	private static final class FieldValue {
+
+		private final Integer fieldNum;
+		private final String fieldName;
+		private final Short value;
+
+		FieldValue(Integer fieldNum, String fieldName, Short value) {
+			this.fieldNum = fieldNum;
+			this.fieldName = fieldName;
+			this.value = value;
+		}
+	}
+
+	/**
+	 * 項目ごとの集計値
+	 */
+	private static final class Rollup {
+
+		private final Integer fieldNum;
+		private String fieldName;
+		private long count;
+		private long sum;
+		private long[] histogram = new long[0];
+
+		Rollup(Integer fieldNum) {
+			this.fieldNum = fieldNum;
+		}
+
+		void add(String fieldName, short fieldValue, int sign) {
+			if (sign > 0) {
+				this.fieldName = fieldName;
+			}
+			count += sign;
+			sum += (long) sign * fieldValue;
+			if (fieldValue >= 0) {
+				if (fieldValue >= histogram.length) {
+					histogram = Arrays.copyOf(histogram, fieldValue + 1);
+				}
+				histogram[fieldValue] += sign;
+			}
+		}
+
+		IntelligibilityRollupDto toDto() {
+			IntelligibilityRollupDto intelligibilityRollupDto = new IntelligibilityRollupDto();
+			intelligibilityRollupDto.setFieldNum(fieldNum);
+			intelligibilityRollupDto.setFieldName(fieldName);
+			intelligibilityRollupDto.setCount(count);
+			intelligibilityRollupDto.setSum(sum);
+			intelligibilityRollupDto.setAverage(count == 0 ? null : (double) sum / count);
+			intelligibilityRollupDto.setHistogram(Arrays.stream(histogram).boxed().toList());
+			return intelligibilityRollupDto;
+		}
+	}
+
+}
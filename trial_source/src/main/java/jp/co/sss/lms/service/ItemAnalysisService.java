@@ -0,0 +1,480 @@
+package jp.co.sss.lms.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jp.co.sss.lms.dto.ExamQuestionSetDto;
+import jp.co.sss.lms.dto.ItemAnalysisDto;
+import jp.co.sss.lms.dto.ItemAnalysisSourceDto;
+import jp.co.sss.lms.entity.TExamResult;
+import jp.co.sss.lms.mapper.MExamMapper;
+import jp.co.sss.lms.mapper.TExamResultDetailMapper;
+import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.IncrementalAggregate;
+import jp.co.sss.lms.util.IncrementalAggregateUtil;
+import jp.co.sss.lms.util.IntList;
+import jp.co.sss.lms.util.ParallelQueryUtil;
+
+/**
+ * 項目分析サービス<br>
+ * 採点対象の試験結果の回答から、試験の問題ごとに正答率(困難度)・識別指数・点双列相関係数・選択肢ごとの回答数を求める。<br>
+ * 集計値は試験ごとに得点別の正答者数・選択肢別の回答数を配列で保持し、試験ごとに並列で一括構築して、
+ * 以降は試験結果の登録のたびに加算する。問題・正答は試験定義サービスの問題セットを使用し、
+ * 問題セットが変更された場合はその試験のみ再構築する。
+ *
+ * @author 東京ITスクール
+ */
+@Service
+public class ItemAnalysisService {
+
+	/** 上位群・下位群の割合 */
+	private static final double GROUP_RATE = 0.27;
+	/** 選択肢数(無回答を含む) */
+	private static final int CHOICE_COUNT = 5;
+
+	@Autowired
+	private MExamMapper mExamMapper;
+	@Autowired
+	private TExamResultDetailMapper tExamResultDetailMapper;
+	@Autowired
+	private ExamDefinitionService examDefinitionService;
+	@Autowired
+	private ParallelQueryUtil parallelQueryUtil;
+
+	@Value("${setting.exam.analysis.difficulty.max}")
+	private Double difficultyMax;
+	@Value("${setting.exam.analysis.difficulty.min}")
+	private Double difficultyMin;
+	@Value("${setting.exam.analysis.discrimination.min}")
+	private Double discriminationMin;
+
+	@Autowired
+	private IncrementalAggregateUtil incrementalAggregateUtil;
+
+	/* 試験ごとの集計値(キー：試験ID) */
+	private final IncrementalAggregate<HashMap<Integer, ExamAnalysis>, Submission> aggregate = new IncrementalAggregate<>(
+			"項目分析", HashMap::new, this::add);
+	/* 試験ごとの構築ロック */
+	private final ConcurrentHashMap<Integer, Object> rebuildLockMap = new ConcurrentHashMap<>();
+	/* 再構築を予約済みの試験ID */
+	private final Set<Integer> rebuildScheduledSet = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * 初期化
+	 */
+	@PostConstruct
+	public void init() {
+		incrementalAggregateUtil.register(aggregate, this::rebuildAll);
+	}
+
+	/**
+	 * 全試験の集計値を並列で一括構築<br>
+	 * 構築中に登録された試験結果は、構築で読込んでいないもののみ再適用する
+	 *
+	 * @return 成功した場合true
+	 */
+	public boolean rebuildAll() {
+		return aggregate.rebuild(() -> {
+			List<Integer> examIdList = mExamMapper.findExamIdList(Constants.DB_FLG_FALSE);
+			List<CompletableFuture<ExamLoaded>> futureList = new ArrayList<>();
+			for (Integer examId : examIdList) {
+				futureList.add(parallelQueryUtil.supplyAsync(() -> load(examId)));
+			}
+			HashMap<Integer, ExamAnalysis> newAnalysisMap = new HashMap<>();
+			HashMap<Integer, IntList> examResultIdListMap = new HashMap<>();
+			long count = 0;
+			for (int i = 0; i < examIdList.size(); i++) {
+				ExamLoaded examLoaded = parallelQueryUtil.join(futureList.get(i));
+				if (examLoaded != null) {
+					newAnalysisMap.put(examIdList.get(i), examLoaded.examAnalysis);
+					examResultIdListMap.put(examIdList.get(i), examLoaded.examResultIdList);
+					count += examLoaded.examResultIdList.size();
+				}
+			}
+			return new IncrementalAggregate.Loaded<>(analysisMap -> newAnalysisMap, submission -> {
+				IntList examResultIdList = examResultIdListMap.get(submission.examId);
+				return examResultIdList == null || !examResultIdList.containsSorted(submission.examResultId);
+			}, count);
+		});
+	}
+
+	/**
+	 * 試験の集計値を構築<br>
+	 * 構築中に登録された試験結果は、構築で読込んでいないもののみ構築後に再適用する
+	 *
+	 * @param examId
+	 * @return 成功した場合true
+	 */
+	public boolean rebuild(Integer examId) {
+		synchronized (rebuildLockMap.computeIfAbsent(examId, key -> new Object())) {
+			return aggregate.rebuildPart(() -> {
+				ExamLoaded examLoaded = load(examId);
+				return new IncrementalAggregate.Loaded<>(analysisMap -> {
+					if (examLoaded == null) {
+						analysisMap.remove(examId);
+					} else {
+						analysisMap.put(examId, examLoaded.examAnalysis);
+					}
+					return analysisMap;
+				}, submission -> examLoaded != null && submission.examId.equals(examId)
+						&& !examLoaded.examResultIdList.containsSorted(submission.examResultId),
+						examLoaded == null ? 0 : examLoaded.examResultIdList.size());
+			});
+		}
+	}
+
+	/**
+	 * 試験結果を集計値に反映<br>
+	 * 採点対象の試験結果のみ反映する
+	 *
+	 * @param tExamResult
+	 * @param examQuestionSetDto 採点に使用した問題セット
+	 * @param answerArray 回答
+	 */
+	public void update(TExamResult tExamResult, ExamQuestionSetDto examQuestionSetDto,
+			Short[] answerArray) {
+		if (!Objects.equals(tExamResult.getMarkFlg(), Constants.DB_FLG_TRUE)) {
+			return;
+		}
+		byte[] replies = new byte[examQuestionSetDto.getQuestionCount()];
+		for (int i = 0; answerArray != null && i < answerArray.length && i < replies.length; i++) {
+			replies[i] = toChoice(answerArray[i]);
+		}
+		aggregate.update(new Submission(tExamResult.getExamResultId(), examQuestionSetDto.getExamId(),
+				examQuestionSetDto.getVersion(), replies));
+	}
+
+	/**
+	 * 項目分析取得<br>
+	 * 未構築・問題セットが変更されている場合は再構築を予約し、構築済みの項目分析(未構築の場合は空のリスト)を返す
+	 *
+	 * @param examId
+	 * @return 項目分析DTOリスト(問題順)
+	 */
+	public List<ItemAnalysisDto> getItemAnalysisDtoList(Integer examId) {
+		ExamQuestionSetDto examQuestionSetDto = examDefinitionService.getExamQuestionSet(examId);
+		if (examQuestionSetDto == null) {
+			return new ArrayList<>();
+		}
+		ExamAnalysis examAnalysis = getExamAnalysis(examId);
+		if (examAnalysis == null
+				|| !Objects.equals(examAnalysis.examQuestionSetDto.getVersion(),
+						examQuestionSetDto.getVersion())) {
+			scheduleRebuild(examId);
+		}
+		if (examAnalysis == null) {
+			return new ArrayList<>();
+		}
+		return aggregate.read(analysisMap -> examAnalysis.toDtoList());
+	}
+
+	/**
+	 * 試験の集計値取得
+	 *
+	 * @param examId
+	 * @return 集計値
+	 */
+	private ExamAnalysis getExamAnalysis(Integer examId) {
+		return aggregate.read(analysisMap -> analysisMap.get(examId));
+	}
+
+	/**
+	 * 試験の集計値の読込み
+	 *
+	 * @param examId
+	 * @return 読込み結果(試験が存在しない場合null)
+	 */
+	private ExamLoaded load(Integer examId) {
+		ExamQuestionSetDto examQuestionSetDto = examDefinitionService.getExamQuestionSet(examId);
+		if (examQuestionSetDto == null) {
+			return null;
+		}
+		ExamAnalysis examAnalysis = new ExamAnalysis(examQuestionSetDto);
+		SourceReader sourceReader = new SourceReader(examAnalysis);
+		tExamResultDetailMapper.findItemAnalysisSource(examId, Constants.DB_FLG_FALSE, sourceReader);
+		return new ExamLoaded(examAnalysis, sourceReader.finish());
+	}
+
+	/**
+	 * 試験結果の反映<br>
+	 * 集計値の問題セットと異なる場合は、その試験の再構築を予約する
+	 *
+	 * @param analysisMap
+	 * @param submission
+	 */
+	private void add(HashMap<Integer, ExamAnalysis> analysisMap, Submission submission) {
+		ExamAnalysis examAnalysis = analysisMap.get(submission.examId);
+		if (examAnalysis == null) {
+			return;
+		}
+		if (Objects.equals(examAnalysis.examQuestionSetDto.getVersion(), submission.version)) {
+			examAnalysis.add(submission);
+		} else {
+			scheduleRebuild(submission.examId);
+		}
+	}
+
+	/**
+	 * 試験の再構築の予約<br>
+	 * 要求元のスレッドでは構築せず、予約済みの試験は重複して予約しない
+	 *
+	 * @param examId
+	 */
+	private void scheduleRebuild(Integer examId) {
+		if (!rebuildScheduledSet.add(examId)) {
+			return;
+		}
+		incrementalAggregateUtil.execute(() -> {
+			try {
+				rebuild(examId);
+			} finally {
+				rebuildScheduledSet.remove(examId);
+			}
+		});
+	}
+
+	/**
+	 * 回答を選択肢番号に変換(範囲外は無回答)
+	 *
+	 * @param reply
+	 * @return 選択肢番号
+	 */
+	private static byte toChoice(Short reply) {
+		if (reply == null || reply < 0 || reply >= CHOICE_COUNT) {
+			return 0;
+		}
+		return reply.byteValue();
+	}
+
+	/**
+	 * 構築用の試験結果詳細の読込み<br>
+	 * 試験結果IDの順に読込んだ回答を試験結果ごとにまとめて集計値に加算する
+	 */
+	private static final class SourceReader implements ResultHandler<ItemAnalysisSourceDto> {
+
+		private final ExamAnalysis examAnalysis;
+		/* 読込んだ試験結果ID(昇順) */
+		private final IntList examResultIdList = new IntList();
+		/* 読込み中の試験結果の回答 */
+		private byte[] replies;
+
+		SourceReader(ExamAnalysis examAnalysis) {
+			this.examAnalysis = examAnalysis;
+		}
+
+		@Override
+		public void handleResult(ResultContext<? extends ItemAnalysisSourceDto> resultContext) {
+			ItemAnalysisSourceDto source = resultContext.getResultObject();
+			int size = examResultIdList.size();
+			if (size == 0 || examResultIdList.get(size - 1) != source.getExamResultId()) {
+				if (replies != null) {
+					examAnalysis.add(replies);
+				}
+				examResultIdList.add(source.getExamResultId());
+				replies = new byte[examAnalysis.questionCount];
+			}
+			int index = examAnalysis.indexOf(source.getQuestionId());
+			if (index >= 0) {
+				replies[index] = toChoice(source.getReply());
+			}
+		}
+
+		IntList finish() {
+			if (replies != null) {
+				examAnalysis.add(replies);
+				replies = null;
+			}
+			return examResultIdList;
+		}
+	}
+
+	/**
+	 * 試験ごとの読込み結果
+	 */
+	private static final class ExamLoaded {
+
+		private final ExamAnalysis examAnalysis;
+		/* 読込んだ試験結果ID(昇順) */
+		private final IntList examResultIdList;
+
+		ExamLoaded(ExamAnalysis examAnalysis, IntList examResultIdList) {
+			this.examAnalysis = examAnalysis;
+			this.examResultIdList = examResultIdList;
+		}
+	}
+
+	/**
+	 * 試験結果ごとの回答
+	 */
+	private static final class Submission {
+
+		private final Integer examResultId;
+		private final Integer examId;
+		private final String version;
+		private final byte[] replies;
+
+		Submission(Integer examResultId, Integer examId, String version, byte[] replies) {
+			this.examResultId = examResultId;
+			this.examId = examId;
+			this.version = version;
+			this.replies = replies;
+		}
+	}
+
+	/**
+	 * 試験ごとの集計値<br>
+	 * 得点別の受験者数、問題・得点別の正答者数、問題・選択肢別の回答数を保持する
+	 */
+	private final class ExamAnalysis {
+
+		private final ExamQuestionSetDto examQuestionSetDto;
+		private final int questionCount;
+		/* 問題IDから問題の順番への変換 */
+		private final HashMap<Integer, Integer> indexMap = new HashMap<>();
+		/* 得点別の受験者数 */
+		private final long[] scoreCounts;
+		/* 問題・得点別の正答者数(添字：問題の順番×(問題数+1)+得点) */
+		private final long[] correctCounts;
+		/* 問題・選択肢別の回答数(添字：問題の順番×選択肢数+選択肢番号) */
+		private final long[] choiceCounts;
+
+		ExamAnalysis(ExamQuestionSetDto examQuestionSetDto) {
+			this.examQuestionSetDto = examQuestionSetDto;
+			this.questionCount = examQuestionSetDto.getQuestionCount();
+			for (int i = 0; i < questionCount; i++) {
+				indexMap.put(examQuestionSetDto.getQuestionId(i), i);
+			}
+			scoreCounts = new long[questionCount + 1];
+			correctCounts = new long[questionCount * (questionCount + 1)];
+			choiceCounts = new long[questionCount * CHOICE_COUNT];
+		}
+
+		int indexOf(Integer questionId) {
+			Integer index = indexMap.get(questionId);
+			return index == null ? -1 : index;
+		}
+
+		void add(Submission submission) {
+			add(submission.replies);
+		}
+
+		void add(byte[] replies) {
+			int score = 0;
+			for (int i = 0; i < questionCount; i++) {
+				if (replies[i] != 0 && replies[i] == examQuestionSetDto.getAnswerNum(i)) {
+					score++;
+				}
+			}
+			scoreCounts[score]++;
+			for (int i = 0; i < questionCount; i++) {
+				choiceCounts[i * CHOICE_COUNT + replies[i]]++;
+				if (replies[i] != 0 && replies[i] == examQuestionSetDto.getAnswerNum(i)) {
+					correctCounts[i * (questionCount + 1) + score]++;
+				}
+			}
+		}
+
+		List<ItemAnalysisDto> toDtoList() {
+			long attemptCount = 0;
+			double scoreSum = 0;
+			double scoreSquareSum = 0;
+			for (int score = 0; score <= questionCount; score++) {
+				attemptCount += scoreCounts[score];
+				scoreSum += (double) score * scoreCounts[score];
+				scoreSquareSum += (double) score * score * scoreCounts[score];
+			}
+			double average = attemptCount == 0 ? 0 : scoreSum / attemptCount;
+			double standardDeviation = attemptCount == 0 ? 0
+					: Math.sqrt(Math.max(0, scoreSquareSum / attemptCount - average * average));
+			// 上位群・下位群の得点別の重み(境界の得点は按分する)
+			double groupSize = attemptCount * GROUP_RATE;
+			double[] lowerWeights = groupWeights(groupSize, true);
+			double[] upperWeights = groupWeights(groupSize, false);
+
+			List<ItemAnalysisDto> itemAnalysisDtoList = new ArrayList<>(questionCount);
+			for (int i = 0; i < questionCount; i++) {
+				int offset = i * (questionCount + 1);
+				long correctCount = 0;
+				double correctScoreSum = 0;
+				double lowerCorrect = 0;
+				double upperCorrect = 0;
+				for (int score = 0; score <= questionCount; score++) {
+					long count = correctCounts[offset + score];
+					correctCount += count;
+					correctScoreSum += (double) score * count;
+					lowerCorrect += lowerWeights[score] * count;
+					upperCorrect += upperWeights[score] * count;
+				}
+
+				ItemAnalysisDto itemAnalysisDto = new ItemAnalysisDto();
+				itemAnalysisDto.setExamId(examQuestionSetDto.getExamId());
+				itemAnalysisDto.setQuestionNum(i + 1);
+				itemAnalysisDto.setQuestionId(examQuestionSetDto.getQuestionId(i));
+				itemAnalysisDto.setQuestion(examQuestionSetDto.getQuestion(i));
+				itemAnalysisDto.setAnswerNum(examQuestionSetDto.getAnswerNum(i));
+				itemAnalysisDto.setAttemptCount(attemptCount);
+				itemAnalysisDto.setCorrectCount(correctCount);
+				List<Long> choiceCountList = new ArrayList<>(CHOICE_COUNT);
+				for (int choice = 0; choice < CHOICE_COUNT; choice++) {
+					choiceCountList.add(choiceCounts[i * CHOICE_COUNT + choice]);
+				}
+				itemAnalysisDto.setChoiceCountList(choiceCountList);
+				if (attemptCount > 0) {
+					double difficulty = (double) correctCount / attemptCount;
+					itemAnalysisDto.setDifficulty(difficulty);
+					itemAnalysisDto.setTooEasy(difficulty >= difficultyMax);
+					itemAnalysisDto.setTooHard(difficulty <= difficultyMin);
+					if (groupSize >= 1) {
+						double discrimination = (upperCorrect - lowerCorrect) / groupSize;
+						itemAnalysisDto.setDiscrimination(discrimination);
+						itemAnalysisDto.setLowDiscrimination(discrimination < discriminationMin);
+						itemAnalysisDto.setNegativeDiscrimination(discrimination < 0);
+					}
+					if (standardDeviation > 0 && correctCount > 0 && correctCount < attemptCount) {
+						double correctAverage = correctScoreSum / correctCount;
+						itemAnalysisDto.setPointBiserial((correctAverage - average) / standardDeviation
+								* Math.sqrt(difficulty / (1 - difficulty)));
+					}
+				}
+				itemAnalysisDtoList.add(itemAnalysisDto);
+			}
+			return itemAnalysisDtoList;
+		}
+
+		/**
+		 * 上位群・下位群に含まれる受験者の得点別の割合
+		 *
+		 * @param groupSize 群の人数
+		 * @param lower 下位群の場合true
+		 * @return 得点別の割合
+		 */
+		private double[] groupWeights(double groupSize, boolean lower) {
+			double[] weights = new double[questionCount + 1];
+			double remaining = groupSize;
+			for (int i = 0; i <= questionCount && remaining > 0; i++) {
+				int score = lower ? i : questionCount - i;
+				long count = scoreCounts[score];
+				if (count == 0) {
+					continue;
+				}
+				double taken = Math.min(remaining, count);
+				weights[score] = taken / count;
+				remaining -= taken;
+			}
+			return weights;
+		}
+	}
+
+}
@@ -0,0 +1,434 @@
+package jp.co.sss.lms.service;
+
+import java.io.File;
+import java.io.UnsupportedEncodingException;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import jp.co.sss.lms.dto.MailQueDto;
+import jp.co.sss.lms.dto.MailQueFileDto;
+import jp.co.sss.lms.dto.MailQueMetricsDto;
+import jp.co.sss.lms.entity.TMailQue;
+import jp.co.sss.lms.mapper.TMailQueMapper;
+import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.MessageUtil;
+
+/**
+ * メール送信サービス<br>
+ * メール送信キューに登録されたメールをバックグラウンドで送信する。<br>
+ * 送信対象は一定件数(setting.mail.dispatch.batchSize)ずつ送信中として確保し、1件分のSMTP接続で送信する。
+ * 確保はSKIP LOCKEDにより他のスレッド・ノードが確保中の行を飛ばすため、複数ノードの送信スレッド
+ * (ノードごとにsetting.mail.dispatch.workerCount)が重複なく並行して送信できる。確保には期限
+ * (setting.mail.dispatch.leaseSecond)を設け、送信中に停止したノードのメールは期限切れ後に他で再送する。<br>
+ * 送信に失敗したメールは再送回数に応じて待ち時間を倍にして再送し、再送回数が
+ * setting.mail.fail.notification.periodに達した場合は送信失敗として管理者(setting.tismail)に通知する。<br>
+ * setting.mail.send.flgが1の場合のみ送信する(0の場合はパスワード再設定メールを含め送信せず、キューに未送信のまま残す)。
+ * キューの確認間隔はsetting.mail.que.wait、
+ * 1通ごとの待ち時間はsetting.mail.send.wait(いずれも秒)とする。
+ *
+ * @author 東京ITスクール
+ */
+@Service
+public class MailDispatchService {
+
+	/** エラーメッセージの最大長 */
+	private static final int ERROR_MESSAGE_MAX_LENGTH = 1000;
+
+	@Autowired
+	private TMailQueMapper tMailQueMapper;
+	@Autowired
+	private JavaMailSenderImpl mailSender;
+	@Autowired
+	private MessageUtil messageUtil;
+
+	/** 送信数を集計する秒数 */
+	private static final int SEND_RATE_WINDOW_SECOND = 60;
+
+	@Value("${setting.mail.dispatch.batchSize}")
+	private Integer batchSize;
+	@Value("${setting.mail.dispatch.workerCount}")
+	private Integer workerCount;
+	@Value("${setting.mail.dispatch.leaseSecond}")
+	private Integer leaseSecond;
+	@Value("${setting.mail.dispatch.backoffSecond}")
+	private Integer backoffSecond;
+	@Value("${setting.mail.dispatch.backoffMaxSecond}")
+	private Integer backoffMaxSecond;
+	@Value("${setting.mail.attachment.dir}")
+	private String attachmentDir;
+	@Value("${mail.sender.name}")
+	private String senderName;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/* 送信元アドレス */
+	private String senderAddress;
+	/* 1通ごとの待ち時間(秒) */
+	private int sendWait;
+	/* 送信失敗とする再送回数 */
+	private int failCount;
+	/* 送信失敗の通知先 */
+	private String tisMail;
+
+	/* 送信スレッド */
+	private ScheduledExecutorService executor;
+	/* 即時送信の要求 */
+	private final AtomicBoolean wakeUpRequested = new AtomicBoolean();
+	/* 送信数(1秒ごと・直近の秒数分を循環して保持) */
+	private final long[] sentSecondArray = new long[SEND_RATE_WINDOW_SECOND];
+	private final int[] sentCountArray = new int[SEND_RATE_WINDOW_SECOND];
+
+	/**
+	 * 初期化<br>
+	 * 送信フラグが1の場合のみ送信スレッドを開始する
+	 */
+	@PostConstruct
+	public void init() {
+		senderAddress = messageUtil.getMessage(Constants.PROP_KEY_MAIL_SENDER_ADDRESS);
+		sendWait = Integer.parseInt(messageUtil.getMessage(Constants.PROP_KEY_MAIL_SEND_WAIT));
+		failCount = Integer.parseInt(messageUtil.getMessage(Constants.PROP_KEY_MAIL_FAIL_NOTIFICATION_PERIOD));
+		tisMail = messageUtil.getMessage(Constants.PROP_KEY_TISMAIL);
+		if (!"1".equals(messageUtil.getMessage(Constants.PROP_KEY_MAIL_SEND_FLG))) {
+			logger.info("メール送信フラグがオフのため、メール送信キューを送信しません");
+			return;
+		}
+		int queWait = Integer.parseInt(messageUtil.getMessage(Constants.PROP_KEY_MAIL_QUE_WAIT));
+		AtomicInteger threadCount = new AtomicInteger();
+		executor = Executors.newScheduledThreadPool(workerCount, runnable -> {
+			Thread thread = new Thread(runnable, "mail-dispatcher-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		for (int i = 0; i < workerCount; i++) {
+			executor.scheduleWithFixedDelay(this::dispatch, queWait, queWait, TimeUnit.SECONDS);
+		}
+	}
+
+	/**
+	 * 終了処理
+	 */
+	@PreDestroy
+	public void destroy() {
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * 即時送信の要求<br>
+	 * キューの確認間隔を待たずに送信する。送信中に重ねて要求された場合はまとめて1回とする
+	 */
+	public void wakeUp() {
+		if (executor == null || !wakeUpRequested.compareAndSet(false, true)) {
+			return;
+		}
+		for (int i = 0; i < workerCount; i++) {
+			executor.execute(() -> {
+				wakeUpRequested.set(false);
+				dispatch();
+			});
+		}
+	}
+
+	/**
+	 * 送信対象のメールの送信<br>
+	 * 送信対象がなくなるまで一定件数ずつ確保して送信する
+	 */
+	public void dispatch() {
+		try {
+			while (true) {
+				String claimToken = UUID.randomUUID().toString();
+				Date now = new Date();
+				Date leaseExpireDate = new Date(now.getTime() + TimeUnit.SECONDS.toMillis(leaseSecond));
+				int claimCount = tMailQueMapper.claimSendTarget(claimToken, Constants.MAIL_SEND_STATUS_UNSENT,
+						Constants.MAIL_SEND_STATUS_SENDING, Constants.DB_FLG_FALSE, now, leaseExpireDate, batchSize);
+				if (claimCount == 0) {
+					return;
+				}
+				List<MailQueDto> mailQueDtoList = tMailQueMapper.findClaimedList(claimToken,
+						Constants.MAIL_SEND_STATUS_SENDING, Constants.DB_FLG_FALSE);
+				sendBatch(claimToken, mailQueDtoList);
+				if (claimCount < batchSize || Thread.currentThread().isInterrupted()) {
+					return;
+				}
+			}
+		} catch (Exception e) {
+			logger.warn("メールの送信に失敗しました", e);
+		}
+	}
+
+	/**
+	 * メールの一括送信<br>
+	 * 1件分のSMTP接続で順に送信し、送信結果を1通ずつ記録する。
+	 * 接続できない場合は残りのメールを全て再送対象とし、停止する場合は残りのメールの確保を解除する
+	 *
+	 * @param claimToken
+	 * @param mailQueDtoList
+	 */
+	private void sendBatch(String claimToken, List<MailQueDto> mailQueDtoList) {
+		Transport transport = null;
+		try {
+			for (int i = 0; i < mailQueDtoList.size(); i++) {
+				MailQueDto mailQueDto = mailQueDtoList.get(i);
+				if (i > 0 && sendWait > 0) {
+					Thread.sleep(TimeUnit.SECONDS.toMillis(sendWait));
+				}
+				MimeMessage message;
+				try {
+					message = createMessage(mailQueDto);
+				} catch (MessagingException | UnsupportedEncodingException e) {
+					recordFailure(claimToken, mailQueDto, e);
+					continue;
+				}
+				if (transport == null || !transport.isConnected()) {
+					try {
+						transport = connect();
+					} catch (MessagingException e) {
+						for (MailQueDto remaining : mailQueDtoList.subList(i, mailQueDtoList.size())) {
+							recordFailure(claimToken, remaining, e);
+						}
+						return;
+					}
+				}
+				try {
+					transport.sendMessage(message, message.getAllRecipients());
+					recordSent(claimToken, mailQueDto);
+				} catch (MessagingException e) {
+					recordFailure(claimToken, mailQueDto, e);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			tMailQueMapper.releaseClaim(claimToken, Constants.MAIL_SEND_STATUS_UNSENT,
+					Constants.MAIL_SEND_STATUS_SENDING);
+		} finally {
+			if (transport != null) {
+				try {
+					transport.close();
+				} catch (MessagingException e) {
+					logger.debug("SMTP接続のクローズに失敗しました", e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * SMTP接続
+	 *
+	 * @return 接続済みのトランスポート
+	 * @throws MessagingException
+	 */
+	private Transport connect() throws MessagingException {
+		String protocol = StringUtils.defaultIfEmpty(mailSender.getProtocol(), JavaMailSenderImpl.DEFAULT_PROTOCOL);
+		Transport transport = mailSender.getSession().getTransport(protocol);
+		transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(),
+				mailSender.getPassword());
+		return transport;
+	}
+
+	/**
+	 * メッセージの生成<br>
+	 * 添付ファイルはsetting.mail.attachment.dirからの相対パスとして読込む
+	 *
+	 * @param mailQueDto
+	 * @return メッセージ
+	 * @throws MessagingException
+	 * @throws UnsupportedEncodingException
+	 */
+	private MimeMessage createMessage(MailQueDto mailQueDto)
+			throws MessagingException, UnsupportedEncodingException {
+		List<MailQueFileDto> fileDtoList = mailQueDto.getFileDtoList() == null ? List.of()
+				: mailQueDto.getFileDtoList();
+		MimeMessage message = mailSender.createMimeMessage();
+		MimeMessageHelper helper = new MimeMessageHelper(message, !fileDtoList.isEmpty(), "UTF-8");
+		helper.setFrom(senderAddress, senderName);
+		helper.setTo(InternetAddress.parse(mailQueDto.getMailAddressTo()));
+		if (StringUtils.isNotEmpty(mailQueDto.getMailAddressCc())) {
+			helper.setCc(InternetAddress.parse(mailQueDto.getMailAddressCc()));
+		}
+		if (StringUtils.isNotEmpty(mailQueDto.getMailAddressBcc())) {
+			helper.setBcc(InternetAddress.parse(mailQueDto.getMailAddressBcc()));
+		}
+		helper.setSubject(mailQueDto.getSubject());
+		helper.setText(mailQueDto.getBody());
+		helper.setSentDate(new Date());
+		for (MailQueFileDto fileDto : fileDtoList) {
+			File file = Paths.get(attachmentDir, fileDto.getFilePath()).toFile();
+			if (!file.isFile()) {
+				throw new MessagingException("添付ファイルが存在しません：" + file);
+			}
+			helper.addAttachment(fileDto.getFileName(), file);
+		}
+		message.saveChanges();
+		return message;
+	}
+
+	/**
+	 * 送信済みの記録
+	 *
+	 * @param claimToken
+	 * @param mailQueDto
+	 */
+	private void recordSent(String claimToken, MailQueDto mailQueDto) {
+		Date now = new Date();
+		countSent(now.getTime() / 1000);
+		TMailQue tMailQue = new TMailQue();
+		tMailQue.setMailQueId(mailQueDto.getMailQueId());
+		tMailQue.setClaimToken(claimToken);
+		tMailQue.setSendStatus(Constants.MAIL_SEND_STATUS_SENT);
+		tMailQue.setRetryCount(mailQueDto.getRetryCount());
+		tMailQue.setSendDate(now);
+		tMailQue.setLastModifiedDate(now);
+		updateSendStatus(tMailQue);
+	}
+
+	/**
+	 * 送信失敗の記録<br>
+	 * 再送回数が上限に達していない場合は待ち時間を倍にして再送する。上限に達した場合は送信失敗として通知する
+	 *
+	 * @param claimToken
+	 * @param mailQueDto
+	 * @param e
+	 */
+	private void recordFailure(String claimToken, MailQueDto mailQueDto, Exception e) {
+		Date now = new Date();
+		int retryCount = mailQueDto.getRetryCount() + 1;
+		TMailQue tMailQue = new TMailQue();
+		tMailQue.setMailQueId(mailQueDto.getMailQueId());
+		tMailQue.setClaimToken(claimToken);
+		tMailQue.setRetryCount(retryCount);
+		tMailQue.setErrorMessage(StringUtils.abbreviate(e.toString(), ERROR_MESSAGE_MAX_LENGTH));
+		tMailQue.setLastModifiedDate(now);
+		if (retryCount >= failCount) {
+			tMailQue.setSendStatus(Constants.MAIL_SEND_STATUS_FAILED);
+			if (!updateSendStatus(tMailQue)) {
+				return;
+			}
+			logger.error("メールの送信に失敗しました(メール送信キューID：" + mailQueDto.getMailQueId() + ")", e);
+			notifyFailure(mailQueDto, now);
+		} else {
+			long delaySecond = Math.min((long) backoffSecond << Math.min(retryCount - 1, 30), backoffMaxSecond);
+			tMailQue.setSendStatus(Constants.MAIL_SEND_STATUS_UNSENT);
+			tMailQue.setNextSendDate(new Date(now.getTime() + TimeUnit.SECONDS.toMillis(delaySecond)));
+			updateSendStatus(tMailQue);
+			logger.warn("メールの送信に失敗したため" + delaySecond + "秒後に再送します(メール送信キューID："
+					+ mailQueDto.getMailQueId() + ")：" + e);
+		}
+	}
+
+	/**
+	 * 送信失敗の通知<br>
+	 * 通知先へのメール自体が失敗した場合は通知しない
+	 *
+	 * @param mailQueDto
+	 * @param now
+	 */
+	private void notifyFailure(MailQueDto mailQueDto, Date now) {
+		if (StringUtils.isEmpty(tisMail) || tisMail.equals(mailQueDto.getMailAddressTo())) {
+			return;
+		}
+		String body = messageUtil.getMessage(Constants.PROP_KEY_MAIL_MAILFAILED_BODY)
+				.replace(Constants.REPLACE_CHAR_MAIL_ADDRESS, mailQueDto.getMailAddressTo())
+				.replace(Constants.REPLACE_CHAR_SUBJECT, StringUtils.defaultString(mailQueDto.getSubject()))
+				.replace(Constants.REPLACE_CHAR_QUE_CREATE_DATE, mailQueDto.getFirstCreateDate() == null ? ""
+						: new SimpleDateFormat("yyyy/MM/dd HH:mm").format(mailQueDto.getFirstCreateDate()));
+		TMailQue tMailQue = new TMailQue();
+		tMailQue.setMailAddressTo(tisMail);
+		tMailQue.setSubject(messageUtil.getMessage(Constants.PROP_KEY_MAIL_MAILFAILED_SUBJECT));
+		tMailQue.setBody(body);
+		tMailQue.setSendStatus(Constants.MAIL_SEND_STATUS_UNSENT);
+		tMailQue.setRetryCount(0);
+		tMailQue.setDeleteFlg(Constants.DB_FLG_FALSE);
+		tMailQue.setFirstCreateDate(now);
+		tMailQue.setLastModifiedDate(now);
+		tMailQueMapper.insert(tMailQue);
+	}
+
+	/**
+	 * 送信状態の更新<br>
+	 * 確保の期限切れにより他で確保し直された場合は更新しない
+	 *
+	 * @param tMailQue
+	 * @return 更新した場合はtrue
+	 */
+	private boolean updateSendStatus(TMailQue tMailQue) {
+		if (Boolean.TRUE.equals(tMailQueMapper.updateSendStatus(tMailQue))) {
+			return true;
+		}
+		logger.warn("送信中の確保の期限が切れたため送信状態を更新しませんでした(メール送信キューID："
+				+ tMailQue.getMailQueId() + ")");
+		return false;
+	}
+
+	/**
+	 * 送信数の集計
+	 *
+	 * @param second 送信日時(エポック秒)
+	 */
+	private synchronized void countSent(long second) {
+		int index = (int) (second % SEND_RATE_WINDOW_SECOND);
+		if (sentSecondArray[index] != second) {
+			sentSecondArray[index] = second;
+			sentCountArray[index] = 0;
+		}
+		sentCountArray[index]++;
+	}
+
+	/**
+	 * 直近の1秒あたりの送信数(このノード)
+	 *
+	 * @return 1秒あたりの送信数
+	 */
+	public synchronized double getSendsPerSecond() {
+		long now = System.currentTimeMillis() / 1000;
+		int total = 0;
+		for (int i = 0; i < SEND_RATE_WINDOW_SECOND; i++) {
+			if (now - sentSecondArray[i] < SEND_RATE_WINDOW_SECOND) {
+				total += sentCountArray[i];
+			}
+		}
+		return (double) total / SEND_RATE_WINDOW_SECOND;
+	}
+
+	/**
+	 * メール送信キューの状況取得<br>
+	 * 未送信・送信中の件数と最も古いメールの経過時間は全ノード分、送信数はこのノード分とする
+	 *
+	 * @return メール送信キュー状況DTO
+	 */
+	public MailQueMetricsDto getMetrics() {
+		MailQueMetricsDto mailQueMetricsDto = tMailQueMapper.getQueueMetrics(Constants.MAIL_SEND_STATUS_UNSENT,
+				Constants.MAIL_SEND_STATUS_SENDING, Constants.DB_FLG_FALSE);
+		if (mailQueMetricsDto.getOldestCreateDate() != null) {
+			mailQueMetricsDto.setOldestAgeSecond(TimeUnit.MILLISECONDS
+					.toSeconds(System.currentTimeMillis() - mailQueMetricsDto.getOldestCreateDate().getTime()));
+		}
+		mailQueMetricsDto.setSendsPerSecond(getSendsPerSecond());
+		mailQueMetricsDto.setWorkerCount(executor == null ? 0 : workerCount);
+		return mailQueMetricsDto;
+	}
+
+}
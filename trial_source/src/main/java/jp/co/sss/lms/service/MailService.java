@@ -5,6 +5,8 @@ import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import jp.co.sss.lms.dto.FileDownloadDto;
 import jp.co.sss.lms.dto.FileDto;
@@ -35,9 +37,12 @@ public class MailService {
 	private LoginUserUtil loginUserUtil;
 	@Autowired
 	private FileUtil fileUtil;
+	@Autowired
+	private MailDispatchService mailDispatchService;
 
 	/**
-	 * メールキュー登録
+	 * メールキュー登録<br>
+	 * 送信はメール送信サービスがバックグラウンドで行う(コミット後に即時送信を要求する)
 	 * 
 	 * @param to
 	 * @param subject
@@ -55,6 +60,8 @@ public class MailService {
 		tMailQue.setMailAddressCc(cc);
 		tMailQue.setSubject(subject);
 		tMailQue.setBody(body);
+		tMailQue.setSendStatus(Constants.MAIL_SEND_STATUS_UNSENT);
+		tMailQue.setRetryCount(0);
 		tMailQue.setDeleteFlg(Constants.DB_FLG_FALSE);
 		tMailQue.setFirstCreateDate(now);
 		tMailQue.setLastModifiedDate(now);
@@ -85,6 +92,18 @@ public class MailService {
 				}
 			}
 		}
+
+		// 即時送信の要求
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					mailDispatchService.wakeUp();
+				}
+			});
+		} else {
+			mailDispatchService.wakeUp();
+		}
 	}
 
 }
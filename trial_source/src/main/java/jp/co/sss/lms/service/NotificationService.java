@@ -0,0 +1,257 @@
+package jp.co.sss.lms.service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jp.co.sss.lms.dto.FeedbackNotificationDto;
+import jp.co.sss.lms.dto.InfoDto;
+import jp.co.sss.lms.dto.NotificationDto;
+import jp.co.sss.lms.mapper.TDailyReportFbMapper;
+import jp.co.sss.lms.util.Constants;
+import net.arnx.jsonic.JSON;
+
+/**
+ * 通知サービス<br>
+ * ログイン中のユーザとServer-Sent Eventsの接続を保持し、アプリケーション内で発行された通知DTOを
+ * 全員または通知先のユーザの接続へ配信する。配信は仮想スレッドで行い、発行元を待たせない。<br>
+ * 接続は非同期処理のため待機中にスレッドを占有しない。一定間隔(setting.notification.heartbeatSecond)で
+ * コメント行を送信して切断された接続を破棄し、接続がある間は一定間隔(setting.notification.pollSecond)で
+ * お知らせの更新・日報へのフィードバックを確認して通知DTOを発行する。
+ *
+ * @author 東京ITスクール
+ */
+@Service
+public class NotificationService {
+
+	/** イベント名：お知らせ */
+	public static final String EVENT_INFO = "info";
+	/** イベント名：フィードバック */
+	public static final String EVENT_FEEDBACK = "feedback";
+
+	/** 1回の確認で通知するフィードバックの上限 */
+	private static final int FEEDBACK_LIMIT = 500;
+
+	@Autowired
+	private InfoService infoService;
+	@Autowired
+	private TDailyReportFbMapper tDailyReportFbMapper;
+	@Autowired
+	private ApplicationEventPublisher applicationEventPublisher;
+
+	@Value("${setting.notification.timeoutMillis}")
+	private Long timeoutMillis;
+	@Value("${setting.notification.heartbeatSecond}")
+	private Integer heartbeatSecond;
+	@Value("${setting.notification.pollSecond}")
+	private Integer pollSecond;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/* 接続(キー：LMSユーザーID) */
+	private final ConcurrentHashMap<Integer, Set<SseEmitter>> emitterMap = new ConcurrentHashMap<>();
+	/* 接続数 */
+	private final AtomicInteger connectionCount = new AtomicInteger();
+
+	/* 通知済みのお知らせ(お知らせID-更新日時) */
+	private String lastInfoKey;
+	/* 通知済みの日報フィードバックコメントID */
+	private Integer lastDailyReportFbId;
+
+	/* 配信スレッド */
+	private ExecutorService sendExecutor;
+	/* ハートビート・確認スレッド */
+	private ScheduledExecutorService scheduler;
+
+	/**
+	 * 初期化
+	 */
+	@PostConstruct
+	public void init() {
+		sendExecutor = Executors.newVirtualThreadPerTaskExecutor();
+		scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "notification");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatSecond, heartbeatSecond, TimeUnit.SECONDS);
+		scheduler.scheduleWithFixedDelay(this::poll, pollSecond, pollSecond, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * 終了処理
+	 */
+	@PreDestroy
+	public void destroy() {
+		scheduler.shutdownNow();
+		for (Set<SseEmitter> emitterSet : emitterMap.values()) {
+			for (SseEmitter emitter : emitterSet) {
+				emitter.complete();
+			}
+		}
+		emitterMap.clear();
+		sendExecutor.shutdown();
+	}
+
+	/**
+	 * 通知の購読<br>
+	 * 切断・タイムアウト時に接続を破棄する
+	 *
+	 * @param lmsUserId
+	 * @return 接続
+	 */
+	public SseEmitter subscribe(Integer lmsUserId) {
+		SseEmitter emitter = new SseEmitter(timeoutMillis);
+		emitterMap.compute(lmsUserId, (key, emitterSet) -> {
+			Set<SseEmitter> newEmitterSet = emitterSet == null ? ConcurrentHashMap.newKeySet() : emitterSet;
+			newEmitterSet.add(emitter);
+			return newEmitterSet;
+		});
+		connectionCount.incrementAndGet();
+		emitter.onCompletion(() -> remove(lmsUserId, emitter));
+		emitter.onTimeout(() -> remove(lmsUserId, emitter));
+		emitter.onError(e -> remove(lmsUserId, emitter));
+		return emitter;
+	}
+
+	/**
+	 * 接続数
+	 *
+	 * @return 接続数
+	 */
+	public int getConnectionCount() {
+		return connectionCount.get();
+	}
+
+	/**
+	 * 通知の配信<br>
+	 * 通知先のLMSユーザーIDがない場合は全員に配信する
+	 *
+	 * @param notificationDto
+	 */
+	@EventListener
+	public void onNotification(NotificationDto notificationDto) {
+		// 全ての接続で共有するため、送信内容は1回だけ生成する
+		Set<DataWithMediaType> event = SseEmitter.event().name(notificationDto.getName())
+				.data(JSON.encode(notificationDto.getData())).build();
+		if (notificationDto.getLmsUserId() == null) {
+			emitterMap.forEach((lmsUserId, emitterSet) -> send(lmsUserId, emitterSet, event));
+		} else {
+			Set<SseEmitter> emitterSet = emitterMap.get(notificationDto.getLmsUserId());
+			if (emitterSet != null) {
+				send(notificationDto.getLmsUserId(), emitterSet, event);
+			}
+		}
+	}
+
+	/**
+	 * ハートビート<br>
+	 * コメント行を送信し、送信できない接続を破棄する
+	 */
+	public void heartbeat() {
+		Set<DataWithMediaType> event = SseEmitter.event().comment("heartbeat").build();
+		emitterMap.forEach((lmsUserId, emitterSet) -> send(lmsUserId, emitterSet, event));
+	}
+
+	/**
+	 * お知らせの更新・日報へのフィードバックの確認<br>
+	 * 接続がない場合は確認しない。初回は現在の状態を通知済みとする
+	 */
+	public void poll() {
+		if (connectionCount.get() == 0) {
+			return;
+		}
+		try {
+			// お知らせ(全員に通知)
+			InfoDto infoDto = infoService.getInfo();
+			String infoKey = infoDto.getInfoId() + "-" + infoDto.getLastModifiedDate();
+			if (lastInfoKey != null && !lastInfoKey.equals(infoKey)) {
+				publish(null, EVENT_INFO, infoDto);
+			}
+			lastInfoKey = infoKey;
+
+			// 日報へのフィードバック(日報の提出者に通知)
+			if (lastDailyReportFbId == null) {
+				lastDailyReportFbId = tDailyReportFbMapper.getMaxDailyReportFbId();
+				return;
+			}
+			List<FeedbackNotificationDto> feedbackNotificationDtoList = tDailyReportFbMapper
+					.findFeedbackNotificationDtoList(lastDailyReportFbId, Constants.DB_FLG_FALSE, FEEDBACK_LIMIT);
+			for (FeedbackNotificationDto feedbackNotificationDto : feedbackNotificationDtoList) {
+				publish(feedbackNotificationDto.getLmsUserId(), EVENT_FEEDBACK, feedbackNotificationDto);
+				lastDailyReportFbId = feedbackNotificationDto.getDailyReportFbId();
+			}
+		} catch (Exception e) {
+			logger.warn("通知の確認に失敗しました", e);
+		}
+	}
+
+	/**
+	 * 通知DTOの発行
+	 *
+	 * @param lmsUserId
+	 * @param name
+	 * @param data
+	 */
+	private void publish(Integer lmsUserId, String name, Object data) {
+		NotificationDto notificationDto = new NotificationDto();
+		notificationDto.setLmsUserId(lmsUserId);
+		notificationDto.setName(name);
+		notificationDto.setData(data);
+		applicationEventPublisher.publishEvent(notificationDto);
+	}
+
+	/**
+	 * 接続への送信(仮想スレッドで実行)
+	 *
+	 * @param lmsUserId
+	 * @param emitterSet
+	 * @param event
+	 */
+	private void send(Integer lmsUserId, Set<SseEmitter> emitterSet, Set<DataWithMediaType> event) {
+		for (SseEmitter emitter : emitterSet) {
+			sendExecutor.execute(() -> {
+				try {
+					emitter.send(event);
+				} catch (IOException | IllegalStateException e) {
+					// 切断済みの接続
+					remove(lmsUserId, emitter);
+				}
+			});
+		}
+	}
+
+	/**
+	 * 接続の破棄
+	 *
+	 * @param lmsUserId
+	 * @param emitter
+	 */
+	private void remove(Integer lmsUserId, SseEmitter emitter) {
+		emitterMap.computeIfPresent(lmsUserId, (key, emitterSet) -> {
+			if (emitterSet.remove(emitter)) {
+				connectionCount.decrementAndGet();
+			}
+			return emitterSet.isEmpty() ? null : emitterSet;
+		});
+	}
+
+}
@@ -0,0 +1,164 @@
+package jp.co.sss.lms.service;
+
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jp.co.sss.lms.entity.TPasswordResetToken;
+import jp.co.sss.lms.entity.TTemporaryPassStorage;
+import jp.co.sss.lms.mapper.TPasswordResetTokenMapper;
+import jp.co.sss.lms.mapper.TTemporaryPassStorageMapper;
+import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.DateUtil;
+import jp.co.sss.lms.util.MessageUtil;
+import jp.co.sss.lms.util.PasswordUtil;
+
+/**
+ * パスワード再設定トークンサービス<br>
+ * パスワード再設定メールのリンクに含めるトークンを発行・照合する。トークンはSecureRandomで生成した
+ * 固定長の文字列とし、テーブルにはハッシュ値のみを保存してユニークインデックスで照合する。<br>
+ * 使用済みのトークンは期限を使用日時にするため、期限切れ・使用済みのトークンはいずれも期限のインデックスで
+ * 検索でき、一定間隔(setting.password.token.purgeIntervalSecond)で一定件数
+ * (setting.password.token.purgeBatchSize)ずつ削除する。<br>
+ * 移行前にパスワード変更テーブルへ登録したリンクは、期限(setting.timelimit.hour)が切れるまで変更キーでも照合する。
+ *
+ * @author 東京ITスクール
+ */
+@Service
+public class PasswordResetTokenService {
+
+	@Autowired
+	private TPasswordResetTokenMapper tPasswordResetTokenMapper;
+	@Autowired
+	private TTemporaryPassStorageMapper tTemporaryPassStorageMapper;
+	@Autowired
+	private PasswordUtil passwordUtil;
+	@Autowired
+	private DateUtil dateUtil;
+	@Autowired
+	private MessageUtil messageUtil;
+
+	@Value("${setting.password.token.purgeIntervalSecond}")
+	private Integer purgeIntervalSecond;
+	@Value("${setting.password.token.purgeBatchSize}")
+	private Integer purgeBatchSize;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/* 削除スレッド */
+	private ScheduledExecutorService executor;
+
+	/**
+	 * 初期化
+	 */
+	@PostConstruct
+	public void init() {
+		executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "password-reset-token-purge");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.scheduleWithFixedDelay(this::purge, purgeIntervalSecond, purgeIntervalSecond,
+				TimeUnit.SECONDS);
+	}
+
+	/**
+	 * 終了処理
+	 */
+	@PreDestroy
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * トークンの発行<br>
+	 * ユーザーの発行済みのトークンは使用済みとし、移行前に発行したリンクも削除して、新しいトークンのみ有効とする
+	 *
+	 * @param userId
+	 * @return トークン
+	 */
+	public String issue(Integer userId) {
+		Date now = new Date();
+		Integer timeLimit = Integer.parseInt(messageUtil.getMessage("setting.timelimit.hour"));
+		tPasswordResetTokenMapper.updateUsedByUserId(userId, now, userId);
+		tTemporaryPassStorageMapper.deleteUpdateByUserId(userId, userId, now);
+
+		String token = passwordUtil.generateToken();
+		TPasswordResetToken tPasswordResetToken = new TPasswordResetToken();
+		tPasswordResetToken.setUserId(userId);
+		tPasswordResetToken.setTokenHash(passwordUtil.getTokenHash(token));
+		tPasswordResetToken.setTimeLimit(dateUtil.addHour(now, timeLimit));
+		tPasswordResetToken.setFirstCreateUser(userId);
+		tPasswordResetToken.setFirstCreateDate(now);
+		tPasswordResetToken.setLastModifiedUser(userId);
+		tPasswordResetToken.setLastModifiedDate(now);
+		tPasswordResetTokenMapper.insert(tPasswordResetToken);
+		return token;
+	}
+
+	/**
+	 * トークンの照合<br>
+	 * 該当がない場合は移行前に発行したリンクの変更キーとして照合する
+	 *
+	 * @param token
+	 * @return 有効なトークンの場合はユーザーID、それ以外はnull
+	 */
+	public Integer findUserId(String token) {
+		if (token == null || token.isEmpty()) {
+			return null;
+		}
+		Date now = new Date();
+		TPasswordResetToken tPasswordResetToken = tPasswordResetTokenMapper
+				.findValidByTokenHash(passwordUtil.getTokenHash(token), now);
+		if (tPasswordResetToken != null) {
+			return tPasswordResetToken.getUserId();
+		}
+		TTemporaryPassStorage tTemporaryPassStorage = tTemporaryPassStorageMapper
+				.findValidByChangeKey(token, now, Constants.DB_FLG_FALSE);
+		return tTemporaryPassStorage == null ? null : tTemporaryPassStorage.getUserId();
+	}
+
+	/**
+	 * ユーザーのトークンを使用済みにする<br>
+	 * 移行前に発行したリンクも使用できないようにする
+	 *
+	 * @param userId
+	 * @param lastModifiedUser
+	 */
+	public void use(Integer userId, Integer lastModifiedUser) {
+		Date now = new Date();
+		tPasswordResetTokenMapper.updateUsedByUserId(userId, now, lastModifiedUser);
+		tTemporaryPassStorageMapper.deleteUpdateByUserId(userId, lastModifiedUser, now);
+	}
+
+	/**
+	 * 期限切れ・使用済みのトークンの削除<br>
+	 * ロックを短くするため一定件数ずつ削除する
+	 */
+	public void purge() {
+		try {
+			Date now = new Date();
+			int total = 0;
+			int count;
+			do {
+				count = tPasswordResetTokenMapper.deleteExpired(now, purgeBatchSize);
+				total += count;
+			} while (count == purgeBatchSize && !Thread.currentThread().isInterrupted());
+			if (total > 0) {
+				logger.info("期限切れ・使用済みのパスワード再設定トークンを削除しました(" + total + "件)");
+			}
+		} catch (Exception e) {
+			logger.warn("パスワード再設定トークンの削除に失敗しました", e);
+		}
+	}
+
+}
@@ -1,6 +1,5 @@
 package jp.co.sss.lms.service;
 
-import java.sql.Timestamp;
 import java.util.Date;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,15 +14,12 @@ import org.springframework.validation.FieldError;
 import jp.co.sss.lms.dto.LoginUserDto;
 import jp.co.sss.lms.entity.LoginUser;
 import jp.co.sss.lms.entity.MUser;
-import jp.co.sss.lms.entity.TTemporaryPassStorage;
 import jp.co.sss.lms.form.LoginForm;
 import jp.co.sss.lms.form.MailAddressForm;
 import jp.co.sss.lms.mapper.LoginMapper;
 import jp.co.sss.lms.mapper.MUserMapper;
-import jp.co.sss.lms.mapper.TTemporaryPassStorageMapper;
 import jp.co.sss.lms.util.Constants;
 import jp.co.sss.lms.util.DateUtil;
-import jp.co.sss.lms.util.MailUtil;
 import jp.co.sss.lms.util.MessageUtil;
 import jp.co.sss.lms.util.PasswordUtil;
 
@@ -48,13 +44,11 @@ public class PasswordService {
 	@Autowired
 	private LoginMapper loginMapper;
 	@Autowired
-	private TTemporaryPassStorageMapper tTemporaryPassStorageMapper;
+	private PasswordResetTokenService passwordResetTokenService;
 	@Autowired
 	private PasswordUtil passwordUtil;
 	@Autowired
 	private MailService mailService;
-	@Autowired
-	private MailUtil mailUtil;
 
 	/**
 	 * パスワード相関チェック（パスワード変更）
@@ -116,15 +110,8 @@ public class PasswordService {
 				loginUserDto.setPasswordNgCount(0);
 				loginUserDto.setPasswordNgDate("");
 				session.setAttribute("loginUserDto", loginUserDto);
-				// パスワード変更テーブルの情報があれば削除
-				TTemporaryPassStorage tTemporaryPassStorage = tTemporaryPassStorageMapper
-						.findByUserId(loginUserDto.getUserId(), Constants.DB_FLG_FALSE);
-				if (tTemporaryPassStorage != null) {
-					tTemporaryPassStorage.setDeleteFlg(Constants.DB_FLG_TRUE);
-					tTemporaryPassStorage.setLastModifiedDate(now);
-					tTemporaryPassStorage.setLastModifiedUser(loginUserDto.getLmsUserId());
-					tTemporaryPassStorageMapper.deleteUpdate(tTemporaryPassStorage);
-				}
+				// パスワード再設定トークンがあれば使用済みにする
+				passwordResetTokenService.use(loginUserDto.getUserId(), loginUserDto.getLmsUserId());
 			} else {
 				// ログイン詳細が取得できなかった場合
 				return messageUtil.getMessage(Constants.VALID_KEY_LOGINDATA_GET_FAILED);
@@ -137,74 +124,46 @@ public class PasswordService {
 	}
 
 	/**
-	 * パスワード変更テーブル登録
+	 * パスワード再設定トークン発行
 	 * 
 	 * @param mailAddressForm
+	 * @return トークン(対象のユーザーが存在しない場合はnull)
 	 */
-	public void registTemporaryPassStorage(MailAddressForm mailAddressForm) {
+	public String registPasswordResetToken(MailAddressForm mailAddressForm) {
 
 		// 対象のユーザー情報を取得
 		MUser mUser = mUserMapper.findByMailAddress(mailAddressForm.getMailAddress(),
 				Constants.DB_FLG_FALSE);
 		if (mUser == null) {
-			return;
+			return null;
 		}
 
-		// パスワード変更可能時間を設定
-		Integer timeLimit = Integer.parseInt(messageUtil.getMessage("setting.timelimit.hour"));
-		Date now = new Date();
-
-		// 変更キーの生成
-		String key = passwordUtil.generatePassword() + passwordUtil.generatePassword();
-
-		// パスワード変更テーブルに登録
-		TTemporaryPassStorage tTemporaryPassStorage = tTemporaryPassStorageMapper
-				.findByUserId(mUser.getUserId(), Constants.DB_FLG_FALSE);
-		boolean hasTemporaryPassStorage = (tTemporaryPassStorage != null);
-		if (!hasTemporaryPassStorage) {
-			tTemporaryPassStorage = new TTemporaryPassStorage();
-		}
-		tTemporaryPassStorage.setChangeKey(key);
-		tTemporaryPassStorage
-				.setTimeLimit(new Timestamp(dateUtil.addHour(now, timeLimit).getTime()));
-		tTemporaryPassStorage.setUserId(mUser.getUserId());
-		tTemporaryPassStorage.setDeleteFlg(Constants.DB_FLG_FALSE);
-		tTemporaryPassStorage.setLastModifiedDate(now);
-		tTemporaryPassStorage.setLastModifiedUser(mUser.getUserId());
-		if (!hasTemporaryPassStorage) {
-			tTemporaryPassStorage.setFirstCreateDate(now);
-			tTemporaryPassStorage.setFirstCreateUser(mUser.getUserId());
-			tTemporaryPassStorageMapper.insert(tTemporaryPassStorage);
-		} else {
-			tTemporaryPassStorageMapper.update(tTemporaryPassStorage);
-		}
+		// パスワード再設定トークンを発行
+		String token = passwordResetTokenService.issue(mUser.getUserId());
 
 		// ユーザーマスタの最終パスワード変更日を削除（パスワード変更対象）
+		Date now = new Date();
 		mUser.setPasswordChangeDate(null);
 		mUser.setLastModifiedDate(now);
 		mUser.setLastModifiedUser(mUser.getUserId());
 		mUserMapper.updatePasswordChangeDate(mUser);
+		return token;
 	}
 
 	/**
-	 * パスワード再設定メール送信
+	 * パスワード再設定メール送信<br>
+	 * メール送信キューに登録し、送信はメール送信サービスがコミット後に行う。
+	 * メール送信フラグ(setting.mail.send.flg)が0の場合は従来どおり送信しない(呼出し元で判定)
 	 * 
 	 * @param request
-	 * @param mailAddress
+	 * @param mailAddressForm
+	 * @param token
 	 */
-	public void sendPasswordResetMail(HttpServletRequest request, MailAddressForm mailAddressForm) {
+	public void sendPasswordResetMail(HttpServletRequest request, MailAddressForm mailAddressForm,
+			String token) {
 
-		// 対象のユーザー情報を取得
-		MUser mUser = mUserMapper.findByMailAddress(mailAddressForm.getMailAddress(),
-				Constants.DB_FLG_FALSE);
-		if (mUser == null) {
-			return;
-		}
-
-		// パスワード変更テーブル情報を取得
-		TTemporaryPassStorage tTemporaryPassStorage = tTemporaryPassStorageMapper
-				.findByUserId(mUser.getUserId(), Constants.DB_FLG_FALSE);
-		if (tTemporaryPassStorage == null) {
+		// 対象のユーザーが存在しない場合は送信しない
+		if (token == null) {
 			return;
 		}
 
@@ -213,14 +172,12 @@ public class PasswordService {
 		String servletPath = request.getServletPath();
 		String resetPasswordUrl = "/password/resetPassword/set";
 		String contextRoot = nowUrl.replace(servletPath, "");
-		String url = contextRoot + resetPasswordUrl + "?key="
-				+ tTemporaryPassStorage.getChangeKey();
+		String url = contextRoot + resetPasswordUrl + "?key=" + token;
 		String to = mailAddressForm.getMailAddress();
 		String subject = messageUtil.getMessage(Constants.PROP_KEY_MAIL_RESETPASS_SUBJECT);
 		String body = messageUtil.getMessage(Constants.PROP_KEY_MAIL_RESETPASS_BODY);
 		body = body.replace(Constants.REPLACE_CHAR_RESET_PASSWORD_URL, url);
 		mailService.registMailQue(to, subject, body, null, null);
-		mailUtil.sendMail(to, null, subject, body);
 	}
 
 	/**
@@ -230,16 +187,8 @@ public class PasswordService {
 	 * @return 確認結果
 	 */
 	public Integer checkAccessValidity(String key) {
-		// 制限時間内でのアクセスであるか確認
-		TTemporaryPassStorage tTemporaryPassStorage = tTemporaryPassStorageMapper
-				.findByChangeKey(key, Constants.DB_FLG_FALSE);
-		// keyに該当するデータが無いまたは、制限時間を過ぎている場合にエラー画面に遷移
-		Date now = new Date();
-		if (tTemporaryPassStorage == null
-				|| tTemporaryPassStorage.getTimeLimit().compareTo(now) < 0) {
-			return null;
-		}
-		return tTemporaryPassStorage.getUserId();
+		// keyに該当する有効なトークンが無い(制限時間を過ぎている・使用済み)場合はnull
+		return passwordResetTokenService.findUserId(key);
 	}
 
 	/**
@@ -0,0 +1,189 @@
+package jp.co.sss.lms.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 要求回数制限サービス<br>
+ * ログインせずに実行でき、DB更新・メール送信を伴う要求(パスワード再設定など)の回数を、
+ * 接続元IPアドレスごと・対象(メールアドレスなど)ごとのトークンバケットで制限する。<br>
+ * バケットは「満杯に戻る時刻」を1つの値で保持し、CASで更新するためロックを使用しない。
+ * バケットの表はConcurrentHashMap(ビンごとに分割)とし、キー間で競合しない。
+ * 満杯に戻ったバケットは新規作成と同じ状態のため、一定間隔(setting.rateLimit.evictSecond)で破棄し、
+ * バケット数の上限(setting.rateLimit.maxKeys)に達した場合は満杯に最も近いバケットを破棄して新しいキーを受け付ける。<br>
+ * 接続元IPアドレスはロードバランサー経由の場合X-Forwarded-Forから取得する(server.forward-headers-strategy)。
+ *
+ * @author 東京ITスクール
+ */
+@Service
+public class RateLimitService {
+
+	/** キーの接頭辞：IPアドレス */
+	private static final String KEY_PREFIX_IP = "ip:";
+	/** キーの接頭辞：対象 */
+	private static final String KEY_PREFIX_TARGET = "target:";
+
+	@Value("${setting.rateLimit.ip.capacity}")
+	private Integer ipCapacity;
+	@Value("${setting.rateLimit.ip.refillSecond}")
+	private Integer ipRefillSecond;
+	@Value("${setting.rateLimit.target.capacity}")
+	private Integer targetCapacity;
+	@Value("${setting.rateLimit.target.refillSecond}")
+	private Integer targetRefillSecond;
+	@Value("${setting.rateLimit.maxKeys}")
+	private Integer maxKeys;
+	@Value("${setting.rateLimit.evictSecond}")
+	private Integer evictSecond;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/* バケット(値：満杯に戻る時刻(ナノ秒)) */
+	private final ConcurrentHashMap<String, AtomicLong> bucketMap = new ConcurrentHashMap<>();
+
+	/* 破棄スレッド */
+	private ScheduledExecutorService executor;
+
+	/**
+	 * 初期化
+	 */
+	@PostConstruct
+	public void init() {
+		executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "rate-limit-evict");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.scheduleWithFixedDelay(this::evict, evictSecond, evictSecond, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * 終了処理
+	 */
+	@PreDestroy
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * 要求の許可判定<br>
+	 * IPアドレスのバケット、対象のバケットの順にトークンを取得し、いずれかが空の場合は拒否する。
+	 * 対象のバケットで拒否した場合は、取得したIPアドレスのトークンを戻す。
+	 * DBにはアクセスしないため、要求の処理の最初に判定する
+	 *
+	 * @param remoteAddr 接続元IPアドレス
+	 * @param target 対象(メールアドレス・ログインIDなど、空の場合は判定しない)
+	 * @return 許可する場合はtrue
+	 */
+	public boolean tryAcquire(String remoteAddr, String target) {
+		long now = System.nanoTime();
+		if (!tryAcquire(KEY_PREFIX_IP + remoteAddr, ipCapacity, ipRefillSecond, now)) {
+			logger.warn("要求回数の上限に達したため拒否しました(IPアドレス：" + remoteAddr + ")");
+			return false;
+		}
+		if (StringUtils.isNotBlank(target) && !tryAcquire(
+				KEY_PREFIX_TARGET + target.trim().toLowerCase(), targetCapacity, targetRefillSecond, now)) {
+			release(KEY_PREFIX_IP + remoteAddr, ipRefillSecond);
+			logger.warn("要求回数の上限に達したため拒否しました(対象：" + target + ")");
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * バケットからのトークン取得<br>
+	 * 1トークンの補充間隔をI、容量をCとすると、満杯に戻る時刻に1Iを加えた時刻が現在からC×I以内の場合に取得できる
+	 *
+	 * @param key
+	 * @param capacity 容量
+	 * @param refillSecond 1トークンの補充間隔(秒)
+	 * @param now 現在時刻(ナノ秒)
+	 * @return 取得できた場合はtrue
+	 */
+	private boolean tryAcquire(String key, int capacity, int refillSecond, long now) {
+		AtomicLong bucket = bucketMap.get(key);
+		if (bucket == null) {
+			if (bucketMap.size() >= maxKeys) {
+				evict();
+				if (bucketMap.size() >= maxKeys) {
+					evictNearestFull();
+				}
+			}
+			bucket = bucketMap.computeIfAbsent(key, k -> new AtomicLong(now));
+		}
+		long interval = TimeUnit.SECONDS.toNanos(refillSecond);
+		long limit = interval * capacity;
+		while (true) {
+			long fullAt = bucket.get();
+			long next = Math.max(fullAt - now, 0) + interval;
+			if (next > limit) {
+				return false;
+			}
+			if (bucket.compareAndSet(fullAt, now + next)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * バケットへのトークンの返却
+	 *
+	 * @param key
+	 * @param refillSecond 1トークンの補充間隔(秒)
+	 */
+	private void release(String key, int refillSecond) {
+		AtomicLong bucket = bucketMap.get(key);
+		if (bucket != null) {
+			bucket.addAndGet(-TimeUnit.SECONDS.toNanos(refillSecond));
+		}
+	}
+
+	/**
+	 * 満杯に最も近いバケットの破棄<br>
+	 * バケット数が上限に達した場合のみ全件を走査する
+	 */
+	private void evictNearestFull() {
+		String nearestKey = null;
+		long nearestFullAt = Long.MAX_VALUE;
+		for (var entry : bucketMap.entrySet()) {
+			long fullAt = entry.getValue().get();
+			if (nearestKey == null || fullAt - nearestFullAt < 0) {
+				nearestKey = entry.getKey();
+				nearestFullAt = fullAt;
+			}
+		}
+		if (nearestKey != null) {
+			bucketMap.remove(nearestKey);
+		}
+	}
+
+	/**
+	 * 満杯に戻ったバケットの破棄
+	 */
+	public void evict() {
+		long now = System.nanoTime();
+		bucketMap.values().removeIf(bucket -> bucket.get() - now <= 0);
+	}
+
+	/**
+	 * バケット数
+	 *
+	 * @return バケット数
+	 */
+	public int getBucketCount() {
+		return bucketMap.size();
+	}
+
+}
@@ -0,0 +1,293 @@
+package jp.co.sss.lms.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jp.co.sss.lms.dto.LoginUserDto;
+import jp.co.sss.lms.dto.ReportSearchDto;
+import jp.co.sss.lms.entity.TDailyReportSubmit;
+import jp.co.sss.lms.form.ReportSearchForm;
+import jp.co.sss.lms.mapper.TCourseUserMapper;
+import jp.co.sss.lms.mapper.TDailyReportSubmitDetailMapper;
+import jp.co.sss.lms.util.BigramIndex;
+import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.DateUtil;
+import jp.co.sss.lms.util.IncrementalAggregate;
+import jp.co.sss.lms.util.IncrementalAggregateUtil;
+import jp.co.sss.lms.util.IntLongMap;
+
+/**
+ * レポート検索サービス<br>
+ * 日報提出詳細の内容をバイグラムの転置インデックスで全文検索する。<br>
+ * インデックスは日報提出詳細テーブルから一括構築し、以降はレポート登録のたびに差分を登録する。
+ * 構築・差分の反映は他の差分集計と同じく{@link IncrementalAggregate}で行い、構築中に登録されたレポートは
+ * 構築で読込んだ内容より新しいもののみ再適用する。<br>
+ * セグメントファイルの保存先(setting.search.index.dir)は必須とする。
+ * 差分が一定件数(setting.search.index.mergeThreshold)を超えた場合はセグメントファイルに統合する。
+ *
+ * @author 東京ITスクール
+ */
+@Service
+public class ReportSearchService {
+
+	@Autowired
+	private LoginUserDto loginUserDto;
+	@Autowired
+	private DateUtil dateUtil;
+	@Autowired
+	private TDailyReportSubmitDetailMapper tDailyReportSubmitDetailMapper;
+	@Autowired
+	private TCourseUserMapper tCourseUserMapper;
+	@Autowired
+	private IncrementalAggregateUtil incrementalAggregateUtil;
+
+	@Value("${setting.search.index.dir}")
+	private String indexDir;
+	@Value("${setting.search.index.mergeThreshold}")
+	private Integer mergeThreshold;
+	@Value("${setting.search.result.max}")
+	private Integer resultMax;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/* 全文検索インデックス */
+	private BigramIndex bigramIndex;
+	/* 全文検索インデックスの差分集計 */
+	private IncrementalAggregate<BigramIndex, IndexUpdate> aggregate;
+	/* 統合処理の予約状態 */
+	private final AtomicBoolean mergeScheduled = new AtomicBoolean();
+
+	/**
+	 * 初期化
+	 *
+	 * @throws IOException
+	 */
+	@PostConstruct
+	public void init() throws IOException {
+		if (indexDir == null || indexDir.isBlank()) {
+			throw new IllegalStateException("setting.search.index.dir を設定してください");
+		}
+		bigramIndex = new BigramIndex(Paths.get(indexDir));
+		aggregate = new IncrementalAggregate<>("レポート検索インデックス", () -> bigramIndex, this::apply);
+		incrementalAggregateUtil.register(aggregate, this::rebuild);
+	}
+
+	/**
+	 * 終了処理
+	 */
+	@PreDestroy
+	public void destroy() {
+		bigramIndex.close();
+	}
+
+	/**
+	 * インデックスの一括構築<br>
+	 * セグメントファイルの書出しまでを読込みで行い、置き換えのみを集計のロック中に行う
+	 *
+	 * @return 成功した場合true
+	 */
+	public boolean rebuild() {
+		return aggregate.rebuild(() -> {
+			BigramIndex.Builder builder = bigramIndex.newBuilder();
+			// 構築に含めた提出の最終更新日時(キー：日報提出ID)
+			IntLongMap versionMap = new IntLongMap();
+			tDailyReportSubmitDetailMapper.findReportSearchSource(Constants.DB_FLG_FALSE, resultContext -> {
+				var source = resultContext.getResultObject();
+				if (versionMap.get(source.getDailyReportSubmitId()) == 0) {
+					versionMap.addTo(source.getDailyReportSubmitId(), toVersion(source.getLastModifiedDate()));
+				}
+				builder.add(toDoc(source.getDailyReportSubmitId(), source.getDailyReportId(),
+						source.getLmsUserId(), source.getAccountId(), source.getDate()),
+						source.getFieldNum(), source.getContent());
+			});
+			try {
+				bigramIndex.write(builder);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return new IncrementalAggregate.Loaded<>(index -> {
+				index.install(builder);
+				return index;
+			}, update -> versionMap.get(update.doc.docId) < update.version, versionMap.size());
+		});
+	}
+
+	/**
+	 * レポートの登録内容をインデックスに反映<br>
+	 * トランザクション中の場合はコミット後に反映する
+	 *
+	 * @param tDailyReportSubmit
+	 * @param contentArray
+	 */
+	public void update(TDailyReportSubmit tDailyReportSubmit, String[] contentArray) {
+		BigramIndex.Doc doc = toDoc(tDailyReportSubmit.getDailyReportSubmitId(),
+				tDailyReportSubmit.getDailyReportId(), tDailyReportSubmit.getLmsUserId(),
+				tDailyReportSubmit.getAccountId(), tDailyReportSubmit.getDate());
+		Map<Integer, String> contentMap = new HashMap<>();
+		for (int i = 0; contentArray != null && i < contentArray.length; i++) {
+			contentMap.put(i + 1, contentArray[i]);
+		}
+		aggregate.update(new IndexUpdate(doc, contentMap, toVersion(tDailyReportSubmit.getLastModifiedDate())));
+	}
+
+	/**
+	 * レポート検索<br>
+	 * ログインユーザーの企業アカウントのレポートから、キーワードを含むものを日付の新しい順に返す
+	 *
+	 * @param reportSearchForm
+	 * @return レポート検索結果DTOリスト
+	 * @throws ParseException
+	 */
+	public List<ReportSearchDto> search(ReportSearchForm reportSearchForm) throws ParseException {
+
+		int accountId = loginUserDto.getAccountId();
+		Predicate<BigramIndex.Doc> filter = doc -> doc.accountId == accountId;
+		if (reportSearchForm.getLmsUserId() != null) {
+			int lmsUserId = reportSearchForm.getLmsUserId();
+			filter = filter.and(doc -> doc.userId == lmsUserId);
+		}
+		if (reportSearchForm.getCourseId() != null) {
+			Set<Integer> lmsUserIdSet = new HashSet<>(tCourseUserMapper.findLmsUserIdList(
+					reportSearchForm.getCourseId(), accountId, Constants.DB_FLG_FALSE));
+			filter = filter.and(doc -> lmsUserIdSet.contains(doc.userId));
+		}
+		if (reportSearchForm.getDateFrom() != null && !reportSearchForm.getDateFrom().isEmpty()) {
+			int from = toEpochDay(dateUtil.parse(reportSearchForm.getDateFrom()));
+			filter = filter.and(doc -> doc.epochDay >= from);
+		}
+		if (reportSearchForm.getDateTo() != null && !reportSearchForm.getDateTo().isEmpty()) {
+			int to = toEpochDay(dateUtil.parse(reportSearchForm.getDateTo()));
+			filter = filter.and(doc -> doc.epochDay <= to);
+		}
+
+		Predicate<BigramIndex.Doc> searchFilter = filter;
+		List<BigramIndex.Hit> hitList = aggregate
+				.read(index -> index.search(reportSearchForm.getKeyword(), searchFilter));
+		hitList.sort(Comparator.comparingInt((BigramIndex.Hit hit) -> hit.doc.epochDay)
+				.thenComparingInt(hit -> hit.doc.docId).reversed());
+
+		List<ReportSearchDto> reportSearchDtoList = new ArrayList<>();
+		for (BigramIndex.Hit hit : hitList.subList(0, Math.min(hitList.size(), resultMax))) {
+			ReportSearchDto reportSearchDto = new ReportSearchDto();
+			reportSearchDto.setDailyReportSubmitId(hit.doc.docId);
+			reportSearchDto.setDailyReportId(hit.doc.typeId);
+			reportSearchDto.setLmsUserId(hit.doc.userId);
+			reportSearchDto.setDate(Date.from(LocalDate.ofEpochDay(hit.doc.epochDay)
+					.atStartOfDay(ZoneId.systemDefault()).toInstant()));
+			reportSearchDto.setFieldNumList(new ArrayList<>(hit.fieldNumSet));
+			reportSearchDtoList.add(reportSearchDto);
+		}
+		return reportSearchDtoList;
+	}
+
+	/**
+	 * 差分の反映(集計の書込みロック中に実行)<br>
+	 * 差分が上限を超えた場合はセグメントへの統合を予約する
+	 *
+	 * @param index
+	 * @param update
+	 */
+	private void apply(BigramIndex index, IndexUpdate update) {
+		if (index.put(update.doc, update.contentMap) >= mergeThreshold
+				&& mergeScheduled.compareAndSet(false, true)) {
+			incrementalAggregateUtil.execute(() -> {
+				try {
+					index.merge();
+				} catch (IOException e) {
+					logger.warn("レポート検索インデックスの統合に失敗しました", e);
+				} finally {
+					mergeScheduled.set(false);
+				}
+			});
+		}
+	}
+
+	/**
+	 * 文書情報の生成
+	 *
+	 * @param dailyReportSubmitId
+	 * @param dailyReportId
+	 * @param lmsUserId
+	 * @param accountId
+	 * @param date
+	 * @return 文書情報
+	 */
+	private BigramIndex.Doc toDoc(Integer dailyReportSubmitId, Integer dailyReportId,
+			Integer lmsUserId, Integer accountId, Date date) {
+		return new BigramIndex.Doc(dailyReportSubmitId, toInt(dailyReportId), toInt(lmsUserId),
+				toInt(accountId), date == null ? 0 : toEpochDay(date));
+	}
+
+	/**
+	 * 日付をエポック日に変換
+	 *
+	 * @param date
+	 * @return エポック日
+	 */
+	private int toEpochDay(Date date) {
+		return (int) Instant.ofEpochMilli(date.getTime()).atZone(ZoneId.systemDefault())
+				.toLocalDate().toEpochDay();
+	}
+
+	/**
+	 * 最終更新日時をバージョンに変換
+	 *
+	 * @param date
+	 * @return バージョン(nullの場合1)
+	 */
+	private long toVersion(Date date) {
+		return date == null ? 1 : date.getTime();
+	}
+
+	/**
+	 * 数値の変換(nullの場合0)
+	 *
+	 * @param value
+	 * @return 数値
+	 */
+	private int toInt(Integer value) {
+		return value == null ? 0 : value;
+	}
+
+	/**
+	 * 提出ごとのインデックスの変更内容
+	 */
+	private static final class IndexUpdate {
+
+		private final BigramIndex.Doc doc;
+		/* 項目番号ごとの内容 */
+		private final Map<Integer, String> contentMap;
+		/* バージョン(日報提出の最終更新日時) */
+		private final long version;
+
+		IndexUpdate(BigramIndex.Doc doc, Map<Integer, String> contentMap, long version) {
+			this.doc = doc;
+			this.contentMap = contentMap;
+			this.version = version;
+		}
+	}
+
+}
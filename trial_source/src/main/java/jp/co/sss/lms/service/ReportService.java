@@ -1,36 +1,53 @@
 package jp.co.sss.lms.service;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import jp.co.sss.lms.dto.DailyReportDefinitionDto;
 import jp.co.sss.lms.dto.DailyReportDetailDto;
 import jp.co.sss.lms.dto.DailyReportDownloadDto;
 import jp.co.sss.lms.dto.DailyReportDto;
 import jp.co.sss.lms.dto.DailyReportFbDto;
+import jp.co.sss.lms.dto.DailyReportVersionDto;
 import jp.co.sss.lms.dto.IntelligibilityDto;
 import jp.co.sss.lms.dto.LoginUserDto;
+import jp.co.sss.lms.dto.OutputFileDto;
 import jp.co.sss.lms.dto.WorkbookDto;
 import jp.co.sss.lms.entity.TDailyReportSubmit;
 import jp.co.sss.lms.entity.TDailyReportSubmitDetail;
 import jp.co.sss.lms.entity.TIntelligibility;
 import jp.co.sss.lms.form.DailyReportSubmitForm;
-import jp.co.sss.lms.mapper.TCourseDailyReportMapper;
+import jp.co.sss.lms.mapper.TCourseUserMapper;
+import jp.co.sss.lms.mapper.TDailyReportFbMapper;
 import jp.co.sss.lms.mapper.TDailyReportSubmitDetailMapper;
 import jp.co.sss.lms.mapper.TDailyReportSubmitMapper;
 import jp.co.sss.lms.mapper.TIntelligibilityMapper;
-import jp.co.sss.lms.mapper.TSectionDailyReportMapper;
 import jp.co.sss.lms.util.Constants;
 import jp.co.sss.lms.util.DateUtil;
 import jp.co.sss.lms.util.ExcelUtil;
 import jp.co.sss.lms.util.LoginUserUtil;
 import jp.co.sss.lms.util.MessageUtil;
+import jp.co.sss.lms.util.OutputCacheUtil;
+import jp.co.sss.lms.util.ParallelQueryUtil;
 
 /**
  * レポート情報サービス
@@ -49,15 +66,25 @@ public class ReportService {
 	@Autowired
 	private DateUtil dateUtil;
 	@Autowired
-	private TCourseDailyReportMapper tCourseDailyReportMapper;
-	@Autowired
-	private TSectionDailyReportMapper tSectionDailyReportMapper;
+	private DailyReportDefinitionService dailyReportDefinitionService;
 	@Autowired
 	private TDailyReportSubmitMapper tDailyReportSubmitMapper;
 	@Autowired
 	private TDailyReportSubmitDetailMapper tDailyReportSubmitDetailMapper;
 	@Autowired
 	private TIntelligibilityMapper tIntelligibilityMapper;
+	@Autowired
+	private TDailyReportFbMapper tDailyReportFbMapper;
+	@Autowired
+	private TCourseUserMapper tCourseUserMapper;
+	@Autowired
+	private ParallelQueryUtil parallelQueryUtil;
+	@Autowired
+	private OutputCacheUtil outputCacheUtil;
+	@Autowired
+	private ReportSearchService reportSearchService;
+	@Autowired
+	private IntelligibilityRollupService intelligibilityRollupService;
 
 	/**
 	 * レポート情報取得
@@ -68,68 +95,69 @@ public class ReportService {
 	 */
 	public void getDailyReport(DailyReportSubmitForm dailyReportSubmitForm) throws ParseException {
 
-		// コースに紐づくレポート情報を取得
-		DailyReportDto dailyReportDto = tCourseDailyReportMapper.getDailyReportDto(
-				dailyReportSubmitForm.getDailyReportId(), loginUserDto.getCourseId(),
-				loginUserDto.getAccountId(), loginUserDto.getLmsUserId(), Constants.DB_FLG_FALSE,
-				dailyReportSubmitForm.getDate());
-		// 無かった場合にセクションに紐づく情報を取得
-		if (dailyReportDto == null) {
-			dailyReportDto = tSectionDailyReportMapper.getDailyReportDto(
-					dailyReportSubmitForm.getDailyReportId(), dailyReportSubmitForm.getSectionId(),
-					loginUserDto.getAccountId(), loginUserDto.getLmsUserId(),
-					Constants.DB_FLG_FALSE, dailyReportSubmitForm.getDate());
+		// コースまたはセクションに紐づくレポート定義を取得
+		Integer dailyReportId = dailyReportSubmitForm.getDailyReportId();
+		DailyReportDefinitionDto dailyReportDefinitionDto = null;
+		if (dailyReportDefinitionService.isCourseDailyReport(dailyReportId,
+				loginUserDto.getCourseId(), loginUserDto.getAccountId())
+				|| dailyReportDefinitionService.isSectionDailyReport(dailyReportId,
+						dailyReportSubmitForm.getSectionId(), loginUserDto.getAccountId())) {
+			dailyReportDefinitionDto = dailyReportDefinitionService.getDefinition(dailyReportId);
+		}
+		if (dailyReportDefinitionDto == null) {
+			throw new IllegalArgumentException("dailyReportId " + dailyReportId);
 		}
 
-		// フォームに詰め替え
-		dailyReportSubmitForm.setDailyReportId(dailyReportDto.getDailyReportId());
-		if (dailyReportSubmitForm.getDate() == null) {
-			dailyReportSubmitForm.setDate(dailyReportDto.getDate());
+		// 提出済みの内容を取得
+		DailyReportDto dailyReportDto = null;
+		if (dailyReportSubmitForm.getDate() != null) {
+			List<DailyReportDto> dailyReportDtoList = tDailyReportSubmitMapper
+					.getSubmittedDailyReportDto(dailyReportId, loginUserDto.getLmsUserId(),
+							dailyReportSubmitForm.getDate(), Constants.DB_FLG_FALSE);
+			if (dailyReportDtoList.size() > 0) {
+				dailyReportDto = dailyReportDtoList.get(0);
+			}
 		}
-		dailyReportSubmitForm.setReportName(dailyReportDto.getReportName());
-		dailyReportSubmitForm.setIntelligibilityFlg(dailyReportDto.getIntelligibilityFlg());
-		if (dailyReportDto.getIntelligibilityFlg() != null
-				&& dailyReportDto.getIntelligibilityFlg() == 1) {
+
+		// フォームに詰め替え
+		dailyReportSubmitForm.setDailyReportId(dailyReportDefinitionDto.getDailyReportId());
+		dailyReportSubmitForm.setReportName(dailyReportDefinitionDto.getReportName());
+		dailyReportSubmitForm.setIntelligibilityFlg(dailyReportDefinitionDto.getIntelligibilityFlg());
+		if (dailyReportDefinitionDto.hasIntelligibility()) {
 			dailyReportSubmitForm
-					.setIntelligibilityFieldNum(dailyReportDto.getIntelligibilityFieldNum());
-			dailyReportSubmitForm.setIntelligibilityNum(dailyReportDto.getIntelligibilityNum());
-			Short intelligibilityDtoListSize = dailyReportDto.getIntelligibilityFieldNum();
+					.setIntelligibilityFieldNum(dailyReportDefinitionDto.getIntelligibilityFieldNum());
+			dailyReportSubmitForm.setIntelligibilityNum(dailyReportDefinitionDto.getIntelligibilityNum());
+			Short intelligibilityDtoListSize = dailyReportDefinitionDto.getIntelligibilityFieldNum();
 			String[] intFieldNameArray = new String[intelligibilityDtoListSize];
 			Short[] intFieldValueArray = new Short[intelligibilityDtoListSize];
-			List<IntelligibilityDto> intelligibilityDtoList = dailyReportDto
-					.getIntelligibilityDtoList();
-			if (!(intelligibilityDtoList.size() == 1
-					&& intelligibilityDtoList.get(0).getIntelligibilityId() == null)) {
-				for (int i = 0; i < intelligibilityDtoList.size(); i++) {
-					intFieldNameArray[i] = intelligibilityDtoList.get(i).getFieldName();
-					intFieldValueArray[i] = intelligibilityDtoList.get(i).getFieldValue();
+			if (dailyReportDto != null) {
+				List<TIntelligibility> intelligibilityList = tIntelligibilityMapper
+						.findByDailyReportSubmitId(dailyReportDto.getDailyReportSubmitId());
+				for (int i = 0; i < intelligibilityList.size() && i < intelligibilityDtoListSize; i++) {
+					intFieldNameArray[i] = intelligibilityList.get(i).getFieldName();
+					intFieldValueArray[i] = intelligibilityList.get(i).getFieldValue();
 				}
 			}
 			dailyReportSubmitForm.setIntFieldNameArray(intFieldNameArray);
 			dailyReportSubmitForm.setIntFieldValueArray(intFieldValueArray);
 		}
-		Integer dailyReportDetailDtoListSize = dailyReportDto.getDailyReportDetailDtoList().size();
-		String[] fieldNameArray = new String[dailyReportDetailDtoListSize];
-		Short[] requiredFlgArray = new Short[dailyReportDetailDtoListSize];
-		Short[] inputTypeArray = new Short[dailyReportDetailDtoListSize];
-		Integer[] rangeFromArray = new Integer[dailyReportDetailDtoListSize];
-		Integer[] rangeToArray = new Integer[dailyReportDetailDtoListSize];
-		String[] contentArray = new String[dailyReportDetailDtoListSize];
-		for (int j = 0; j < dailyReportDto.getDailyReportDetailDtoList().size(); j++) {
-			DailyReportDetailDto dailyReportDetailDto = dailyReportDto.getDailyReportDetailDtoList()
-					.get(j);
-			fieldNameArray[j] = dailyReportDetailDto.getFieldName();
-			requiredFlgArray[j] = dailyReportDetailDto.getRequiredFlg();
-			inputTypeArray[j] = dailyReportDetailDto.getInputType();
-			rangeFromArray[j] = dailyReportDetailDto.getRangeFrom();
-			rangeToArray[j] = dailyReportDetailDto.getRangeTo();
-			contentArray[j] = dailyReportDetailDto.getContent();
+		Map<Integer, String> contentMap = new HashMap<>();
+		if (dailyReportDto != null) {
+			for (DailyReportDetailDto dailyReportDetailDto : dailyReportDto
+					.getDailyReportDetailDtoList()) {
+				contentMap.put(dailyReportDetailDto.getFieldNum(), dailyReportDetailDto.getContent());
+			}
+		}
+		Integer[] fieldNumArray = dailyReportDefinitionDto.getFieldNumArray();
+		String[] contentArray = new String[dailyReportDefinitionDto.getFieldCount()];
+		for (int j = 0; j < contentArray.length; j++) {
+			contentArray[j] = contentMap.get(fieldNumArray[j]);
 		}
-		dailyReportSubmitForm.setFieldNameArray(fieldNameArray);
-		dailyReportSubmitForm.setRequiredFlgArray(requiredFlgArray);
-		dailyReportSubmitForm.setInputTypeArray(inputTypeArray);
-		dailyReportSubmitForm.setRangeFromArray(rangeFromArray);
-		dailyReportSubmitForm.setRangeToArray(rangeToArray);
+		dailyReportSubmitForm.setFieldNameArray(dailyReportDefinitionDto.getFieldNameArray());
+		dailyReportSubmitForm.setRequiredFlgArray(dailyReportDefinitionDto.getRequiredFlgArray());
+		dailyReportSubmitForm.setInputTypeArray(dailyReportDefinitionDto.getInputTypeArray());
+		dailyReportSubmitForm.setRangeFromArray(dailyReportDefinitionDto.getRangeFromArray());
+		dailyReportSubmitForm.setRangeToArray(dailyReportDefinitionDto.getRangeToArray());
 		dailyReportSubmitForm.setContentArray(contentArray);
 	}
 
@@ -139,6 +167,7 @@ public class ReportService {
 	 * @param form
 	 * @throws ParseException
 	 */
+	@Transactional
 	public void submit(DailyReportSubmitForm dailyReportSubmitForm) throws ParseException {
 
 		Date today = new Date();
@@ -154,6 +183,10 @@ public class ReportService {
 		tDailyReportSubmit.setLastModifiedUser(loginUserDto.getLmsUserId());
 		tDailyReportSubmit.setLastModifiedDate(today);
 
+		// 登録済みの日報提出詳細・理解度
+		List<TDailyReportSubmitDetail> registeredDetailList = new ArrayList<>();
+		List<TIntelligibility> registeredIntelligibilityList = new ArrayList<>();
+
 		// 日報提出IDがnullの場合
 		if (dailyReportSubmitForm.getDailyReportSubmitId() == null) {
 			tDailyReportSubmit.setFirstCreateUser(loginUserDto.getLmsUserId());
@@ -163,66 +196,213 @@ public class ReportService {
 			tDailyReportSubmit
 					.setDailyReportSubmitId(dailyReportSubmitForm.getDailyReportSubmitId());
 			tDailyReportSubmitMapper.update(tDailyReportSubmit);
-			// 日報提出詳細の削除
-			Integer countSubmitDetail = tDailyReportSubmitDetailMapper
-					.getCountByDailyReportSubmitId(tDailyReportSubmit.getDailyReportSubmitId());
-			if (countSubmitDetail > 0) {
-				tDailyReportSubmitDetailMapper.delete(tDailyReportSubmit.getDailyReportSubmitId());
-			}
-			// 理解度の削除
-			Integer countIntelligibility = tIntelligibilityMapper
-					.getCountByDailyReportSubmitId(tDailyReportSubmit.getDailyReportSubmitId());
-			if (countIntelligibility > 0) {
-				tIntelligibilityMapper.delete(tDailyReportSubmit.getDailyReportSubmitId());
-			}
+			registeredDetailList = tDailyReportSubmitDetailMapper
+					.findByDailyReportSubmitId(tDailyReportSubmit.getDailyReportSubmitId());
+			registeredIntelligibilityList = tIntelligibilityMapper
+					.findByDailyReportSubmitId(tDailyReportSubmit.getDailyReportSubmitId());
 		}
 		// レポート詳細登録
-		for (int i = 0; i < dailyReportSubmitForm.getContentArray().length; i++) {
-			TDailyReportSubmitDetail tDailyReportSubmitDetail = new TDailyReportSubmitDetail();
-			tDailyReportSubmitDetail
-					.setDailyReportSubmitId(tDailyReportSubmit.getDailyReportSubmitId());
-			tDailyReportSubmitDetail.setFieldNum(i + 1);
-			tDailyReportSubmitDetail.setContent(dailyReportSubmitForm.getContentArray()[i]);
-			tDailyReportSubmitDetail.setAccountId(tDailyReportSubmit.getAccountId());
-			tDailyReportSubmitDetail.setDeleteFlg(Constants.DB_FLG_FALSE);
-			tDailyReportSubmitDetail.setFirstCreateUser(loginUserDto.getLmsUserId());
-			tDailyReportSubmitDetail.setFirstCreateDate(today);
-			tDailyReportSubmitDetail.setLastModifiedUser(loginUserDto.getLmsUserId());
-			tDailyReportSubmitDetail.setLastModifiedDate(today);
-			tDailyReportSubmitDetailMapper.insert(tDailyReportSubmitDetail);
-		}
+		registDailyReportSubmitDetail(tDailyReportSubmit, dailyReportSubmitForm.getContentArray(),
+				registeredDetailList, today);
+		// 理解度集計に反映(登録済みの理解度は登録処理で更新されるため、登録前に差分を作成する)
+		// 受講生本人の提出はログイン時のコースを使用し、代理で提出した場合のみ受講生のコースを検索する
+		Integer courseId = loginUserUtil.isStudent() ? loginUserDto.getCourseId()
+				: tCourseUserMapper.findCourseId(lmsUserId, loginUserDto.getAccountId(),
+						Constants.DB_FLG_FALSE);
+		intelligibilityRollupService.update(tDailyReportSubmit, courseId, registeredIntelligibilityList,
+				dailyReportSubmitForm.getIntFieldNameArray(), dailyReportSubmitForm.getIntFieldValueArray());
 		// 理解度登録
-		if (dailyReportSubmitForm.getIntFieldNameArray() != null) {
-			for (int j = 0; j < dailyReportSubmitForm.getIntFieldNameArray().length; j++) {
+		registIntelligibility(tDailyReportSubmit, dailyReportSubmitForm.getIntFieldNameArray(),
+				dailyReportSubmitForm.getIntFieldValueArray(), registeredIntelligibilityList,
+				today);
+		// 検索インデックスに反映
+		reportSearchService.update(tDailyReportSubmit, dailyReportSubmitForm.getContentArray());
+	}
+
+	/**
+	 * レポート詳細登録<br>
+	 * 内容が変更された項目のみ更新し、新しい項目は一括登録する
+	 * 
+	 * @param tDailyReportSubmit
+	 * @param contentArray
+	 * @param registeredDetailList
+	 * @param today
+	 */
+	private void registDailyReportSubmitDetail(TDailyReportSubmit tDailyReportSubmit,
+			String[] contentArray, List<TDailyReportSubmitDetail> registeredDetailList,
+			Date today) {
+
+		Map<Integer, TDailyReportSubmitDetail> registeredDetailMap = new HashMap<>();
+		for (TDailyReportSubmitDetail registeredDetail : registeredDetailList) {
+			registeredDetailMap.put(registeredDetail.getFieldNum(), registeredDetail);
+		}
+		int fieldCount = contentArray == null ? 0 : contentArray.length;
+		List<TDailyReportSubmitDetail> insertList = new ArrayList<>();
+		for (int i = 0; i < fieldCount; i++) {
+			TDailyReportSubmitDetail registeredDetail = registeredDetailMap.get(i + 1);
+			if (registeredDetail == null) {
+				TDailyReportSubmitDetail tDailyReportSubmitDetail = new TDailyReportSubmitDetail();
+				tDailyReportSubmitDetail
+						.setDailyReportSubmitId(tDailyReportSubmit.getDailyReportSubmitId());
+				tDailyReportSubmitDetail.setFieldNum(i + 1);
+				tDailyReportSubmitDetail.setContent(contentArray[i]);
+				tDailyReportSubmitDetail.setAccountId(tDailyReportSubmit.getAccountId());
+				tDailyReportSubmitDetail.setDeleteFlg(Constants.DB_FLG_FALSE);
+				tDailyReportSubmitDetail.setFirstCreateUser(loginUserDto.getLmsUserId());
+				tDailyReportSubmitDetail.setFirstCreateDate(today);
+				tDailyReportSubmitDetail.setLastModifiedUser(loginUserDto.getLmsUserId());
+				tDailyReportSubmitDetail.setLastModifiedDate(today);
+				insertList.add(tDailyReportSubmitDetail);
+			} else if (!Objects.equals(registeredDetail.getContent(), contentArray[i])
+					|| !Objects.equals(registeredDetail.getDeleteFlg(), Constants.DB_FLG_FALSE)) {
+				registeredDetail.setContent(contentArray[i]);
+				registeredDetail.setAccountId(tDailyReportSubmit.getAccountId());
+				registeredDetail.setDeleteFlg(Constants.DB_FLG_FALSE);
+				registeredDetail.setLastModifiedUser(loginUserDto.getLmsUserId());
+				registeredDetail.setLastModifiedDate(today);
+				tDailyReportSubmitDetailMapper.update(registeredDetail);
+			}
+		}
+		// 項目数が減った場合は、超過分を削除
+		if (registeredDetailList.size() > 0
+				&& registeredDetailList.get(registeredDetailList.size() - 1).getFieldNum() > fieldCount) {
+			tDailyReportSubmitDetailMapper
+					.deleteOverFieldNum(tDailyReportSubmit.getDailyReportSubmitId(), fieldCount);
+		}
+		if (insertList.size() > 0) {
+			tDailyReportSubmitDetailMapper.insertBulk(insertList);
+		}
+	}
+
+	/**
+	 * 理解度登録<br>
+	 * 内容が変更された項目のみ更新し、新しい項目は一括登録する
+	 * 
+	 * @param tDailyReportSubmit
+	 * @param intFieldNameArray
+	 * @param intFieldValueArray
+	 * @param registeredIntelligibilityList
+	 * @param today
+	 */
+	private void registIntelligibility(TDailyReportSubmit tDailyReportSubmit,
+			String[] intFieldNameArray, Short[] intFieldValueArray,
+			List<TIntelligibility> registeredIntelligibilityList, Date today) {
+
+		Map<Integer, TIntelligibility> registeredIntelligibilityMap = new HashMap<>();
+		for (TIntelligibility registeredIntelligibility : registeredIntelligibilityList) {
+			registeredIntelligibilityMap.put(registeredIntelligibility.getFieldNum(),
+					registeredIntelligibility);
+		}
+		int fieldCount = intFieldNameArray == null ? 0 : intFieldNameArray.length;
+		List<TIntelligibility> insertList = new ArrayList<>();
+		for (int j = 0; j < fieldCount; j++) {
+			TIntelligibility registeredIntelligibility = registeredIntelligibilityMap.get(j + 1);
+			if (registeredIntelligibility == null) {
 				TIntelligibility tIntelligibility = new TIntelligibility();
 				tIntelligibility
 						.setDailyReportSubmitId(tDailyReportSubmit.getDailyReportSubmitId());
 				tIntelligibility.setFieldNum(j + 1);
-				tIntelligibility.setFieldName(dailyReportSubmitForm.getIntFieldNameArray()[j]);
-				tIntelligibility.setFieldValue(dailyReportSubmitForm.getIntFieldValueArray()[j]);
+				tIntelligibility.setFieldName(intFieldNameArray[j]);
+				tIntelligibility.setFieldValue(intFieldValueArray[j]);
 				tIntelligibility.setAccountId(tDailyReportSubmit.getAccountId());
 				tIntelligibility.setDeleteFlg(Constants.DB_FLG_FALSE);
 				tIntelligibility.setFirstCreateUser(loginUserDto.getLmsUserId());
 				tIntelligibility.setFirstCreateDate(today);
 				tIntelligibility.setLastModifiedUser(loginUserDto.getLmsUserId());
 				tIntelligibility.setLastModifiedDate(today);
-				tIntelligibilityMapper.insert(tIntelligibility);
+				insertList.add(tIntelligibility);
+			} else if (!Objects.equals(registeredIntelligibility.getFieldName(), intFieldNameArray[j])
+					|| !Objects.equals(registeredIntelligibility.getFieldValue(), intFieldValueArray[j])
+					|| !Objects.equals(registeredIntelligibility.getDeleteFlg(), Constants.DB_FLG_FALSE)) {
+				registeredIntelligibility.setFieldName(intFieldNameArray[j]);
+				registeredIntelligibility.setFieldValue(intFieldValueArray[j]);
+				registeredIntelligibility.setAccountId(tDailyReportSubmit.getAccountId());
+				registeredIntelligibility.setDeleteFlg(Constants.DB_FLG_FALSE);
+				registeredIntelligibility.setLastModifiedUser(loginUserDto.getLmsUserId());
+				registeredIntelligibility.setLastModifiedDate(today);
+				tIntelligibilityMapper.update(registeredIntelligibility);
 			}
 		}
+		// 項目数が減った場合は、超過分を削除
+		if (registeredIntelligibilityList.size() > 0 && registeredIntelligibilityList
+				.get(registeredIntelligibilityList.size() - 1).getFieldNum() > fieldCount) {
+			tIntelligibilityMapper.deleteOverFieldNum(tDailyReportSubmit.getDailyReportSubmitId(),
+					fieldCount);
+		}
+		if (insertList.size() > 0) {
+			tIntelligibilityMapper.insertBulk(insertList);
+		}
 	}
 
 	/**
-	 * レポートダウンロード
+	 * レポートダウンロード<br>
+	 * 提出内容・フィードバック・日報マスタの更新日時と出力する氏名・企業名からETagを生成し、
+	 * クライアントが同じバージョンを保持している場合は304を返す。<br>
+	 * 出力済みのファイルはバージョンごとにキャッシュし、内容が変わるまで再出力しない。
 	 * 
 	 * @param dailyReportId
 	 * @param dailyReportSubmitId
+	 * @param request
 	 * @param response
 	 * @throws IOException
 	 */
 	public void download(Integer dailyReportId, Integer dailyReportSubmitId,
-			HttpServletResponse response) throws IOException {
-		WorkbookDto workbookDto = getWorkbookDto(dailyReportId, dailyReportSubmitId);
-		ExcelUtil.downloadBook(workbookDto, response);
+			HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+		DailyReportVersionDto dailyReportVersionDto = tDailyReportSubmitMapper
+				.getDailyReportVersionDto(dailyReportSubmitId, dailyReportId, Constants.DB_FLG_FALSE);
+		if (dailyReportVersionDto == null) {
+			// 提出済みレポートが存在しない場合はキャッシュせずに出力
+			ExcelUtil.downloadBook(getWorkbookDto(dailyReportId, dailyReportSubmitId), response);
+			return;
+		}
+
+		String key = getOutputCacheKey(dailyReportVersionDto);
+		String eTag = "\"" + DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8)) + "\"";
+		response.setHeader(HttpHeaders.ETAG, eTag);
+		response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+		// If-None-Matchは複数指定・弱いETag(W/)も比較する(条件付き取得はGETのみ)
+		if (HttpMethod.GET.matches(request.getMethod())
+				&& new ServletWebRequest(request, response).checkNotModified(eTag)) {
+			return;
+		}
+
+		OutputFileDto outputFileDto = outputCacheUtil.get(key);
+		if (outputFileDto == null) {
+			outputFileDto = ExcelUtil.toOutputFile(getWorkbookDto(dailyReportId, dailyReportSubmitId));
+			outputCacheUtil.put(key, outputFileDto);
+		}
+		ExcelUtil.downloadFile(outputFileDto, response);
+	}
+
+	/**
+	 * 出力ファイルのキャッシュキー取得
+	 * 
+	 * @param dailyReportVersionDto
+	 * @return キャッシュキー
+	 */
+	private String getOutputCacheKey(DailyReportVersionDto dailyReportVersionDto) {
+		return "report-" + dailyReportVersionDto.getDailyReportSubmitId()
+				+ "-" + dailyReportVersionDto.getDailyReportId()
+				+ "-" + getTime(dailyReportVersionDto.getLastModifiedDate())
+				+ "-" + getTime(dailyReportVersionDto.getReportLastModifiedDate())
+				+ "-" + getTime(dailyReportVersionDto.getReportDetailLastModifiedDate())
+				+ "-" + dailyReportVersionDto.getReportDetailCount()
+				+ "-" + dailyReportVersionDto.getFbCount()
+				+ "-" + getTime(dailyReportVersionDto.getLastFeedbackDate())
+				+ "-" + getTime(dailyReportVersionDto.getFeedbackUserLastModifiedDate())
+				+ "-" + dailyReportVersionDto.getCompanyName()
+				+ "-" + dailyReportVersionDto.getUserName();
+	}
+
+	/**
+	 * 日時のミリ秒取得
+	 * 
+	 * @param date
+	 * @return ミリ秒(nullの場合0)
+	 */
+	private long getTime(Date date) {
+		return date == null ? 0 : date.getTime();
 	}
 
 	/**
@@ -238,8 +418,26 @@ public class ReportService {
 
 		// レポートダウンロード情報取得
 		DailyReportDownloadDto dailyReportDownloadDto = tDailyReportSubmitMapper
-				.getDailyReportDownloadDto(dailyReportSubmitId, dailyReportId,
-						Constants.DB_FLG_FALSE);
+				.getDailyReportDownloadDto(dailyReportSubmitId, dailyReportId, Constants.DB_FLG_FALSE);
+		if (dailyReportDownloadDto == null) {
+			throw new IllegalArgumentException("dailyReportSubmitId " + dailyReportSubmitId);
+		}
+		// 明細・理解度・フィードバックは行の掛け合わせを避けるため個別に並列で取得する
+		CompletableFuture<List<DailyReportDetailDto>> dailyReportDetailDtoListFuture = parallelQueryUtil
+				.supplyAsync(() -> tDailyReportSubmitDetailMapper.getDailyReportDetailDtoList(
+						dailyReportSubmitId, dailyReportId, Constants.DB_FLG_FALSE));
+		CompletableFuture<List<IntelligibilityDto>> intelligibilityDtoListFuture = parallelQueryUtil
+				.supplyAsync(() -> tIntelligibilityMapper
+						.getIntelligibilityDtoList(dailyReportSubmitId, Constants.DB_FLG_FALSE));
+		CompletableFuture<List<DailyReportFbDto>> dailyReportFbDtoListFuture = parallelQueryUtil
+				.supplyAsync(() -> tDailyReportFbMapper.getDailyReportFbDtoList(dailyReportSubmitId,
+						Constants.DB_FLG_FALSE));
+		dailyReportDownloadDto
+				.setDailyReportDetailDtoList(parallelQueryUtil.join(dailyReportDetailDtoListFuture));
+		dailyReportDownloadDto
+				.setIntelligibilityDtoList(parallelQueryUtil.join(intelligibilityDtoListFuture));
+		dailyReportDownloadDto
+				.setDailyReportFbDtoList(parallelQueryUtil.join(dailyReportFbDtoListFuture));
 
 		// テンプレートファイルのパスを設定
 		String commonFileDir = messageUtil.getMessage("setting.file.common.dir");
@@ -291,9 +489,8 @@ public class ReportService {
 
 		if (dailyReportDownloadDto.getDailyReportFbDtoList() != null) {
 			if (dailyReportDownloadDto.getDailyReportFbDtoList().size() > 1) {
-				for (int i = 1; i < dailyReportDownloadDto.getDailyReportFbDtoList().size(); i++) {
-					excelUtil.sheetCopy("フィードバックコメント", 6, 8, i);
-				}
+				excelUtil.blockCopy("フィードバックコメント", 6, 8,
+						dailyReportDownloadDto.getDailyReportFbDtoList().size() - 1);
 			}
 			for (int i = 0; i < dailyReportDownloadDto.getDailyReportFbDtoList().size(); i++) {
 				DailyReportFbDto dailyReportFbDto = dailyReportDownloadDto.getDailyReportFbDtoList()
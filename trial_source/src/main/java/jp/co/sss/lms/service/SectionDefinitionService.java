@@ -0,0 +1,156 @@
+package jp.co.sss.lms.service;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jp.co.sss.lms.dto.SectionServiceDeliverablesSectionDto;
+import jp.co.sss.lms.dto.SectionServiceExamDto;
+import jp.co.sss.lms.dto.SectionServiceFileDto;
+import jp.co.sss.lms.dto.SectionServiceSectionDto;
+import jp.co.sss.lms.mapper.MSectionMapper;
+import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.ParallelQueryUtil;
+
+/**
+ * セクション定義サービス<br>
+ * セクションごとの受講生に依存しない情報(基本情報・ファイル・試験・成果物)をキャッシュし、同じセクションの受講生で共有する。<br>
+ * バージョン(最終更新日時・件数)とともに保持し、一定時間(setting.cache.revalidate.second)ごとに
+ * バージョンを確認して変更があった場合のみ再読込みする。読込みは各情報の検索を並列に実行する。
+ * 共有するため取得したセクション定義は変更しない。
+ *
+ * @author 東京ITスクール
+ */
+@Service
+public class SectionDefinitionService {
+
+	@Autowired
+	private MSectionMapper mSectionMapper;
+	@Autowired
+	private ParallelQueryUtil parallelQueryUtil;
+
+	@Value("${setting.cache.revalidate.second}")
+	private Integer revalidateSecond;
+
+	/* セクション定義(キー：セクションID-アカウントID) */
+	private final ConcurrentHashMap<String, CacheEntry> sectionCache = new ConcurrentHashMap<>();
+	/* セクションごとの読込みロック */
+	private final ConcurrentHashMap<String, Object> loadLockMap = new ConcurrentHashMap<>();
+
+	/**
+	 * セクション定義取得
+	 *
+	 * @param sectionId
+	 * @param accountId
+	 * @return セクションサービスDTO(受講生ごとの日報は含まない。存在しない場合null)
+	 */
+	public SectionServiceSectionDto getSectionDefinition(Integer sectionId, Integer accountId) {
+		if (sectionId == null) {
+			return null;
+		}
+		String key = sectionId + "-" + accountId;
+		long now = System.currentTimeMillis();
+		CacheEntry entry = sectionCache.get(key);
+		if (entry != null && !entry.isExpired(now, revalidateSecond)) {
+			return entry.value;
+		}
+
+		// 同じセクションの確認・読込みは1スレッドのみ行い、他のスレッドはその結果を使用する
+		synchronized (loadLockMap.computeIfAbsent(key, k -> new Object())) {
+			CacheEntry current = sectionCache.get(key);
+			if (current != null && current != entry) {
+				return current.value;
+			}
+			return load(key, sectionId, accountId, entry, now).value;
+		}
+	}
+
+	/**
+	 * セクション定義の確認・読込み
+	 *
+	 * @param key
+	 * @param sectionId
+	 * @param accountId
+	 * @param entry 現在のキャッシュエントリ
+	 * @param now
+	 * @return キャッシュエントリ
+	 */
+	private CacheEntry load(String key, Integer sectionId, Integer accountId, CacheEntry entry, long now) {
+		// バージョンが変わっていなければ再読込みしない
+		String version = mSectionMapper.getSectionDefinitionVersion(sectionId, accountId,
+				Constants.DB_FLG_FALSE);
+		CacheEntry newEntry;
+		if (version == null) {
+			newEntry = new CacheEntry(null, null, now);
+		} else if (entry != null && Objects.equals(entry.version, version)) {
+			newEntry = new CacheEntry(entry.value, version, now);
+		} else {
+			newEntry = new CacheEntry(loadSectionDefinition(sectionId, accountId), version, now);
+		}
+		sectionCache.put(key, newEntry);
+		return newEntry;
+	}
+
+	/**
+	 * セクション定義の読込み<br>
+	 * 基本情報・ファイル・試験・成果物をそれぞれ並列に検索して組み立てる
+	 *
+	 * @param sectionId
+	 * @param accountId
+	 * @return セクションサービスDTO(存在しない場合null)
+	 */
+	private SectionServiceSectionDto loadSectionDefinition(Integer sectionId, Integer accountId) {
+		CompletableFuture<List<SectionServiceFileDto>> fileDtoListFuture = parallelQueryUtil
+				.supplyAsync(() -> mSectionMapper.findSectionServiceFileDtoList(sectionId));
+		CompletableFuture<List<SectionServiceExamDto>> examDtoListFuture = parallelQueryUtil
+				.supplyAsync(() -> mSectionMapper.findSectionServiceExamDtoList(sectionId,
+						Constants.DB_FLG_FALSE));
+		CompletableFuture<List<SectionServiceDeliverablesSectionDto>> deliverablesDtoListFuture = parallelQueryUtil
+				.supplyAsync(() -> mSectionMapper.findSectionServiceDeliverablesSectionDtoList(sectionId,
+						Constants.DB_FLG_FALSE));
+		SectionServiceSectionDto sectionServiceSectionDto = mSectionMapper
+				.getSectionServiceSectionDto(sectionId, accountId, Constants.DB_FLG_FALSE);
+
+		List<SectionServiceFileDto> fileDtoList = parallelQueryUtil.join(fileDtoListFuture);
+		List<SectionServiceExamDto> examDtoList = parallelQueryUtil.join(examDtoListFuture);
+		List<SectionServiceDeliverablesSectionDto> deliverablesDtoList = parallelQueryUtil
+				.join(deliverablesDtoListFuture);
+		if (sectionServiceSectionDto == null) {
+			return null;
+		}
+		sectionServiceSectionDto.setFileDtoList(List.copyOf(fileDtoList));
+		sectionServiceSectionDto.setExamDtoList(List.copyOf(examDtoList));
+		sectionServiceSectionDto.setDeliverablesDtoList(List.copyOf(deliverablesDtoList));
+		return sectionServiceSectionDto;
+	}
+
+	/**
+	 * キャッシュエントリ
+	 */
+	private static final class CacheEntry {
+
+		/* セクション定義 */
+		private final SectionServiceSectionDto value;
+		/* バージョン(存在しない場合null) */
+		private final String version;
+		/* 確認日時 */
+		private final long checkedAt;
+
+		CacheEntry(SectionServiceSectionDto value, String version, long checkedAt) {
+			this.value = value;
+			this.version = version;
+			this.checkedAt = checkedAt;
+		}
+
+		boolean isExpired(long now, int revalidateSecond) {
+			return now - checkedAt >= TimeUnit.SECONDS.toMillis(revalidateSecond);
+		}
+	}
+
+}
@@ -1,6 +1,9 @@
 package jp.co.sss.lms.service;
 
+import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,6 +13,7 @@ import org.springframework.stereotype.Service;
 
 import jp.co.sss.lms.dto.LoginUserDto;
 import jp.co.sss.lms.dto.SectionServiceDailyReportDto;
+import jp.co.sss.lms.dto.SectionServiceExamDto;
 import jp.co.sss.lms.dto.SectionServiceFileDto;
 import jp.co.sss.lms.dto.SectionServiceSectionDto;
 import jp.co.sss.lms.form.SectionDetailForm;
@@ -18,6 +22,7 @@ import jp.co.sss.lms.mapper.TSectionDailyReportMapper;
 import jp.co.sss.lms.util.Constants;
 import jp.co.sss.lms.util.LoggingUtil;
 import jp.co.sss.lms.util.MessageUtil;
+import jp.co.sss.lms.util.ParallelQueryUtil;
 import jp.co.sss.lms.util.PasswordUtil;
 
 /**
@@ -40,6 +45,10 @@ public class SectionService {
 	private PasswordUtil passwordUtil;
 	@Autowired
 	private LoggingUtil loggingUtil;
+	@Autowired
+	private SectionDefinitionService sectionDefinitionService;
+	@Autowired
+	private ParallelQueryUtil parallelQueryUtil;
 
 	private final Logger logger = LoggerFactory.getLogger(getClass());
 
@@ -63,30 +72,63 @@ public class SectionService {
 	}
 
 	/**
-	 * セクション詳細情報の取得
+	 * セクション詳細情報の取得<br>
+	 * 受講生ごとの日報(コース・セクションに紐付く日報の提出状況)は並列に検索し、
+	 * 受講生に依存しない情報はセクション定義のキャッシュから取得する
 	 * 
 	 * @param sectionDetailForm
 	 */
 	public void getSectionDetail(SectionDetailForm sectionDetailForm) {
-		// セクションサービスDTOの取得
-		SectionServiceSectionDto sectionServiceSectionDto = mSectionMapper.getSectionDetail(
-				sectionDetailForm.getSectionId(), loginUserDto.getAccountId(),
-				loginUserDto.getLmsUserId(), Constants.DB_FLG_FALSE);
-		BeanUtils.copyProperties(sectionServiceSectionDto, sectionDetailForm);
+		Integer sectionId = sectionDetailForm.getSectionId();
+		Integer accountId = loginUserDto.getAccountId();
+		Integer lmsUserId = loginUserDto.getLmsUserId();
+		// コース・日報紐付け情報の取得
+		CompletableFuture<List<SectionServiceDailyReportDto>> courseDailyReportDtoListFuture = parallelQueryUtil
+				.supplyAsync(() -> mSectionMapper.findCourseDailyReportDtoList(sectionId, accountId, lmsUserId,
+						Constants.DB_FLG_FALSE));
 		// セクション・日報紐付け情報の取得
-		List<SectionServiceDailyReportDto> sectionServiceDailyReportDtoList = tSectionDailyReportMapper
-				.getSectionServiceDailyReportDto(sectionDetailForm.getSectionId(),
-						loginUserDto.getLmsUserId(), Constants.DB_FLG_FALSE);
-		for (SectionServiceDailyReportDto sectionServiceDailyReportDto : sectionServiceDailyReportDtoList) {
-			sectionServiceSectionDto.getReportDtoList().add(sectionServiceDailyReportDto);
+		CompletableFuture<List<SectionServiceDailyReportDto>> sectionDailyReportDtoListFuture = parallelQueryUtil
+				.supplyAsync(() -> tSectionDailyReportMapper.getSectionServiceDailyReportDto(sectionId,
+						lmsUserId, Constants.DB_FLG_FALSE));
+		// セクション定義の取得
+		SectionServiceSectionDto sectionDefinition = sectionDefinitionService.getSectionDefinition(sectionId,
+				accountId);
+
+		List<SectionServiceDailyReportDto> reportDtoList = new ArrayList<>(
+				parallelQueryUtil.join(courseDailyReportDtoListFuture));
+		reportDtoList.addAll(parallelQueryUtil.join(sectionDailyReportDtoListFuture));
+		if (sectionDefinition == null) {
+			return;
+		}
+		// セクション定義は共有しているため、変更する情報は複製して設定する
+		sectionDetailForm.setSectionName(sectionDefinition.getSectionName());
+		sectionDetailForm.setSectionDescription(sectionDefinition.getSectionDescription());
+		sectionDetailForm.setCourseId(sectionDefinition.getCourseId());
+		sectionDetailForm.setDate(sectionDefinition.getDate());
+		sectionDetailForm.setReportDtoList(reportDtoList);
+		sectionDetailForm.setDeliverablesDtoList(new ArrayList<>(sectionDefinition.getDeliverablesDtoList()));
+		// 試験の公開状態の設定
+		Timestamp now = new Timestamp(System.currentTimeMillis());
+		List<SectionServiceExamDto> examDtoList = new ArrayList<>(sectionDefinition.getExamDtoList().size());
+		for (SectionServiceExamDto examDefinition : sectionDefinition.getExamDtoList()) {
+			SectionServiceExamDto examDto = new SectionServiceExamDto();
+			BeanUtils.copyProperties(examDefinition, examDto);
+			examDto.setPublicFlg(examDto.getPublicDate() != null && examDto.getPublicDate().before(now));
+			examDtoList.add(examDto);
 		}
+		sectionDetailForm.setExamDtoList(examDtoList);
 		// ファイル情報の設定
-		for (SectionServiceFileDto fileDto : sectionServiceSectionDto.getFileDtoList()) {
-			String hashFileId = passwordUtil.getSaltedAndStrechedPassword(fileDto.getFileId(),
+		List<SectionServiceFileDto> fileDtoList = new ArrayList<>(sectionDefinition.getFileDtoList().size());
+		for (SectionServiceFileDto fileDefinition : sectionDefinition.getFileDtoList()) {
+			SectionServiceFileDto fileDto = new SectionServiceFileDto();
+			BeanUtils.copyProperties(fileDefinition, fileDto);
+			String hashFileId = passwordUtil.getSaltedAndStrechedPassword(fileDefinition.getFileId(),
 					loginUserDto.getUserId().toString());
 			fileDto.setFileId(hashFileId);
+			fileDtoList.add(fileDto);
 		}
-		sectionServiceSectionDto.setMaxFileSize(Constants.DELIVERABLES_UPLOAD_MAX_SIZE);
+		sectionDetailForm.setFileDtoList(fileDtoList);
+		sectionDetailForm.setMaxFileSize(Constants.DELIVERABLES_UPLOAD_MAX_SIZE);
 	}
 
 }
@@ -10,6 +10,7 @@ import org.springframework.stereotype.Service;
 
 import jp.co.sss.lms.dto.DailyReportDto;
 import jp.co.sss.lms.dto.ExamResultDto;
+import jp.co.sss.lms.dto.GenreProfileDto;
 import jp.co.sss.lms.dto.LmsUserDto;
 import jp.co.sss.lms.dto.LoginUserDto;
 import jp.co.sss.lms.dto.UserDetailDto;
@@ -43,6 +44,10 @@ public class UserService {
 	private TDailyReportSubmitMapper tDailyReportSubmitMapper;
 	@Autowired
 	private TExamResultMapper tExamResultMapper;
+	@Autowired
+	private ExamStatisticsService examStatisticsService;
+	@Autowired
+	private GenreProfileService genreProfileService;
 
 	/**
 	 * セキュリティ同意フラグ登録
@@ -76,7 +81,15 @@ public class UserService {
 
 		List<ExamResultDto> examResultDtoList = tExamResultMapper.getExamResultDto(lmsUserId,
 				loginUserDto.getAccountId(), Constants.DB_FLG_FALSE);
+		for (ExamResultDto examResultDto : examResultDtoList) {
+			Integer numOfQuestion = examStatisticsService.getNumOfQuestion(examResultDto.getExamId());
+			examResultDto.setNumOfQuestion(numOfQuestion);
+			examResultDto
+					.setPoint(examStatisticsService.toPoint(examResultDto.getScore(), numOfQuestion));
+		}
 		lmsUserDto.setExamResultDtoList(examResultDtoList);
+		lmsUserDto.setGenreProfileDto(
+				genreProfileService.getGenreProfileDto(lmsUserId, loginUserDto.getAccountId()));
 
 		List<DailyReportDto> dailyReportDtoList = tDailyReportSubmitMapper
 				.getDailyReportSubmitList(lmsUserId, Constants.DB_FLG_FALSE);
@@ -85,4 +98,16 @@ public class UserService {
 		return lmsUserDto;
 	}
 
+	/**
+	 * ジャンル別苦手傾向の取得
+	 * 
+	 * @param lmsUserId
+	 * @return ジャンル別苦手傾向DTO
+	 */
+	public GenreProfileDto getGenreProfile(Integer lmsUserId) {
+
+		lmsUserId = loginUserUtil.isStudent() ? loginUserDto.getLmsUserId() : lmsUserId;
+		return genreProfileService.getGenreProfileDto(lmsUserId, loginUserDto.getAccountId());
+	}
+
 }
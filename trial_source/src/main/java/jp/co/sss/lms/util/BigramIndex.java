@@ -0,0 +1,847 @@
+package jp.co.sss.lms.util;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * バイグラム全文検索インデックス<br>
+ * 文書の各項目をNFKC正規化・小文字化し、連続する2文字(バイグラム)を見出しとして
+ * 文書ID・項目番号・文字位置の転置リストを保持する。<br>
+ * 一括構築した転置リストはセグメントファイルに可変長で書き出してメモリマップで参照し、
+ * 以降の追加・更新はメモリ上の差分として保持する。差分に存在する文書はセグメントより優先される。<br>
+ * 差分はmerge()でセグメントに統合する。一括構築はwrite()でセグメントファイルを書出し、
+ * install()で置き換える(書出し中も検索・更新を止めない)。
+ *
+ * @author 東京ITスクール
+ */
+public class BigramIndex implements AutoCloseable {
+
+	/** 文字位置の上限(項目ごと) */
+	public static final int MAX_OFFSET = 0xFFFF;
+	/** 項目番号の上限 */
+	public static final int MAX_FIELD_NUM = 0x7FFF;
+
+	/* セグメントファイルの識別子 */
+	private static final int MAGIC = 0x4C4D5342;
+	/* セグメントファイルの形式バージョン */
+	private static final int FORMAT_VERSION = 1;
+	/* 語末を表す文字 */
+	private static final char END = 0;
+
+	/* セグメントファイルの格納ディレクトリ */
+	private final Path dir;
+	/* セグメントファイルの世代 */
+	private final AtomicLong generation = new AtomicLong();
+	/* 参照・更新のロック */
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	/* 統合処理のロック */
+	private final Object mergeLock = new Object();
+
+	/* セグメント */
+	private Segment segment;
+	/* 差分(キー：文書ID) */
+	private final LinkedHashMap<Integer, DeltaDoc> delta = new LinkedHashMap<>();
+
+	/**
+	 * コンストラクタ<br>
+	 * 格納ディレクトリに残っている過去のセグメントファイルは削除する
+	 *
+	 * @param dir セグメントファイルの格納ディレクトリ
+	 * @throws IOException
+	 */
+	public BigramIndex(Path dir) throws IOException {
+		this.dir = Files.createDirectories(dir);
+		try (var stream = Files.list(this.dir)) {
+			stream.filter(path -> path.getFileName().toString().startsWith("segment-"))
+					.forEach(path -> path.toFile().delete());
+		}
+		this.segment = Segment.write(nextSegmentPath(), new Builder());
+	}
+
+	/**
+	 * 一括構築用のビルダーを生成
+	 *
+	 * @return ビルダー
+	 */
+	public Builder newBuilder() {
+		return new Builder();
+	}
+
+	/**
+	 * 一括構築したセグメントに置き換える<br>
+	 * 差分は破棄する
+	 *
+	 * @param builder
+	 * @throws IOException
+	 */
+	public void load(Builder builder) throws IOException {
+		write(builder);
+		install(builder);
+	}
+
+	/**
+	 * 一括構築したセグメントファイルの書出し<br>
+	 * 書出したセグメントはinstall()で置き換えるまで参照しない
+	 *
+	 * @param builder
+	 * @throws IOException
+	 */
+	public void write(Builder builder) throws IOException {
+		builder.segment = Segment.write(nextSegmentPath(), builder);
+	}
+
+	/**
+	 * 書出したセグメントに置き換える<br>
+	 * 差分は破棄する。構築中に登録された差分の再適用は呼出し元で行う
+	 *
+	 * @param builder
+	 */
+	public void install(Builder builder) {
+		if (builder.segment == null) {
+			throw new IllegalStateException("セグメントファイルが書出されていません");
+		}
+		Segment oldSegment;
+		lock.writeLock().lock();
+		try {
+			oldSegment = segment;
+			segment = builder.segment;
+			delta.clear();
+		} finally {
+			lock.writeLock().unlock();
+		}
+		builder.segment = null;
+		oldSegment.close();
+	}
+
+	/**
+	 * 文書の登録(追加・更新)
+	 *
+	 * @param doc 文書情報
+	 * @param contentMap 項目番号ごとの内容
+	 * @return 差分の文書数
+	 */
+	public int put(Doc doc, Map<Integer, String> contentMap) {
+		DeltaDoc deltaDoc = new DeltaDoc(doc);
+		for (Map.Entry<Integer, String> entry : contentMap.entrySet()) {
+			tokenize(entry.getKey(), entry.getValue(), deltaDoc::add);
+		}
+		deltaDoc.seal();
+		lock.writeLock().lock();
+		try {
+			delta.remove(doc.docId);
+			delta.put(doc.docId, deltaDoc);
+			return delta.size();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * 差分をセグメントに統合
+	 *
+	 * @throws IOException
+	 */
+	public void merge() throws IOException {
+		synchronized (mergeLock) {
+			Segment current;
+			List<DeltaDoc> snapshot;
+			lock.readLock().lock();
+			try {
+				current = segment;
+				snapshot = new ArrayList<>(delta.values());
+			} finally {
+				lock.readLock().unlock();
+			}
+			if (snapshot.isEmpty()) {
+				return;
+			}
+
+			Builder builder = new Builder();
+			Map<Integer, DeltaDoc> snapshotMap = new HashMap<>();
+			for (DeltaDoc deltaDoc : snapshot) {
+				snapshotMap.put(deltaDoc.doc.docId, deltaDoc);
+			}
+			current.copyTo(builder, docId -> !snapshotMap.containsKey(docId));
+			for (DeltaDoc deltaDoc : snapshot) {
+				deltaDoc.copyTo(builder);
+			}
+			swap(current, Segment.write(nextSegmentPath(), builder), snapshot);
+		}
+	}
+
+	/**
+	 * 検索<br>
+	 * キーワードを空白で区切り、全ての語を含む文書を返す
+	 *
+	 * @param keyword キーワード
+	 * @param filter 文書の絞込み条件
+	 * @return 検索結果
+	 */
+	public List<Hit> search(String keyword, Predicate<Doc> filter) {
+		List<char[]> wordList = new ArrayList<>();
+		for (String word : normalize(keyword).split("\\s+")) {
+			if (!word.isEmpty()) {
+				wordList.add(word.toCharArray());
+			}
+		}
+		if (wordList.isEmpty()) {
+			return new ArrayList<>();
+		}
+
+		lock.readLock().lock();
+		try {
+			Map<Integer, Hit> hitMap = null;
+			for (char[] word : wordList) {
+				Map<Integer, Hit> wordHitMap = new HashMap<>();
+				segment.search(word, doc -> !delta.containsKey(doc.docId) && filter.test(doc),
+						wordHitMap);
+				for (DeltaDoc deltaDoc : delta.values()) {
+					if (filter.test(deltaDoc.doc)) {
+						deltaDoc.search(word, wordHitMap);
+					}
+				}
+				if (hitMap == null) {
+					hitMap = wordHitMap;
+				} else {
+					hitMap.keySet().retainAll(wordHitMap.keySet());
+					for (Hit hit : hitMap.values()) {
+						hit.fieldNumSet.addAll(wordHitMap.get(hit.doc.docId).fieldNumSet);
+					}
+				}
+				if (hitMap.isEmpty()) {
+					break;
+				}
+			}
+			return new ArrayList<>(hitMap.values());
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * 文書数の取得
+	 *
+	 * @return 文書数
+	 */
+	public int size() {
+		lock.readLock().lock();
+		try {
+			int size = segment.docMap.size();
+			for (Integer docId : delta.keySet()) {
+				if (!segment.docMap.containsKey(docId)) {
+					size++;
+				}
+			}
+			return size;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * 差分の文書数の取得
+	 *
+	 * @return 差分の文書数
+	 */
+	public int deltaSize() {
+		lock.readLock().lock();
+		try {
+			return delta.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * 終了処理
+	 */
+	@Override
+	public void close() {
+		lock.writeLock().lock();
+		try {
+			segment.close();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * 文字列の正規化(NFKC・小文字化)
+	 *
+	 * @param value
+	 * @return 正規化後の文字列
+	 */
+	static String normalize(String value) {
+		if (value == null) {
+			return "";
+		}
+		return Normalizer.normalize(value, Normalizer.Form.NFKC).toLowerCase();
+	}
+
+	/**
+	 * 見出しの取得(2文字を1つの値にまとめる)
+	 *
+	 * @param c1
+	 * @param c2
+	 * @return 見出し
+	 */
+	static int term(char c1, char c2) {
+		// 符号ビットを反転し、見出しの大小を文字の順序と一致させる
+		return ((c1 << 16) | c2) ^ Integer.MIN_VALUE;
+	}
+
+	/**
+	 * 見出しの1文字目の取得
+	 *
+	 * @param term
+	 * @return 1文字目
+	 */
+	static char firstChar(int term) {
+		return (char) ((term ^ Integer.MIN_VALUE) >>> 16);
+	}
+
+	/**
+	 * 位置の取得(項目番号と文字位置を1つの値にまとめる)
+	 *
+	 * @param fieldNum
+	 * @param offset
+	 * @return 位置
+	 */
+	static int position(int fieldNum, int offset) {
+		return (fieldNum << 16) | offset;
+	}
+
+	/**
+	 * 項目の分割<br>
+	 * 空白で始まるバイグラムは登録せず、空白の直前の文字と項目末尾の文字は語末と組み合わせて登録する
+	 *
+	 * @param fieldNum
+	 * @param content
+	 * @param consumer 見出しと位置を受け取る処理
+	 */
+	static void tokenize(int fieldNum, String content, TermConsumer consumer) {
+		if (fieldNum < 0 || fieldNum > MAX_FIELD_NUM) {
+			return;
+		}
+		String value = normalize(content);
+		int length = Math.min(value.length(), MAX_OFFSET + 1);
+		for (int i = 0; i < length; i++) {
+			char c1 = value.charAt(i);
+			if (Character.isWhitespace(c1)) {
+				continue;
+			}
+			char c2 = i + 1 < value.length() ? value.charAt(i + 1) : END;
+			if (Character.isWhitespace(c2)) {
+				c2 = END;
+			}
+			consumer.accept(term(c1, c2), position(fieldNum, i));
+		}
+	}
+
+	/**
+	 * 次のセグメントファイルのパス取得
+	 *
+	 * @return セグメントファイルのパス
+	 */
+	private Path nextSegmentPath() {
+		return dir.resolve("segment-" + generation.incrementAndGet() + ".idx");
+	}
+
+	/**
+	 * セグメントの置き換え<br>
+	 * 統合済みの差分(置き換え前に更新されていないもの)は削除する。
+	 * 統合中に一括構築したセグメントに置き換えられた場合は、統合結果を破棄する
+	 *
+	 * @param current 統合元のセグメント
+	 * @param newSegment
+	 * @param mergedList 統合済みの差分
+	 */
+	private void swap(Segment current, Segment newSegment, Collection<DeltaDoc> mergedList) {
+		Segment oldSegment;
+		lock.writeLock().lock();
+		try {
+			if (segment != current) {
+				oldSegment = newSegment;
+			} else {
+				oldSegment = segment;
+				segment = newSegment;
+				for (DeltaDoc merged : mergedList) {
+					delta.remove(merged.doc.docId, merged);
+				}
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+		oldSegment.close();
+	}
+
+	/**
+	 * 見出しと位置を受け取る処理
+	 */
+	@FunctionalInterface
+	interface TermConsumer {
+		void accept(int term, int position);
+	}
+
+	/**
+	 * 文書情報
+	 */
+	public static final class Doc {
+
+		/** 文書ID */
+		public final int docId;
+		/** 種別ID */
+		public final int typeId;
+		/** ユーザーID */
+		public final int userId;
+		/** アカウントID */
+		public final int accountId;
+		/** 日付(エポック日) */
+		public final int epochDay;
+
+		public Doc(int docId, int typeId, int userId, int accountId, int epochDay) {
+			this.docId = docId;
+			this.typeId = typeId;
+			this.userId = userId;
+			this.accountId = accountId;
+			this.epochDay = epochDay;
+		}
+	}
+
+	/**
+	 * 検索結果
+	 */
+	public static final class Hit {
+
+		/** 文書情報 */
+		public final Doc doc;
+		/** 一致した項目番号 */
+		public final TreeSet<Integer> fieldNumSet = new TreeSet<>();
+
+		Hit(Doc doc) {
+			this.doc = doc;
+		}
+	}
+
+	/**
+	 * 一括構築用のビルダー<br>
+	 * 文書ID・項目番号・文字位置の順に登録した場合は並べ替えを省略する
+	 */
+	public static final class Builder {
+
+		/* 文書情報(キー：文書ID) */
+		private final LinkedHashMap<Integer, Doc> docMap = new LinkedHashMap<>();
+		/* 転置リスト(キー：見出し) */
+		private final HashMap<Integer, LongList> postingMap = new HashMap<>();
+		/* 書出したセグメント */
+		private Segment segment;
+
+		private Builder() {
+		}
+
+		/**
+		 * 項目の登録
+		 *
+		 * @param doc 文書情報
+		 * @param fieldNum 項目番号
+		 * @param content 内容
+		 */
+		public void add(Doc doc, int fieldNum, String content) {
+			docMap.putIfAbsent(doc.docId, doc);
+			long base = ((long) doc.docId) << 32;
+			tokenize(fieldNum, content, (term, position) -> addPosting(term, base | position));
+		}
+
+		private void addPosting(int term, long posting) {
+			postingMap.computeIfAbsent(term, key -> new LongList()).add(posting);
+		}
+	}
+
+	/**
+	 * 差分の文書
+	 */
+	private static final class DeltaDoc {
+
+		/* 文書情報 */
+		private final Doc doc;
+		/* 位置(キー：見出し) */
+		private final HashMap<Integer, int[]> positionMap = new HashMap<>();
+		/* 登録中の位置 */
+		private HashMap<Integer, LongList> building = new HashMap<>();
+
+		DeltaDoc(Doc doc) {
+			this.doc = doc;
+		}
+
+		void add(int term, int position) {
+			building.computeIfAbsent(term, key -> new LongList()).add(position);
+		}
+
+		void seal() {
+			for (Map.Entry<Integer, LongList> entry : building.entrySet()) {
+				long[] values = entry.getValue().toSortedArray();
+				int[] positions = new int[values.length];
+				for (int i = 0; i < values.length; i++) {
+					positions[i] = (int) values[i];
+				}
+				positionMap.put(entry.getKey(), positions);
+			}
+			building = null;
+		}
+
+		void copyTo(Builder builder) {
+			builder.docMap.put(doc.docId, doc);
+			long base = ((long) doc.docId) << 32;
+			for (Map.Entry<Integer, int[]> entry : positionMap.entrySet()) {
+				for (int position : entry.getValue()) {
+					builder.addPosting(entry.getKey(), base | position);
+				}
+			}
+		}
+
+		void search(char[] word, Map<Integer, Hit> hitMap) {
+			if (word.length == 1) {
+				for (Map.Entry<Integer, int[]> entry : positionMap.entrySet()) {
+					if (firstChar(entry.getKey()) == word[0]) {
+						for (int position : entry.getValue()) {
+							addHit(hitMap, doc, position >>> 16);
+						}
+					}
+				}
+				return;
+			}
+			int[][] positionsArray = new int[word.length - 1][];
+			int rarest = 0;
+			for (int i = 0; i < positionsArray.length; i++) {
+				positionsArray[i] = positionMap.get(term(word[i], word[i + 1]));
+				if (positionsArray[i] == null) {
+					return;
+				}
+				if (positionsArray[i].length < positionsArray[rarest].length) {
+					rarest = i;
+				}
+			}
+			for (int position : positionsArray[rarest]) {
+				int start = position - rarest;
+				if ((position & MAX_OFFSET) < rarest
+						|| (start & MAX_OFFSET) + positionsArray.length - 1 > MAX_OFFSET) {
+					continue;
+				}
+				boolean match = true;
+				for (int i = 0; i < positionsArray.length && match; i++) {
+					match = i == rarest || Arrays.binarySearch(positionsArray[i], start + i) >= 0;
+				}
+				if (match) {
+					addHit(hitMap, doc, start >>> 16);
+				}
+			}
+		}
+	}
+
+	/**
+	 * セグメント<br>
+	 * ファイル形式：識別子・形式バージョン・文書数・文書情報・転置リスト(差分の可変長)・見出し辞書・見出し辞書の開始位置
+	 */
+	private static final class Segment {
+
+		/* セグメントファイルのパス */
+		private final Path path;
+		/* メモリマップ */
+		private final MappedByteBuffer buffer;
+		/* 文書情報(キー：文書ID) */
+		private final HashMap<Integer, Doc> docMap;
+		/* 見出し(昇順) */
+		private final int[] terms;
+		/* 転置リストの開始位置 */
+		private final int[] offsets;
+		/* 転置リストの件数 */
+		private final int[] counts;
+
+		private Segment(Path path) throws IOException {
+			this.path = path;
+			try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+				this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			}
+			if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+				throw new IOException("セグメントファイルの形式が不正です：" + path);
+			}
+			int docCount = buffer.getInt(8);
+			docMap = new HashMap<>(docCount * 2);
+			int index = 12;
+			for (int i = 0; i < docCount; i++, index += 20) {
+				Doc doc = new Doc(buffer.getInt(index), buffer.getInt(index + 4),
+						buffer.getInt(index + 8), buffer.getInt(index + 12), buffer.getInt(index + 16));
+				docMap.put(doc.docId, doc);
+			}
+			index = buffer.getInt(buffer.capacity() - 4);
+			int termCount = buffer.getInt(index);
+			terms = new int[termCount];
+			offsets = new int[termCount];
+			counts = new int[termCount];
+			index += 4;
+			for (int i = 0; i < termCount; i++, index += 12) {
+				terms[i] = buffer.getInt(index);
+				offsets[i] = buffer.getInt(index + 4);
+				counts[i] = buffer.getInt(index + 8);
+			}
+		}
+
+		/**
+		 * セグメントファイルの書込み
+		 *
+		 * @param path
+		 * @param builder
+		 * @return セグメント
+		 * @throws IOException
+		 */
+		static Segment write(Path path, Builder builder) throws IOException {
+			Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+			int[] termArray = builder.postingMap.keySet().stream().mapToInt(Integer::intValue).sorted()
+					.toArray();
+			int[] offsetArray = new int[termArray.length];
+			int[] countArray = new int[termArray.length];
+			try (CountingOutputStream cos = new CountingOutputStream(
+					new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16));
+					DataOutputStream dos = new DataOutputStream(cos)) {
+				dos.writeInt(MAGIC);
+				dos.writeInt(FORMAT_VERSION);
+				dos.writeInt(builder.docMap.size());
+				for (Doc doc : builder.docMap.values()) {
+					dos.writeInt(doc.docId);
+					dos.writeInt(doc.typeId);
+					dos.writeInt(doc.userId);
+					dos.writeInt(doc.accountId);
+					dos.writeInt(doc.epochDay);
+				}
+				for (int i = 0; i < termArray.length; i++) {
+					long[] postings = builder.postingMap.get(termArray[i]).toSortedArray();
+					offsetArray[i] = (int) cos.count;
+					countArray[i] = postings.length;
+					long previous = 0;
+					for (long posting : postings) {
+						writeVarLong(dos, posting - previous);
+						previous = posting;
+					}
+				}
+				dos.flush();
+				int dictionaryOffset = (int) cos.count;
+				dos.writeInt(termArray.length);
+				for (int i = 0; i < termArray.length; i++) {
+					dos.writeInt(termArray[i]);
+					dos.writeInt(offsetArray[i]);
+					dos.writeInt(countArray[i]);
+				}
+				dos.writeInt(dictionaryOffset);
+			}
+			Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			return new Segment(path);
+		}
+
+		/**
+		 * 転置リストの取得
+		 *
+		 * @param index 見出しの位置
+		 * @return 転置リスト
+		 */
+		long[] postings(int index) {
+			long[] postings = new long[counts[index]];
+			int position = offsets[index];
+			long value = 0;
+			for (int i = 0; i < postings.length; i++) {
+				long delta = 0;
+				int shift = 0;
+				byte b;
+				do {
+					b = buffer.get(position++);
+					delta |= (long) (b & 0x7F) << shift;
+					shift += 7;
+				} while (b < 0);
+				value += delta;
+				postings[i] = value;
+			}
+			return postings;
+		}
+
+		void search(char[] word, Predicate<Doc> filter, Map<Integer, Hit> hitMap) {
+			if (word.length == 1) {
+				int from = lowerBound(term(word[0], (char) 0));
+				int to = lowerBound(term(word[0], Character.MAX_VALUE));
+				if (to < terms.length && terms[to] == term(word[0], Character.MAX_VALUE)) {
+					to++;
+				}
+				for (int index = from; index < to; index++) {
+					for (long posting : postings(index)) {
+						Doc doc = docMap.get((int) (posting >>> 32));
+						if (filter.test(doc)) {
+							addHit(hitMap, doc, ((int) posting) >>> 16);
+						}
+					}
+				}
+				return;
+			}
+			int[] indexes = new int[word.length - 1];
+			int rarest = 0;
+			for (int i = 0; i < indexes.length; i++) {
+				indexes[i] = Arrays.binarySearch(terms, term(word[i], word[i + 1]));
+				if (indexes[i] < 0) {
+					return;
+				}
+				if (counts[indexes[i]] < counts[indexes[rarest]]) {
+					rarest = i;
+				}
+			}
+			long[][] postingsArray = new long[indexes.length][];
+			for (long posting : postings(indexes[rarest])) {
+				long start = posting - rarest;
+				if ((posting & MAX_OFFSET) < rarest
+						|| (start & MAX_OFFSET) + indexes.length - 1 > MAX_OFFSET) {
+					continue;
+				}
+				Doc doc = docMap.get((int) (posting >>> 32));
+				if (!filter.test(doc)) {
+					continue;
+				}
+				boolean match = true;
+				for (int i = 0; i < indexes.length && match; i++) {
+					if (i == rarest) {
+						continue;
+					}
+					if (postingsArray[i] == null) {
+						postingsArray[i] = postings(indexes[i]);
+					}
+					match = Arrays.binarySearch(postingsArray[i], start + i) >= 0;
+				}
+				if (match) {
+					addHit(hitMap, doc, ((int) start) >>> 16);
+				}
+			}
+		}
+
+		void copyTo(Builder builder, Predicate<Integer> docFilter) {
+			for (Doc doc : docMap.values()) {
+				if (docFilter.test(doc.docId)) {
+					builder.docMap.put(doc.docId, doc);
+				}
+			}
+			for (int index = 0; index < terms.length; index++) {
+				for (long posting : postings(index)) {
+					if (docFilter.test((int) (posting >>> 32))) {
+						builder.addPosting(terms[index], posting);
+					}
+				}
+			}
+		}
+
+		void close() {
+			path.toFile().delete();
+		}
+
+		private int lowerBound(int term) {
+			int index = Arrays.binarySearch(terms, term);
+			return index < 0 ? -index - 1 : index;
+		}
+
+		private static void writeVarLong(DataOutputStream dos, long value) throws IOException {
+			while ((value & ~0x7FL) != 0) {
+				dos.writeByte((int) ((value & 0x7F) | 0x80));
+				value >>>= 7;
+			}
+			dos.writeByte((int) value);
+		}
+	}
+
+	/**
+	 * 検索結果の追加
+	 *
+	 * @param hitMap
+	 * @param doc
+	 * @param fieldNum
+	 */
+	private static void addHit(Map<Integer, Hit> hitMap, Doc doc, int fieldNum) {
+		hitMap.computeIfAbsent(doc.docId, key -> new Hit(doc)).fieldNumSet.add(fieldNum);
+	}
+
+	/**
+	 * 可変長のlong配列
+	 */
+	private static final class LongList {
+
+		private long[] values = new long[4];
+		private int size;
+		private boolean sorted = true;
+
+		void add(long value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			if (size > 0 && values[size - 1] > value) {
+				sorted = false;
+			}
+			values[size++] = value;
+		}
+
+		long[] toSortedArray() {
+			long[] array = Arrays.copyOf(values, size);
+			if (!sorted) {
+				Arrays.sort(array);
+			}
+			return array;
+		}
+	}
+
+	/**
+	 * 書込みバイト数を数える出力ストリーム
+	 */
+	private static final class CountingOutputStream extends OutputStream {
+
+		private final OutputStream out;
+		private long count;
+
+		CountingOutputStream(OutputStream out) {
+			this.out = out;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			count += len;
+		}
+
+		@Override
+		public void flush() throws IOException {
+			out.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			out.close();
+		}
+	}
+
+}
@@ -155,6 +155,8 @@ public interface Constants {
 	public static final String VALID_KEY_WORK24TIME = "work24Time";
 	public static final String VALID_KEY_LOGINDATA_GET_FAILED = "logindata.getFailed";
 	public static final String VALID_KEY_PASSWORD_UPDATE_FAILED = "password.updateFailed";
+	public static final String VALID_KEY_REQUEST_TOO_MANY = "request.tooMany";
+	public static final String VALID_KEY_EXAM_RESULT_PENDING = "exam.result.pending";
 
 	// message.propertyのリソースキー
 	public static final String PROP_KEY_MAIL_CONTRACT_SUBJECT = "mail.contract.subject";
@@ -165,6 +167,12 @@ public interface Constants {
 	public static final String PROP_KEY_MAIL_LOGININFO_BODY = "mail.logininfo.body";
 	public static final String PROP_KEY_MAIL_MAILFAILED_SUBJECT = "mail.mailfailed.subject";
 	public static final String PROP_KEY_MAIL_MAILFAILED_BODY = "mail.mailfailed.body";
+	public static final String PROP_KEY_MAIL_SENDER_ADDRESS = "setting.mail.sender.address";
+	public static final String PROP_KEY_MAIL_SEND_FLG = "setting.mail.send.flg";
+	public static final String PROP_KEY_MAIL_SEND_WAIT = "setting.mail.send.wait";
+	public static final String PROP_KEY_MAIL_QUE_WAIT = "setting.mail.que.wait";
+	public static final String PROP_KEY_MAIL_FAIL_NOTIFICATION_PERIOD = "setting.mail.fail.notification.period";
+	public static final String PROP_KEY_TISMAIL = "setting.tismail";
 	public static final String PROP_KEY_ATTENDANCE_UPDATE_NOTICE = "attendance.update.notice";
 	public static final String PROP_KEY_ATTENDANCE_COMPANY_JOSEIKININFOISNOTEXISTS = "attendance.company.joseiKinInfoIsNotExists";
 	public static final String PROP_KEY_REGIST_COMPLETE = "regist.complete";
@@ -252,6 +260,16 @@ public interface Constants {
 	public static final short DB_FEEDBACK_FLG_FALSE = 0;
 	public static final short DB_FEEDBACK_FLG_TRUE = 1;
 
+	// メール送信状態
+	/** 未送信 */
+	public static final short MAIL_SEND_STATUS_UNSENT = 0;
+	/** 送信済み */
+	public static final short MAIL_SEND_STATUS_SENT = 1;
+	/** 送信失敗 */
+	public static final short MAIL_SEND_STATUS_FAILED = 2;
+	/** 送信中 */
+	public static final short MAIL_SEND_STATUS_SENDING = 3;
+
 	// 対象の公開フラグ
 	/** 公開フラグオフ */
 	public static final short PUBLISHED_FLG_FALSE = 0;
@@ -358,6 +376,10 @@ public interface Constants {
 
 	/** パスワードリセットURL（埋め込み文字） */
 	public static final String REPLACE_CHAR_RESET_PASSWORD_URL = ":url:";
+	/** メール送信失敗通知（埋め込み文字） */
+	public static final String REPLACE_CHAR_MAIL_ADDRESS = ":mail_address:";
+	public static final String REPLACE_CHAR_SUBJECT = ":subject:";
+	public static final String REPLACE_CHAR_QUE_CREATE_DATE = ":que_create_date:";
 
 	/** 管理者フラグ */
 	public static final Short ADMIN_FLG_FALSE = 0;
@@ -17,6 +17,7 @@ import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.CreationHelper;
 import org.apache.poi.ss.usermodel.DateUtil;
 import org.apache.poi.ss.usermodel.FormulaEvaluator;
+import org.apache.poi.ss.usermodel.RichTextString;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
@@ -28,6 +29,7 @@ import org.springframework.core.io.ClassPathResource;
 import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import jp.co.sss.lms.dto.OutputFileDto;
 import jp.co.sss.lms.dto.WorkbookDto;
 
 /**
@@ -187,54 +189,190 @@ public class ExcelUtil {
 	public void sheetCopy(String sheetName, int st, int en, int cnt) {
 		// シート情報を取得
 		Sheet sheet = wb.getSheet(sheetName);
-		int x = sheet.getNumMergedRegions();
-		Row row = null, row2 = null;
-		Cell cell = null, cell2 = null;
-		CellStyle cellstyle = null;
-		short height = 0;
-		for (int i = st; i < en; i++) {
-			row = sheet.getRow(i);
-			if (row != null) {
-				height = row.getHeight();
-				// 最終行をベースに下(Row)へコピーしていく。
-				row2 = sheet.createRow((en - st) * cnt + i);
-				row2.setHeight(height);
+		RowBlock rowBlock = new RowBlock(sheet, st, en);
+		rowBlock.stamp(sheet, cnt);
+	}
+
+	/**
+	 * 指定された範囲の行をテンプレートとして、直下に指定回数分複製する<br>
+	 * テンプレート(セル・スタイル・結合状態)の読取りは1回のみ行い、複製は1パスで書き込む
+	 * 
+	 * @param sheetName シート名
+	 * @param st        コピーの開始行(start from 0)
+	 * @param en        コピーの最終行(end from 1)
+	 * @param copyNum   複製する回数
+	 */
+	public void blockCopy(String sheetName, int st, int en, int copyNum) {
+		if (copyNum < 1) {
+			return;
+		}
+		// シート情報を取得
+		Sheet sheet = wb.getSheet(sheetName);
+		RowBlock rowBlock = new RowBlock(sheet, st, en);
+		for (int i = 1; i <= copyNum; i++) {
+			rowBlock.stamp(sheet, i);
+		}
+	}
+
+	/**
+	 * 複製元となる行範囲(テンプレート)<br>
+	 * 行の高さ、セルのスタイル・値、範囲内に収まる結合状態を保持する
+	 */
+	private static class RowBlock {
+
+		/* コピーの開始行 */
+		private final int st;
+		/* コピーの行数 */
+		private final int height;
+		/* 行情報 */
+		private final List<RowTemplate> rowList = new ArrayList<RowTemplate>();
+		/* 結合状態 */
+		private final List<CellRangeAddress> mergedRegionList = new ArrayList<CellRangeAddress>();
+
+		/**
+		 * 行範囲を読み取る
+		 * 
+		 * @param sheet シート
+		 * @param st    コピーの開始行(start from 0)
+		 * @param en    コピーの最終行(end from 1)
+		 */
+		RowBlock(Sheet sheet, int st, int en) {
+			this.st = st;
+			this.height = en - st;
+			for (int i = st; i < en; i++) {
+				Row row = sheet.getRow(i);
+				if (row != null) {
+					rowList.add(new RowTemplate(row));
+				}
+			}
+			// 範囲内に収まる結合状態のみを対象とする(複製済みの結合状態は含めない)
+			for (int i = 0; i < sheet.getNumMergedRegions(); i++) {
+				CellRangeAddress cra = sheet.getMergedRegion(i);
+				if (cra.getFirstRow() >= st && cra.getLastRow() < en) {
+					mergedRegionList.add(cra);
+				}
+			}
+		}
+
+		/**
+		 * 指定された位置に行範囲を書き込む
+		 * 
+		 * @param sheet シート
+		 * @param cnt   何個目の複製か(1から)
+		 */
+		void stamp(Sheet sheet, int cnt) {
+			int offset = height * cnt;
+			for (RowTemplate rowTemplate : rowList) {
+				rowTemplate.stamp(sheet, offset);
+			}
+			// 結合状態を設定
+			for (CellRangeAddress cra : mergedRegionList) {
+				sheet.addMergedRegion(new CellRangeAddress(cra.getFirstRow() + offset,
+						cra.getLastRow() + offset, cra.getFirstColumn(), cra.getLastColumn()));
+			}
+		}
+
+		/**
+		 * 複製元の行情報<br>
+		 * 読取り時点のセルのスタイル・値を保持する(複製中にテンプレート行が更新されても影響を受けない)
+		 */
+		private static class RowTemplate {
+
+			/* 行番号 */
+			private final int rowNum;
+			/* 行の高さ */
+			private final short rowHeight;
+			/* セル情報 */
+			private final List<CellTemplate> cellList = new ArrayList<CellTemplate>();
+
+			RowTemplate(Row row) {
+				this.rowNum = row.getRowNum();
+				this.rowHeight = row.getHeight();
 				for (int j = 0; j < row.getLastCellNum(); j++) {
-					cell = row.getCell(j);
+					Cell cell = row.getCell(j);
 					if (cell != null) {
-						cell2 = row2.createCell(j);
-						cellstyle = cell.getCellStyle();
-						cell2.setCellStyle(cellstyle);
-						switch (cell.getCellType()) {
-						case Cell.CELL_TYPE_STRING:
-							cell2.setCellValue(cell.getRichStringCellValue());
-							break;
-						case Cell.CELL_TYPE_NUMERIC:
-							if (org.apache.poi.ss.usermodel.DateUtil.isCellDateFormatted(cell)) {
-								cell2.setCellValue(cell.getDateCellValue());
-							} else {
-								cell2.setCellValue(cell.getNumericCellValue());
-							}
-							break;
-						case Cell.CELL_TYPE_FORMULA:
-							cell2.setCellFormula(cell.getCellFormula());
-							break;
-						case Cell.CELL_TYPE_BOOLEAN:
-							cell2.setCellValue(cell.getBooleanCellValue());
-							break;
-						}
+						cellList.add(new CellTemplate(cell));
 					}
 				}
 			}
+
+			void stamp(Sheet sheet, int offset) {
+				// 最終行をベースに下(Row)へコピーしていく。
+				Row row2 = sheet.createRow(rowNum + offset);
+				row2.setHeight(rowHeight);
+				for (CellTemplate cellTemplate : cellList) {
+					cellTemplate.stamp(row2);
+				}
+			}
 		}
-		// 結合状態を設定
-		CellRangeAddress cra = null;
-		for (int i = 0; i < x; i++) {
-			cra = sheet.getMergedRegion(i);
-			if (cra.getFirstRow() >= st) {
-				CellRangeAddress newCra = new CellRangeAddress(cra.getFirstRow() + (en - st) * cnt,
-						cra.getLastRow() + (en - st) * cnt, cra.getFirstColumn(), cra.getLastColumn());
-				sheet.addMergedRegion(newCra);
+
+		/**
+		 * 複製元のセル情報
+		 */
+		private static class CellTemplate {
+
+			/* 列番号 */
+			private final int columnIndex;
+			/* スタイル */
+			private final CellStyle cellStyle;
+			/* セルの種類 */
+			private final int cellType;
+			/* 値(文字列) */
+			private RichTextString richStringValue;
+			/* 値(日付) */
+			private Date dateValue;
+			/* 値(数値) */
+			private double numericValue;
+			/* 値(数式) */
+			private String formula;
+			/* 値(真偽値) */
+			private boolean booleanValue;
+
+			CellTemplate(Cell cell) {
+				this.columnIndex = cell.getColumnIndex();
+				this.cellStyle = cell.getCellStyle();
+				this.cellType = cell.getCellType();
+				switch (cellType) {
+				case Cell.CELL_TYPE_STRING:
+					richStringValue = cell.getRichStringCellValue();
+					break;
+				case Cell.CELL_TYPE_NUMERIC:
+					if (org.apache.poi.ss.usermodel.DateUtil.isCellDateFormatted(cell)) {
+						dateValue = cell.getDateCellValue();
+					} else {
+						numericValue = cell.getNumericCellValue();
+					}
+					break;
+				case Cell.CELL_TYPE_FORMULA:
+					formula = cell.getCellFormula();
+					break;
+				case Cell.CELL_TYPE_BOOLEAN:
+					booleanValue = cell.getBooleanCellValue();
+					break;
+				}
+			}
+
+			void stamp(Row row) {
+				Cell cell2 = row.createCell(columnIndex);
+				cell2.setCellStyle(cellStyle);
+				switch (cellType) {
+				case Cell.CELL_TYPE_STRING:
+					cell2.setCellValue(richStringValue);
+					break;
+				case Cell.CELL_TYPE_NUMERIC:
+					if (dateValue != null) {
+						cell2.setCellValue(dateValue);
+					} else {
+						cell2.setCellValue(numericValue);
+					}
+					break;
+				case Cell.CELL_TYPE_FORMULA:
+					cell2.setCellFormula(formula);
+					break;
+				case Cell.CELL_TYPE_BOOLEAN:
+					cell2.setCellValue(booleanValue);
+					break;
+				}
 			}
 		}
 	}
@@ -248,18 +386,65 @@ public class ExcelUtil {
 	 */
 	public static void downloadBook(WorkbookDto workbookDto, HttpServletResponse response) throws IOException {
 
-		String fileNameSjis = new String(workbookDto.getWbName().getBytes("Shift_JIS"), "ISO-8859-1").replace(" ",
-				"%20");
-		String fileNameUtf8 = URLEncoder.encode(workbookDto.getWbName(), "UTF-8").replace("+", "%20");
-		response.setContentType("application/octet-stream");
-		response.setHeader("Content-Disposition",
-				"attachment;filename=" + fileNameSjis + ";filename*=utf-8''" + fileNameUtf8);
+		setDownloadHeader(workbookDto.getWbName(), response);
 
 		try (ServletOutputStream out = response.getOutputStream()) {
 			workbookDto.getWb().write(out);
 		}
 	}
 
+	/**
+	 * Workbookをバイト配列に変換する
+	 * 
+	 * @param workbookDto
+	 * @return 出力ファイルDTO
+	 * @throws IOException
+	 */
+	public static OutputFileDto toOutputFile(WorkbookDto workbookDto) throws IOException {
+
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		workbookDto.getWb().write(baos);
+
+		OutputFileDto outputFileDto = new OutputFileDto();
+		outputFileDto.setFileName(workbookDto.getWbName());
+		outputFileDto.setContent(baos.toByteArray());
+		return outputFileDto;
+	}
+
+	/**
+	 * 変換済みのWorkbookのダウンロードを行う
+	 * 
+	 * @param outputFileDto
+	 * @param response
+	 * @throws IOException
+	 */
+	public static void downloadFile(OutputFileDto outputFileDto, HttpServletResponse response)
+			throws IOException {
+
+		setDownloadHeader(outputFileDto.getFileName(), response);
+		response.setContentLength(outputFileDto.getContent().length);
+
+		try (ServletOutputStream out = response.getOutputStream()) {
+			out.write(outputFileDto.getContent());
+		}
+	}
+
+	/**
+	 * ダウンロード用のヘッダーを設定する
+	 * 
+	 * @param fileName
+	 * @param response
+	 * @throws IOException
+	 */
+	private static void setDownloadHeader(String fileName, HttpServletResponse response) throws IOException {
+
+		String fileNameSjis = new String(fileName.getBytes("Shift_JIS"), "ISO-8859-1").replace(" ", "%20");
+		String fileNameUtf8 = URLEncoder.encode(fileName, "UTF-8").replace("+", "%20");
+		response.setContentType("application/octet-stream");
+		response.setHeader("Content-Disposition",
+				"attachment;filename=" + fileNameSjis + ";filename*=utf-8''" + fileNameUtf8);
+	}
+
 	/**
 	 * Workbookの一括ダウンロードを行う
 	 * 
@@ -0,0 +1,267 @@
+package jp.co.sss.lms.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 差分集計<br>
+ * テーブルから一括構築した集計をメモリ上に保持し、以降は登録内容を差分として反映する。<br>
+ * 差分はトランザクション中の場合コミット後に反映する。構築中に反映した差分は構築後に再適用し、
+ * 構築で読込み済みのものは除く。構築は集計全体・一部(試験ごと等)のどちらも行える。<br>
+ * 構築の予約・失敗時の再試行・定期的な再構築は{@link IncrementalAggregateUtil}が行う。
+ *
+ * @param <T> 集計
+ * @param <U> 差分
+ * @author 東京ITスクール
+ */
+public class IncrementalAggregate<T, U> {
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/* 集計名(ログ出力用) */
+	private final String name;
+	/* 差分の反映処理 */
+	private final BiConsumer<T, U> applier;
+	/* 参照・更新のロック */
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	/* 集計 */
+	private T state;
+	/* 集計全体の構築が完了している場合true */
+	private volatile boolean ready;
+	/* 構築中に反映した差分(構築ごと) */
+	private final List<List<U>> pendingListList = new ArrayList<>();
+	/* 読込みのトランザクション */
+	private TransactionOperations transactionOperations = TransactionOperations.withoutTransaction();
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param name 集計名
+	 * @param initialState 構築前の集計
+	 * @param applier 差分の反映処理
+	 */
+	public IncrementalAggregate(String name, Supplier<T> initialState, BiConsumer<T, U> applier) {
+		this.name = name;
+		this.state = initialState.get();
+		this.applier = applier;
+	}
+
+	/**
+	 * 読込みのトランザクションの設定<br>
+	 * PostgreSQLはトランザクション外ではfetchSizeを無視して全件を読込むため、読取り専用トランザクションを設定する
+	 *
+	 * @param transactionOperations
+	 */
+	public void setTransactionOperations(TransactionOperations transactionOperations) {
+		this.transactionOperations = transactionOperations;
+	}
+
+	/**
+	 * 集計全体の構築が完了しているか
+	 *
+	 * @return 完了している場合true
+	 */
+	public boolean isReady() {
+		return ready;
+	}
+
+	/**
+	 * 集計全体の構築<br>
+	 * 失敗した場合は集計を変更せずにfalseを返す
+	 *
+	 * @param loader 読込み処理
+	 * @return 成功した場合true
+	 */
+	public boolean rebuild(Loader<T, U> loader) {
+		return rebuild(loader, true);
+	}
+
+	/**
+	 * 集計の一部の構築<br>
+	 * 失敗した場合は集計を変更せずにfalseを返す
+	 *
+	 * @param loader 読込み処理
+	 * @return 成功した場合true
+	 */
+	public boolean rebuildPart(Loader<T, U> loader) {
+		return rebuild(loader, false);
+	}
+
+	/**
+	 * 差分の反映<br>
+	 * トランザクション中の場合はコミット後に反映する
+	 *
+	 * @param update
+	 */
+	public void update(U update) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					apply(update);
+				}
+			});
+		} else {
+			apply(update);
+		}
+	}
+
+	/**
+	 * 集計の参照(読取りロック中に実行)
+	 *
+	 * @param reader 参照処理
+	 * @return 参照結果
+	 */
+	public <R> R read(Function<T, R> reader) {
+		lock.readLock().lock();
+		try {
+			return reader.apply(state);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * 集計の変更(書込みロック中に実行)
+	 *
+	 * @param writer 変更処理
+	 * @return 変更結果
+	 */
+	public <R> R write(Function<T, R> writer) {
+		lock.writeLock().lock();
+		try {
+			return writer.apply(state);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * 構築
+	 *
+	 * @param loader
+	 * @param whole 集計全体の場合true
+	 * @return 成功した場合true
+	 */
+	private boolean rebuild(Loader<T, U> loader, boolean whole) {
+		long start = System.currentTimeMillis();
+		List<U> pendingList = new ArrayList<>();
+		lock.writeLock().lock();
+		try {
+			pendingListList.add(pendingList);
+		} finally {
+			lock.writeLock().unlock();
+		}
+		try {
+			Loaded<T, U> loaded;
+			try {
+				loaded = transactionOperations.execute(status -> loader.load());
+			} catch (RuntimeException e) {
+				logger.warn(name + "の構築に失敗しました", e);
+				return false;
+			}
+			lock.writeLock().lock();
+			try {
+				state = loaded.installer.apply(state);
+				for (U update : pendingList) {
+					if (loaded.reapplyFilter.test(update)) {
+						applier.accept(state, update);
+					}
+				}
+				if (whole) {
+					ready = true;
+				}
+			} finally {
+				lock.writeLock().unlock();
+			}
+			if (whole) {
+				logger.info(name + "を構築しました：" + loaded.count + "件 "
+						+ (System.currentTimeMillis() - start) + "ms");
+			}
+			return true;
+		} finally {
+			lock.writeLock().lock();
+			try {
+				pendingListList.remove(pendingList);
+			} finally {
+				lock.writeLock().unlock();
+			}
+		}
+	}
+
+	/**
+	 * 差分の反映
+	 *
+	 * @param update
+	 */
+	private void apply(U update) {
+		lock.writeLock().lock();
+		try {
+			applier.accept(state, update);
+			for (List<U> pendingList : pendingListList) {
+				pendingList.add(update);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * 読込み処理
+	 *
+	 * @param <T> 集計
+	 * @param <U> 差分
+	 */
+	@FunctionalInterface
+	public interface Loader<T, U> {
+
+		/**
+		 * テーブルからの読込み(ロック外で実行)
+		 *
+		 * @return 読込み結果
+		 */
+		Loaded<T, U> load();
+	}
+
+	/**
+	 * 読込み結果
+	 *
+	 * @param <T> 集計
+	 * @param <U> 差分
+	 */
+	public static final class Loaded<T, U> {
+
+		/* 読込み結果を集計に反映する処理(現在の集計を受け取り、新しい集計を返す) */
+		private final UnaryOperator<T> installer;
+		/* 構築中に反映した差分のうち、再適用するもの(読込みに含まれていないもの) */
+		private final Predicate<U> reapplyFilter;
+		/* 読込み件数 */
+		private final long count;
+
+		/**
+		 * コンストラクタ
+		 *
+		 * @param installer 読込み結果を集計に反映する処理(書込みロック中に実行)
+		 * @param reapplyFilter 構築中に反映した差分のうち、再適用するもの
+		 * @param count 読込み件数
+		 */
+		public Loaded(UnaryOperator<T> installer, Predicate<U> reapplyFilter, long count) {
+			this.installer = installer;
+			this.reapplyFilter = reapplyFilter;
+			this.count = count;
+		}
+	}
+
+}
@@ -0,0 +1,158 @@
+package jp.co.sss.lms.util;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 差分集計ユーティリティ<br>
+ * メモリ上の集計(理解度集計・試験統計・項目分析・ジャンル別正答状況・レポート検索インデックス)の構築を共通のスレッドで実行する。<br>
+ * 登録された構築処理は起動完了時に実行し、失敗した場合は一定時間(setting.aggregate.retrySecond)後に再試行する。
+ * 集計はサーバーごとに保持するため、他のサーバーでの登録・削除を取り込むよう
+ * 一定時間(setting.aggregate.resyncSecond)ごとに再構築する。
+ *
+ * @author 東京ITスクール
+ */
+@Component
+public class IncrementalAggregateUtil {
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Value("${setting.aggregate.threadCount}")
+	private Integer threadCount;
+	@Value("${setting.aggregate.retrySecond}")
+	private Integer retrySecond;
+	@Value("${setting.aggregate.resyncSecond}")
+	private Integer resyncSecond;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/* 構築処理のスレッド */
+	private ScheduledExecutorService scheduler;
+	/* 登録された構築処理 */
+	private final List<BooleanSupplier> rebuildList = new CopyOnWriteArrayList<>();
+	/* 起動完了済みの場合true */
+	private volatile boolean started;
+	/* 読込みの読取り専用トランザクション */
+	private TransactionTemplate readOnlyTransactionTemplate;
+
+	/**
+	 * 初期化
+	 */
+	@PostConstruct
+	public void init() {
+		AtomicInteger threadNumber = new AtomicInteger();
+		scheduler = Executors.newScheduledThreadPool(threadCount, runnable -> {
+			Thread thread = new Thread(runnable, "incremental-aggregate-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+		readOnlyTransactionTemplate.setReadOnly(true);
+	}
+
+	/**
+	 * 終了処理
+	 */
+	@PreDestroy
+	public void destroy() {
+		scheduler.shutdownNow();
+	}
+
+	/**
+	 * 起動完了時に登録済みの構築処理を実行
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		started = true;
+		for (BooleanSupplier rebuild : rebuildList) {
+			schedule(rebuild, 0);
+		}
+	}
+
+	/**
+	 * 差分集計の構築処理の登録<br>
+	 * 差分集計の読込みは読取り専用トランザクションで行う
+	 *
+	 * @param aggregate 差分集計
+	 * @param rebuild 構築処理(成功した場合true)
+	 */
+	public void register(IncrementalAggregate<?, ?> aggregate, BooleanSupplier rebuild) {
+		aggregate.setTransactionOperations(readOnlyTransactionTemplate);
+		register(rebuild);
+	}
+
+	/**
+	 * 構築処理の登録<br>
+	 * 起動完了後に登録した場合はすぐに実行する
+	 *
+	 * @param rebuild 構築処理(成功した場合true)
+	 */
+	public void register(BooleanSupplier rebuild) {
+		rebuildList.add(rebuild);
+		if (started) {
+			schedule(rebuild, 0);
+		}
+	}
+
+	/**
+	 * 処理を構築処理のスレッドで実行<br>
+	 * 集計の一部の再構築など、要求元のスレッドで実行しない処理に使用する
+	 *
+	 * @param task
+	 */
+	public void execute(Runnable task) {
+		scheduler.execute(() -> {
+			try {
+				task.run();
+			} catch (RuntimeException e) {
+				logger.warn("集計処理に失敗しました", e);
+			}
+		});
+	}
+
+	/**
+	 * 構築処理の予約<br>
+	 * 完了後、成功した場合は再構築、失敗した場合は再試行を予約する
+	 *
+	 * @param rebuild
+	 * @param delaySecond
+	 */
+	private void schedule(BooleanSupplier rebuild, long delaySecond) {
+		if (scheduler.isShutdown()) {
+			return;
+		}
+		scheduler.schedule(() -> {
+			boolean succeeded = false;
+			try {
+				succeeded = rebuild.getAsBoolean();
+			} catch (RuntimeException e) {
+				logger.warn("集計の構築に失敗しました", e);
+			}
+			if (!succeeded) {
+				schedule(rebuild, retrySecond);
+			} else if (resyncSecond > 0) {
+				schedule(rebuild, resyncSecond);
+			}
+		}, delaySecond, TimeUnit.SECONDS);
+	}
+
+}
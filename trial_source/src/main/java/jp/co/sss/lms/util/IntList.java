@@ -0,0 +1,70 @@
+package jp.co.sss.lms.util;
+
+import java.util.Arrays;
+
+/**
+ * int型の可変長リスト<br>
+ * 集計の一括構築で読込んだIDを保持し、構築中に登録された内容との重複を判定するために使用する。
+ *
+ * @author 東京ITスクール
+ */
+public class IntList {
+
+	/* 要素 */
+	private int[] values;
+	/* 要素数 */
+	private int size;
+
+	/**
+	 * コンストラクタ
+	 */
+	public IntList() {
+		values = new int[1024];
+	}
+
+	/**
+	 * 要素の追加
+	 *
+	 * @param value
+	 */
+	public void add(int value) {
+		if (size == values.length) {
+			values = Arrays.copyOf(values, size * 2);
+		}
+		values[size++] = value;
+	}
+
+	/**
+	 * 要素数
+	 *
+	 * @return 要素数
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 要素の取得
+	 *
+	 * @param index
+	 * @return 要素
+	 */
+	public int get(int index) {
+		if (index >= size) {
+			throw new IndexOutOfBoundsException(index);
+		}
+		return values[index];
+	}
+
+	/**
+	 * 要素の検索<br>
+	 * 要素は昇順に追加されていること
+	 *
+	 * @param value
+	 * @return 要素が含まれる場合true
+	 */
+	public boolean containsSorted(int value) {
+		return Arrays.binarySearch(values, 0, size, value) >= 0;
+	}
+
+}
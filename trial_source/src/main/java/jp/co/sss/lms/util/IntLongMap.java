@@ -0,0 +1,135 @@
+package jp.co.sss.lms.util;
+
+import java.util.Arrays;
+
+/**
+ * int型のキーとlong型の値のマップ<br>
+ * オープンアドレス法で配列に保持し、要素ごとのオブジェクトを生成しない。
+ * 集計値をキーごとに加算する用途に使用する。
+ *
+ * @author 東京ITスクール
+ */
+public class IntLongMap {
+
+	/* 空きを表すキー */
+	private static final int EMPTY = Integer.MIN_VALUE;
+
+	/* キー */
+	private int[] keys;
+	/* 値 */
+	private long[] values;
+	/* 要素数 */
+	private int size;
+
+	/**
+	 * コンストラクタ
+	 */
+	public IntLongMap() {
+		keys = new int[8];
+		Arrays.fill(keys, EMPTY);
+		values = new long[8];
+	}
+
+	/**
+	 * 値の取得
+	 *
+	 * @param key
+	 * @return 値(存在しない場合0)
+	 */
+	public long get(int key) {
+		int slot = find(key);
+		return keys[slot] == EMPTY ? 0 : values[slot];
+	}
+
+	/**
+	 * 値の加算(存在しない場合は追加)
+	 *
+	 * @param key Integer.MIN_VALUE以外
+	 * @param delta
+	 */
+	public void addTo(int key, long delta) {
+		if (key == EMPTY) {
+			throw new IllegalArgumentException("key " + key);
+		}
+		int slot = find(key);
+		if (keys[slot] == EMPTY) {
+			keys[slot] = key;
+			size++;
+			values[slot] = delta;
+			if (size * 4 >= keys.length * 3) {
+				resize();
+			}
+		} else {
+			values[slot] += delta;
+		}
+	}
+
+	/**
+	 * 要素数
+	 *
+	 * @return 要素数
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * 全要素の処理
+	 *
+	 * @param consumer
+	 */
+	public void forEach(EntryConsumer consumer) {
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != EMPTY) {
+				consumer.accept(keys[i], values[i]);
+			}
+		}
+	}
+
+	/**
+	 * キーの格納位置(存在しない場合は空き位置)
+	 *
+	 * @param key
+	 * @return 格納位置
+	 */
+	private int find(int key) {
+		int mask = keys.length - 1;
+		int hash = key * 0x9E3779B9;
+		int slot = (hash ^ hash >>> 16) & mask;
+		while (keys[slot] != EMPTY && keys[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private void resize() {
+		int[] oldKeys = keys;
+		long[] oldValues = values;
+		keys = new int[oldKeys.length * 2];
+		Arrays.fill(keys, EMPTY);
+		values = new long[oldKeys.length * 2];
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != EMPTY) {
+				int slot = find(oldKeys[i]);
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+
+	/**
+	 * 要素の処理
+	 */
+	@FunctionalInterface
+	public interface EntryConsumer {
+
+		/**
+		 * 要素の処理
+		 *
+		 * @param key
+		 * @param value
+		 */
+		void accept(int key, long value);
+	}
+
+}
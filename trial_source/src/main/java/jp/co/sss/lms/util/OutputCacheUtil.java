@@ -0,0 +1,317 @@
+package jp.co.sss.lms.util;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import jakarta.annotation.PostConstruct;
+import jp.co.sss.lms.dto.OutputFileDto;
+
+/**
+ * 出力ファイルキャッシュユーティリティ<br>
+ * 生成済みのファイル(Excel等)をキーごとに保持する。<br>
+ * メモリ上の合計サイズが上限(setting.cache.output.maxBytes)を超えた場合は最も長く参照されていない
+ * ファイルから破棄する。退避ディレクトリ(setting.cache.output.spillDir)が設定されている場合は、
+ * 破棄したファイルをディスクに退避し、ディスク上の合計サイズの上限(setting.cache.output.spillMaxBytes)まで保持する。<br>
+ * 退避ファイルの読み書きはキーごとのロックで行い、全体のロックは管理情報の更新のみに使用する。
+ *
+ * @author 東京ITスクール
+ */
+@Component
+public class OutputCacheUtil {
+
+	@Value("${setting.cache.output.maxBytes}")
+	private Long maxBytes;
+	@Value("${setting.cache.output.spillDir:}")
+	private String spillDir;
+	@Value("${setting.cache.output.spillMaxBytes}")
+	private Long spillMaxBytes;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/* メモリ上のファイル(参照順) */
+	private final LinkedHashMap<String, OutputFileDto> memoryMap = new LinkedHashMap<>(16, 0.75f, true);
+	/* メモリ上の合計サイズ */
+	private long memoryBytes;
+	/* ディスク上のファイルサイズ(参照順) */
+	private final LinkedHashMap<String, Long> diskMap = new LinkedHashMap<>(16, 0.75f, true);
+	/* ディスク上の合計サイズ */
+	private long diskBytes;
+	/* 退避ディレクトリ */
+	private Path spillPath;
+	/* キーごとのロック(退避ファイルの入出力はキーごとに排他する) */
+	private final Object[] keyLocks = new Object[64];
+
+	{
+		for (int i = 0; i < keyLocks.length; i++) {
+			keyLocks[i] = new Object();
+		}
+	}
+
+	/**
+	 * 初期化
+	 */
+	@PostConstruct
+	public void init() {
+		if (spillDir == null || spillDir.isEmpty()) {
+			return;
+		}
+		try {
+			spillPath = Files.createDirectories(Paths.get(spillDir));
+			// 前回起動時の退避ファイルは破棄する
+			try (var stream = Files.list(spillPath)) {
+				stream.forEach(path -> path.toFile().delete());
+			}
+		} catch (IOException e) {
+			logger.warn("出力ファイルの退避ディレクトリを使用できません：" + spillDir, e);
+			spillPath = null;
+		}
+	}
+
+	/**
+	 * キャッシュからファイルを取得
+	 *
+	 * @param key
+	 * @return 出力ファイルDTO(存在しない場合null)
+	 */
+	public OutputFileDto get(String key) {
+		List<Map.Entry<String, OutputFileDto>> evictedList;
+		OutputFileDto outputFileDto;
+		synchronized (getKeyLock(key)) {
+			synchronized (this) {
+				outputFileDto = memoryMap.get(key);
+				if (outputFileDto != null) {
+					return outputFileDto;
+				}
+				Long size = spillPath == null ? null : diskMap.remove(key);
+				if (size == null) {
+					return null;
+				}
+				diskBytes -= size;
+			}
+			// ディスクから読み戻してメモリに戻す(ファイルの入出力は全体のロック外で行う)
+			Path path = getSpillFile(key);
+			try {
+				outputFileDto = readSpillFile(path);
+			} catch (IOException e) {
+				logger.warn("出力ファイルの読込みに失敗しました：" + path, e);
+				return null;
+			} finally {
+				path.toFile().delete();
+			}
+			synchronized (this) {
+				evictedList = putMemory(key, outputFileDto);
+			}
+		}
+		spill(evictedList);
+		return outputFileDto;
+	}
+
+	/**
+	 * キャッシュにファイルを登録
+	 *
+	 * @param key
+	 * @param outputFileDto
+	 */
+	public void put(String key, OutputFileDto outputFileDto) {
+		List<Map.Entry<String, OutputFileDto>> evictedList;
+		synchronized (this) {
+			evictedList = putMemory(key, outputFileDto);
+		}
+		spill(evictedList);
+	}
+
+	/**
+	 * 全てのキャッシュを破棄
+	 */
+	public void clear() {
+		List<String> diskKeyList;
+		synchronized (this) {
+			memoryMap.clear();
+			memoryBytes = 0;
+			diskKeyList = new ArrayList<>(diskMap.keySet());
+			diskMap.clear();
+			diskBytes = 0;
+		}
+		for (String key : diskKeyList) {
+			deleteSpillFile(key);
+		}
+	}
+
+	/**
+	 * メモリへ登録<br>
+	 * 全体のロックを取得して呼び出す
+	 *
+	 * @param key
+	 * @param outputFileDto
+	 * @return 上限を超えたため破棄したファイル
+	 */
+	private List<Map.Entry<String, OutputFileDto>> putMemory(String key, OutputFileDto outputFileDto) {
+		List<Map.Entry<String, OutputFileDto>> evictedList = new ArrayList<>();
+		long size = outputFileDto.getContent().length;
+		if (size > maxBytes) {
+			return evictedList;
+		}
+		OutputFileDto old = memoryMap.put(key, outputFileDto);
+		if (old != null) {
+			memoryBytes -= old.getContent().length;
+		}
+		memoryBytes += size;
+
+		// 上限を超えた分を参照の古い順に破棄(退避)
+		Iterator<Map.Entry<String, OutputFileDto>> iterator = memoryMap.entrySet().iterator();
+		while (memoryBytes > maxBytes && iterator.hasNext()) {
+			Map.Entry<String, OutputFileDto> eldest = iterator.next();
+			evictedList.add(Map.entry(eldest.getKey(), eldest.getValue()));
+			iterator.remove();
+			memoryBytes -= eldest.getValue().getContent().length;
+		}
+		return evictedList;
+	}
+
+	/**
+	 * ディスクへ退避<br>
+	 * 書込みはキーごとのロックで行い、他のキーの取得・登録を待たせない
+	 *
+	 * @param evictedList
+	 */
+	private void spill(List<Map.Entry<String, OutputFileDto>> evictedList) {
+		if (spillPath == null) {
+			return;
+		}
+		for (Map.Entry<String, OutputFileDto> evicted : evictedList) {
+			List<String> deleteKeyList = spill(evicted.getKey(), evicted.getValue());
+			for (String deleteKey : deleteKeyList) {
+				deleteSpillFile(deleteKey);
+			}
+		}
+	}
+
+	/**
+	 * ディスクへ退避
+	 *
+	 * @param key
+	 * @param outputFileDto
+	 * @return 上限を超えたためディスクから破棄するキー
+	 */
+	private List<String> spill(String key, OutputFileDto outputFileDto) {
+		List<String> deleteKeyList = new ArrayList<>();
+		if (outputFileDto.getContent().length > spillMaxBytes) {
+			return deleteKeyList;
+		}
+		synchronized (getKeyLock(key)) {
+			synchronized (this) {
+				// 退避するまでの間に再登録された場合は退避しない
+				if (memoryMap.containsKey(key)) {
+					return deleteKeyList;
+				}
+			}
+			Path path = getSpillFile(key);
+			try (OutputStream out = Files.newOutputStream(path);
+					DataOutputStream dos = new DataOutputStream(out)) {
+				dos.writeUTF(outputFileDto.getFileName());
+				dos.writeInt(outputFileDto.getContent().length);
+				dos.write(outputFileDto.getContent());
+			} catch (IOException e) {
+				logger.warn("出力ファイルの退避に失敗しました：" + path, e);
+				path.toFile().delete();
+				return deleteKeyList;
+			}
+			long size = path.toFile().length();
+			synchronized (this) {
+				if (memoryMap.containsKey(key)) {
+					path.toFile().delete();
+					return deleteKeyList;
+				}
+				Long old = diskMap.put(key, size);
+				if (old != null) {
+					diskBytes -= old;
+				}
+				diskBytes += size;
+
+				Iterator<Map.Entry<String, Long>> iterator = diskMap.entrySet().iterator();
+				while (diskBytes > spillMaxBytes && iterator.hasNext()) {
+					Map.Entry<String, Long> eldest = iterator.next();
+					iterator.remove();
+					diskBytes -= eldest.getValue();
+					deleteKeyList.add(eldest.getKey());
+				}
+			}
+		}
+		return deleteKeyList;
+	}
+
+	/**
+	 * 退避ファイルの削除<br>
+	 * 削除するまでの間に同じキーで再退避された場合は削除しない
+	 *
+	 * @param key
+	 */
+	private void deleteSpillFile(String key) {
+		synchronized (getKeyLock(key)) {
+			synchronized (this) {
+				if (diskMap.containsKey(key)) {
+					return;
+				}
+			}
+			getSpillFile(key).toFile().delete();
+		}
+	}
+
+	/**
+	 * キーごとのロック取得
+	 *
+	 * @param key
+	 * @return ロック
+	 */
+	private Object getKeyLock(String key) {
+		return keyLocks[Math.floorMod(key.hashCode(), keyLocks.length)];
+	}
+
+	/**
+	 * 退避ファイルの読込み
+	 *
+	 * @param path
+	 * @return 出力ファイルDTO
+	 * @throws IOException
+	 */
+	private OutputFileDto readSpillFile(Path path) throws IOException {
+		try (InputStream in = Files.newInputStream(path);
+				DataInputStream dis = new DataInputStream(in)) {
+			OutputFileDto outputFileDto = new OutputFileDto();
+			outputFileDto.setFileName(dis.readUTF());
+			byte[] content = new byte[dis.readInt()];
+			dis.readFully(content);
+			outputFileDto.setContent(content);
+			return outputFileDto;
+		}
+	}
+
+	/**
+	 * 退避ファイルのパス取得
+	 *
+	 * @param key
+	 * @return 退避ファイルのパス
+	 */
+	private Path getSpillFile(String key) {
+		return spillPath.resolve(DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8)));
+	}
+
+}
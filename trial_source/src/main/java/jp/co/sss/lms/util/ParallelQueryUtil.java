@@ -0,0 +1,86 @@
+package jp.co.sss.lms.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 並列クエリユーティリティ<br>
+ * 独立した検索処理を仮想スレッドで並列に実行する。<br>
+ * 同時実行数は設定値(setting.query.parallel.max)までに制限し、コネクションプールを使い切らないようにする。
+ *
+ * @author 東京ITスクール
+ */
+@Component
+public class ParallelQueryUtil {
+
+	@Value("${setting.query.parallel.max}")
+	private Integer parallelMax;
+
+	/* 実行スレッド */
+	private ExecutorService executor;
+	/* 同時実行数の制限 */
+	private Semaphore semaphore;
+
+	/**
+	 * 初期化
+	 */
+	@PostConstruct
+	public void init() {
+		executor = Executors.newVirtualThreadPerTaskExecutor();
+		semaphore = new Semaphore(parallelMax);
+	}
+
+	/**
+	 * 終了処理
+	 */
+	@PreDestroy
+	public void destroy() {
+		executor.shutdown();
+	}
+
+	/**
+	 * 検索処理を非同期で実行
+	 *
+	 * @param supplier 検索処理
+	 * @return 検索結果
+	 */
+	public <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+		return CompletableFuture.supplyAsync(() -> {
+			semaphore.acquireUninterruptibly();
+			try {
+				return supplier.get();
+			} finally {
+				semaphore.release();
+			}
+		}, executor);
+	}
+
+	/**
+	 * 非同期処理の結果を取得<br>
+	 * 検索処理で発生した例外はそのまま送出する
+	 *
+	 * @param future
+	 * @return 検索結果
+	 */
+	public <T> T join(CompletableFuture<T> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+}
@@ -2,7 +2,8 @@ package jp.co.sss.lms.util;
 
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.Random;
+import java.security.SecureRandom;
+import java.util.Base64;
 
 import org.springframework.stereotype.Component;
 
@@ -19,11 +20,11 @@ public class PasswordUtil {
 	/** パスワードポリシー */
 	public final static String PASSWORD_POLICY = "^(?=.*[0-9])(?=.*[a-z])(?=.*[A-Z])[0-9a-zA-Z\\-]{8,}$";
 
-	/** パスワード有効文字 */
-	private final static char[] PASSWORD_VALID_CHAR = { 'a', 'b', 'c', 'd', 'e', 'f', 'g', 'h', 'i', 'j', 'k', 'l', 'm',
-			'n', 'o', 'p', 'q', 'r', 's', 't', 'u', 'v', 'w', 'x', 'y', 'z', 'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H',
-			'I', 'J', 'K', 'L', 'M', 'N', 'O', 'P', 'Q', 'R', 'S', 'T', 'U', 'V', 'W', 'X', 'Y', 'Z', '0', '1', '2',
-			'3', '4', '5', '6', '7', '8', '9' };
+	/** トークンのバイト数(Base64URLで43文字) */
+	private final static int TOKEN_BYTE_LENGTH = 32;
+
+	/** 乱数生成器(スレッドセーフ) */
+	private final static SecureRandom SECURE_RANDOM = new SecureRandom();
 
 	/**
 	 * salt +ハッシュ化+ストレッチングしたパスワ-ドを 取得
@@ -93,22 +94,26 @@ public class PasswordUtil {
 	}
 
 	/**
-	 * パスワードの自動生成
+	 * トークンの生成<br>
+	 * URLにそのまま使用できる固定長の文字列とする
 	 * 
-	 * @return password
+	 * @return トークン
 	 */
-	public String generatePassword() {
-		String password = "";
-
-		while (!isValidPassword(password)) {
-			password = "";
-			while (password.length() < 8) {
-				Random rand = new Random();
-				password += PASSWORD_VALID_CHAR[rand.nextInt(PASSWORD_VALID_CHAR.length)];
-			}
-		}
+	public String generateToken() {
+		byte[] bytes = new byte[TOKEN_BYTE_LENGTH];
+		SECURE_RANDOM.nextBytes(bytes);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+	}
 
-		return password;
+	/**
+	 * トークンのハッシュ値を取得<br>
+	 * トークンは保存せず、ハッシュ値で照合する
+	 * 
+	 * @param token
+	 * @return SHA256 のハッシュ値
+	 */
+	public String getTokenHash(String token) {
+		return getSha256(token);
 	}
 
 	/**
@@ -0,0 +1,622 @@
+-- 基準スキーマ
+-- マッパーが参照するテーブルを作成する。既存のデータベースはこのバージョンをベースラインとし、
+-- V2以降のみ適用する(spring.flyway.baseline-on-migrate)。
+
+CREATE TABLE m_category (
+	category_id serial PRIMARY KEY,
+	category_name text,
+	category_description text,
+	account_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp
+);
+
+CREATE TABLE m_company (
+	company_id serial PRIMARY KEY,
+	company_name text,
+	company_name_kana text,
+	post_number1 text,
+	post_number2 text,
+	prefecture text,
+	address text,
+	phone_number1 text,
+	phone_number2 text,
+	phone_number3 text,
+	representative_post text,
+	representative_name text,
+	capital integer,
+	worker_amount integer,
+	subsidy_phone_number1 text,
+	subsidy_phone_number2 text,
+	subsidy_phone_number3 text,
+	holiday text,
+	work_start_time text,
+	work_end_time text,
+	rest_start_time text,
+	rest_end_time text,
+	account_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp,
+	file_share_flg smallint
+);
+
+CREATE TABLE m_course (
+	course_id serial PRIMARY KEY,
+	course_name text,
+	course_description text,
+	open_time timestamp,
+	close_time timestamp,
+	course_type smallint,
+	account_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp,
+	password text,
+	hidden_flg smallint
+);
+
+CREATE TABLE m_daily_report (
+	daily_report_id serial PRIMARY KEY,
+	report_name text,
+	file_name text,
+	sheet_name text,
+	row_company integer,
+	clm_company integer,
+	row_user integer,
+	clm_user integer,
+	row_date integer,
+	clm_date integer,
+	intelligibility_flg smallint,
+	intelligibility_field_num smallint,
+	intelligibility_num smallint,
+	row_intel_fld integer,
+	clm_intel_fld integer,
+	row_intel integer,
+	clm_intel integer,
+	account_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp,
+	hidden_flg smallint
+);
+
+CREATE TABLE m_daily_report_detail (
+	daily_report_detail_id serial PRIMARY KEY,
+	daily_report_id integer,
+	field_num integer,
+	field_name text,
+	row integer,
+	clm integer,
+	account_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp,
+	required_flg smallint,
+	input_type smallint,
+	range_from integer,
+	range_to integer
+);
+
+CREATE TABLE m_deliverables (
+	deliverables_id serial PRIMARY KEY,
+	deliverables_name text,
+	score_flg smallint,
+	feedback_flg smallint,
+	note text,
+	account_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp,
+	hidden_flg smallint
+);
+
+CREATE TABLE m_exam (
+	exam_id serial PRIMARY KEY,
+	exam_name text,
+	exam_description text,
+	limit_time smallint,
+	genre_id integer,
+	account_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp,
+	hidden_flg smallint
+);
+
+CREATE TABLE m_file (
+	file_id serial PRIMARY KEY,
+	file_name text,
+	file_path text,
+	account_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp
+);
+
+CREATE TABLE m_fss_user (
+	fss_user_id serial PRIMARY KEY,
+	nickname text,
+	max_file_amount integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp
+);
+
+CREATE TABLE m_genre (
+	genre_id serial PRIMARY KEY,
+	genre_name text,
+	account_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp
+);
+
+CREATE TABLE m_genre_detail (
+	genre_detail_id serial PRIMARY KEY,
+	genre_id integer,
+	genre_detail_name text,
+	account_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp
+);
+
+CREATE TABLE m_lms_user (
+	lms_user_id serial PRIMARY KEY,
+	user_id integer,
+	role text,
+	admin_flg smallint,
+	account_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp,
+	hope_via_traning text,
+	programming_experience smallint
+);
+
+CREATE TABLE m_meeting_file (
+	meeting_file_id serial PRIMARY KEY,
+	file_name text,
+	sheet_name text,
+	row_company integer,
+	clm_company integer,
+	row_user integer,
+	clm_user integer,
+	row_date integer,
+	clm_date integer,
+	row_meeting integer,
+	clm_meeting integer,
+	account_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp
+);
+
+CREATE TABLE m_place (
+	place_id serial PRIMARY KEY,
+	place_name text,
+	place_description text,
+	support_available smallint,
+	account_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp,
+	seating_capacity integer,
+	place_note text,
+	hidden_flg smallint
+);
+
+CREATE TABLE m_question (
+	question_id serial PRIMARY KEY,
+	question text,
+	grade smallint,
+	answer_num smallint,
+	choice_1 text,
+	choice_2 text,
+	choice_3 text,
+	choice_4 text,
+	explain text,
+	exam_id integer,
+	genre_detail_id integer,
+	account_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp
+);
+
+CREATE TABLE m_section (
+	section_id serial PRIMARY KEY,
+	section_name text,
+	section_description text,
+	course_id integer,
+	category_id integer,
+	date date,
+	account_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp
+);
+
+CREATE TABLE m_user (
+	user_id serial PRIMARY KEY,
+	login_id text,
+	password text,
+	user_name text,
+	authority text,
+	account_id integer,
+	security_agree_flg smallint,
+	password_change_date timestamp,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp,
+	kana text,
+	mail_address text,
+	subsidy_category_id integer,
+	leave_flg smallint,
+	leave_date date
+);
+
+CREATE TABLE t_agreement_consent (
+	agreement_consent_id serial PRIMARY KEY,
+	agreement_id integer,
+	company_course_id integer,
+	consent_flg smallint,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp
+);
+
+CREATE TABLE t_company_course (
+	company_course_id serial PRIMARY KEY,
+	company_id integer,
+	course_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp
+);
+
+CREATE TABLE t_course_daily_report (
+	course_daily_report_id serial PRIMARY KEY,
+	course_id integer,
+	daily_report_id integer,
+	account_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp
+);
+
+CREATE TABLE t_course_meeting (
+	course_meeting_id serial PRIMARY KEY,
+	course_id integer,
+	meeting_file_id integer,
+	account_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp
+);
+
+CREATE TABLE t_course_user (
+	course_user_id serial PRIMARY KEY,
+	course_id integer,
+	lms_user_id integer,
+	account_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp
+);
+
+CREATE TABLE t_daily_report_fb (
+	daily_report_fb_id serial PRIMARY KEY,
+	daily_report_submit_id integer,
+	lms_user_id integer,
+	content text,
+	account_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp
+);
+
+CREATE TABLE t_daily_report_submit (
+	daily_report_submit_id serial PRIMARY KEY,
+	daily_report_id integer,
+	date date,
+	lms_user_id integer,
+	account_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp
+);
+
+CREATE TABLE t_daily_report_submit_detail (
+	daily_report_submit_detail_id serial PRIMARY KEY,
+	daily_report_submit_id integer,
+	field_num integer,
+	content text,
+	account_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp
+);
+
+CREATE TABLE t_deliverables_section (
+	deliverables_section_id serial PRIMARY KEY,
+	deliverables_id integer,
+	section_id integer,
+	submission_deadline text,
+	account_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp
+);
+
+CREATE TABLE t_exam_result (
+	exam_result_id serial PRIMARY KEY,
+	exam_section_id integer,
+	lms_user_id integer,
+	score smallint,
+	time integer,
+	mark_flg smallint,
+	account_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp
+);
+
+CREATE TABLE t_exam_result_detail (
+	exam_result_detail_id serial PRIMARY KEY,
+	exam_result_id integer,
+	lms_user_id integer,
+	question_id integer,
+	reply smallint,
+	account_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp
+);
+
+CREATE TABLE t_exam_section (
+	exam_section_id serial PRIMARY KEY,
+	exam_id integer,
+	section_id integer,
+	public_date timestamp,
+	private_date timestamp,
+	account_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp
+);
+
+CREATE TABLE t_file_section (
+	file_section_id serial PRIMARY KEY,
+	section_id integer,
+	file_id integer,
+	account_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp
+);
+
+CREATE TABLE t_fss_user_group (
+	fss_user_group_id serial PRIMARY KEY,
+	fss_user_id integer,
+	fss_group_id integer,
+	auth smallint,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp
+);
+
+CREATE TABLE t_info (
+	info_id serial PRIMARY KEY,
+	content text,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp
+);
+
+CREATE TABLE t_intelligibility (
+	intelligibility_id serial PRIMARY KEY,
+	daily_report_submit_id integer,
+	field_num integer,
+	field_name text,
+	field_value smallint,
+	account_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp
+);
+
+CREATE TABLE t_mail_que (
+	mail_que_id serial PRIMARY KEY,
+	mail_address_to text,
+	mail_address_cc text,
+	mail_address_bcc text,
+	subject text,
+	body text,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp
+);
+
+CREATE TABLE t_mail_que_file (
+	mail_que_file_id serial PRIMARY KEY,
+	mail_que_id integer,
+	file_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp
+);
+
+CREATE TABLE t_meeting (
+	meeting_id serial PRIMARY KEY,
+	lms_user_id integer,
+	account_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp
+);
+
+CREATE TABLE t_meeting_detail (
+	meeting_detail_id serial PRIMARY KEY,
+	meeting_id integer,
+	question text,
+	answer text,
+	follow text,
+	question_type smallint,
+	account_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp
+);
+
+CREATE TABLE t_section_daily_report (
+	section_daily_report_id serial PRIMARY KEY,
+	section_id integer,
+	daily_report_id integer,
+	account_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp
+);
+
+CREATE TABLE t_student_attendance (
+	student_attendance_id serial PRIMARY KEY,
+	lms_user_id integer,
+	training_date date,
+	training_start_time text,
+	training_end_time text,
+	status smallint,
+	note text,
+	account_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp,
+	blank_time integer
+);
+
+CREATE TABLE t_temporary_pass_storage (
+	temporary_pass_storage_id serial PRIMARY KEY,
+	user_id integer,
+	change_key text,
+	time_limit timestamp,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp
+);
+
+CREATE TABLE t_user_company (
+	user_company_id serial PRIMARY KEY,
+	lms_user_id integer,
+	company_id integer,
+	account_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp
+);
+
+CREATE TABLE t_user_fss_user (
+	user_fss_user_id serial PRIMARY KEY,
+	user_id integer,
+	fss_user_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp
+);
+
+CREATE TABLE t_user_place (
+	user_place_id serial PRIMARY KEY,
+	lms_user_id integer,
+	place_id integer,
+	account_id integer,
+	delete_flg smallint NOT NULL DEFAULT 0,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp
+);
@@ -0,0 +1,8 @@
+-- メールキューの送信状態・再送・送信権の列
+ALTER TABLE t_mail_que ADD COLUMN send_status smallint NOT NULL DEFAULT 0;
+ALTER TABLE t_mail_que ADD COLUMN retry_count integer NOT NULL DEFAULT 0;
+ALTER TABLE t_mail_que ADD COLUMN next_send_date timestamp;
+ALTER TABLE t_mail_que ADD COLUMN send_date timestamp;
+ALTER TABLE t_mail_que ADD COLUMN error_message varchar(1000);
+ALTER TABLE t_mail_que ADD COLUMN claim_token varchar(36);
+ALTER TABLE t_mail_que ADD COLUMN lease_expire_date timestamp;
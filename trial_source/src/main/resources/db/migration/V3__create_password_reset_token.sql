@@ -0,0 +1,18 @@
+-- パスワード再設定トークン(t_temporary_pass_storageを置き換える)
+-- t_temporary_pass_storageは発行済みのリンクの期限(setting.timelimit.hour)が切れるまで照合に使用するため、
+-- 旧テーブルの参照を削除する際に別のマイグレーションで削除する
+CREATE TABLE t_password_reset_token (
+	password_reset_token_id serial PRIMARY KEY,
+	user_id integer NOT NULL,
+	token_hash char(64) NOT NULL,
+	time_limit timestamp NOT NULL,
+	used_date timestamp,
+	first_create_user integer,
+	first_create_date timestamp,
+	last_modified_user integer,
+	last_modified_date timestamp
+);
+
+CREATE UNIQUE INDEX t_password_reset_token_token_hash_idx ON t_password_reset_token (token_hash);
+CREATE INDEX t_password_reset_token_time_limit_idx ON t_password_reset_token (time_limit);
+CREATE INDEX t_password_reset_token_user_id_idx ON t_password_reset_token (user_id) WHERE used_date IS NULL;
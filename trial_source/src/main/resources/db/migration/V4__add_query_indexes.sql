@@ -0,0 +1,48 @@
+-- マッパーの検索条件・結合条件に対応するインデックス
+-- 稼働中のテーブルの更新を止めないようCONCURRENTLYで作成する(Flywayはトランザクション外で実行する)。
+-- delete_flgを条件に含まない検索にも使うインデックスは部分インデックスにせず、
+-- 有効なデータ(delete_flg = 0)の一意性は部分ユニークインデックスで保証する。
+-- 部分ユニークインデックスと同じ列の検索はdelete_flg = 0を条件に含め、部分ユニークインデックスを使用する。
+
+-- ユーザー
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS m_user_login_id_uidx ON m_user (login_id) WHERE delete_flg = 0;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS m_user_mail_address_idx ON m_user (mail_address);
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS m_lms_user_user_id_uidx ON m_lms_user (user_id) WHERE delete_flg = 0;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS t_user_company_lms_user_id_idx ON t_user_company (lms_user_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS t_user_place_lms_user_id_idx ON t_user_place (lms_user_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS t_course_user_lms_user_id_idx ON t_course_user (lms_user_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS t_course_user_course_id_idx ON t_course_user (course_id) WHERE delete_flg = 0;
+
+-- コース・セクション
+CREATE INDEX CONCURRENTLY IF NOT EXISTS m_section_course_id_date_idx ON m_section (course_id, date);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS t_course_daily_report_course_id_idx ON t_course_daily_report (course_id) WHERE delete_flg = 0;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS t_section_daily_report_section_id_idx ON t_section_daily_report (section_id) WHERE delete_flg = 0;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS t_file_section_section_id_idx ON t_file_section (section_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS t_deliverables_section_section_id_idx ON t_deliverables_section (section_id);
+
+-- 勤怠
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS t_student_attendance_lms_user_id_training_date_uidx
+	ON t_student_attendance (lms_user_id, training_date) WHERE delete_flg = 0;
+
+-- 日報
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS t_daily_report_submit_lms_user_id_daily_report_id_date_uidx
+	ON t_daily_report_submit (lms_user_id, daily_report_id, date) WHERE delete_flg = 0;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS t_daily_report_submit_detail_daily_report_submit_id_idx
+	ON t_daily_report_submit_detail (daily_report_submit_id, field_num);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS t_intelligibility_daily_report_submit_id_idx
+	ON t_intelligibility (daily_report_submit_id, field_num);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS t_daily_report_fb_daily_report_submit_id_idx
+	ON t_daily_report_fb (daily_report_submit_id);
+
+-- 試験
+CREATE INDEX CONCURRENTLY IF NOT EXISTS t_exam_section_section_id_idx ON t_exam_section (section_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS t_exam_section_exam_id_idx ON t_exam_section (exam_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS t_exam_result_exam_section_id_lms_user_id_idx
+	ON t_exam_result (exam_section_id, lms_user_id) WHERE delete_flg = 0;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS t_exam_result_lms_user_id_idx ON t_exam_result (lms_user_id) WHERE delete_flg = 0;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS t_exam_result_detail_exam_result_id_idx ON t_exam_result_detail (exam_result_id);
+
+-- メールキュー
+CREATE INDEX CONCURRENTLY IF NOT EXISTS t_mail_que_send_status_next_send_date_idx ON t_mail_que (send_status, next_send_date);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS t_mail_que_claim_token_idx ON t_mail_que (claim_token) WHERE claim_token IS NOT NULL;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS t_mail_que_file_mail_que_id_idx ON t_mail_que_file (mail_que_id) WHERE delete_flg = 0;
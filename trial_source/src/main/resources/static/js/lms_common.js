@@ -148,7 +148,7 @@ $(function(){
           async : true,
           contentType : "application/json",
           dataType : "json",
-          cache : false,
+          cache : true,
           success: function (infoDto) {
                 isInfoOver = true;
                 const message = infoDto.content == '' ? '<strong>* 現在お知らせはありません</strong>' : infoDto.content.replaceAll('\n', '<br />');
@@ -162,6 +162,21 @@ $(function(){
       }
     });
 
+    // お知らせ・フィードバックの通知を受信する
+    if (window.EventSource && $('#lms-infomation').length) {
+      const notification = new EventSource('/lms/notification');
+      notification.addEventListener('info', function () {
+          $('#lms-infomation').addClass('text-danger');
+      });
+      notification.addEventListener('feedback', function () {
+          $('#lms-infomation-hide').attr('data-content', '<strong>日報にフィードバックが登録されました</strong>');
+          $('#lms-infomation-hide').popover('show');
+      });
+      $('#lms-infomation').click(function(){
+          $(this).removeClass('text-danger');
+      });
+    }
+
     $('.datepicker').datepicker({
         format: 'yyyy-mm-dd',
         language: 'ja',
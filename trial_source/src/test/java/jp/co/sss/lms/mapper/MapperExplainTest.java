@@ -0,0 +1,302 @@
+package jp.co.sss.lms.mapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.ibatis.builder.xml.XMLConfigBuilder;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * マッパー実行計画試験<br>
+ * マイグレーションを適用した組み込みPostgreSQLで、マッパーXMLの全ての検索・更新・削除の実行計画を取得し、
+ * 件数の多いテーブルをインデックスの条件なしに全件読み込むSQLがないことを試験する。<br>
+ * 空のテーブルでは小さい部分インデックスの全件読み込みが最も安く見積もられるため、
+ * 全てのテーブルに試験データを登録して統計情報を収集してから実行計画を取得する。<br>
+ *
+ * */
+public class MapperExplainTest {
+
+	/** 件数の多いテーブル */
+	private static final Set<String> LARGE_TABLE_SET = Set.of(
+			"m_user", "m_lms_user", "m_section", "t_course_user", "t_user_company",
+			"t_student_attendance", "t_daily_report_submit", "t_daily_report_submit_detail",
+			"t_daily_report_fb", "t_intelligibility", "t_exam_result", "t_exam_result_detail",
+			"t_mail_que", "t_mail_que_file", "t_password_reset_token");
+
+	/** 試験データの件数：件数の多いテーブル */
+	private static final int LARGE_TABLE_ROWS = 10000;
+	/** 試験データの件数：その他のテーブル */
+	private static final int SMALL_TABLE_ROWS = 100;
+
+	/** 起動時に全件を読み込んで集計・索引を作成するSQL(全件読み込みを許可) */
+	private static final Set<String> BULK_LOAD_STATEMENT_SET = Set.of(
+			"jp.co.sss.lms.mapper.TDailyReportSubmitDetailMapper.findReportSearchSource",
+			"jp.co.sss.lms.mapper.TExamResultDetailMapper.findItemAnalysisSource",
+			"jp.co.sss.lms.mapper.TExamResultDetailMapper.findGenreProfileSource",
+			"jp.co.sss.lms.mapper.TExamResultMapper.findExamStatisticsSource",
+			"jp.co.sss.lms.mapper.TIntelligibilityMapper.findIntelligibilitySource");
+
+	private static EmbeddedPostgres postgres;
+
+	private static Configuration configuration;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@BeforeAll
+	public static void setupAll() throws Exception {
+		postgres = EmbeddedPostgres.start();
+		Flyway.configure()
+				.dataSource(postgres.getPostgresDatabase())
+				.locations("classpath:db/migration")
+				.configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+				.load()
+				.migrate();
+		try (Connection connection = postgres.getPostgresDatabase().getConnection()) {
+			seed(connection);
+		}
+
+		try (InputStream inputStream = MapperExplainTest.class.getResourceAsStream("/mybatis-config.xml")) {
+			configuration = new XMLConfigBuilder(inputStream).parse();
+		}
+		Resource[] resources = new PathMatchingResourcePatternResolver()
+				.getResources("classpath*:jp/co/sss/lms/mapper/*.xml");
+		for (Resource resource : resources) {
+			try (InputStream inputStream = resource.getInputStream()) {
+				new XMLMapperBuilder(inputStream, configuration, resource.toString(),
+						configuration.getSqlFragments()).parse();
+			}
+		}
+	}
+
+	@AfterAll
+	public static void tearDownAll() throws Exception {
+		if (postgres != null) {
+			postgres.close();
+		}
+	}
+
+	/**
+	 * Case.1_1 実行計画試験<br>
+	 * <br>
+	 * ■対象：マッパーXMLの検索・更新・削除<br>
+	 * ■試験観点：<br>
+	 * 　・全てのSQLが汎用プラン(パラメータの値によらない実行計画)を作成できること<br>
+	 * 　・件数の多いテーブルを、インデックスの条件なし(Seq Scan、条件のないIndex Scan)に読み込まないこと<br>
+	 * 　　(LIMITの配下、起動時に全件を読み込むSQLを除く)<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_1() throws Exception {
+
+		List<String> errorList = new ArrayList<>();
+		int count = 0;
+		try (Connection connection = postgres.getPostgresDatabase().getConnection();
+				Statement statement = connection.createStatement()) {
+			// 全件読み込み・ハッシュ結合・マージ結合を避け、インデックスで読み込めない場合のみ全件読み込みとする
+			statement.execute("SET enable_seqscan = off");
+			statement.execute("SET enable_hashjoin = off");
+			statement.execute("SET enable_mergejoin = off");
+			statement.execute("SET plan_cache_mode = force_generic_plan");
+
+			for (String id : configuration.getMappedStatementNames()) {
+				if (!id.contains(".") || id.endsWith("!selectKey")) {
+					continue;
+				}
+				MappedStatement mappedStatement = configuration.getMappedStatement(id);
+				if (mappedStatement.getSqlCommandType() == SqlCommandType.INSERT) {
+					continue;
+				}
+				count++;
+				try {
+					JsonNode plan = explain(statement, mappedStatement.getBoundSql(createParameter()));
+					List<String> scanList = new ArrayList<>();
+					findFullScan(plan, false, scanList);
+					if (!scanList.isEmpty() && !BULK_LOAD_STATEMENT_SET.contains(id)) {
+						errorList.add(id + " : " + scanList);
+					}
+				} catch (Exception e) {
+					errorList.add(id + " : " + e.getMessage());
+				} finally {
+					statement.execute("DEALLOCATE ALL");
+				}
+			}
+		}
+		assertTrue(count > 0);
+		assertTrue(errorList.isEmpty(), String.join("\n", errorList));
+	}
+
+	/**
+	 * 試験データの登録と統計情報の収集<br>
+	 * 列の型に応じて連番から値を生成する。削除フラグは部分インデックス(WHERE delete_flg = 0)と照合できるよう0とし、
+	 * NULLを許可する数値以外の列(使用日時など)は半数をNULLとする
+	 *
+	 * @param connection
+	 * @throws Exception
+	 */
+	private static void seed(Connection connection) throws Exception {
+		Map<String, List<String>> valueListMap = new LinkedHashMap<>();
+		Map<String, List<String>> columnListMap = new LinkedHashMap<>();
+		try (Statement statement = connection.createStatement();
+				ResultSet resultSet = statement.executeQuery("SELECT table_name, column_name, data_type, "
+						+ "character_maximum_length, is_nullable FROM information_schema.columns "
+						+ "WHERE table_schema = 'public' AND table_name <> 'flyway_schema_history' "
+						+ "ORDER BY table_name, ordinal_position")) {
+			while (resultSet.next()) {
+				String tableName = resultSet.getString(1);
+				String columnName = resultSet.getString(2);
+				String value = switch (resultSet.getString(3)) {
+				case "integer" -> "g";
+				case "smallint" -> columnName.equals("delete_flg") ? "0" : "g % 4";
+				case "character" -> "lpad(g::text, " + resultSet.getInt(4) + ", '0')";
+				case "date" -> "DATE '2024-01-01' + g % 3650";
+				case "timestamp without time zone" -> "TIMESTAMP '2024-01-01' + g * INTERVAL '1 minute'";
+				default -> "'v' || g";
+				};
+				if (resultSet.getString(5).equals("YES") && !value.startsWith("g")) {
+					value = "CASE WHEN g % 2 = 0 THEN " + value + " END";
+				}
+				columnListMap.computeIfAbsent(tableName, k -> new ArrayList<>()).add(columnName);
+				valueListMap.computeIfAbsent(tableName, k -> new ArrayList<>()).add(value);
+			}
+		}
+		try (Statement statement = connection.createStatement()) {
+			for (String tableName : columnListMap.keySet()) {
+				int rows = LARGE_TABLE_SET.contains(tableName) ? LARGE_TABLE_ROWS : SMALL_TABLE_ROWS;
+				statement.execute("INSERT INTO " + tableName + " ("
+						+ String.join(", ", columnListMap.get(tableName)) + ") SELECT "
+						+ String.join(", ", valueListMap.get(tableName))
+						+ " FROM generate_series(1, " + rows + ") AS g");
+			}
+			statement.execute("ANALYZE");
+		}
+	}
+
+	/**
+	 * パラメータの作成<br>
+	 * 実行計画はパラメータの値によらないため、名前が「List」で終わる場合は1件のリスト、それ以外は1とする
+	 *
+	 * @return パラメータ
+	 */
+	private Map<String, Object> createParameter() {
+		return new HashMap<>() {
+			@Override
+			public Object get(Object key) {
+				return key.toString().endsWith("List") ? List.of(1) : 1;
+			}
+		};
+	}
+
+	/**
+	 * 汎用プランの実行計画の取得<br>
+	 * 削除フラグは部分インデックス(WHERE delete_flg = 0)と照合できるよう、実行時と同じ値を埋め込む
+	 *
+	 * @param statement
+	 * @param boundSql
+	 * @return 実行計画
+	 * @throws Exception
+	 */
+	private JsonNode explain(Statement statement, BoundSql boundSql) throws Exception {
+		List<ParameterMapping> parameterMappingList = boundSql.getParameterMappings();
+		StringBuilder sql = new StringBuilder();
+		int parameterIndex = 0;
+		int parameterCount = 0;
+		boolean quoted = false;
+		for (char c : boundSql.getSql().toCharArray()) {
+			if (c == '\'') {
+				quoted = !quoted;
+			}
+			if (c != '?' || quoted) {
+				sql.append(c);
+				continue;
+			}
+			String property = parameterMappingList.get(parameterIndex++).getProperty();
+			if (property.endsWith("deleteFlg")) {
+				sql.append("0");
+			} else {
+				sql.append("$").append(++parameterCount);
+			}
+		}
+		statement.execute("PREPARE explain_target AS " + sql);
+
+		List<String> argumentList = new ArrayList<>();
+		for (int i = 0; i < parameterCount; i++) {
+			argumentList.add("NULL");
+		}
+		String execute = parameterCount == 0 ? "EXECUTE explain_target"
+				: "EXECUTE explain_target(" + String.join(", ", argumentList) + ")";
+		try (ResultSet resultSet = statement.executeQuery("EXPLAIN (FORMAT JSON) " + execute)) {
+			resultSet.next();
+			return objectMapper.readTree(resultSet.getString(1)).get(0).get("Plan");
+		}
+	}
+
+	/**
+	 * 件数の多いテーブルの全件読み込みの検索<br>
+	 * インデックスの条件がなくフィルターのみのインデックススキャン、
+	 * 条件のあるインデックスを1つも使用しないビットマップスキャンも全件読み込みとする
+	 *
+	 * @param plan 実行計画のノード
+	 * @param limited LIMITの配下の場合はtrue
+	 * @param scanList 全件読み込みのノード
+	 */
+	private void findFullScan(JsonNode plan, boolean limited, List<String> scanList) {
+		String nodeType = plan.path("Node Type").asText();
+		String relationName = plan.path("Relation Name").asText();
+		if (LARGE_TABLE_SET.contains(relationName)) {
+			boolean fullScan = nodeType.equals("Seq Scan")
+					|| (nodeType.startsWith("Index") && !plan.has("Index Cond") && !limited)
+					|| (nodeType.equals("Bitmap Heap Scan") && !hasIndexCond(plan));
+			if (fullScan) {
+				scanList.add(nodeType + " on " + relationName);
+			}
+		}
+		for (JsonNode child : plan.path("Plans")) {
+			findFullScan(child, limited || nodeType.equals("Limit"), scanList);
+		}
+	}
+
+	/**
+	 * ビットマップスキャンの条件の有無
+	 *
+	 * @param plan 実行計画のノード
+	 * @return 配下にインデックスの条件のあるビットマップインデックススキャンがある場合はtrue
+	 */
+	private boolean hasIndexCond(JsonNode plan) {
+		if (plan.path("Node Type").asText().equals("Bitmap Index Scan") && plan.has("Index Cond")) {
+			return true;
+		}
+		for (JsonNode child : plan.path("Plans")) {
+			if (hasIndexCond(child)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
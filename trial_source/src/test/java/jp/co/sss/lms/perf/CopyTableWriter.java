@@ -0,0 +1,146 @@
+package jp.co.sss.lms.perf;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+/**
+ * COPYによるテーブル出力<br>
+ * 行をCSVに変換し、一定量ごとにCOPY FROM STDINで送信する。
+ * テーブルの出力終了時に主キーのシーケンスを最大値の次に進め、アプリケーションからの登録と重複しないようにする。
+ *
+ * @author 東京ITスクール
+ */
+public class CopyTableWriter implements TableWriter {
+
+	/** 送信する単位(バイト) */
+	private static final int FLUSH_BYTES = 1024 * 1024;
+
+	private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter
+			.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+	private final Connection connection;
+	private final CopyManager copyManager;
+
+	/* テーブルごとの行数 */
+	private final Map<String, Long> rowCountMap = new LinkedHashMap<>();
+
+	private String table;
+	private String primaryKey;
+	private CopyIn copyIn;
+	private final StringBuilder buffer = new StringBuilder();
+	private long rowCount;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param connection PostgreSQLへの接続
+	 * @throws SQLException
+	 */
+	public CopyTableWriter(Connection connection) throws SQLException {
+		this.connection = connection;
+		this.copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+	}
+
+	@Override
+	public void begin(String table, String... columns) throws IOException {
+		this.table = table;
+		this.primaryKey = columns[0];
+		this.rowCount = 0;
+		try {
+			copyIn = copyManager.copyIn(
+					"COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)");
+		} catch (SQLException e) {
+			throw new IOException(e);
+		}
+	}
+
+	@Override
+	public void row(Object... values) throws IOException {
+		for (int i = 0; i < values.length; i++) {
+			if (i > 0) {
+				buffer.append(',');
+			}
+			append(values[i]);
+		}
+		buffer.append('\n');
+		rowCount++;
+		if (buffer.length() >= FLUSH_BYTES) {
+			flush();
+		}
+	}
+
+	@Override
+	public void end() throws IOException {
+		flush();
+		try {
+			copyIn.endCopy();
+			copyIn = null;
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("SELECT setval(pg_get_serial_sequence('" + table + "', '" + primaryKey
+						+ "'), COALESCE(MAX(" + primaryKey + "), 0) + 1, false) FROM " + table);
+			}
+		} catch (SQLException e) {
+			throw new IOException(e);
+		}
+		rowCountMap.put(table, rowCount);
+	}
+
+	/**
+	 * テーブルごとの行数
+	 *
+	 * @return テーブルごとの行数(出力順)
+	 */
+	public Map<String, Long> getRowCountMap() {
+		return rowCountMap;
+	}
+
+	/**
+	 * 値をCSVの項目として追加<br>
+	 * nullは空(NULL)、文字列は二重引用符で囲む(空文字とNULLを区別する)
+	 *
+	 * @param value
+	 */
+	private void append(Object value) {
+		if (value == null) {
+			return;
+		}
+		if (value instanceof LocalDateTime localDateTime) {
+			buffer.append(DATE_TIME_FORMATTER.format(localDateTime));
+		} else if (value instanceof LocalDate || value instanceof Number) {
+			buffer.append(value);
+		} else {
+			buffer.append('"').append(value.toString().replace("\"", "\"\"")).append('"');
+		}
+	}
+
+	/**
+	 * バッファの送信
+	 *
+	 * @throws IOException
+	 */
+	private void flush() throws IOException {
+		if (buffer.isEmpty()) {
+			return;
+		}
+		byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+		buffer.setLength(0);
+		try {
+			copyIn.writeToCopy(bytes, 0, bytes.length);
+		} catch (SQLException e) {
+			throw new IOException(e);
+		}
+	}
+
+}
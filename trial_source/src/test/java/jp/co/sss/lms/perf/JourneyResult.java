@@ -0,0 +1,34 @@
+package jp.co.sss.lms.perf;
+
+import lombok.Data;
+
+/**
+ * 利用シナリオごとの負荷試験結果
+ *
+ * @author 東京ITスクール
+ */
+@Data
+public class JourneyResult {
+
+	/** シナリオ名 */
+	private String journey;
+	/** 同時実行数 */
+	private Integer virtualUserCount;
+	/** 実行回数 */
+	private Integer journeyCount;
+	/** エラー回数 */
+	private Integer errorCount;
+	/** スループット(回/秒) */
+	private Double throughput;
+	/** 所要時間の50パーセンタイル(ミリ秒) */
+	private Double p50;
+	/** 所要時間の90パーセンタイル(ミリ秒) */
+	private Double p90;
+	/** 所要時間の99パーセンタイル(ミリ秒) */
+	private Double p99;
+	/** 所要時間の最大(ミリ秒) */
+	private Double max;
+	/** 1回あたりのSQL実行回数 */
+	private Double statementPerJourney;
+
+}
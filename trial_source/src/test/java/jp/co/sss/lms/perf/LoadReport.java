@@ -0,0 +1,36 @@
+package jp.co.sss.lms.perf;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * 負荷試験結果(ベースラインと同じ形式でJSONに出力する)
+ *
+ * @author 東京ITスクール
+ */
+@Data
+public class LoadReport {
+
+	/** 計測日時 */
+	private String measuredDate;
+	/** シナリオごとの結果 */
+	private List<JourneyResult> journeyResultList = new ArrayList<>();
+
+	/**
+	 * シナリオ名から結果を取得
+	 *
+	 * @param journey シナリオ名
+	 * @return 結果(存在しない場合はnull)
+	 */
+	public JourneyResult find(String journey) {
+		for (JourneyResult journeyResult : journeyResultList) {
+			if (journeyResult.getJourney().equals(journey)) {
+				return journeyResult;
+			}
+		}
+		return null;
+	}
+
+}
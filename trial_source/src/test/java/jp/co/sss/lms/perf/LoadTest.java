@@ -0,0 +1,540 @@
+package jp.co.sss.lms.perf;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import jp.co.sss.lms.dto.ExamDetailDto;
+import jp.co.sss.lms.dto.SectionServiceDailyReportDto;
+import jp.co.sss.lms.dto.SectionServiceExamDto;
+import jp.co.sss.lms.form.DailyReportSubmitForm;
+import jp.co.sss.lms.form.ExamQuestionForm;
+import jp.co.sss.lms.form.SectionDetailForm;
+import jp.co.sss.lms.util.Constants;
+import net.arnx.jsonic.JSON;
+
+/**
+ * 負荷試験<br>
+ * プロファイル「perf」の合成データに対し、仮想スレッドで利用シナリオを同時に実行して、
+ * スループット・所要時間のパーセンタイル・1回あたりのSQL実行回数を計測する。
+ * 結果はJSONで出力し、ベースラインが存在する場合は比較して劣化を検出する。<br>
+ * 実行には時間がかかるため、システムプロパティperf.load=trueの場合のみ実行する。<br>
+ * 実行例：mvn test -Dtest=LoadTest -Dperf.load=true<br>
+ * ベースラインが存在しない場合は、計測結果をベースラインとして記録する。<br>
+ * ベースラインの更新：出力した結果(setting.perf.load.result)をsetting.perf.load.baselineにコピーする。
+ *
+ * */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("perf")
+@EnabledIfSystemProperty(named = "perf.load", matches = "true")
+public class LoadTest {
+
+	/** コンテキストパス */
+	private static final String CONTEXT_PATH = "/lms";
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private StatementCountInterceptor statementCountInterceptor;
+
+	@Value("${setting.perf.password}")
+	private String password;
+	@Value("${setting.perf.load.virtualUsers}")
+	private Integer virtualUsers;
+	@Value("${setting.perf.load.warmup}")
+	private Integer warmup;
+	@Value("${setting.perf.load.iterations}")
+	private Integer iterations;
+	@Value("${setting.perf.load.tolerance}")
+	private Double tolerance;
+	@Value("${setting.perf.load.baseline}")
+	private String baseline;
+	@Value("${setting.perf.load.result}")
+	private String result;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/* 受講生(ユーザーIDの昇順) */
+	private List<Student> studentList;
+	/* 企業担当者(企業IDの昇順) */
+	private List<CompanyUser> companyUserList;
+
+	/**
+	 * 受講生と操作対象のセクション
+	 */
+	private static class Student {
+		String loginId;
+		/** 日報を提出するセクション(本日以前で最新) */
+		Integer reportSectionId;
+		/** 試験を受けるセクション(公開済みで最新) */
+		Integer examTargetSectionId;
+	}
+
+	/**
+	 * 企業担当者と所属する受講生
+	 */
+	private static class CompanyUser {
+		String loginId;
+		List<Integer> lmsUserIdList = new ArrayList<>();
+	}
+
+	/**
+	 * 利用シナリオ
+	 */
+	private interface Journey {
+		/**
+		 * シナリオの実行
+		 *
+		 * @param index 実行の通し番号(仮想ユーザーごとに異なる対象を選ぶ)
+		 * @throws Exception
+		 */
+		void run(int index) throws Exception;
+	}
+
+	/**
+	 * 合成データの研修期間を本日が含まれるようにずらす<br>
+	 * 出勤・日報・試験が本日の日付で行われるようにする(本日が土日の場合、出勤は研修日チェックのみとなる)
+	 *
+	 * @param registry
+	 */
+	@DynamicPropertySource
+	static void perfProperties(DynamicPropertyRegistry registry) {
+		registry.add("setting.perf.startDate", () -> LocalDate.now().minusWeeks(8).toString());
+	}
+
+	@BeforeEach
+	public void setup() {
+		Map<Integer, Integer> reportSectionMap = toMap(jdbcTemplate.queryForList(
+				"SELECT DISTINCT ON (course_id) course_id, section_id FROM m_section"
+						+ " WHERE date <= CURRENT_DATE AND delete_flg = 0 ORDER BY course_id, date DESC"));
+		Map<Integer, Integer> examSectionMap = toMap(jdbcTemplate.queryForList(
+				"SELECT DISTINCT ON (t2.course_id) t2.course_id, t2.section_id FROM t_exam_section t1"
+						+ " INNER JOIN m_section t2 ON t1.section_id = t2.section_id"
+						+ " WHERE t1.public_date <= now() AND t1.delete_flg = 0"
+						+ " ORDER BY t2.course_id, t1.public_date DESC"));
+
+		studentList = new ArrayList<>();
+		for (Map<String, Object> row : jdbcTemplate.queryForList(
+				"SELECT t1.login_id, t2.course_id FROM m_user t1"
+						+ " INNER JOIN t_course_user t2 ON t1.user_id = t2.lms_user_id AND t2.delete_flg = 0"
+						+ " WHERE t1.delete_flg = 0 ORDER BY t1.user_id")) {
+			Student student = new Student();
+			student.loginId = (String) row.get("login_id");
+			student.reportSectionId = reportSectionMap.get(row.get("course_id"));
+			student.examTargetSectionId = examSectionMap.get(row.get("course_id"));
+			studentList.add(student);
+		}
+
+		Map<Integer, CompanyUser> companyUserMap = new LinkedHashMap<>();
+		for (Map<String, Object> row : jdbcTemplate.queryForList(
+				"SELECT t1.login_id, t3.company_id FROM m_user t1"
+						+ " INNER JOIN m_lms_user t2 ON t1.user_id = t2.user_id"
+						+ " INNER JOIN t_user_company t3 ON t2.lms_user_id = t3.lms_user_id"
+						+ " WHERE t2.role = ? ORDER BY t3.company_id",
+				Constants.CODE_VAL_ROLL_COMPANY)) {
+			CompanyUser companyUser = new CompanyUser();
+			companyUser.loginId = (String) row.get("login_id");
+			companyUserMap.put((Integer) row.get("company_id"), companyUser);
+		}
+		for (Map<String, Object> row : jdbcTemplate.queryForList(
+				"SELECT t1.company_id, t1.lms_user_id FROM t_user_company t1"
+						+ " INNER JOIN m_lms_user t2 ON t1.lms_user_id = t2.lms_user_id"
+						+ " WHERE t2.role = ? ORDER BY t1.company_id, t1.lms_user_id",
+				Constants.CODE_VAL_ROLL_STUDENT)) {
+			companyUserMap.get(row.get("company_id")).lmsUserIdList.add((Integer) row.get("lms_user_id"));
+		}
+		companyUserList = new ArrayList<>(companyUserMap.values());
+	}
+
+	/**
+	 * Case.1_1 負荷試験<br>
+	 * <br>
+	 * ■対象シナリオ：<br>
+	 * 　・受講生：ログイン → コース詳細 → 出勤<br>
+	 * 　・受講生：ログイン → セクション詳細 → 日報の表示 → 日報の提出<br>
+	 * 　・受講生：ログイン → セクション詳細 → 試験開始 → 解答 → 確認 → 試験結果<br>
+	 * 　・企業担当者：ログイン → 所属する受講生のユーザー詳細(試験結果・日報)を3名分表示<br>
+	 * ■試験観点：<br>
+	 * 　・全てのシナリオがエラーなく完了すること<br>
+	 * 　・ベースラインと比較して、90パーセンタイルの所要時間とスループットの劣化が許容範囲内であること<br>
+	 * 　・ベースラインと比較して、1回あたりのSQL実行回数が増えていないこと<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_1() throws Exception {
+
+		LoadReport report = new LoadReport();
+		report.setMeasuredDate(LocalDateTime.now().toString());
+		// 本日の出勤を登録処理で計測するため、本日の勤怠を削除する
+		jdbcTemplate.update("DELETE FROM t_student_attendance WHERE training_date = CURRENT_DATE");
+		report.getJourneyResultList().add(run("studentAttendance", this::studentAttendance));
+		report.getJourneyResultList().add(run("dailyReport", this::dailyReport));
+		report.getJourneyResultList().add(run("exam", this::exam));
+		report.getJourneyResultList().add(run("companyAttendance", this::companyAttendance));
+
+		Path resultPath = Path.of(result);
+		Files.createDirectories(resultPath.toAbsolutePath().getParent());
+		String reportJson = JSON.encode(report, true);
+		Files.writeString(resultPath, reportJson, StandardCharsets.UTF_8);
+		for (JourneyResult journeyResult : report.getJourneyResultList()) {
+			logger.info(journeyResult.toString());
+			assertEquals(0, journeyResult.getErrorCount(), journeyResult.getJourney());
+		}
+
+		Path baselinePath = Path.of(baseline);
+		if (!Files.exists(baselinePath)) {
+			Files.createDirectories(baselinePath.toAbsolutePath().getParent());
+			Files.writeString(baselinePath, reportJson, StandardCharsets.UTF_8);
+			logger.info("ベースラインが存在しないため、計測結果をベースラインとして記録しました(" + baselinePath + ")");
+			return;
+		}
+		LoadReport baselineReport = JSON.decode(Files.readString(baselinePath, StandardCharsets.UTF_8),
+				LoadReport.class);
+		List<String> regressionList = compare(baselineReport, report);
+		assertTrue(regressionList.isEmpty(), String.join("\n", regressionList));
+	}
+
+	/**
+	 * 受講生：ログイン → コース詳細 → 出勤
+	 *
+	 * @param index
+	 * @throws Exception
+	 */
+	private void studentAttendance(int index) throws Exception {
+		Student student = studentList.get(index % studentList.size());
+		MockHttpSession session = login(student.loginId);
+		mockMvc.perform(request(get("/lms/course/detail"), session))
+				.andExpect(view().name("course/detail"));
+		mockMvc.perform(request(post("/lms/attendance/detail"), session).param("punchIn", ""))
+				.andExpect(view().name("attendance/detail"));
+	}
+
+	/**
+	 * 受講生：ログイン → セクション詳細 → 日報の表示 → 日報の提出
+	 *
+	 * @param index
+	 * @throws Exception
+	 */
+	private void dailyReport(int index) throws Exception {
+		Student student = studentList.get(index % studentList.size());
+		MockHttpSession session = login(student.loginId);
+		SectionDetailForm sectionDetailForm = (SectionDetailForm) sectionDetail(session, student.reportSectionId)
+				.getModelAndView().getModel().get("sectionDetailForm");
+		SectionServiceDailyReportDto reportDto = sectionDetailForm.getReportDtoList().get(0);
+
+		String date = new SimpleDateFormat("yyyy/M/d").format(reportDto.getDate());
+		MockHttpServletRequestBuilder regist = request(post("/lms/report/regist"), session)
+				.param("dailyReportId", String.valueOf(reportDto.getDailyReportId()))
+				.param("sectionId", String.valueOf(sectionDetailForm.getSectionId()))
+				.param("courseId", String.valueOf(sectionDetailForm.getCourseId()))
+				.param("date", date);
+		if (reportDto.getDailyReportSubmitId() != null) {
+			regist.param("dailyReportSubmitId", String.valueOf(reportDto.getDailyReportSubmitId()));
+		}
+		DailyReportSubmitForm form = (DailyReportSubmitForm) mockMvc.perform(regist)
+				.andExpect(view().name("report/regist")).andReturn()
+				.getModelAndView().getModel().get("dailyReportSubmitForm");
+
+		// 画面の入力内容(報告内容・理解度)を設定して提出する
+		Random random = new Random(index);
+		MockHttpServletRequestBuilder complete = request(post("/lms/report/complete"), session)
+				.param("dailyReportId", String.valueOf(form.getDailyReportId()))
+				.param("sectionId", String.valueOf(form.getSectionId()))
+				.param("courseId", String.valueOf(form.getCourseId()))
+				.param("date", date);
+		if (form.getDailyReportSubmitId() != null) {
+			complete.param("dailyReportSubmitId", String.valueOf(form.getDailyReportSubmitId()));
+		}
+		for (int i = 0; i < form.getFieldNameArray().length; i++) {
+			complete.param("fieldNameArray[" + i + "]", form.getFieldNameArray()[i]);
+			complete.param("contentArray[" + i + "]", "負荷試験の報告内容" + index + "-" + i);
+		}
+		if (form.getIntFieldNameArray() != null) {
+			for (int i = 0; i < form.getIntFieldNameArray().length; i++) {
+				complete.param("intFieldNameArray[" + i + "]", "学習項目" + (i + 1));
+				complete.param("intFieldValueArray[" + i + "]",
+						String.valueOf(random.nextInt(form.getIntelligibilityNum()) + 1));
+			}
+		}
+		mockMvc.perform(complete).andExpect(status().is3xxRedirection());
+	}
+
+	/**
+	 * 受講生：ログイン → セクション詳細 → 試験開始 → 解答 → 確認 → 試験結果
+	 *
+	 * @param index
+	 * @throws Exception
+	 */
+	private void exam(int index) throws Exception {
+		Student student = studentList.get(index % studentList.size());
+		MockHttpSession session = login(student.loginId);
+		SectionDetailForm sectionDetailForm = (SectionDetailForm) sectionDetail(session, student.examTargetSectionId)
+				.getModelAndView().getModel().get("sectionDetailForm");
+		SectionServiceExamDto examDto = sectionDetailForm.getExamDtoList().stream()
+				.filter(SectionServiceExamDto::isPublicFlg).findFirst().orElseThrow();
+
+		ExamDetailDto examDetailDto = (ExamDetailDto) mockMvc
+				.perform(request(post("/lms/exam/start"), session)
+						.param("examSectionId", String.valueOf(examDto.getExamSectionId())))
+				.andExpect(view().name("exam/start")).andReturn()
+				.getModelAndView().getModel().get("examDetailDto");
+		ExamQuestionForm examQuestionForm = (ExamQuestionForm) mockMvc
+				.perform(examRequest(post("/lms/exam/question"), session, examDetailDto))
+				.andExpect(view().name("exam/question")).andReturn()
+				.getModelAndView().getModel().get("examQuestionForm");
+
+		// 4択から解答を選ぶ
+		Random random = new Random(index);
+		String[] answers = new String[examQuestionForm.getQuestionDtoList().size()];
+		for (int i = 0; i < answers.length; i++) {
+			answers[i] = String.valueOf(random.nextInt(4) + 1);
+		}
+		MockHttpServletRequestBuilder answerCheck = examRequest(post("/lms/exam/answerCheck"), session,
+				examDetailDto);
+		MockHttpServletRequestBuilder complete = examRequest(post("/lms/exam/result"), session, examDetailDto)
+				.param("time", String.valueOf(300 + random.nextInt(600)));
+		for (int i = 0; i < answers.length; i++) {
+			answerCheck.param("answer[" + i + "]", answers[i]);
+			complete.param("answer[" + i + "]", answers[i]);
+		}
+		mockMvc.perform(answerCheck).andExpect(view().name("exam/answerCheck"));
+		mockMvc.perform(complete).andExpect(view().name("exam/result"));
+	}
+
+	/**
+	 * 企業担当者：ログイン → 所属する受講生のユーザー詳細を3名分表示<br>
+	 * 企業担当者向けの勤怠一覧画面が存在しないため、受講状況(試験結果・日報)を表示するユーザー詳細を対象とする
+	 *
+	 * @param index
+	 * @throws Exception
+	 */
+	private void companyAttendance(int index) throws Exception {
+		CompanyUser companyUser = companyUserList.get(index % companyUserList.size());
+		MockHttpSession session = login(companyUser.loginId);
+		List<Integer> lmsUserIdList = companyUser.lmsUserIdList;
+		for (int i = 0; i < Math.min(3, lmsUserIdList.size()); i++) {
+			mockMvc.perform(request(get("/lms/user/detail"), session)
+					.param("lmsUserId", String.valueOf(lmsUserIdList.get((index + i) % lmsUserIdList.size()))))
+					.andExpect(view().name("user/detail"));
+		}
+	}
+
+	/**
+	 * ログイン
+	 *
+	 * @param loginId
+	 * @return ログイン済みのセッション
+	 * @throws Exception
+	 */
+	private MockHttpSession login(String loginId) throws Exception {
+		MockHttpSession session = new MockHttpSession();
+		mockMvc.perform(request(post("/lms/login"), session).param("loginId", loginId).param("password", password))
+				.andExpect(status().is3xxRedirection());
+		return session;
+	}
+
+	/**
+	 * セクション詳細画面の表示
+	 *
+	 * @param session
+	 * @param sectionId
+	 * @return 実行結果
+	 * @throws Exception
+	 */
+	private MvcResult sectionDetail(MockHttpSession session, Integer sectionId) throws Exception {
+		return mockMvc.perform(request(get("/lms/section/detail"), session)
+				.param("sectionId", String.valueOf(sectionId)))
+				.andExpect(view().name("section/detail")).andReturn();
+	}
+
+	/**
+	 * 試験画面のリクエスト(画面の隠し項目を設定)
+	 *
+	 * @param builder
+	 * @param session
+	 * @param examDetailDto
+	 * @return リクエスト
+	 */
+	private MockHttpServletRequestBuilder examRequest(MockHttpServletRequestBuilder builder,
+			MockHttpSession session, ExamDetailDto examDetailDto) {
+		return request(builder, session).param("examId", String.valueOf(examDetailDto.getExamId()))
+				.param("sectionId", String.valueOf(examDetailDto.getSectionId()))
+				.param("examSectionId", String.valueOf(examDetailDto.getExamSectionId()));
+	}
+
+	/**
+	 * コンテキストパスとセッションの設定
+	 *
+	 * @param builder
+	 * @param session
+	 * @return リクエスト
+	 */
+	private MockHttpServletRequestBuilder request(MockHttpServletRequestBuilder builder, MockHttpSession session) {
+		return builder.contextPath(CONTEXT_PATH).session(session);
+	}
+
+	/**
+	 * シナリオの実行と集計<br>
+	 * 仮想ユーザーごとに仮想スレッドでシナリオを繰り返し実行する。ウォームアップの後に計測し、
+	 * SQL実行回数は計測中の全体の増分をシナリオの実行回数で割る(シナリオは1種類ずつ実行する)
+	 *
+	 * @param name    シナリオ名
+	 * @param journey シナリオ
+	 * @return 結果
+	 * @throws InterruptedException
+	 */
+	private JourneyResult run(String name, Journey journey) throws InterruptedException {
+		execute(journey, 0, warmup, new ConcurrentLinkedQueue<>(), new AtomicInteger());
+
+		ConcurrentLinkedQueue<Long> elapsedQueue = new ConcurrentLinkedQueue<>();
+		AtomicInteger errorCount = new AtomicInteger();
+		long statementStart = statementCountInterceptor.getCount();
+		long start = System.nanoTime();
+		execute(journey, warmup, iterations, elapsedQueue, errorCount);
+		double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+		long statementCount = statementCountInterceptor.getCount() - statementStart;
+
+		long[] elapsed = elapsedQueue.stream().mapToLong(Long::longValue).toArray();
+		Arrays.sort(elapsed);
+		JourneyResult journeyResult = new JourneyResult();
+		journeyResult.setJourney(name);
+		journeyResult.setVirtualUserCount(virtualUsers);
+		journeyResult.setJourneyCount(elapsed.length);
+		journeyResult.setErrorCount(errorCount.get());
+		journeyResult.setThroughput(elapsed.length / seconds);
+		journeyResult.setP50(percentile(elapsed, 50));
+		journeyResult.setP90(percentile(elapsed, 90));
+		journeyResult.setP99(percentile(elapsed, 99));
+		journeyResult.setMax(percentile(elapsed, 100));
+		journeyResult.setStatementPerJourney((double) statementCount / elapsed.length);
+		return journeyResult;
+	}
+
+	/**
+	 * 仮想ユーザー数分の仮想スレッドでシナリオを実行
+	 *
+	 * @param journey      シナリオ
+	 * @param offset       開始する繰り返しの番号
+	 * @param count        繰り返し回数
+	 * @param elapsedQueue 所要時間(ナノ秒)
+	 * @param errorCount   エラー回数
+	 * @throws InterruptedException
+	 */
+	private void execute(Journey journey, int offset, int count, ConcurrentLinkedQueue<Long> elapsedQueue,
+			AtomicInteger errorCount) throws InterruptedException {
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int virtualUser = 0; virtualUser < virtualUsers; virtualUser++) {
+				int user = virtualUser;
+				executor.submit(() -> {
+					for (int i = offset; i < offset + count; i++) {
+						long start = System.nanoTime();
+						try {
+							journey.run(i * virtualUsers + user);
+						} catch (Throwable e) {
+							if (errorCount.incrementAndGet() == 1) {
+								logger.error("シナリオの実行に失敗しました", e);
+							}
+						}
+						elapsedQueue.add(System.nanoTime() - start);
+					}
+				});
+			}
+		}
+	}
+
+	/**
+	 * ベースラインとの比較
+	 *
+	 * @param baselineReport ベースライン
+	 * @param report         今回の結果
+	 * @return 劣化の内容
+	 */
+	private List<String> compare(LoadReport baselineReport, LoadReport report) {
+		List<String> regressionList = new ArrayList<>();
+		for (JourneyResult current : report.getJourneyResultList()) {
+			JourneyResult base = baselineReport.find(current.getJourney());
+			if (base == null) {
+				continue;
+			}
+			if (current.getP90() > base.getP90() * (1 + tolerance)) {
+				regressionList.add(current.getJourney() + " p90: " + base.getP90() + "ms -> " + current.getP90()
+						+ "ms");
+			}
+			if (current.getThroughput() < base.getThroughput() * (1 - tolerance)) {
+				regressionList.add(current.getJourney() + " throughput: " + base.getThroughput() + "/s -> "
+						+ current.getThroughput() + "/s");
+			}
+			// SQL実行回数は環境に依存しないため、1回以上増えた場合は劣化とする
+			if (current.getStatementPerJourney() >= base.getStatementPerJourney() + 1) {
+				regressionList.add(current.getJourney() + " statements: " + base.getStatementPerJourney()
+						+ " -> " + current.getStatementPerJourney());
+			}
+		}
+		return regressionList;
+	}
+
+	/**
+	 * パーセンタイル(最近接順位法)
+	 *
+	 * @param sorted  昇順の所要時間(ナノ秒)
+	 * @param percent
+	 * @return 所要時間(ミリ秒)
+	 */
+	private double percentile(long[] sorted, int percent) {
+		int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+		return sorted[Math.max(rank - 1, 0)] / 1_000_000.0;
+	}
+
+	/**
+	 * コースIDをキーとするセクションIDの一覧
+	 *
+	 * @param rowList
+	 * @return コースIDとセクションID
+	 */
+	private Map<Integer, Integer> toMap(List<Map<String, Object>> rowList) {
+		Map<Integer, Integer> map = new LinkedHashMap<>();
+		for (Map<String, Object> row : rowList) {
+			map.put((Integer) row.get("course_id"), (Integer) row.get("section_id"));
+		}
+		return map;
+	}
+
+}
@@ -0,0 +1,20 @@
+package jp.co.sss.lms.perf;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import jp.co.sss.lms.Application;
+
+/**
+ * 性能試験用アプリケーション<br>
+ * プロファイル「perf」でアプリケーションを起動する。組み込みPostgreSQLと合成データを使用するため、
+ * テストのクラスパスで実行する(mvn spring-boot:test-run)。
+ *
+ * @author 東京ITスクール
+ */
+public class PerfApplication {
+
+	public static void main(String[] args) {
+		new SpringApplicationBuilder(Application.class).profiles("perf").run(args);
+	}
+
+}
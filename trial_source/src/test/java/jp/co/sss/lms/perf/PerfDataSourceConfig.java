@@ -0,0 +1,113 @@
+package jp.co.sss.lms.perf;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * 性能試験用データソース設定<br>
+ * プロファイル「perf」で、組み込みPostgreSQLを起動してデータソースとし、
+ * マイグレーションの適用後に合成データをCOPYで登録する。
+ * 合成データの登録はアプリケーションのBean(マッパーなど)の初期化より前に完了する。
+ *
+ * @author 東京ITスクール
+ */
+@Configuration
+@Profile("perf")
+public class PerfDataSourceConfig {
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/**
+	 * 組み込みPostgreSQL
+	 *
+	 * @param port ポート番号(0の場合は空いているポート)
+	 * @return 組み込みPostgreSQL
+	 * @throws IOException
+	 */
+	@Bean(destroyMethod = "close")
+	public EmbeddedPostgres embeddedPostgres(@Value("${setting.perf.port}") Integer port) throws IOException {
+		EmbeddedPostgres.Builder builder = EmbeddedPostgres.builder();
+		if (port > 0) {
+			builder.setPort(port);
+		}
+		EmbeddedPostgres embeddedPostgres = builder.start();
+		logger.info("組み込みPostgreSQLを起動しました(" + embeddedPostgres.getJdbcUrl("postgres", "postgres") + ")");
+		return embeddedPostgres;
+	}
+
+	/**
+	 * データソース(接続プールの設定はspring.datasource.hikari)
+	 *
+	 * @param embeddedPostgres
+	 * @return データソース
+	 */
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource dataSource(EmbeddedPostgres embeddedPostgres) {
+		return DataSourceBuilder.create().type(HikariDataSource.class)
+				.url(embeddedPostgres.getJdbcUrl("postgres", "postgres")).username("postgres").build();
+	}
+
+	/**
+	 * マイグレーションの適用と合成データの登録
+	 *
+	 * @param syntheticDataGenerator
+	 * @return マイグレーションの方法
+	 */
+	@Bean
+	public FlywayMigrationStrategy flywayMigrationStrategy(SyntheticDataGenerator syntheticDataGenerator) {
+		return flyway -> {
+			flyway.migrate();
+			load(flyway.getConfiguration().getDataSource(), syntheticDataGenerator);
+		};
+	}
+
+	/**
+	 * 合成データの登録<br>
+	 * 全テーブルを1トランザクションで登録し、登録後にログインできる状態にして統計情報を更新する
+	 *
+	 * @param dataSource
+	 * @param syntheticDataGenerator
+	 */
+	private void load(DataSource dataSource, SyntheticDataGenerator syntheticDataGenerator) {
+		long start = System.currentTimeMillis();
+		try (Connection connection = dataSource.getConnection()) {
+			connection.setAutoCommit(false);
+			CopyTableWriter writer = new CopyTableWriter(connection);
+			syntheticDataGenerator.generate(writer);
+			connection.commit();
+			connection.setAutoCommit(true);
+			try (Statement statement = connection.createStatement()) {
+				// パスワードの有効期限(1ヶ月)内とするため、パスワード変更日時を現在日時とする
+				statement.execute("UPDATE m_user SET password_change_date = now()");
+				statement.execute("ANALYZE");
+			}
+			Map<String, Long> rowCountMap = writer.getRowCountMap();
+			long total = rowCountMap.values().stream().mapToLong(Long::longValue).sum();
+			logger.info("合成データを登録しました(" + rowCountMap.size() + "テーブル、" + total + "行、"
+					+ (System.currentTimeMillis() - start) + "ミリ秒) " + rowCountMap);
+		} catch (SQLException | IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+}
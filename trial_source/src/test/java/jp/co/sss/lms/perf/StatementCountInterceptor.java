@@ -0,0 +1,44 @@
+package jp.co.sss.lms.perf;
+
+import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * SQL実行回数の計測<br>
+ * MyBatisがデータベースに送信するステートメントを数える。
+ * 非同期の並列取得(別スレッド)で実行されたものも含めるため、スレッドごとではなく全体の回数を保持する。
+ *
+ * @author 東京ITスクール
+ */
+@Component
+@Profile("perf")
+@Intercepts({ @Signature(type = StatementHandler.class, method = "prepare", args = { Connection.class,
+		Integer.class }) })
+public class StatementCountInterceptor implements Interceptor {
+
+	private final AtomicLong count = new AtomicLong();
+
+	@Override
+	public Object intercept(Invocation invocation) throws Throwable {
+		count.incrementAndGet();
+		return invocation.proceed();
+	}
+
+	/**
+	 * 起動からのステートメントの実行回数
+	 *
+	 * @return 実行回数
+	 */
+	public long getCount() {
+		return count.get();
+	}
+
+}
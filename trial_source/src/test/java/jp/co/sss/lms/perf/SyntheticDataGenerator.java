@@ -0,0 +1,864 @@
+package jp.co.sss.lms.perf;
+
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import jp.co.sss.lms.enums.AttendanceStatusEnum;
+import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.PasswordUtil;
+
+/**
+ * 合成データ生成<br>
+ * マッパーが参照する全てのテーブルに、コース数×受講生数×研修日数の規模で相関のあるデータを生成する。<br>
+ * 受講生ごとに理解力と勤勉さを乱数で決め、欠席・遅刻、日報の提出と理解度、試験の正答率、フィードバックの有無を
+ * それに応じて生成する。乱数は全てシード(setting.perf.seed)から導出するため、同じ設定では常に同じデータとなる。<br>
+ * COPYは接続ごとに1テーブルずつしか実行できないため、受講生ごとの状態を先に決めてからテーブル単位に出力する。
+ *
+ * @author 東京ITスクール
+ */
+@Component
+@Profile("perf")
+public class SyntheticDataGenerator {
+
+	@Autowired
+	private PasswordUtil passwordUtil;
+
+	@Value("${setting.perf.seed}")
+	private Long seed;
+	@Value("${setting.perf.courseCount}")
+	private Integer courseCount;
+	@Value("${setting.perf.studentPerCourse}")
+	private Integer studentPerCourse;
+	@Value("${setting.perf.dayCount}")
+	private Integer dayCount;
+	@Value("${setting.perf.startDate}")
+	private String startDate;
+	@Value("${setting.perf.companyCount}")
+	private Integer companyCount;
+	@Value("${setting.perf.examInterval}")
+	private Integer examInterval;
+	@Value("${setting.perf.questionPerExam}")
+	private Integer questionPerExam;
+	@Value("${setting.perf.password}")
+	private String password;
+
+	/** アカウントID */
+	private static final int ACCOUNT_ID = 1;
+	/** 作成者(管理者のユーザーID) */
+	private static final int CREATE_USER = 1;
+	/** 監査列 */
+	private static final String[] AUDIT_COLUMNS = { "first_create_user", "first_create_date",
+			"last_modified_user", "last_modified_date" };
+
+	/** カテゴリ・ジャンル */
+	private static final String[] CATEGORIES = { "Java基礎", "データベース", "Webアプリケーション", "チーム開発",
+			"ビジネススキル" };
+	private static final String[][] GENRE_DETAILS = {
+			{ "変数と型", "制御構文", "配列", "オブジェクト指向" },
+			{ "SELECT文", "結合", "更新系SQL", "正規化" },
+			{ "サーブレット", "Spring MVC", "テンプレート", "入力チェック" },
+			{ "Git", "設計書", "テスト", "レビュー" },
+			{ "報告・連絡・相談", "ビジネスマナー", "議事録", "プレゼンテーション" } };
+	private static final String[] PLACES = { "東京", "大阪", "名古屋", "福岡", "オンライン" };
+	private static final String[] LAST_NAMES = { "佐藤", "鈴木", "高橋", "田中", "伊藤", "渡辺", "山本", "中村",
+			"小林", "加藤", "吉田", "山田", "佐々木", "山口", "松本", "井上" };
+	private static final String[] LAST_NAME_KANAS = { "サトウ", "スズキ", "タカハシ", "タナカ", "イトウ", "ワタナベ",
+			"ヤマモト", "ナカムラ", "コバヤシ", "カトウ", "ヨシダ", "ヤマダ", "ササキ", "ヤマグチ", "マツモト", "イノウエ" };
+	private static final String[] FIRST_NAMES = { "翔太", "大輔", "健太", "拓也", "美咲", "陽菜", "結衣", "さくら",
+			"直樹", "亮", "花子", "愛" };
+	private static final String[] FIRST_NAME_KANAS = { "ショウタ", "ダイスケ", "ケンタ", "タクヤ", "ミサキ", "ヒナ",
+			"ユイ", "サクラ", "ナオキ", "リョウ", "ハナコ", "アイ" };
+
+	/** 日報の項目 */
+	private static final String[] REPORT_FIELDS = { "本日の学習内容", "気づき・疑問点", "明日の目標" };
+	private static final String[] STUDY_PHRASES = { "演習問題に取り組みました。", "講義の内容を復習しました。",
+			"サンプルコードを写経して動作を確認しました。", "グループで課題の進め方を相談しました。",
+			"エラーの原因を調べて解決しました。", "テキストの章末問題を解きました。" };
+	private static final String[] NOTICE_PHRASES = { "例外処理の使いどころが難しいと感じました。",
+			"SQLの結合条件を間違えやすいことに気づきました。", "変数名を分かりやすくすることの大切さを学びました。",
+			"設計を先に考えると実装が早く進みました。", "質問する前に自分で調べる癖をつけたいです。",
+			"インデックスの仕組みをもう少し理解したいです。" };
+	private static final String[] GOAL_PHRASES = { "今日の復習を30分行います。", "分からない点を講師に質問します。",
+			"演習を時間内に終わらせます。", "ドキュメントを読んでから実装します。", "チームの進捗を共有します。" };
+	private static final String[] FEEDBACK_PHRASES = { "よく取り組めています。この調子で進めましょう。",
+			"疑問点は早めに質問してください。", "復習の方法がとても良いです。", "演習の解答を見直してみましょう。",
+			"具体的な目標が立てられています。" };
+
+	/* 乱数の用途(受講生ごとの乱数のシードに加える) */
+	private static final int SALT_STUDENT = 1;
+	private static final int SALT_REPORT = 2;
+	private static final int SALT_EXAM = 3;
+	private static final int SALT_MASTER = 4;
+
+	/* 生成の状態 */
+	private List<LocalDate> dayList;
+	private List<Student> studentList;
+	private int examCount;
+	private int deliverablesInterval;
+	/* 問題ごとの難易度・正答(問題IDの昇順) */
+	private double[] difficulty;
+	private short[] answerNum;
+
+	/**
+	 * 受講生の状態
+	 */
+	private static class Student {
+		int index;
+		int lmsUserId;
+		int userId;
+		int courseId;
+		int companyId;
+		int placeId;
+		/** 理解力(平均0、標準偏差1) */
+		double ability;
+		/** 勤勉さ(0.85～0.99) */
+		double diligence;
+		/** 日ごとの勤怠状態 */
+		short[] status;
+		/** 日ごとの日報提出有無 */
+		boolean[] submitted;
+	}
+
+	/**
+	 * 合成データの生成
+	 *
+	 * @param writer 出力先
+	 * @throws IOException
+	 */
+	public void generate(TableWriter writer) throws IOException {
+		prepare();
+		writeMaster(writer);
+		writeUser(writer);
+		writeAttendance(writer);
+		writeDailyReport(writer);
+		writeExam(writer);
+		writeOther(writer);
+	}
+
+	/**
+	 * 研修日と受講生の状態の決定
+	 */
+	private void prepare() {
+		dayList = new ArrayList<>();
+		LocalDate date = LocalDate.parse(startDate);
+		while (dayList.size() < dayCount) {
+			if (date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY) {
+				dayList.add(date);
+			}
+			date = date.plusDays(1);
+		}
+		examCount = Math.max(dayCount / examInterval, 1);
+		deliverablesInterval = examInterval * 2;
+
+		Random masterRandom = random(SALT_MASTER, 0);
+		int questionCount = examCount * questionPerExam;
+		difficulty = new double[questionCount];
+		answerNum = new short[questionCount];
+		for (int i = 0; i < questionCount; i++) {
+			difficulty[i] = masterRandom.nextGaussian() * 0.8;
+			answerNum[i] = (short) (masterRandom.nextInt(4) + 1);
+		}
+
+		// 管理者(1) → 講師(コース数) → 受講生 → 企業担当者(企業数)の順にユーザーIDを振る
+		studentList = new ArrayList<>();
+		int index = 0;
+		for (int course = 0; course < courseCount; course++) {
+			for (int s = 0; s < studentPerCourse; s++) {
+				Random random = random(SALT_STUDENT, index);
+				Student student = new Student();
+				student.index = index;
+				student.userId = 2 + courseCount + index;
+				student.lmsUserId = student.userId;
+				student.courseId = course + 1;
+				student.companyId = random.nextInt(companyCount) + 1;
+				student.placeId = course % PLACES.length + 1;
+				student.ability = random.nextGaussian();
+				student.diligence = 0.85 + random.nextDouble() * 0.14;
+				student.status = new short[dayCount];
+				student.submitted = new boolean[dayCount];
+				for (int d = 0; d < dayCount; d++) {
+					double r = random.nextDouble();
+					double miss = 1 - student.diligence;
+					if (r < miss * 0.5) {
+						student.status[d] = AttendanceStatusEnum.ABSENT.code;
+					} else if (r < miss * 1.2) {
+						student.status[d] = AttendanceStatusEnum.TARDY.code;
+					} else if (r < miss * 1.5) {
+						student.status[d] = AttendanceStatusEnum.LEAVING_EARLY.code;
+					} else {
+						student.status[d] = AttendanceStatusEnum.NONE.code;
+					}
+					student.submitted[d] = student.status[d] != AttendanceStatusEnum.ABSENT.code
+							&& random.nextDouble() < student.diligence;
+				}
+				studentList.add(student);
+				index++;
+			}
+		}
+	}
+
+	/**
+	 * マスタ(コース・セクション・日報・試験・教材など)の出力
+	 *
+	 * @param writer
+	 * @throws IOException
+	 */
+	private void writeMaster(TableWriter writer) throws IOException {
+		LocalDateTime created = dayList.get(0).minusDays(7).atTime(9, 0);
+
+		begin(writer, "m_category", "category_id", "category_name", "category_description", "account_id",
+				"delete_flg");
+		for (int i = 0; i < CATEGORIES.length; i++) {
+			row(writer, created, i + 1, CATEGORIES[i], CATEGORIES[i] + "の単元", ACCOUNT_ID, Constants.DB_FLG_FALSE);
+		}
+		writer.end();
+
+		begin(writer, "m_place", "place_id", "place_name", "place_description", "support_available",
+				"seating_capacity", "place_note", "hidden_flg", "account_id", "delete_flg");
+		for (int i = 0; i < PLACES.length; i++) {
+			row(writer, created, i + 1, PLACES[i] + "会場", PLACES[i] + "会場の案内", 1, 100, "", 0, ACCOUNT_ID,
+					Constants.DB_FLG_FALSE);
+		}
+		writer.end();
+
+		begin(writer, "m_company", "company_id", "company_name", "company_name_kana", "prefecture", "address",
+				"work_start_time", "work_end_time", "rest_start_time", "rest_end_time", "file_share_flg",
+				"account_id", "delete_flg");
+		for (int i = 1; i <= companyCount; i++) {
+			row(writer, created, i, String.format("株式会社サンプル%04d", i), String.format("カブシキガイシャサンプル%04d", i),
+					PLACES[i % 4] + "都道府県", "サンプル町" + i, "09:00", "18:00", "12:00", "13:00",
+					Constants.FILESHARE_FLG_FALSE, ACCOUNT_ID, Constants.DB_FLG_FALSE);
+		}
+		writer.end();
+
+		begin(writer, "m_course", "course_id", "course_name", "course_description", "open_time", "close_time",
+				"course_type", "hidden_flg", "account_id", "delete_flg");
+		for (int i = 1; i <= courseCount; i++) {
+			row(writer, created, i, String.format("Javaエンジニア育成コース%03d", i), "Javaエンジニアを育成するコース",
+					dayList.get(0).atStartOfDay(), dayList.get(dayCount - 1).atTime(23, 59),
+					Constants.CODE_VAL_COURSE_TYPE_NORMAL, 0, ACCOUNT_ID, Constants.DB_FLG_FALSE);
+		}
+		writer.end();
+
+		// セクション：コースごとに研修日1日1件(セクションID = (コースID - 1) × 研修日数 + 日 + 1)
+		begin(writer, "m_section", "section_id", "section_name", "section_description", "course_id",
+				"category_id", "date", "account_id", "delete_flg");
+		for (int course = 1; course <= courseCount; course++) {
+			for (int d = 0; d < dayCount; d++) {
+				int category = category(d);
+				row(writer, created, sectionId(course, d), "第" + (d + 1) + "日 " + CATEGORIES[category],
+						CATEGORIES[category] + "の講義と演習", course, category + 1, dayList.get(d), ACCOUNT_ID,
+						Constants.DB_FLG_FALSE);
+			}
+		}
+		writer.end();
+
+		begin(writer, "m_daily_report", "daily_report_id", "report_name", "file_name", "sheet_name",
+				"row_company", "clm_company", "row_user", "clm_user", "row_date", "clm_date",
+				"intelligibility_flg", "intelligibility_field_num", "intelligibility_num", "row_intel_fld",
+				"clm_intel_fld", "row_intel", "clm_intel", "hidden_flg", "account_id", "delete_flg");
+		row(writer, created, 1, "日報", "daily_report.xlsx", "日報", 2, 2, 3, 2, 4, 2, 1, 2, 5, 10, 1, 10, 2, 0,
+				ACCOUNT_ID, Constants.DB_FLG_FALSE);
+		writer.end();
+
+		begin(writer, "m_daily_report_detail", "daily_report_detail_id", "daily_report_id", "field_num",
+				"field_name", "row", "clm", "required_flg", "input_type", "range_from", "range_to", "account_id",
+				"delete_flg");
+		for (int i = 0; i < REPORT_FIELDS.length; i++) {
+			row(writer, created, i + 1, 1, i + 1, REPORT_FIELDS[i], 6 + i, 2, 1, 0, null, null, ACCOUNT_ID,
+					Constants.DB_FLG_FALSE);
+		}
+		writer.end();
+
+		begin(writer, "t_course_daily_report", "course_daily_report_id", "course_id", "daily_report_id",
+				"account_id", "delete_flg");
+		for (int course = 1; course <= courseCount; course++) {
+			row(writer, created, course, course, 1, ACCOUNT_ID, Constants.DB_FLG_FALSE);
+		}
+		writer.end();
+
+		begin(writer, "t_section_daily_report", "section_daily_report_id", "section_id", "daily_report_id",
+				"account_id", "delete_flg");
+		for (int course = 1; course <= courseCount; course++) {
+			for (int d = 0; d < dayCount; d++) {
+				row(writer, created, sectionId(course, d), sectionId(course, d), 1, ACCOUNT_ID,
+						Constants.DB_FLG_FALSE);
+			}
+		}
+		writer.end();
+
+		begin(writer, "m_genre", "genre_id", "genre_name", "account_id", "delete_flg");
+		for (int i = 0; i < CATEGORIES.length; i++) {
+			row(writer, created, i + 1, CATEGORIES[i], ACCOUNT_ID, Constants.DB_FLG_FALSE);
+		}
+		writer.end();
+
+		begin(writer, "m_genre_detail", "genre_detail_id", "genre_id", "genre_detail_name", "account_id",
+				"delete_flg");
+		for (int i = 0; i < GENRE_DETAILS.length; i++) {
+			for (int j = 0; j < GENRE_DETAILS[i].length; j++) {
+				row(writer, created, genreDetailId(i, j), i + 1, GENRE_DETAILS[i][j], ACCOUNT_ID,
+						Constants.DB_FLG_FALSE);
+			}
+		}
+		writer.end();
+
+		// 試験：試験間隔ごとに、その日のカテゴリの試験を全コース共通で1件
+		begin(writer, "m_exam", "exam_id", "exam_name", "exam_description", "limit_time", "genre_id",
+				"hidden_flg", "account_id", "delete_flg");
+		for (int e = 0; e < examCount; e++) {
+			int category = category(examDay(e));
+			row(writer, created, e + 1, CATEGORIES[category] + "確認テスト" + (e + 1), CATEGORIES[category] + "の理解度確認",
+					30, category + 1, 0, ACCOUNT_ID, Constants.DB_FLG_FALSE);
+		}
+		writer.end();
+
+		begin(writer, "m_question", "question_id", "question", "grade", "answer_num", "choice_1", "choice_2",
+				"choice_3", "choice_4", "explain", "exam_id", "genre_detail_id", "account_id", "delete_flg");
+		Random random = random(SALT_MASTER, 1);
+		for (int e = 0; e < examCount; e++) {
+			int category = category(examDay(e));
+			for (int q = 0; q < questionPerExam; q++) {
+				int questionId = e * questionPerExam + q + 1;
+				int detail = random.nextInt(GENRE_DETAILS[category].length);
+				short grade = (short) (difficulty[questionId - 1] < -0.5 ? 1 : difficulty[questionId - 1] < 0.5 ? 2 : 3);
+				row(writer, created, questionId, GENRE_DETAILS[category][detail] + "に関する問題" + questionId, grade,
+						answerNum[questionId - 1], "選択肢A", "選択肢B", "選択肢C", "選択肢D",
+						"正解は選択肢" + "ABCD".charAt(answerNum[questionId - 1] - 1) + "です。", e + 1,
+						genreDetailId(category, detail), ACCOUNT_ID, Constants.DB_FLG_FALSE);
+			}
+		}
+		writer.end();
+
+		begin(writer, "t_exam_section", "exam_section_id", "exam_id", "section_id", "public_date", "private_date",
+				"account_id", "delete_flg");
+		for (int course = 1; course <= courseCount; course++) {
+			for (int e = 0; e < examCount; e++) {
+				row(writer, created, examSectionId(course, e), e + 1, sectionId(course, examDay(e)),
+						dayList.get(examDay(e)).atTime(9, 0), null, ACCOUNT_ID, Constants.DB_FLG_FALSE);
+			}
+		}
+		writer.end();
+
+		// 教材：セクションごとに1件
+		begin(writer, "m_file", "file_id", "file_name", "file_path", "account_id", "delete_flg");
+		for (int course = 1; course <= courseCount; course++) {
+			for (int d = 0; d < dayCount; d++) {
+				int sectionId = sectionId(course, d);
+				row(writer, created, sectionId, "textbook_" + sectionId + ".pdf", "file/textbook_" + sectionId + ".pdf",
+						ACCOUNT_ID, Constants.DB_FLG_FALSE);
+			}
+		}
+		writer.end();
+
+		begin(writer, "t_file_section", "file_section_id", "section_id", "file_id", "account_id", "delete_flg");
+		for (int course = 1; course <= courseCount; course++) {
+			for (int d = 0; d < dayCount; d++) {
+				int sectionId = sectionId(course, d);
+				row(writer, created, sectionId, sectionId, sectionId, ACCOUNT_ID, Constants.DB_FLG_FALSE);
+			}
+		}
+		writer.end();
+
+		// 成果物：試験間隔の2倍ごとに全コース共通で1件
+		int deliverablesCount = Math.max(dayCount / deliverablesInterval, 1);
+		begin(writer, "m_deliverables", "deliverables_id", "deliverables_name", "score_flg", "feedback_flg",
+				"note", "hidden_flg", "account_id", "delete_flg");
+		for (int i = 1; i <= deliverablesCount; i++) {
+			row(writer, created, i, "成果物" + i, Constants.DB_SCORE_FLG_TRUE, Constants.DB_FEEDBACK_FLG_TRUE, "",
+					0, ACCOUNT_ID, Constants.DB_FLG_FALSE);
+		}
+		writer.end();
+
+		begin(writer, "t_deliverables_section", "deliverables_section_id", "deliverables_id", "section_id",
+				"submission_deadline", "account_id", "delete_flg");
+		int id = 1;
+		for (int course = 1; course <= courseCount; course++) {
+			for (int i = 1; i <= deliverablesCount; i++) {
+				int day = Math.min(i * deliverablesInterval, dayCount) - 1;
+				row(writer, created, id++, i, sectionId(course, day), dayList.get(day) + " 18:00", ACCOUNT_ID,
+						Constants.DB_FLG_FALSE);
+			}
+		}
+		writer.end();
+
+		begin(writer, "m_meeting_file", "meeting_file_id", "file_name", "sheet_name", "row_company",
+				"clm_company", "row_user", "clm_user", "row_date", "clm_date", "row_meeting", "clm_meeting",
+				"account_id", "delete_flg");
+		row(writer, created, 1, "meeting.xlsx", "面談記録", 2, 2, 3, 2, 4, 2, 6, 2, ACCOUNT_ID,
+				Constants.DB_FLG_FALSE);
+		writer.end();
+
+		begin(writer, "t_course_meeting", "course_meeting_id", "course_id", "meeting_file_id", "account_id",
+				"delete_flg");
+		for (int course = 1; course <= courseCount; course++) {
+			row(writer, created, course, course, 1, ACCOUNT_ID, Constants.DB_FLG_FALSE);
+		}
+		writer.end();
+
+		begin(writer, "t_info", "info_id", "content", "delete_flg");
+		row(writer, created, 1, "性能試験用の合成データです。", Constants.DB_FLG_FALSE);
+		writer.end();
+	}
+
+	/**
+	 * ユーザー(管理者・講師・受講生)と所属の出力
+	 *
+	 * @param writer
+	 * @throws IOException
+	 */
+	private void writeUser(TableWriter writer) throws IOException {
+		LocalDateTime created = dayList.get(0).minusDays(7).atTime(9, 0);
+		List<Object[]> userList = new ArrayList<>();
+		userList.add(new Object[] { 1, "admin", "管理者", "カンリシャ", Constants.CODE_VAL_ROLL_ADMIN,
+				Constants.ADMIN_FLG_TRUE });
+		for (int course = 1; course <= courseCount; course++) {
+			userList.add(new Object[] { 1 + course, String.format("teacher%04d", course), "講師" + course,
+					"コウシ", Constants.CODE_VAL_ROLL_TEACHER, Constants.ADMIN_FLG_FALSE });
+		}
+		for (Student student : studentList) {
+			int last = student.index % LAST_NAMES.length;
+			int first = (student.index / LAST_NAMES.length) % FIRST_NAMES.length;
+			userList.add(new Object[] { student.userId, String.format("student%06d", student.index + 1),
+					LAST_NAMES[last] + " " + FIRST_NAMES[first], LAST_NAME_KANAS[last] + " " + FIRST_NAME_KANAS[first],
+					Constants.CODE_VAL_ROLL_STUDENT, Constants.ADMIN_FLG_FALSE });
+		}
+		for (int company = 1; company <= companyCount; company++) {
+			userList.add(new Object[] { companyUserId(company), String.format("company%04d", company),
+					"企業担当者" + company, "キギョウタントウシャ", Constants.CODE_VAL_ROLL_COMPANY,
+					Constants.ADMIN_FLG_FALSE });
+		}
+
+		begin(writer, "m_user", "user_id", "login_id", "password", "user_name", "kana", "mail_address",
+				"authority", "security_agree_flg", "password_change_date", "leave_flg", "account_id",
+				"delete_flg");
+		for (Object[] user : userList) {
+			String loginId = (String) user[1];
+			row(writer, created, user[0], loginId, passwordUtil.getSaltedAndStrechedPassword(password, loginId),
+					user[2], user[3], loginId + "@example.com", Constants.CODE_VAL_AUTH_NORMAL,
+					Constants.CODE_VAL_SECURITY_AGREE, created, Constants.LEAVE_FLG_FALSE, ACCOUNT_ID,
+					Constants.DB_FLG_FALSE);
+		}
+		writer.end();
+
+		// LMSユーザーIDはユーザーIDと同じ値とする
+		begin(writer, "m_lms_user", "lms_user_id", "user_id", "role", "admin_flg", "programming_experience",
+				"account_id", "delete_flg");
+		for (Object[] user : userList) {
+			row(writer, created, user[0], user[0], user[4], user[5], 0, ACCOUNT_ID, Constants.DB_FLG_FALSE);
+		}
+		writer.end();
+
+		begin(writer, "t_course_user", "course_user_id", "course_id", "lms_user_id", "account_id", "delete_flg");
+		for (Student student : studentList) {
+			row(writer, created, student.index + 1, student.courseId, student.lmsUserId, ACCOUNT_ID,
+					Constants.DB_FLG_FALSE);
+		}
+		writer.end();
+
+		begin(writer, "t_user_company", "user_company_id", "lms_user_id", "company_id", "account_id",
+				"delete_flg");
+		for (Student student : studentList) {
+			row(writer, created, student.index + 1, student.lmsUserId, student.companyId, ACCOUNT_ID,
+					Constants.DB_FLG_FALSE);
+		}
+		for (int company = 1; company <= companyCount; company++) {
+			row(writer, created, studentList.size() + company, companyUserId(company), company, ACCOUNT_ID,
+					Constants.DB_FLG_FALSE);
+		}
+		writer.end();
+
+		begin(writer, "t_user_place", "user_place_id", "lms_user_id", "place_id", "account_id", "delete_flg");
+		int id = 1;
+		for (int course = 1; course <= courseCount; course++) {
+			row(writer, created, id++, 1 + course, (course - 1) % PLACES.length + 1, ACCOUNT_ID,
+					Constants.DB_FLG_FALSE);
+		}
+		for (Student student : studentList) {
+			row(writer, created, id++, student.lmsUserId, student.placeId, ACCOUNT_ID, Constants.DB_FLG_FALSE);
+		}
+		writer.end();
+
+		// 企業とコースの契約：受講生の所属から重複なく作成
+		Map<String, Integer> companyCourseMap = new LinkedHashMap<>();
+		for (Student student : studentList) {
+			companyCourseMap.putIfAbsent(student.companyId + "-" + student.courseId, companyCourseMap.size() + 1);
+		}
+		begin(writer, "t_company_course", "company_course_id", "company_id", "course_id", "delete_flg");
+		for (Map.Entry<String, Integer> entry : companyCourseMap.entrySet()) {
+			String[] key = entry.getKey().split("-");
+			row(writer, created, entry.getValue(), Integer.parseInt(key[0]), Integer.parseInt(key[1]),
+					Constants.DB_FLG_FALSE);
+		}
+		writer.end();
+
+		begin(writer, "t_agreement_consent", "agreement_consent_id", "agreement_id", "company_course_id",
+				"consent_flg", "delete_flg");
+		for (Integer companyCourseId : companyCourseMap.values()) {
+			row(writer, created, companyCourseId, 1, companyCourseId, Constants.CODE_VAL_CONTRACT_AGREE,
+					Constants.DB_FLG_FALSE);
+		}
+		writer.end();
+
+		begin(writer, "m_fss_user", "fss_user_id", "nickname", "max_file_amount", "delete_flg");
+		for (Student student : studentList) {
+			row(writer, created, student.index + 1, "fss" + (student.index + 1), 100, Constants.DB_FLG_FALSE);
+		}
+		writer.end();
+
+		begin(writer, "t_user_fss_user", "user_fss_user_id", "user_id", "fss_user_id", "delete_flg");
+		for (Student student : studentList) {
+			row(writer, created, student.index + 1, student.userId, student.index + 1, Constants.DB_FLG_FALSE);
+		}
+		writer.end();
+
+		begin(writer, "t_fss_user_group", "fss_user_group_id", "fss_user_id", "fss_group_id", "auth",
+				"delete_flg");
+		for (Student student : studentList) {
+			row(writer, created, student.index + 1, student.index + 1, student.courseId,
+					Constants.CODE_VAL_GROUP_AUTH_MEMBER, Constants.DB_FLG_FALSE);
+		}
+		writer.end();
+	}
+
+	/**
+	 * 勤怠の出力
+	 *
+	 * @param writer
+	 * @throws IOException
+	 */
+	private void writeAttendance(TableWriter writer) throws IOException {
+		begin(writer, "t_student_attendance", "student_attendance_id", "lms_user_id", "training_date",
+				"training_start_time", "training_end_time", "status", "note", "blank_time", "account_id",
+				"delete_flg");
+		int id = 1;
+		for (Student student : studentList) {
+			Random random = random(SALT_STUDENT + 10, student.index);
+			for (int d = 0; d < dayCount; d++) {
+				LocalDate date = dayList.get(d);
+				short status = student.status[d];
+				LocalTime start = LocalTime.of(8, 45).plusMinutes(random.nextInt(15));
+				LocalTime end = LocalTime.of(18, 0).plusMinutes(random.nextInt(20));
+				String note = "";
+				if (status == AttendanceStatusEnum.ABSENT.code) {
+					row(writer, date.atTime(9, 0), id++, student.lmsUserId, date, "", "", status, "体調不良のため",
+							null, ACCOUNT_ID, Constants.DB_FLG_FALSE);
+					continue;
+				} else if (status == AttendanceStatusEnum.TARDY.code) {
+					start = LocalTime.of(9, 5).plusMinutes(random.nextInt(90));
+					note = "電車遅延のため";
+				} else if (status == AttendanceStatusEnum.LEAVING_EARLY.code) {
+					end = LocalTime.of(15, 0).plusMinutes(random.nextInt(120));
+					note = "通院のため";
+				}
+				row(writer, date.atTime(end), id++, student.lmsUserId, date, hhmm(start), hhmm(end), status, note,
+						null, ACCOUNT_ID, Constants.DB_FLG_FALSE);
+			}
+		}
+		writer.end();
+	}
+
+	/**
+	 * 日報(提出・項目・理解度・フィードバック)の出力<br>
+	 * 全てのテーブルで同じ順序(受講生→研修日)に提出IDを振る
+	 *
+	 * @param writer
+	 * @throws IOException
+	 */
+	private void writeDailyReport(TableWriter writer) throws IOException {
+		begin(writer, "t_daily_report_submit", "daily_report_submit_id", "daily_report_id", "date",
+				"lms_user_id", "account_id", "delete_flg");
+		int submitId = 1;
+		for (Student student : studentList) {
+			for (int d = 0; d < dayCount; d++) {
+				if (student.submitted[d]) {
+					row(writer, dayList.get(d).atTime(18, 30), submitId++, 1, dayList.get(d), student.lmsUserId,
+							ACCOUNT_ID, Constants.DB_FLG_FALSE);
+				}
+			}
+		}
+		writer.end();
+
+		begin(writer, "t_daily_report_submit_detail", "daily_report_submit_detail_id", "daily_report_submit_id",
+				"field_num", "content", "account_id", "delete_flg");
+		submitId = 1;
+		int id = 1;
+		for (Student student : studentList) {
+			Random random = random(SALT_REPORT, student.index);
+			for (int d = 0; d < dayCount; d++) {
+				if (!student.submitted[d]) {
+					continue;
+				}
+				LocalDateTime created = dayList.get(d).atTime(18, 30);
+				String category = CATEGORIES[category(d)];
+				row(writer, created, id++, submitId, 1, category + "の" + pick(random, STUDY_PHRASES), ACCOUNT_ID,
+						Constants.DB_FLG_FALSE);
+				row(writer, created, id++, submitId, 2, pick(random, NOTICE_PHRASES), ACCOUNT_ID,
+						Constants.DB_FLG_FALSE);
+				row(writer, created, id++, submitId, 3, pick(random, GOAL_PHRASES), ACCOUNT_ID,
+						Constants.DB_FLG_FALSE);
+				submitId++;
+			}
+		}
+		writer.end();
+
+		// 理解度：その日のカテゴリのジャンル詳細2件を、理解力に応じて1～5で評価
+		begin(writer, "t_intelligibility", "intelligibility_id", "daily_report_submit_id", "field_num",
+				"field_name", "field_value", "account_id", "delete_flg");
+		submitId = 1;
+		id = 1;
+		for (Student student : studentList) {
+			Random random = random(SALT_REPORT + 10, student.index);
+			for (int d = 0; d < dayCount; d++) {
+				if (!student.submitted[d]) {
+					continue;
+				}
+				String[] details = GENRE_DETAILS[category(d)];
+				for (int f = 0; f < 2; f++) {
+					long value = Math.round(3 + student.ability + random.nextGaussian() * 0.7);
+					row(writer, dayList.get(d).atTime(18, 30), id++, submitId, f + 1, details[(d + f) % details.length],
+							(short) Math.max(1, Math.min(5, value)), ACCOUNT_ID, Constants.DB_FLG_FALSE);
+				}
+				submitId++;
+			}
+		}
+		writer.end();
+
+		// フィードバック：理解度の低い受講生ほど多く、翌朝に講師が記入
+		begin(writer, "t_daily_report_fb", "daily_report_fb_id", "daily_report_submit_id", "lms_user_id",
+				"content", "account_id", "delete_flg");
+		submitId = 1;
+		id = 1;
+		for (Student student : studentList) {
+			Random random = random(SALT_REPORT + 20, student.index);
+			double rate = Math.max(0.1, Math.min(0.6, 0.3 - student.ability * 0.15));
+			for (int d = 0; d < dayCount; d++) {
+				if (!student.submitted[d]) {
+					continue;
+				}
+				if (random.nextDouble() < rate) {
+					row(writer, dayList.get(d).plusDays(1).atTime(10, random.nextInt(60)), id++, submitId,
+							1 + student.courseId, pick(random, FEEDBACK_PHRASES), ACCOUNT_ID, Constants.DB_FLG_FALSE);
+				}
+				submitId++;
+			}
+		}
+		writer.end();
+	}
+
+	/**
+	 * 試験結果の出力<br>
+	 * 正答の確率は理解力と問題の難易度の差のロジスティック関数とし、一部の受講生は再受験する
+	 *
+	 * @param writer
+	 * @throws IOException
+	 */
+	private void writeExam(TableWriter writer) throws IOException {
+		List<Object[]> resultList = new ArrayList<>();
+		List<short[]> replyList = new ArrayList<>();
+		for (Student student : studentList) {
+			Random random = random(SALT_EXAM, student.index);
+			for (int e = 0; e < examCount; e++) {
+				int day = examDay(e);
+				if (student.status[day] == AttendanceStatusEnum.ABSENT.code) {
+					continue;
+				}
+				int attempts = random.nextDouble() < 0.15 ? 2 : 1;
+				for (int a = 0; a < attempts; a++) {
+					short[] reply = new short[questionPerExam];
+					short score = 0;
+					for (int q = 0; q < questionPerExam; q++) {
+						int questionIndex = e * questionPerExam + q;
+						double p = 1 / (1 + Math.exp(-(student.ability + a * 0.5 - difficulty[questionIndex]) * 1.2));
+						if (random.nextDouble() < p) {
+							reply[q] = answerNum[questionIndex];
+							score++;
+						} else {
+							reply[q] = (short) ((answerNum[questionIndex] + random.nextInt(3)) % 4 + 1);
+						}
+					}
+					LocalDateTime created = dayList.get(day).atTime(15 + a, random.nextInt(60));
+					resultList.add(new Object[] { created, resultList.size() + 1,
+							examSectionId(student.courseId, e), student.lmsUserId, score, 300 + random.nextInt(1500) });
+					replyList.add(reply);
+				}
+			}
+		}
+
+		begin(writer, "t_exam_result", "exam_result_id", "exam_section_id", "lms_user_id", "score", "time",
+				"mark_flg", "account_id", "delete_flg");
+		for (Object[] result : resultList) {
+			row(writer, (LocalDateTime) result[0], result[1], result[2], result[3], result[4], result[5], 1,
+					ACCOUNT_ID, Constants.DB_FLG_FALSE);
+		}
+		writer.end();
+
+		begin(writer, "t_exam_result_detail", "exam_result_detail_id", "exam_result_id", "lms_user_id",
+				"question_id", "reply", "account_id", "delete_flg");
+		int id = 1;
+		for (int i = 0; i < resultList.size(); i++) {
+			Object[] result = resultList.get(i);
+			int examIndex = ((Integer) result[2] - 1) % examCount;
+			short[] reply = replyList.get(i);
+			for (int q = 0; q < questionPerExam; q++) {
+				row(writer, (LocalDateTime) result[0], id++, result[1], result[3], examIndex * questionPerExam + q + 1,
+						reply[q], ACCOUNT_ID, Constants.DB_FLG_FALSE);
+			}
+		}
+		writer.end();
+	}
+
+	/**
+	 * 面談・メール送信履歴・パスワード再設定トークンの出力
+	 *
+	 * @param writer
+	 * @throws IOException
+	 */
+	private void writeOther(TableWriter writer) throws IOException {
+		LocalDateTime meetingDate = dayList.get(dayCount / 2).atTime(16, 0);
+		begin(writer, "t_meeting", "meeting_id", "lms_user_id", "account_id", "delete_flg");
+		for (Student student : studentList) {
+			row(writer, meetingDate, student.index + 1, student.lmsUserId, ACCOUNT_ID, Constants.DB_FLG_FALSE);
+		}
+		writer.end();
+
+		begin(writer, "t_meeting_detail", "meeting_detail_id", "meeting_id", "question", "answer", "follow",
+				"question_type", "account_id", "delete_flg");
+		int id = 1;
+		for (Student student : studentList) {
+			for (int q = 0; q < Constants.FIELD_NUM_MEETING_TQ; q++) {
+				row(writer, meetingDate, id++, student.index + 1, "研修の進み具合はいかがですか(" + (q + 1) + ")",
+						student.ability > 0 ? "順調です" : "少し遅れています", "", (short) (q % 2), ACCOUNT_ID,
+						Constants.DB_FLG_FALSE);
+			}
+		}
+		writer.end();
+
+		// メール：受講生ごとにログイン情報の通知1件(送信済み)、1割は教材を添付
+		LocalDateTime sendDate = dayList.get(0).minusDays(3).atTime(10, 0);
+		begin(writer, "t_mail_que", "mail_que_id", "mail_address_to", "subject", "body", "send_status",
+				"retry_count", "send_date", "delete_flg");
+		for (Student student : studentList) {
+			row(writer, sendDate, student.index + 1, String.format("student%06d@example.com", student.index + 1),
+					"ログイン情報のお知らせ", "研修で使用するLMSのログイン情報をお知らせします。", Constants.MAIL_SEND_STATUS_SENT, 0,
+					sendDate, Constants.DB_FLG_FALSE);
+		}
+		writer.end();
+
+		begin(writer, "t_mail_que_file", "mail_que_file_id", "mail_que_id", "file_id", "delete_flg");
+		id = 1;
+		for (Student student : studentList) {
+			if (student.index % 10 == 0) {
+				row(writer, sendDate, id++, student.index + 1, sectionId(student.courseId, 0), Constants.DB_FLG_FALSE);
+			}
+		}
+		writer.end();
+
+		// パスワード再設定トークン：1割の受講生に使用済みのトークン
+		begin(writer, "t_password_reset_token", "password_reset_token_id", "user_id", "token_hash",
+				"time_limit", "used_date");
+		Random random = random(SALT_MASTER, 2);
+		byte[] token = new byte[32];
+		id = 1;
+		for (Student student : studentList) {
+			if (student.index % 10 == 0) {
+				random.nextBytes(token);
+				LocalDateTime used = dayList.get(0).atTime(8, 0);
+				row(writer, used.minusMinutes(10), id++, student.userId,
+						passwordUtil.getTokenHash(HexFormat.of().formatHex(token)), used, used);
+			}
+		}
+		writer.end();
+	}
+
+	/**
+	 * テーブルの出力開始(監査列を追加)
+	 *
+	 * @param writer
+	 * @param table
+	 * @param columns
+	 * @throws IOException
+	 */
+	private void begin(TableWriter writer, String table, String... columns) throws IOException {
+		String[] allColumns = new String[columns.length + AUDIT_COLUMNS.length];
+		System.arraycopy(columns, 0, allColumns, 0, columns.length);
+		System.arraycopy(AUDIT_COLUMNS, 0, allColumns, columns.length, AUDIT_COLUMNS.length);
+		writer.begin(table, allColumns);
+	}
+
+	/**
+	 * 行の出力(監査列の値を追加)
+	 *
+	 * @param writer
+	 * @param created 作成日時(更新日時も同じ値とする)
+	 * @param values
+	 * @throws IOException
+	 */
+	private void row(TableWriter writer, LocalDateTime created, Object... values) throws IOException {
+		Object[] allValues = new Object[values.length + AUDIT_COLUMNS.length];
+		System.arraycopy(values, 0, allValues, 0, values.length);
+		allValues[values.length] = CREATE_USER;
+		allValues[values.length + 1] = created;
+		allValues[values.length + 2] = CREATE_USER;
+		allValues[values.length + 3] = created;
+		writer.row(allValues);
+	}
+
+	/**
+	 * 用途・対象ごとの乱数(シードから決定的に導出)
+	 *
+	 * @param salt 用途
+	 * @param index 対象
+	 * @return 乱数
+	 */
+	private Random random(int salt, int index) {
+		return new Random(seed * 1_000_003L + salt * 1_000_000_007L + index);
+	}
+
+	private int category(int day) {
+		return day * CATEGORIES.length / dayCount;
+	}
+
+	private int examDay(int exam) {
+		return Math.min((exam + 1) * examInterval, dayCount) - 1;
+	}
+
+	private int sectionId(int courseId, int day) {
+		return (courseId - 1) * dayCount + day + 1;
+	}
+
+	private int examSectionId(int courseId, int exam) {
+		return (courseId - 1) * examCount + exam + 1;
+	}
+
+	private int companyUserId(int companyId) {
+		return 2 + courseCount + studentList.size() + companyId - 1;
+	}
+
+	private int genreDetailId(int genre, int detail) {
+		return genre * 4 + detail + 1;
+	}
+
+	private String hhmm(LocalTime time) {
+		return String.format("%02d:%02d", time.getHour(), time.getMinute());
+	}
+
+	private String pick(Random random, String[] phrases) {
+		return phrases[random.nextInt(phrases.length)];
+	}
+
+}
@@ -0,0 +1,246 @@
+package jp.co.sss.lms.perf;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jp.co.sss.lms.util.PasswordUtil;
+
+/**
+ * 合成データ生成試験<br>
+ * 生成したデータの件数・参照の整合性・一意性・決定性と、受講生ごとの相関を試験する。<br>
+ *
+ * */
+@SpringBootTest
+public class SyntheticDataGeneratorTest {
+
+	private SyntheticDataGenerator syntheticDataGenerator;
+
+	private PasswordUtil passwordUtil;
+
+	/**
+	 * テーブルごとに行を保持する出力先
+	 */
+	private static class RecordTableWriter implements TableWriter {
+
+		final Map<String, List<String>> columnMap = new LinkedHashMap<>();
+		final Map<String, List<Object[]>> rowMap = new LinkedHashMap<>();
+		private String table;
+
+		@Override
+		public void begin(String table, String... columns) {
+			assertFalse(columnMap.containsKey(table), table);
+			this.table = table;
+			columnMap.put(table, Arrays.asList(columns));
+			rowMap.put(table, new ArrayList<>());
+		}
+
+		@Override
+		public void row(Object... values) {
+			assertEquals(columnMap.get(table).size(), values.length, table);
+			rowMap.get(table).add(values);
+		}
+
+		@Override
+		public void end() {
+			table = null;
+		}
+
+		/** 列の値の一覧 */
+		List<Object> values(String table, String column) {
+			int index = columnMap.get(table).indexOf(column);
+			List<Object> valueList = new ArrayList<>();
+			for (Object[] row : rowMap.get(table)) {
+				valueList.add(row[index]);
+			}
+			return valueList;
+		}
+
+		/** 主キーの一覧 */
+		Set<Object> ids(String table) {
+			return new HashSet<>(values(table, columnMap.get(table).get(0)));
+		}
+	}
+
+	@BeforeEach
+	public void setup() {
+		passwordUtil = new PasswordUtil();
+		syntheticDataGenerator = new SyntheticDataGenerator();
+		ReflectionTestUtils.setField(syntheticDataGenerator, "passwordUtil", passwordUtil);
+		ReflectionTestUtils.setField(syntheticDataGenerator, "seed", 1L);
+		ReflectionTestUtils.setField(syntheticDataGenerator, "courseCount", 3);
+		ReflectionTestUtils.setField(syntheticDataGenerator, "studentPerCourse", 20);
+		ReflectionTestUtils.setField(syntheticDataGenerator, "dayCount", 30);
+		ReflectionTestUtils.setField(syntheticDataGenerator, "startDate", "2024-04-01");
+		ReflectionTestUtils.setField(syntheticDataGenerator, "companyCount", 5);
+		ReflectionTestUtils.setField(syntheticDataGenerator, "examInterval", 5);
+		ReflectionTestUtils.setField(syntheticDataGenerator, "questionPerExam", 10);
+		ReflectionTestUtils.setField(syntheticDataGenerator, "password", "Perf0000");
+	}
+
+	/**
+	 * Case.1_1 件数・整合性試験<br>
+	 * <br>
+	 * ■対象メソッド：generate()<br>
+	 * ■試験観点：<br>
+	 * 　・コース数×受講生数×研修日数の勤怠、コース数×研修日数のセクションを生成すること<br>
+	 * 　・主キーと一意制約(勤怠・日報提出・ログインID)が重複しないこと<br>
+	 * 　・日報の項目・理解度・フィードバック、試験結果の詳細が存在する親を参照すること<br>
+	 * 　・受講生・企業担当者は所属企業を持ち、企業担当者は企業ごとに1名であること<br>
+	 * 　・受講生は設定したパスワードでログインできること<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_1() throws Exception {
+
+		RecordTableWriter writer = new RecordTableWriter();
+		syntheticDataGenerator.generate(writer);
+
+		assertEquals(3 * 20 * 30, writer.rowMap.get("t_student_attendance").size());
+		assertEquals(3 * 30, writer.rowMap.get("m_section").size());
+		assertEquals(1 + 3 + 3 * 20 + 5, writer.rowMap.get("m_user").size());
+		for (String table : writer.rowMap.keySet()) {
+			assertEquals(writer.rowMap.get(table).size(), writer.ids(table).size(), table);
+		}
+
+		assertUnique(writer, "t_student_attendance", "lms_user_id", "training_date");
+		assertUnique(writer, "t_daily_report_submit", "lms_user_id", "daily_report_id", "date");
+		assertUnique(writer, "m_user", "login_id");
+		assertUnique(writer, "m_lms_user", "user_id");
+		assertUnique(writer, "t_user_company", "lms_user_id");
+
+		Set<Object> lmsUserIds = writer.ids("m_lms_user");
+		assertTrue(lmsUserIds.containsAll(writer.values("t_student_attendance", "lms_user_id")));
+		assertTrue(lmsUserIds.containsAll(writer.values("t_daily_report_fb", "lms_user_id")));
+		assertTrue(lmsUserIds.containsAll(writer.values("t_user_company", "lms_user_id")));
+		assertEquals(3 * 20 + 5, writer.rowMap.get("t_user_company").size());
+		Set<Object> submitIds = writer.ids("t_daily_report_submit");
+		assertEquals(submitIds.size() * 3, writer.rowMap.get("t_daily_report_submit_detail").size());
+		assertEquals(submitIds.size() * 2, writer.rowMap.get("t_intelligibility").size());
+		assertEquals(submitIds, new HashSet<>(writer.values("t_daily_report_submit_detail", "daily_report_submit_id")));
+		assertTrue(submitIds.containsAll(writer.values("t_daily_report_fb", "daily_report_submit_id")));
+		assertTrue(writer.ids("t_exam_section").containsAll(writer.values("t_exam_result", "exam_section_id")));
+		assertTrue(writer.ids("m_question").containsAll(writer.values("t_exam_result_detail", "question_id")));
+		assertEquals(writer.rowMap.get("t_exam_result").size() * 10, writer.rowMap.get("t_exam_result_detail").size());
+		assertTrue(writer.ids("m_section").containsAll(writer.values("t_exam_section", "section_id")));
+
+		int index = writer.values("m_user", "login_id").indexOf("student000001");
+		assertEquals(passwordUtil.getSaltedAndStrechedPassword("Perf0000", "student000001"),
+				writer.values("m_user", "password").get(index));
+	}
+
+	/**
+	 * Case.1_2 決定性・相関試験<br>
+	 * <br>
+	 * ■対象メソッド：generate()<br>
+	 * ■試験観点：<br>
+	 * 　・同じシードでは同じデータ、異なるシードでは異なるデータを生成すること<br>
+	 * 　・受講生ごとの理解度の平均と試験の得点の平均に正の相関があること<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_2() throws Exception {
+
+		RecordTableWriter first = new RecordTableWriter();
+		syntheticDataGenerator.generate(first);
+		RecordTableWriter second = new RecordTableWriter();
+		syntheticDataGenerator.generate(second);
+		for (String table : first.rowMap.keySet()) {
+			assertTrue(Arrays.deepEquals(first.rowMap.get(table).toArray(), second.rowMap.get(table).toArray()),
+					table);
+		}
+
+		ReflectionTestUtils.setField(syntheticDataGenerator, "seed", 2L);
+		RecordTableWriter other = new RecordTableWriter();
+		syntheticDataGenerator.generate(other);
+		assertFalse(Arrays.deepEquals(first.rowMap.get("t_exam_result").toArray(),
+				other.rowMap.get("t_exam_result").toArray()));
+
+		// 受講生ごとの理解度の平均
+		Map<Object, Object> submitUserMap = new HashMap<>();
+		List<Object> submitIdList = first.values("t_daily_report_submit", "daily_report_submit_id");
+		List<Object> submitUserList = first.values("t_daily_report_submit", "lms_user_id");
+		for (int i = 0; i < submitIdList.size(); i++) {
+			submitUserMap.put(submitIdList.get(i), submitUserList.get(i));
+		}
+		Map<Object, double[]> intelligibilityMap = new HashMap<>();
+		List<Object> intelligibilitySubmitList = first.values("t_intelligibility", "daily_report_submit_id");
+		List<Object> fieldValueList = first.values("t_intelligibility", "field_value");
+		for (int i = 0; i < fieldValueList.size(); i++) {
+			double[] sum = intelligibilityMap.computeIfAbsent(submitUserMap.get(intelligibilitySubmitList.get(i)),
+					k -> new double[2]);
+			sum[0] += (Short) fieldValueList.get(i);
+			sum[1]++;
+		}
+		// 受講生ごとの試験の得点の平均
+		Map<Object, double[]> scoreMap = new HashMap<>();
+		List<Object> resultUserList = first.values("t_exam_result", "lms_user_id");
+		List<Object> scoreList = first.values("t_exam_result", "score");
+		for (int i = 0; i < scoreList.size(); i++) {
+			double[] sum = scoreMap.computeIfAbsent(resultUserList.get(i), k -> new double[2]);
+			sum[0] += (Short) scoreList.get(i);
+			sum[1]++;
+		}
+		List<double[]> pairList = new ArrayList<>();
+		for (Object lmsUserId : scoreMap.keySet()) {
+			double[] intelligibility = intelligibilityMap.get(lmsUserId);
+			double[] score = scoreMap.get(lmsUserId);
+			pairList.add(new double[] { intelligibility[0] / intelligibility[1], score[0] / score[1] });
+		}
+		assertTrue(correlation(pairList) > 0.5);
+	}
+
+	/**
+	 * 列の組み合わせの一意性の検証
+	 *
+	 * @param writer
+	 * @param table
+	 * @param columns
+	 */
+	private void assertUnique(RecordTableWriter writer, String table, String... columns) {
+		Set<List<Object>> keySet = new HashSet<>();
+		List<List<Object>> valueLists = new ArrayList<>();
+		for (String column : columns) {
+			valueLists.add(writer.values(table, column));
+		}
+		for (int i = 0; i < valueLists.get(0).size(); i++) {
+			List<Object> key = new ArrayList<>();
+			for (List<Object> valueList : valueLists) {
+				key.add(valueList.get(i));
+			}
+			assertTrue(keySet.add(key), table + " " + key);
+		}
+	}
+
+	/**
+	 * 相関係数
+	 *
+	 * @param pairList
+	 * @return 相関係数
+	 */
+	private double correlation(List<double[]> pairList) {
+		double n = pairList.size();
+		double sumX = 0, sumY = 0, sumXX = 0, sumYY = 0, sumXY = 0;
+		for (double[] pair : pairList) {
+			sumX += pair[0];
+			sumY += pair[1];
+			sumXX += pair[0] * pair[0];
+			sumYY += pair[1] * pair[1];
+			sumXY += pair[0] * pair[1];
+		}
+		return (n * sumXY - sumX * sumY) / Math.sqrt((n * sumXX - sumX * sumX) * (n * sumYY - sumY * sumY));
+	}
+
+}
@@ -0,0 +1,37 @@
+package jp.co.sss.lms.perf;
+
+import java.io.IOException;
+
+/**
+ * テーブル出力<br>
+ * 合成データ生成の出力先。テーブルごとに開始・行の出力・終了を順に呼び出す。
+ *
+ * @author 東京ITスクール
+ */
+public interface TableWriter {
+
+	/**
+	 * テーブルの出力開始
+	 *
+	 * @param table テーブル名
+	 * @param columns 列名(先頭は主キー)
+	 * @throws IOException
+	 */
+	void begin(String table, String... columns) throws IOException;
+
+	/**
+	 * 行の出力
+	 *
+	 * @param values 値(列名と同じ順序、nullはNULL)
+	 * @throws IOException
+	 */
+	void row(Object... values) throws IOException;
+
+	/**
+	 * テーブルの出力終了
+	 *
+	 * @throws IOException
+	 */
+	void end() throws IOException;
+
+}
@@ -0,0 +1,157 @@
+package jp.co.sss.lms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jp.co.sss.lms.dto.CourseServiceCourseDto;
+import jp.co.sss.lms.dto.LoginUserDto;
+import jp.co.sss.lms.mapper.MCourseMapper;
+import jp.co.sss.lms.util.LoggingUtil;
+import jp.co.sss.lms.util.MessageUtil;
+
+/**
+ * コース情報サービス試験<br>
+ * コース詳細のキャッシュ・存在確認・ETagによる更新確認を試験する。<br>
+ *
+ * */
+@SpringBootTest
+public class CourseServiceTest {
+
+	/** コースID */
+	private static final int COURSE_ID = 1;
+
+	@Mock
+	private MCourseMapper mCourseMapper;
+	@Mock
+	private MessageUtil messageUtil;
+	@Mock
+	private LoggingUtil loggingUtil;
+
+	@InjectMocks
+	private CourseDefinitionService courseDefinitionService;
+	@InjectMocks
+	private CourseService courseService;
+
+	private LoginUserDto loginUserDto;
+
+	@BeforeEach
+	public void setup() {
+		MockitoAnnotations.openMocks(this);
+		ReflectionTestUtils.setField(courseDefinitionService, "revalidateSecond", 0);
+		ReflectionTestUtils.setField(courseService, "courseDefinitionService", courseDefinitionService);
+		loginUserDto = new LoginUserDto();
+		loginUserDto.setLmsUserId(100);
+		loginUserDto.setUserName("受講生");
+		loginUserDto.setRole("0001");
+		loginUserDto.setFileShareFlg((short) 0);
+		ReflectionTestUtils.setField(courseService, "loginUserDto", loginUserDto);
+
+		when(mCourseMapper.getCourseDetailVersion(eq(COURSE_ID), anyShort())).thenReturn("v1");
+		when(mCourseMapper.getCourseDetail(eq(COURSE_ID), anyShort())).then(invocation -> {
+			CourseServiceCourseDto courseServiceCourseDto = new CourseServiceCourseDto();
+			courseServiceCourseDto.setCourseId(COURSE_ID);
+			courseServiceCourseDto.setCourseName("Javaコース");
+			return courseServiceCourseDto;
+		});
+		when(messageUtil.getMessage(any(), any())).thenReturn("削除済み");
+	}
+
+	/**
+	 * Case.1_1 コース詳細取得試験<br>
+	 * <br>
+	 * ■対象メソッド：checkCourseId()、getCourseDetail()<br>
+	 * ■試験観点：<br>
+	 * 　・コース詳細の読込みは1回のみで、以降はバージョン確認のみとなること<br>
+	 * 　・存在確認がキャッシュから判定されること<br>
+	 * 　・バージョンが変わった場合は再読込みすること<br>
+	 * 　・確認間隔内はバージョンが変わっても再読込みしないこと<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_1() throws Exception {
+
+		assertEquals("", courseService.checkCourseId(COURSE_ID));
+		CourseServiceCourseDto first = courseService.getCourseDetail(COURSE_ID);
+		assertEquals("Javaコース", first.getCourseName());
+		assertSame(first, courseService.getCourseDetail(COURSE_ID));
+		verify(mCourseMapper, times(1)).getCourseDetail(eq(COURSE_ID), anyShort());
+
+		assertEquals("削除済み", courseService.checkCourseId(99));
+		assertNull(courseService.getCourseDetail(99));
+		verify(mCourseMapper, never()).getCourseDetail(eq(99), anyShort());
+
+		when(mCourseMapper.getCourseDetailVersion(eq(COURSE_ID), anyShort())).thenReturn("v2");
+		assertNotSame(first, courseService.getCourseDetail(COURSE_ID));
+		verify(mCourseMapper, times(2)).getCourseDetail(eq(COURSE_ID), anyShort());
+
+		ReflectionTestUtils.setField(courseDefinitionService, "revalidateSecond", 60);
+		CourseServiceCourseDto second = courseService.getCourseDetail(COURSE_ID);
+		when(mCourseMapper.getCourseDetailVersion(eq(COURSE_ID), anyShort())).thenReturn("v3");
+		assertSame(second, courseService.getCourseDetail(COURSE_ID));
+		verify(mCourseMapper, times(2)).getCourseDetail(eq(COURSE_ID), anyShort());
+	}
+
+	/**
+	 * Case.1_2 コース詳細画面の更新確認試験<br>
+	 * <br>
+	 * ■対象メソッド：checkNotModified()<br>
+	 * ■試験観点：<br>
+	 * 　・強いETagが設定されること<br>
+	 * 　・同じETagを保持している場合は304となること(GETのみ)<br>
+	 * 　・コース詳細のバージョン・ロール・ログインユーザー・氏名が変わった場合はETagが変わること<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_2() {
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		assertFalse(courseService.checkNotModified(COURSE_ID, new MockHttpServletRequest(), response));
+		String eTag = response.getHeader(HttpHeaders.ETAG);
+		assertTrue(eTag.startsWith("\""));
+		assertEquals("private, no-cache", response.getHeader(HttpHeaders.CACHE_CONTROL));
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/course/detail");
+		request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + eTag);
+		response = new MockHttpServletResponse();
+		assertTrue(courseService.checkNotModified(COURSE_ID, request, response));
+		assertEquals(304, response.getStatus());
+
+		MockHttpServletRequest postRequest = new MockHttpServletRequest("POST", "/course/detail");
+		postRequest.addHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+		response = new MockHttpServletResponse();
+		assertFalse(courseService.checkNotModified(COURSE_ID, postRequest, response));
+
+		loginUserDto.setRole("0002");
+		response = new MockHttpServletResponse();
+		assertFalse(courseService.checkNotModified(COURSE_ID, request, response));
+		loginUserDto.setRole("0001");
+
+		loginUserDto.setLmsUserId(101);
+		response = new MockHttpServletResponse();
+		assertFalse(courseService.checkNotModified(COURSE_ID, request, response));
+		loginUserDto.setLmsUserId(100);
+
+		loginUserDto.setUserName("受講生2");
+		response = new MockHttpServletResponse();
+		assertFalse(courseService.checkNotModified(COURSE_ID, request, response));
+		loginUserDto.setUserName("受講生");
+
+		when(mCourseMapper.getCourseDetailVersion(eq(COURSE_ID), anyShort())).thenReturn("v2");
+		response = new MockHttpServletResponse();
+		assertFalse(courseService.checkNotModified(COURSE_ID, request, response));
+		assertNotEquals(eTag, response.getHeader(HttpHeaders.ETAG));
+	}
+
+}
@@ -0,0 +1,164 @@
+package jp.co.sss.lms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jp.co.sss.lms.dto.DailyReportDefinitionDto;
+import jp.co.sss.lms.dto.DailyReportDetailDto;
+import jp.co.sss.lms.dto.DailyReportDto;
+import jp.co.sss.lms.mapper.MDailyReportMapper;
+import jp.co.sss.lms.mapper.TCourseDailyReportMapper;
+import jp.co.sss.lms.mapper.TSectionDailyReportMapper;
+
+/**
+ * レポート定義サービス試験<br>
+ * レポート定義・コース/セクションへの紐付けのキャッシュと、バージョンによる再読込みを試験する。<br>
+ *
+ * */
+@SpringBootTest
+public class DailyReportDefinitionServiceTest {
+
+	/** 日報ID */
+	private static final int DAILY_REPORT_ID = 1;
+
+	@Mock
+	private MDailyReportMapper mDailyReportMapper;
+	@Mock
+	private TCourseDailyReportMapper tCourseDailyReportMapper;
+	@Mock
+	private TSectionDailyReportMapper tSectionDailyReportMapper;
+
+	@InjectMocks
+	private DailyReportDefinitionService dailyReportDefinitionService;
+
+	/** 日報詳細マスタの項目数 */
+	private int fieldCount;
+
+	@BeforeEach
+	public void setup() {
+		MockitoAnnotations.openMocks(this);
+		ReflectionTestUtils.setField(dailyReportDefinitionService, "revalidateSecond", 60);
+
+		fieldCount = 3;
+		when(mDailyReportMapper.getDailyReportDefinitionVersion(DAILY_REPORT_ID))
+				.then(invocation -> "2024-04-01 10:00:00-" + fieldCount);
+		when(mDailyReportMapper.getDailyReportDefinition(DAILY_REPORT_ID)).then(invocation -> {
+			DailyReportDto dailyReportDto = new DailyReportDto();
+			dailyReportDto.setDailyReportId(DAILY_REPORT_ID);
+			dailyReportDto.setReportName("日報");
+			List<DailyReportDetailDto> dailyReportDetailDtoList = new ArrayList<>();
+			for (int i = 0; i < fieldCount; i++) {
+				DailyReportDetailDto dailyReportDetailDto = new DailyReportDetailDto();
+				dailyReportDetailDto.setFieldNum(i + 1);
+				dailyReportDetailDto.setFieldName("項目" + (i + 1));
+				dailyReportDetailDtoList.add(dailyReportDetailDto);
+			}
+			dailyReportDto.setDailyReportDetailDtoList(dailyReportDetailDtoList);
+			return dailyReportDto;
+		});
+	}
+
+	/**
+	 * Case.1_1 レポート定義取得試験(キャッシュ)<br>
+	 * <br>
+	 * ■対象メソッド：getDefinition()<br>
+	 * ■試験観点：<br>
+	 * 　・確認間隔内の2回目以降は、バージョン確認・読込みを行わずに同じ定義を返すこと<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_1() {
+
+		DailyReportDefinitionDto first = dailyReportDefinitionService.getDefinition(DAILY_REPORT_ID);
+		DailyReportDefinitionDto second = dailyReportDefinitionService.getDefinition(DAILY_REPORT_ID);
+
+		assertSame(first, second);
+		assertArrayEquals(new String[] { "項目1", "項目2", "項目3" }, first.getFieldNameArray());
+		verify(mDailyReportMapper, times(1)).getDailyReportDefinitionVersion(DAILY_REPORT_ID);
+		verify(mDailyReportMapper, times(1)).getDailyReportDefinition(DAILY_REPORT_ID);
+	}
+
+	/**
+	 * Case.1_2 レポート定義取得試験(バージョン確認)<br>
+	 * <br>
+	 * ■対象メソッド：getDefinition()<br>
+	 * ■試験パラメータ：確認間隔：0秒<br>
+	 * ■試験観点：<br>
+	 * 　・バージョンが変わらない場合は再読込みしないこと<br>
+	 * 　・最終更新日時が変わらなくても、項目が削除された場合は再読込みし、削除された項目を返さないこと<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_2() {
+
+		ReflectionTestUtils.setField(dailyReportDefinitionService, "revalidateSecond", 0);
+
+		DailyReportDefinitionDto first = dailyReportDefinitionService.getDefinition(DAILY_REPORT_ID);
+		assertSame(first, dailyReportDefinitionService.getDefinition(DAILY_REPORT_ID));
+		verify(mDailyReportMapper, times(2)).getDailyReportDefinitionVersion(DAILY_REPORT_ID);
+		verify(mDailyReportMapper, times(1)).getDailyReportDefinition(DAILY_REPORT_ID);
+
+		fieldCount = 2;
+		DailyReportDefinitionDto deleted = dailyReportDefinitionService.getDefinition(DAILY_REPORT_ID);
+		assertEquals(2, deleted.getFieldCount());
+		assertArrayEquals(new String[] { "項目1", "項目2" }, deleted.getFieldNameArray());
+		verify(mDailyReportMapper, times(2)).getDailyReportDefinition(DAILY_REPORT_ID);
+	}
+
+	/**
+	 * Case.1_3 レポート定義取得試験(日報マスタなし)<br>
+	 * <br>
+	 * ■対象メソッド：getDefinition()<br>
+	 * ■試験観点：<br>
+	 * 　・日報マスタが存在しない場合はnullを返し、キャッシュしないこと<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_3() {
+
+		assertNull(dailyReportDefinitionService.getDefinition(2));
+		assertNull(dailyReportDefinitionService.getDefinition(2));
+		verify(mDailyReportMapper, times(2)).getDailyReportDefinition(2);
+	}
+
+	/**
+	 * Case.1_4 コース・セクションとの紐付け判定試験<br>
+	 * <br>
+	 * ■対象メソッド：isCourseDailyReport()、isSectionDailyReport()<br>
+	 * ■試験観点：<br>
+	 * 　・紐づく日報IDのみtrueとなること<br>
+	 * 　・紐付けはコース(セクション)・企業アカウントごとに1回のみ読込むこと<br>
+	 * 　・コースID・セクションIDがnullの場合は検索せずにfalseとなること<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_4() {
+
+		when(tCourseDailyReportMapper.findDailyReportIdList(eq(10), eq(1), anyShort())).thenReturn(List.of(1, 2));
+		when(tSectionDailyReportMapper.findDailyReportIdList(eq(20), eq(1), anyShort())).thenReturn(List.of(3));
+
+		assertTrue(dailyReportDefinitionService.isCourseDailyReport(1, 10, 1));
+		assertTrue(dailyReportDefinitionService.isCourseDailyReport(2, 10, 1));
+		assertFalse(dailyReportDefinitionService.isCourseDailyReport(3, 10, 1));
+		assertTrue(dailyReportDefinitionService.isSectionDailyReport(3, 20, 1));
+		assertFalse(dailyReportDefinitionService.isSectionDailyReport(1, 20, 1));
+		assertFalse(dailyReportDefinitionService.isCourseDailyReport(1, null, 1));
+		assertFalse(dailyReportDefinitionService.isSectionDailyReport(3, null, 1));
+
+		verify(tCourseDailyReportMapper, times(1)).findDailyReportIdList(any(), any(), any());
+		verify(tSectionDailyReportMapper, times(1)).findDailyReportIdList(any(), any(), any());
+	}
+
+}
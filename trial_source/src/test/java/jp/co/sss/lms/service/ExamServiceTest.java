@@ -0,0 +1,297 @@
+package jp.co.sss.lms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import jp.co.sss.lms.dto.ExamQuestionDto;
+import jp.co.sss.lms.dto.ExamResultDetailDto;
+import jp.co.sss.lms.dto.ExamSubmissionDto;
+import jp.co.sss.lms.dto.LoginUserDto;
+import jp.co.sss.lms.dto.QuestionDto;
+import jp.co.sss.lms.entity.TExamResult;
+import jp.co.sss.lms.entity.TExamResultDetail;
+import jp.co.sss.lms.form.ExamQuestionForm;
+import jp.co.sss.lms.mapper.MExamMapper;
+import jp.co.sss.lms.mapper.TExamResultDetailMapper;
+import jp.co.sss.lms.mapper.TExamResultMapper;
+
+/**
+ * 試験情報サービス試験<br>
+ * 試験問題セットのキャッシュを利用した問題表示・採点を試験する。<br>
+ *
+ * */
+@SpringBootTest
+public class ExamServiceTest {
+
+	/** 問題数 */
+	private static final int QUESTION_NUM = 20;
+	/** 試験結果ID採番 */
+	private static final AtomicInteger EXAM_RESULT_ID = new AtomicInteger();
+
+	@Mock
+	private MExamMapper mExamMapper;
+	@Mock
+	private TExamResultMapper tExamResultMapper;
+	@Mock
+	private TExamResultDetailMapper tExamResultDetailMapper;
+	@Mock
+	private ExamStatisticsService examStatisticsService;
+	@Mock
+	private ItemAnalysisService itemAnalysisService;
+	@Mock
+	private GenreProfileService genreProfileService;
+	@Mock
+	private ExamWriteBehindService examWriteBehindService;
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	@Captor
+	private ArgumentCaptor<List<TExamResultDetail>> detailCaptor;
+
+	@InjectMocks
+	private ExamDefinitionService examDefinitionService;
+	@InjectMocks
+	private ExamService examService;
+
+	@BeforeEach
+	public void setup() {
+		MockitoAnnotations.openMocks(this);
+		ReflectionTestUtils.setField(examDefinitionService, "revalidateSecond", 0);
+		ReflectionTestUtils.setField(examService, "examDefinitionService", examDefinitionService);
+		LoginUserDto loginUserDto = new LoginUserDto();
+		loginUserDto.setLmsUserId(100);
+		loginUserDto.setAccountId(1);
+		ReflectionTestUtils.setField(examService, "loginUserDto", loginUserDto);
+		when(transactionManager.getTransaction(any())).then(invocation -> new SimpleTransactionStatus());
+		examService.init();
+
+		when(mExamMapper.getExamQuestionSetVersion(eq(1), anyShort())).thenReturn("v1");
+		ExamQuestionDto examQuestionDto = new ExamQuestionDto();
+		examQuestionDto.setExamId(1);
+		examQuestionDto.setExamName("試験");
+		examQuestionDto.setLimitTime(30);
+		List<QuestionDto> questionDtoList = new ArrayList<>();
+		for (int i = 0; i < QUESTION_NUM; i++) {
+			QuestionDto questionDto = new QuestionDto();
+			questionDto.setQuestionId(1000 + i);
+			questionDto.setQuestion("問題" + i);
+			questionDto.setAnswerNum((short) (i % 4 + 1));
+			questionDto.setChoice1("選択肢1");
+			questionDto.setChoice2("選択肢2");
+			questionDto.setChoice3("選択肢3");
+			questionDto.setChoice4("選択肢4");
+			questionDtoList.add(questionDto);
+		}
+		examQuestionDto.setQuestionDtoList(questionDtoList);
+		when(mExamMapper.getExamQuestionSet(eq(1), anyShort())).thenReturn(examQuestionDto);
+		doAnswer(invocation -> {
+			TExamResult tExamResult = invocation.getArgument(0);
+			tExamResult.setExamResultId(EXAM_RESULT_ID.incrementAndGet());
+			tExamResult.setMarkFlg((short) 1);
+			return true;
+		}).when(tExamResultMapper).insert(any());
+	}
+
+	/**
+	 * Case.1_1 試験問題画面フォーム設定試験<br>
+	 * <br>
+	 * ■対象メソッド：setExamQuestionForm()<br>
+	 * ■試験観点：<br>
+	 * 　・問題セットの読込みは1回のみで、以降はバージョン確認のみとなること<br>
+	 * 　・問題リストはユーザーごとに複製され、変更が他のユーザーに影響しないこと<br>
+	 * 　・正答が画面表示用の問題に含まれないこと<br>
+	 * 　・読込み後に試験ごとの読込みロックが破棄されること<br>
+	 * 　・バージョンが変わった場合は再読込みすること<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_1() {
+
+		List<ExamQuestionForm> formList = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			ExamQuestionForm form = new ExamQuestionForm();
+			form.setExamId(1);
+			form.setAnswer(new Short[] { 1, 2 });
+			examService.setExamQuestionForm(form);
+			formList.add(form);
+		}
+		verify(mExamMapper, times(1)).getExamQuestionSet(eq(1), anyShort());
+
+		ExamQuestionForm first = formList.get(0);
+		assertEquals("試験", first.getExamName());
+		assertEquals(QUESTION_NUM, first.getQuestionDtoList().size());
+		assertNotSame(first.getQuestionDtoList(), formList.get(39).getQuestionDtoList());
+		QuestionDto questionDto = first.getQuestionDtoList().get(0);
+		assertEquals(List.of("選択肢1", "選択肢2", "選択肢3", "選択肢4"), questionDto.getAnswerList());
+		assertNull(questionDto.getAnswerNum());
+		questionDto.setQuestion("変更");
+		questionDto.setAnswerNum((short) 1);
+		QuestionDto otherQuestionDto = formList.get(39).getQuestionDtoList().get(0);
+		assertNotEquals("変更", otherQuestionDto.getQuestion());
+		assertNull(otherQuestionDto.getAnswerNum());
+		assertTrue(((Map<?, ?>) ReflectionTestUtils.getField(examDefinitionService, "loadLockMap")).isEmpty());
+		assertEquals(QUESTION_NUM, first.getAnswer().length);
+		assertEquals((short) 2, first.getAnswer()[1]);
+
+		when(mExamMapper.getExamQuestionSetVersion(eq(1), anyShort())).thenReturn("v2");
+		ExamQuestionForm form = new ExamQuestionForm();
+		form.setExamId(1);
+		examService.setExamQuestionForm(form);
+		verify(mExamMapper, times(2)).getExamQuestionSet(eq(1), anyShort());
+	}
+
+	/**
+	 * Case.1_2 試験結果登録試験<br>
+	 * <br>
+	 * ■対象メソッド：insert()<br>
+	 * ■試験観点：<br>
+	 * 　・キャッシュした正答で採点されること<br>
+	 * 　・問題ごとの回答が問題IDとともに1回の一括登録で登録されること<br>
+	 * 　・未回答の問題は0で登録されること<br>
+	 *
+	 * */
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testCase1_2() {
+
+		ExamQuestionForm form = new ExamQuestionForm();
+		form.setExamId(1);
+		form.setExamSectionId(1);
+		form.setTime(60);
+		Short[] answer = new Short[QUESTION_NUM - 1];
+		for (int i = 0; i < answer.length; i++) {
+			// 偶数番目のみ正答
+			answer[i] = (short) (i % 2 == 0 ? i % 4 + 1 : (i + 1) % 4 + 1);
+		}
+		form.setAnswer(answer);
+		Integer examResultId = examService.insert(form);
+
+		ArgumentCaptor<TExamResult> resultCaptor = ArgumentCaptor.forClass(TExamResult.class);
+		verify(tExamResultMapper).insert(resultCaptor.capture());
+		assertEquals((short) (QUESTION_NUM / 2), resultCaptor.getValue().getScore());
+		assertEquals(examResultId, resultCaptor.getValue().getExamResultId());
+
+		verify(tExamResultDetailMapper, times(1)).insertBulk(detailCaptor.capture());
+		verify(tExamResultDetailMapper, never()).insert(any());
+		List<TExamResultDetail> detailList = detailCaptor.getValue();
+		assertEquals(QUESTION_NUM, detailList.size());
+		assertEquals(examResultId, detailList.get(1).getExamResultId());
+		assertEquals(1001, detailList.get(1).getQuestionId());
+		assertEquals(answer[1], detailList.get(1).getReply());
+		assertEquals((short) 0, detailList.get(QUESTION_NUM - 1).getReply());
+	}
+
+	/**
+	 * Case.1_3 試験結果登録試験(トランザクション)<br>
+	 * <br>
+	 * ■対象メソッド：insert()<br>
+	 * ■試験パラメータ：2回目は試験結果詳細の一括登録で例外発生<br>
+	 * ■試験観点：<br>
+	 * 　・試験結果登録・試験結果詳細一括登録が1つのトランザクション内で実行され、1回のみコミットされること<br>
+	 * 　・試験結果詳細の一括登録に失敗した場合はロールバックされ、コミットされないこと<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_3() {
+
+		List<TransactionStatus> statusList = new ArrayList<>();
+		when(transactionManager.getTransaction(any())).then(invocation -> {
+			TransactionStatus status = new SimpleTransactionStatus();
+			statusList.add(status);
+			return status;
+		});
+
+		ExamQuestionForm form = new ExamQuestionForm();
+		form.setExamId(1);
+		form.setExamSectionId(1);
+		form.setTime(60);
+		form.setAnswer(new Short[] { 1, 2, 3, 4 });
+		examService.insert(form);
+
+		assertEquals(1, statusList.size());
+		InOrder inOrder = inOrder(transactionManager, tExamResultMapper, tExamResultDetailMapper);
+		inOrder.verify(transactionManager).getTransaction(any());
+		inOrder.verify(tExamResultMapper).insert(any());
+		inOrder.verify(tExamResultDetailMapper).insertBulk(any());
+		inOrder.verify(transactionManager).commit(statusList.get(0));
+		verify(transactionManager, never()).rollback(any());
+
+		doThrow(new IllegalStateException()).when(tExamResultDetailMapper).insertBulk(any());
+		assertThrows(IllegalStateException.class, () -> examService.insert(form));
+		assertEquals(2, statusList.size());
+		verify(transactionManager, times(1)).commit(any());
+		verify(transactionManager, times(1)).rollback(statusList.get(1));
+	}
+
+	/**
+	 * Case.1_4 試験結果登録試験(遅延書込み)<br>
+	 * <br>
+	 * ■対象メソッド：insert()、getExamResultDetail()<br>
+	 * ■試験観点：<br>
+	 * 　・遅延書込みが有効な場合は採点済みの回答をジャーナルに渡し、DBへ登録しないこと<br>
+	 * 　・遅延書込みが有効な場合はトランザクションを開始しないこと<br>
+	 * 　・採点した問題セットの問題ID・バージョンがジャーナルに渡されること<br>
+	 * 　・未登録の試験結果詳細は受付内容と問題セットから生成されること<br>
+	 * 　・他のサーバーが受け付けた未登録の試験結果詳細はnullとなること<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_4() {
+
+		when(examWriteBehindService.isEnabled()).thenReturn(true);
+		ArgumentCaptor<ExamSubmissionDto> submissionCaptor = ArgumentCaptor.forClass(ExamSubmissionDto.class);
+		when(examWriteBehindService.submit(submissionCaptor.capture())).thenReturn(500);
+
+		ExamQuestionForm form = new ExamQuestionForm();
+		form.setExamId(1);
+		form.setExamSectionId(1);
+		form.setTime(60);
+		form.setAnswer(new Short[] { 1, 1 });
+		assertEquals(500, examService.insert(form));
+		verify(tExamResultMapper, never()).insert(any());
+		verify(tExamResultDetailMapper, never()).insertBulk(any());
+		verify(transactionManager, never()).getTransaction(any());
+
+		ExamSubmissionDto examSubmissionDto = submissionCaptor.getValue();
+		assertEquals((short) 1, examSubmissionDto.getScore());
+		assertEquals(100, examSubmissionDto.getLmsUserId());
+		assertEquals(QUESTION_NUM, examSubmissionDto.getQuestionIdArray().length);
+		assertEquals(1001, examSubmissionDto.getQuestionIdArray()[1]);
+		assertEquals("v1", examSubmissionDto.getQuestionSetVersion());
+		examSubmissionDto.setExamResultId(500);
+		when(examWriteBehindService.getPending(500)).thenReturn(examSubmissionDto);
+
+		ExamResultDetailDto examResultDetailDto = examService.getExamResultDetail(500);
+		verify(tExamResultMapper, never()).getExamResultDetail(any(), anyShort());
+		assertEquals("試験", examResultDetailDto.getExamName());
+		assertEquals(1, examResultDetailDto.getScore());
+		assertEquals(QUESTION_NUM, examResultDetailDto.getQuestionDtoList().size());
+		QuestionDto questionDto = examResultDetailDto.getQuestionDtoList().get(1);
+		assertEquals((short) 1, questionDto.getReply());
+		assertEquals((short) 2, questionDto.getAnswerNum());
+		assertNull(examResultDetailDto.getQuestionDtoList().get(2).getReply());
+
+		assertNull(examService.getExamResultDetail(501));
+	}
+
+}
@@ -0,0 +1,214 @@
+package jp.co.sss.lms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jp.co.sss.lms.dto.ExamQuestionSetDto;
+import jp.co.sss.lms.dto.ExamScoreCountDto;
+import jp.co.sss.lms.dto.ExamStatisticsDto;
+import jp.co.sss.lms.dto.ExamStatisticsSourceDto;
+import jp.co.sss.lms.entity.TExamResult;
+import jp.co.sss.lms.mapper.TExamResultMapper;
+
+/**
+ * 試験統計サービス試験<br>
+ * 試験統計の一括構築・試験結果登録時の加算を試験する。<br>
+ *
+ * */
+@SpringBootTest
+public class ExamStatisticsServiceTest {
+
+	/** 試験・セクション紐づけID */
+	private static final int EXAM_SECTION_ID = 10;
+	/** 試験ID */
+	private static final int EXAM_ID = 1;
+
+	@Mock
+	private TExamResultMapper tExamResultMapper;
+	@Mock
+	private ExamDefinitionService examDefinitionService;
+	@Mock
+	private ExamQuestionSetDto examQuestionSetDto;
+
+	@InjectMocks
+	private ExamStatisticsService examStatisticsService;
+
+	@BeforeEach
+	public void setup() {
+		MockitoAnnotations.openMocks(this);
+		when(examQuestionSetDto.getQuestionCount()).thenReturn(15);
+		when(examDefinitionService.getExamQuestionSet(EXAM_ID)).thenReturn(examQuestionSetDto);
+
+		// 得点7点×2件、得点10点×1件
+		stubSource(List.of(source(1, EXAM_SECTION_ID, (short) 7), source(2, EXAM_SECTION_ID, (short) 7),
+				source(3, EXAM_SECTION_ID, (short) 10), source(4, EXAM_SECTION_ID + 1, (short) 3)), null);
+		examStatisticsService.rebuild();
+	}
+
+	/**
+	 * Case.1_1 試験統計取得試験<br>
+	 * <br>
+	 * ■対象メソッド：rebuild()、getExamStatisticsDto()、toAveragePoint()<br>
+	 * ■試験観点：<br>
+	 * 　・件数・合計・2乗の合計・平均・標準偏差・得点ごとの件数・問題数が取得できること<br>
+	 * 　・平均点が100点満点に換算されること<br>
+	 * 　・受験者がいない場合は件数0、平均点nullとなること<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_1() {
+
+		ExamStatisticsDto examStatisticsDto = examStatisticsService
+				.getExamStatisticsDto(EXAM_SECTION_ID, EXAM_ID);
+		assertEquals(3L, examStatisticsDto.getAttemptCount());
+		assertEquals(24L, examStatisticsDto.getScoreSum());
+		assertEquals(198L, examStatisticsDto.getScoreSquareSum());
+		assertEquals(8.0, examStatisticsDto.getAverage());
+		assertEquals(Math.sqrt(2.0), examStatisticsDto.getStandardDeviation(), 1e-9);
+		assertEquals(2L, examStatisticsDto.getHistogram().get(7));
+		assertEquals(1L, examStatisticsDto.getHistogram().get(10));
+		assertEquals(15, examStatisticsDto.getNumOfQuestion());
+		assertEquals(53.3, examStatisticsService.toAveragePoint(examStatisticsDto));
+
+		ExamStatisticsDto emptyDto = examStatisticsService.getExamStatisticsDto(99, EXAM_ID);
+		assertEquals(0L, emptyDto.getAttemptCount());
+		assertNull(emptyDto.getAverage());
+		assertNull(examStatisticsService.toAveragePoint(emptyDto));
+	}
+
+	/**
+	 * Case.1_2 試験統計反映試験<br>
+	 * <br>
+	 * ■対象メソッド：update()<br>
+	 * ■試験観点：<br>
+	 * 　・採点対象の試験結果のみ加算されること<br>
+	 * 　・一括構築中に登録された試験結果が一括構築後も反映されていること<br>
+	 * 　・一括構築で読込み済みの試験結果は二重に加算されないこと<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_2() {
+
+		examStatisticsService.update(result(5, (short) 5, (short) 1));
+		examStatisticsService.update(result(6, (short) 15, (short) 0));
+
+		ExamStatisticsDto examStatisticsDto = examStatisticsService
+				.getExamStatisticsDto(EXAM_SECTION_ID, EXAM_ID);
+		assertEquals(4L, examStatisticsDto.getAttemptCount());
+		assertEquals(29L, examStatisticsDto.getScoreSum());
+		assertEquals(1L, examStatisticsDto.getHistogram().get(5));
+		assertEquals(11, examStatisticsDto.getHistogram().size());
+
+		// 一括構築中の登録(試験結果ID:8は構築時にも読込まれる)
+		stubSource(List.of(source(1, EXAM_SECTION_ID, (short) 7), source(8, EXAM_SECTION_ID, (short) 8)),
+				() -> {
+					examStatisticsService.update(result(8, (short) 8, (short) 1));
+					examStatisticsService.update(result(9, (short) 9, (short) 1));
+				});
+		examStatisticsService.rebuild();
+		examStatisticsDto = examStatisticsService.getExamStatisticsDto(EXAM_SECTION_ID, EXAM_ID);
+		assertEquals(3L, examStatisticsDto.getAttemptCount());
+		assertEquals(24L, examStatisticsDto.getScoreSum());
+	}
+
+	/**
+	 * Case.1_3 点数換算試験<br>
+	 * <br>
+	 * ■対象メソッド：toPoint()<br>
+	 * ■試験観点：<br>
+	 * 　・小数点第2位を四捨五入すること<br>
+	 * 　・問題数が不明な場合はnullとなること<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_3() {
+
+		assertEquals(66.7, examStatisticsService.toPoint((short) 2, 3));
+		assertEquals(100.0, examStatisticsService.toPoint((short) 15, 15));
+		assertEquals(0.0, examStatisticsService.toPoint((short) 0, 15));
+		assertNull(examStatisticsService.toPoint((short) 1, null));
+		assertNull(examStatisticsService.toPoint((short) 1, 0));
+	}
+
+	/**
+	 * Case.1_4 試験統計取得試験(一括構築前)<br>
+	 * <br>
+	 * ■対象メソッド：getExamStatisticsDto()<br>
+	 * ■試験観点：<br>
+	 * 　・一括構築が完了するまでは試験結果テーブルの得点別件数から統計を求めること<br>
+	 * 　・一括構築の完了後は得点別件数を取得しないこと<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_4() {
+
+		ExamStatisticsService coldService = new ExamStatisticsService();
+		ReflectionTestUtils.setField(coldService, "tExamResultMapper", tExamResultMapper);
+		ReflectionTestUtils.setField(coldService, "examDefinitionService", examDefinitionService);
+		when(tExamResultMapper.getExamScoreCount(eq(EXAM_SECTION_ID), anyShort()))
+				.thenReturn(List.of(scoreCount((short) 7, 2L), scoreCount((short) 10, 1L)));
+
+		ExamStatisticsDto examStatisticsDto = coldService.getExamStatisticsDto(EXAM_SECTION_ID, EXAM_ID);
+		assertEquals(3L, examStatisticsDto.getAttemptCount());
+		assertEquals(24L, examStatisticsDto.getScoreSum());
+		assertEquals(2L, examStatisticsDto.getHistogram().get(7));
+		assertEquals(53.3, coldService.toAveragePoint(examStatisticsDto));
+
+		coldService.rebuild();
+		assertEquals(examStatisticsDto, coldService.getExamStatisticsDto(EXAM_SECTION_ID, EXAM_ID));
+		verify(tExamResultMapper, times(1)).getExamScoreCount(any(), anyShort());
+	}
+
+	private void stubSource(List<ExamStatisticsSourceDto> sourceList, Runnable beforeRead) {
+		doAnswer(invocation -> {
+			if (beforeRead != null) {
+				beforeRead.run();
+			}
+			ResultHandler<ExamStatisticsSourceDto> resultHandler = invocation.getArgument(1);
+			DefaultResultContext<ExamStatisticsSourceDto> resultContext = new DefaultResultContext<>();
+			for (ExamStatisticsSourceDto source : sourceList) {
+				resultContext.nextResultObject(source);
+				resultHandler.handleResult(resultContext);
+			}
+			return null;
+		}).when(tExamResultMapper).findExamStatisticsSource(anyShort(), any());
+	}
+
+	private ExamStatisticsSourceDto source(int examResultId, int examSectionId, short score) {
+		ExamStatisticsSourceDto dto = new ExamStatisticsSourceDto();
+		dto.setExamResultId(examResultId);
+		dto.setExamSectionId(examSectionId);
+		dto.setScore(score);
+		return dto;
+	}
+
+	private ExamScoreCountDto scoreCount(short score, long count) {
+		ExamScoreCountDto dto = new ExamScoreCountDto();
+		dto.setScore(score);
+		dto.setCount(count);
+		return dto;
+	}
+
+	private TExamResult result(int examResultId, short score, short markFlg) {
+		TExamResult tExamResult = new TExamResult();
+		tExamResult.setExamResultId(examResultId);
+		tExamResult.setExamSectionId(EXAM_SECTION_ID);
+		tExamResult.setScore(score);
+		tExamResult.setMarkFlg(markFlg);
+		return tExamResult;
+	}
+
+}
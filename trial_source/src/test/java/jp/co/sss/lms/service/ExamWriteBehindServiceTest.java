@@ -0,0 +1,236 @@
+package jp.co.sss.lms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jp.co.sss.lms.dto.ExamSubmissionDto;
+import jp.co.sss.lms.mapper.TExamResultMapper;
+import net.arnx.jsonic.JSON;
+
+/**
+ * 試験結果遅延書込みサービス試験<br>
+ * ジャーナルへの追記・一括登録・起動時の再登録・登録できないジャーナルの隔離を試験する。<br>
+ *
+ * */
+@SpringBootTest
+public class ExamWriteBehindServiceTest {
+
+	@Mock
+	private TExamResultMapper tExamResultMapper;
+	@Mock
+	private ExamResultBatchService examResultBatchService;
+
+	@InjectMocks
+	private ExamWriteBehindService examWriteBehindService;
+
+	@TempDir
+	private Path dir;
+
+	/** 一括登録に渡された試験回答 */
+	private List<ExamSubmissionDto> insertedList;
+
+	@BeforeEach
+	public void setup() {
+		MockitoAnnotations.openMocks(this);
+		ReflectionTestUtils.setField(examWriteBehindService, "enabled", true);
+		ReflectionTestUtils.setField(examWriteBehindService, "dir", dir.toString());
+		ReflectionTestUtils.setField(examWriteBehindService, "batchSize", 2);
+		// 書込みスレッドは試験中に動かさない
+		ReflectionTestUtils.setField(examWriteBehindService, "intervalMillis", 3_600_000);
+		ReflectionTestUtils.setField(examWriteBehindService, "idBlockSize", 2);
+		ReflectionTestUtils.setField(examWriteBehindService, "maxRetry", 2);
+
+		when(tExamResultMapper.findNextExamResultIdList(2)).thenReturn(List.of(11, 12)).thenReturn(List.of(13, 14));
+		insertedList = new ArrayList<>();
+		when(examResultBatchService.insert(any(), eq(2))).then(invocation -> {
+			List<ExamSubmissionDto> list = invocation.getArgument(0);
+			insertedList.addAll(list);
+			return list.size();
+		});
+	}
+
+	@AfterEach
+	public void tearDown() {
+		examWriteBehindService.destroy();
+	}
+
+	/**
+	 * Case.1_1 回答受付・一括登録試験<br>
+	 * <br>
+	 * ■対象メソッド：submit()、drain()<br>
+	 * ■試験観点：<br>
+	 * 　・採番済みの試験結果IDが順に割り当てられること<br>
+	 * 　・受付時にジャーナルへ1件1行で記録され、登録まで未登録として参照できること<br>
+	 * 　・ジャーナルのセグメント単位で一括登録され、登録後にジャーナルが削除されること<br>
+	 * 　・DB停止で登録に失敗した場合は回数によらずジャーナルと未登録分が残り、次回に再登録されること<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_1() throws Exception {
+
+		examWriteBehindService.init();
+
+		assertEquals(11, examWriteBehindService.submit(submission(1, (short) 5)));
+		assertEquals(12, examWriteBehindService.submit(submission(2, (short) 6)));
+		assertEquals(13, examWriteBehindService.submit(submission(3, (short) 7)));
+		verify(tExamResultMapper, times(2)).findNextExamResultIdList(2);
+
+		List<String> lineList = readJournal();
+		assertEquals(3, lineList.size());
+		assertEquals(12, JSON.decode(lineList.get(1), ExamSubmissionDto.class).getExamResultId());
+		assertEquals((short) 7, examWriteBehindService.getPending(13).getScore());
+
+		// 登録失敗(隔離の上限回数を超えても隔離しない)
+		doThrow(new DataAccessResourceFailureException("DB停止")).when(examResultBatchService)
+				.insert(any(), eq(2));
+		examWriteBehindService.drain();
+		examWriteBehindService.drain();
+		examWriteBehindService.drain();
+		assertEquals(3, examWriteBehindService.getPendingCount());
+		assertEquals(3, readJournal().size());
+
+		// 再登録
+		doAnswer(invocation -> {
+			List<ExamSubmissionDto> list = invocation.getArgument(0);
+			insertedList.addAll(list);
+			return list.size();
+		}).when(examResultBatchService).insert(any(), eq(2));
+		examWriteBehindService.drain();
+		verify(examResultBatchService, times(4)).insert(any(), eq(2));
+		assertEquals(3, insertedList.size());
+		assertEquals(13, insertedList.get(2).getExamResultId());
+		assertEquals(0, examWriteBehindService.getPendingCount());
+		assertNull(examWriteBehindService.getPending(13));
+		assertEquals(0, readJournal().size());
+	}
+
+	/**
+	 * Case.1_2 起動時の再登録試験<br>
+	 * <br>
+	 * ■対象メソッド：init()<br>
+	 * ■試験観点：<br>
+	 * 　・残っているジャーナルの試験回答が未登録として読込まれ、登録されること<br>
+	 * 　・ジャーナルに記録した問題ID・問題セットのバージョンが読込まれること<br>
+	 * 　・書きかけの行は読み飛ばすこと<br>
+	 * 　・新しいジャーナルは残っていたジャーナルより後の番号となること<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_2() throws Exception {
+
+		ExamSubmissionDto first = submission(1, (short) 5);
+		first.setExamResultId(21);
+		ExamSubmissionDto second = submission(2, (short) 6);
+		second.setExamResultId(22);
+		String content = JSON.encode(first) + "\n" + JSON.encode(second) + "\n"
+				+ JSON.encode(submission(3, (short) 7)).substring(0, 20);
+		Path segment = dir.resolve("exam-0000000000000000005.journal");
+		Files.write(segment, content.getBytes(StandardCharsets.UTF_8));
+
+		examWriteBehindService.init();
+		assertEquals(2, examWriteBehindService.getPendingCount());
+		assertEquals((short) 5, examWriteBehindService.getPending(21).getScore());
+		examWriteBehindService.drain();
+
+		assertFalse(Files.exists(segment));
+		assertTrue(Files.exists(dir.resolve("exam-0000000000000000006.journal")));
+		assertEquals(2, insertedList.size());
+		assertEquals(22, insertedList.get(1).getExamResultId());
+		assertEquals((short) 6, insertedList.get(1).getScore());
+		assertArrayEquals(new Integer[] { 1000, 1001, 1002 }, insertedList.get(1).getQuestionIdArray());
+		assertEquals("v1", insertedList.get(1).getQuestionSetVersion());
+		assertEquals(0, examWriteBehindService.getPendingCount());
+	}
+
+	/**
+	 * Case.1_3 登録できないジャーナルの隔離試験<br>
+	 * <br>
+	 * ■対象メソッド：drain()<br>
+	 * ■試験観点：<br>
+	 * 　・DB停止以外の理由で上限回数登録に失敗したセグメントは隔離ディレクトリに移動すること<br>
+	 * 　・隔離したセグメントの試験回答は未登録から除かれること<br>
+	 * 　・隔離後は後続のセグメントが登録されること<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_3() throws Exception {
+
+		examWriteBehindService.init();
+		examWriteBehindService.submit(submission(1, (short) 5));
+
+		doThrow(new DataIntegrityViolationException("制約違反")).when(examResultBatchService)
+				.insert(any(), eq(2));
+		examWriteBehindService.drain();
+		assertEquals(1, examWriteBehindService.getPendingCount());
+		examWriteBehindService.submit(submission(2, (short) 6));
+		examWriteBehindService.drain();
+		assertEquals(1, examWriteBehindService.getPendingCount());
+		assertNull(examWriteBehindService.getPending(11));
+
+		List<Path> quarantineList;
+		try (Stream<Path> stream = Files.list(dir.resolve("quarantine"))) {
+			quarantineList = stream.toList();
+		}
+		assertEquals(1, quarantineList.size());
+		assertEquals(11, JSON.decode(Files.readAllLines(quarantineList.get(0)).get(0), ExamSubmissionDto.class)
+				.getExamResultId());
+
+		// 後続のセグメントの登録
+		doAnswer(invocation -> {
+			List<ExamSubmissionDto> list = invocation.getArgument(0);
+			insertedList.addAll(list);
+			return list.size();
+		}).when(examResultBatchService).insert(any(), eq(2));
+		examWriteBehindService.drain();
+		assertEquals(1, insertedList.size());
+		assertEquals(12, insertedList.get(0).getExamResultId());
+		assertEquals(0, examWriteBehindService.getPendingCount());
+	}
+
+	private List<String> readJournal() throws Exception {
+		List<String> lineList = new ArrayList<>();
+		try (Stream<Path> stream = Files.list(dir)) {
+			for (Path path : stream.filter(Files::isRegularFile).sorted().toList()) {
+				lineList.addAll(Files.readAllLines(path, StandardCharsets.UTF_8));
+			}
+		}
+		return lineList;
+	}
+
+	private ExamSubmissionDto submission(int lmsUserId, short score) {
+		ExamSubmissionDto examSubmissionDto = new ExamSubmissionDto();
+		examSubmissionDto.setExamId(1);
+		examSubmissionDto.setExamSectionId(1);
+		examSubmissionDto.setLmsUserId(lmsUserId);
+		examSubmissionDto.setAccountId(1);
+		examSubmissionDto.setScore(score);
+		examSubmissionDto.setTime(60);
+		examSubmissionDto.setAnswer(new Short[] { 1, null, 3 });
+		examSubmissionDto.setQuestionIdArray(new Integer[] { 1000, 1001, 1002 });
+		examSubmissionDto.setQuestionSetVersion("v1");
+		examSubmissionDto.setSubmitDate(new Date());
+		return examSubmissionDto;
+	}
+
+}
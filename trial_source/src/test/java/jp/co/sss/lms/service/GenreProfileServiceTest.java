@@ -0,0 +1,231 @@
+package jp.co.sss.lms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jp.co.sss.lms.dto.ExamQuestionDto;
+import jp.co.sss.lms.dto.ExamQuestionSetDto;
+import jp.co.sss.lms.dto.GenreDetailDto;
+import jp.co.sss.lms.dto.GenreProfileDto;
+import jp.co.sss.lms.dto.GenreProfileSourceDto;
+import jp.co.sss.lms.dto.GenreWeaknessDto;
+import jp.co.sss.lms.dto.QuestionDto;
+import jp.co.sss.lms.entity.TExamResult;
+import jp.co.sss.lms.mapper.MGenreDetailMapper;
+import jp.co.sss.lms.mapper.TCourseUserMapper;
+import jp.co.sss.lms.mapper.TExamResultDetailMapper;
+
+/**
+ * ジャンル別苦手傾向サービス試験<br>
+ * ジャンル詳細別の正答状況の一括構築・試験結果登録時の加算・苦手ジャンルの抽出を試験する。<br>
+ *
+ * */
+@SpringBootTest
+public class GenreProfileServiceTest {
+
+	/** 受講生A */
+	private static final int USER_A = 1;
+	/** 受講生B */
+	private static final int USER_B = 2;
+	/** コースID */
+	private static final int COURSE_ID = 10;
+	/** アカウントID */
+	private static final int ACCOUNT_ID = 1;
+
+	@Mock
+	private TExamResultDetailMapper tExamResultDetailMapper;
+	@Mock
+	private MGenreDetailMapper mGenreDetailMapper;
+	@Mock
+	private TCourseUserMapper tCourseUserMapper;
+
+	@InjectMocks
+	private GenreProfileService genreProfileService;
+
+	@BeforeEach
+	public void setup() {
+		MockitoAnnotations.openMocks(this);
+		ReflectionTestUtils.setField(genreProfileService, "weaknessMax", 2);
+		ReflectionTestUtils.setField(genreProfileService, "weaknessMinCount", 3);
+		ReflectionTestUtils.setField(genreProfileService, "revalidateSecond", 60);
+
+		when(tCourseUserMapper.findCourseId(anyInt(), eq(ACCOUNT_ID), anyShort())).thenReturn(COURSE_ID);
+		when(mGenreDetailMapper.findGenreDetailDtoList(anyShort())).thenReturn(
+				List.of(genreDetail(101, "Java基礎"), genreDetail(102, "SQL"), genreDetail(103, "HTML")));
+
+		// 受講生A：101は1/4、102は3/4、103は0/2
+		// 受講生B：101は3/3、102は0/3
+		List<GenreProfileSourceDto> sourceList = new ArrayList<>();
+		addSource(sourceList, 1, USER_A, 101, 1, 0, 0, 0);
+		addSource(sourceList, 1, USER_A, 102, 1, 1, 1, 0);
+		addSource(sourceList, 2, USER_A, 103, 0, 0);
+		addSource(sourceList, 3, USER_B, 101, 1, 1, 1);
+		addSource(sourceList, 3, USER_B, 102, 0, 0, 0);
+		stubSource(sourceList, null);
+		genreProfileService.rebuild();
+	}
+
+	/**
+	 * Case.1_1 苦手ジャンル取得試験<br>
+	 * <br>
+	 * ■対象メソッド：rebuild()、getGenreProfileDto()<br>
+	 * ■試験観点：<br>
+	 * 　・受講生・所属コースごとに正答率の低い順に取得できること<br>
+	 * 　・回答数が最低回答数未満のジャンル詳細は除かれること<br>
+	 * 　・取得件数が上限までとなること<br>
+	 * 　・ジャンル名・ジャンル詳細名が設定されること<br>
+	 * 　・他の企業アカウントからは受講生・コースの正答状況を取得できないこと<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_1() {
+
+		GenreProfileDto genreProfileDto = genreProfileService.getGenreProfileDto(USER_A, ACCOUNT_ID);
+		assertEquals(COURSE_ID, genreProfileDto.getCourseId());
+
+		List<GenreWeaknessDto> userList = genreProfileDto.getUserWeaknessList();
+		assertEquals(2, userList.size());
+		assertEquals(101, userList.get(0).getGenreDetailId());
+		assertEquals(1L, userList.get(0).getCorrectCount());
+		assertEquals(4L, userList.get(0).getTotalCount());
+		assertEquals(0.25, userList.get(0).getCorrectRate(), 1e-9);
+		assertEquals("Java基礎", userList.get(0).getGenreDetailName());
+		assertEquals(1, userList.get(0).getGenreId());
+		assertEquals(102, userList.get(1).getGenreDetailId());
+
+		// コース全体：101は4/7、102は3/7、103は0/2
+		List<GenreWeaknessDto> courseList = genreProfileDto.getCourseWeaknessList();
+		assertEquals(2, courseList.size());
+		assertEquals(102, courseList.get(0).getGenreDetailId());
+		assertEquals(7L, courseList.get(0).getTotalCount());
+		assertEquals(101, courseList.get(1).getGenreDetailId());
+
+		assertTrue(genreProfileService.getGenreProfileDto(99, ACCOUNT_ID).getUserWeaknessList().isEmpty());
+
+		when(tCourseUserMapper.findCourseId(anyInt(), eq(ACCOUNT_ID + 1), anyShort())).thenReturn(null);
+		GenreProfileDto otherAccountDto = genreProfileService.getGenreProfileDto(USER_A, ACCOUNT_ID + 1);
+		assertNull(otherAccountDto.getCourseId());
+		assertTrue(otherAccountDto.getUserWeaknessList().isEmpty());
+		assertTrue(otherAccountDto.getCourseWeaknessList().isEmpty());
+	}
+
+	/**
+	 * Case.1_2 正答状況反映試験<br>
+	 * <br>
+	 * ■対象メソッド：update()<br>
+	 * ■試験観点：<br>
+	 * 　・採点対象の試験結果のみ加算されること<br>
+	 * 　・一括構築中に登録された試験結果が一括構築後も反映されていること<br>
+	 * 　・一括構築で読込み済みの試験結果は二重に加算されないこと<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_2() {
+
+		// 問題1(103)正答、問題2(103)誤答
+		ExamQuestionSetDto examQuestionSetDto = questionSet();
+		genreProfileService.update(result(4, USER_A, (short) 1), examQuestionSetDto, new Short[] { 1, 1 });
+		genreProfileService.update(result(5, USER_A, (short) 0), examQuestionSetDto, new Short[] { 1, 1 });
+
+		List<GenreWeaknessDto> userList = genreProfileService.getGenreProfileDto(USER_A, ACCOUNT_ID)
+				.getUserWeaknessList();
+		assertEquals(103, userList.get(1).getGenreDetailId());
+		assertEquals(1L, userList.get(1).getCorrectCount());
+		assertEquals(4L, userList.get(1).getTotalCount());
+
+		// 一括構築中の登録(試験結果ID:6は構築時にも読込まれる)
+		List<GenreProfileSourceDto> sourceList = new ArrayList<>();
+		addSource(sourceList, 6, USER_A, 103, 1, 0);
+		stubSource(sourceList, () -> {
+			genreProfileService.update(result(6, USER_A, (short) 1), examQuestionSetDto,
+					new Short[] { 1, 1 });
+			genreProfileService.update(result(7, USER_A, (short) 1), examQuestionSetDto,
+					new Short[] { 2, 2 });
+		});
+		genreProfileService.rebuild();
+		userList = genreProfileService.getGenreProfileDto(USER_A, ACCOUNT_ID).getUserWeaknessList();
+		assertEquals(1, userList.size());
+		assertEquals(103, userList.get(0).getGenreDetailId());
+		assertEquals(2L, userList.get(0).getCorrectCount());
+		assertEquals(4L, userList.get(0).getTotalCount());
+	}
+
+	private void stubSource(List<GenreProfileSourceDto> sourceList, Runnable beforeRead) {
+		doAnswer(invocation -> {
+			if (beforeRead != null) {
+				beforeRead.run();
+			}
+			ResultHandler<GenreProfileSourceDto> resultHandler = invocation.getArgument(1);
+			DefaultResultContext<GenreProfileSourceDto> resultContext = new DefaultResultContext<>();
+			for (GenreProfileSourceDto source : sourceList) {
+				resultContext.nextResultObject(source);
+				resultHandler.handleResult(resultContext);
+			}
+			return null;
+		}).when(tExamResultDetailMapper).findGenreProfileSource(anyShort(), any());
+	}
+
+	private void addSource(List<GenreProfileSourceDto> sourceList, int examResultId, int lmsUserId,
+			int genreDetailId, int... correctFlgs) {
+		for (int correctFlg : correctFlgs) {
+			GenreProfileSourceDto dto = new GenreProfileSourceDto();
+			dto.setExamResultId(examResultId);
+			dto.setLmsUserId(lmsUserId);
+			dto.setAccountId(ACCOUNT_ID);
+			dto.setCourseId(COURSE_ID);
+			dto.setGenreDetailId(genreDetailId);
+			dto.setCorrectFlg((short) correctFlg);
+			sourceList.add(dto);
+		}
+	}
+
+	private GenreDetailDto genreDetail(int genreDetailId, String genreDetailName) {
+		GenreDetailDto dto = new GenreDetailDto();
+		dto.setGenreId(1);
+		dto.setGenreName("プログラミング");
+		dto.setGenreDetailId(genreDetailId);
+		dto.setGenreDetailName(genreDetailName);
+		return dto;
+	}
+
+	private ExamQuestionSetDto questionSet() {
+		ExamQuestionDto examQuestionDto = new ExamQuestionDto();
+		examQuestionDto.setExamId(1);
+		examQuestionDto.setExamName("試験");
+		List<QuestionDto> questionDtoList = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			QuestionDto questionDto = new QuestionDto();
+			questionDto.setQuestionId(201 + i);
+			questionDto.setQuestion("問題" + (i + 1));
+			questionDto.setAnswerNum((short) (i + 1));
+			questionDto.setGenreDetailId(103);
+			questionDtoList.add(questionDto);
+		}
+		examQuestionDto.setQuestionDtoList(questionDtoList);
+		return new ExamQuestionSetDto(examQuestionDto, "v1");
+	}
+
+	private TExamResult result(int examResultId, int lmsUserId, short markFlg) {
+		TExamResult tExamResult = new TExamResult();
+		tExamResult.setExamResultId(examResultId);
+		tExamResult.setLmsUserId(lmsUserId);
+		tExamResult.setAccountId(ACCOUNT_ID);
+		tExamResult.setMarkFlg(markFlg);
+		return tExamResult;
+	}
+
+}
@@ -0,0 +1,111 @@
+package jp.co.sss.lms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jp.co.sss.lms.dto.InfoDto;
+import jp.co.sss.lms.entity.TInfo;
+import jp.co.sss.lms.mapper.TInfoMapper;
+
+/**
+ * お知らせ情報サービス試験<br>
+ * 最新のお知らせのキャッシュ・ETagによる更新確認を試験する。<br>
+ *
+ * */
+@SpringBootTest
+public class InfoServiceTest {
+
+	@Mock
+	private TInfoMapper tInfoMapper;
+
+	@InjectMocks
+	private InfoService infoService;
+
+	@BeforeEach
+	public void setup() {
+		MockitoAnnotations.openMocks(this);
+		ReflectionTestUtils.setField(infoService, "revalidateSecond", 0);
+		when(tInfoMapper.getInfoVersion()).thenReturn("v1");
+		when(tInfoMapper.findBySingleResult()).then(invocation -> info("メンテナンスのお知らせ"));
+	}
+
+	/**
+	 * Case.1_1 お知らせ情報取得試験<br>
+	 * <br>
+	 * ■対象メソッド：getInfo()<br>
+	 * ■試験観点：<br>
+	 * 　・お知らせの読込みは1回のみで、以降はバージョン確認のみとなること<br>
+	 * 　・バージョンが変わった場合・キャッシュを破棄した場合は再読込みすること<br>
+	 * 　・お知らせが存在しない場合は空のお知らせ情報となること<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_1() {
+
+		InfoDto first = infoService.getInfo();
+		assertEquals("メンテナンスのお知らせ", first.getContent());
+		assertSame(first, infoService.getInfo());
+		verify(tInfoMapper, times(1)).findBySingleResult();
+
+		when(tInfoMapper.getInfoVersion()).thenReturn("v2");
+		assertNotSame(first, infoService.getInfo());
+		verify(tInfoMapper, times(2)).findBySingleResult();
+
+		ReflectionTestUtils.setField(infoService, "revalidateSecond", 60);
+		when(tInfoMapper.findBySingleResult()).thenReturn(null);
+		infoService.invalidate();
+		assertNull(infoService.getInfo().getContent());
+	}
+
+	/**
+	 * Case.1_2 お知らせ情報取得(JSON)試験<br>
+	 * <br>
+	 * ■対象メソッド：getInfoJson()<br>
+	 * ■試験観点：<br>
+	 * 　・JSONとETagが返却されること<br>
+	 * 　・同じETag(弱いETagを含む)を保持している場合は304となりJSONを返却しないこと<br>
+	 * 　・お知らせが変わった場合はETagが変わること<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_2() {
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		String json = infoService.getInfoJson(new MockHttpServletRequest(), response);
+		assertTrue(json.contains("メンテナンスのお知らせ"));
+		String eTag = response.getHeader(HttpHeaders.ETAG);
+		assertTrue(eTag.startsWith("\""));
+		assertEquals("private, no-cache", response.getHeader(HttpHeaders.CACHE_CONTROL));
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/info");
+		request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + eTag);
+		response = new MockHttpServletResponse();
+		assertNull(infoService.getInfoJson(request, response));
+		assertEquals(304, response.getStatus());
+
+		when(tInfoMapper.getInfoVersion()).thenReturn("v2");
+		when(tInfoMapper.findBySingleResult()).then(invocation -> info("休講のお知らせ"));
+		response = new MockHttpServletResponse();
+		assertTrue(infoService.getInfoJson(request, response).contains("休講のお知らせ"));
+		assertNotEquals(eTag, response.getHeader(HttpHeaders.ETAG));
+	}
+
+	private TInfo info(String content) {
+		TInfo tInfo = new TInfo();
+		tInfo.setInfoId(1);
+		tInfo.setContent(content);
+		return tInfo;
+	}
+
+}
@@ -0,0 +1,234 @@
+package jp.co.sss.lms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jp.co.sss.lms.dto.IntelligibilityRollupDto;
+import jp.co.sss.lms.dto.IntelligibilitySourceDto;
+import jp.co.sss.lms.dto.LoginUserDto;
+import jp.co.sss.lms.entity.TDailyReportSubmit;
+import jp.co.sss.lms.entity.TIntelligibility;
+import jp.co.sss.lms.form.IntelligibilityRollupForm;
+import jp.co.sss.lms.mapper.TIntelligibilityMapper;
+import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.DateUtil;
+
+/**
+ * 理解度集計サービス試験<br>
+ * 理解度集計の一括構築・レポート登録時の差分反映・構築中の登録の再適用を試験する。<br>
+ *
+ * */
+@SpringBootTest
+public class IntelligibilityRollupServiceTest {
+
+	/** 企業アカウントID */
+	private static final int ACCOUNT_ID = 1;
+	/** コースID */
+	private static final int COURSE_ID = 10;
+	/** 日報提出の最終更新日時 */
+	private static final Date LAST_MODIFIED = new Date(1711929600000L);
+
+	@Autowired
+	private DateUtil dateUtil;
+
+	@Mock
+	private TIntelligibilityMapper tIntelligibilityMapper;
+
+	@InjectMocks
+	private IntelligibilityRollupService intelligibilityRollupService;
+
+	@BeforeEach
+	public void setup() throws Exception {
+		MockitoAnnotations.openMocks(this);
+		LoginUserDto loginUserDto = new LoginUserDto();
+		loginUserDto.setAccountId(ACCOUNT_ID);
+		ReflectionTestUtils.setField(intelligibilityRollupService, "loginUserDto", loginUserDto);
+		ReflectionTestUtils.setField(intelligibilityRollupService, "dateUtil", dateUtil);
+
+		// 受講生2名 × 2日 × 理解度2項目
+		List<IntelligibilitySourceDto> sourceList = new ArrayList<>();
+		sourceList.add(source(1, 100, "2024/4/1", 1, (short) 5));
+		sourceList.add(source(1, 100, "2024/4/1", 2, (short) 3));
+		sourceList.add(source(2, 101, "2024/4/1", 1, (short) 4));
+		sourceList.add(source(2, 101, "2024/4/1", 2, (short) 1));
+		sourceList.add(source(3, 100, "2024/4/2", 1, (short) 2));
+		sourceList.add(source(3, 100, "2024/4/2", 2, (short) 2));
+		sourceList.add(source(4, 101, "2024/4/2", 1, (short) 3));
+		sourceList.add(source(4, 101, "2024/4/2", 2, (short) 5));
+		doAnswer(invocation -> {
+			ResultHandler<IntelligibilitySourceDto> resultHandler = invocation.getArgument(1);
+			DefaultResultContext<IntelligibilitySourceDto> resultContext = new DefaultResultContext<>();
+			for (IntelligibilitySourceDto source : sourceList) {
+				resultContext.nextResultObject(source);
+				resultHandler.handleResult(resultContext);
+			}
+			return null;
+		}).when(tIntelligibilityMapper).findIntelligibilitySource(anyShort(), any());
+
+		intelligibilityRollupService.rebuild();
+	}
+
+	/**
+	 * Case.1_1 理解度集計取得試験(コース・日付・項目ごと)<br>
+	 * <br>
+	 * ■対象メソッド：rebuild()、getIntelligibilityRollupDtoList()<br>
+	 * ■試験観点：<br>
+	 * 　・日付・項目ごとの件数・合計・平均・理解度ごとの件数が集計されていること<br>
+	 * 　・日付の範囲で絞り込めること<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_1() throws Exception {
+
+		List<IntelligibilityRollupDto> list = getRollup(null, "2024/4/1", "2024/4/2");
+		assertEquals(4, list.size());
+		IntelligibilityRollupDto first = list.get(0);
+		assertEquals(1, first.getFieldNum());
+		assertEquals("理解度1", first.getFieldName());
+		assertEquals(2L, first.getCount());
+		assertEquals(9L, first.getSum());
+		assertEquals(4.5, first.getAverage());
+		assertEquals(1L, first.getHistogram().get(4));
+		assertEquals(1L, first.getHistogram().get(5));
+
+		assertEquals(2, getRollup(null, "2024/4/2", null).size());
+		assertEquals(0, getRollup(null, "2024/4/3", null).size());
+	}
+
+	/**
+	 * Case.1_2 理解度集計反映試験<br>
+	 * <br>
+	 * ■対象メソッド：update()<br>
+	 * ■試験観点：<br>
+	 * 　・再提出では提出前の値が差し引かれ、提出後の値のみが集計されること<br>
+	 * 　・新規提出が加算されること<br>
+	 * 　・受講生・項目ごとの集計にも反映されること<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_2() throws Exception {
+
+		intelligibilityRollupService.update(submit(1, 100, "2024/4/1"), COURSE_ID,
+				List.of(intelligibility(1, 1, (short) 5), intelligibility(1, 2, (short) 3)),
+				new String[] { "理解度1", "理解度2" }, new Short[] { 1, 3 });
+		intelligibilityRollupService.update(submit(5, 102, "2024/4/1"), COURSE_ID, new ArrayList<>(),
+				new String[] { "理解度1", "理解度2" }, new Short[] { 2, 2 });
+
+		IntelligibilityRollupDto first = getRollup(null, "2024/4/1", "2024/4/1").get(0);
+		assertEquals(3L, first.getCount());
+		assertEquals(7L, first.getSum());
+		assertEquals(0L, first.getHistogram().get(5));
+		assertEquals(1L, first.getHistogram().get(1));
+
+		List<IntelligibilityRollupDto> userList = getRollup(100, null, null);
+		assertEquals(2, userList.size());
+		assertEquals(2L, userList.get(0).getCount());
+		assertEquals(3L, userList.get(0).getSum());
+		assertEquals(5L, userList.get(1).getSum());
+	}
+
+	/**
+	 * Case.1_3 理解度集計構築試験(構築中のレポート登録)<br>
+	 * <br>
+	 * ■対象メソッド：rebuild()、update()<br>
+	 * ■試験観点：<br>
+	 * 　・構築で読込んだ内容より新しい登録は、構築後の集計に再適用されること<br>
+	 * 　・構築で読込み済みの登録(最終更新日時が同じもの)は二重に加算されないこと<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_3() throws Exception {
+
+		List<IntelligibilitySourceDto> sourceList = new ArrayList<>();
+		sourceList.add(source(1, 100, "2024/4/1", 1, (short) 5));
+		sourceList.add(source(2, 101, "2024/4/1", 1, (short) 4));
+		doAnswer(invocation -> {
+			ResultHandler<IntelligibilitySourceDto> resultHandler = invocation.getArgument(1);
+			DefaultResultContext<IntelligibilitySourceDto> resultContext = new DefaultResultContext<>();
+			resultContext.nextResultObject(sourceList.get(0));
+			resultHandler.handleResult(resultContext);
+			// 読込み中に提出1(読込み済みより新しい)・提出2(読込み済みと同じ)が登録された
+			TDailyReportSubmit newer = submit(1, 100, "2024/4/1");
+			newer.setLastModifiedDate(new Date(LAST_MODIFIED.getTime() + 1000));
+			intelligibilityRollupService.update(newer, COURSE_ID, List.of(intelligibility(1, 1, (short) 5)),
+					new String[] { "理解度1" }, new Short[] { 1 });
+			intelligibilityRollupService.update(submit(2, 101, "2024/4/1"), COURSE_ID, new ArrayList<>(),
+					new String[] { "理解度1" }, new Short[] { 4 });
+			resultContext.nextResultObject(sourceList.get(1));
+			resultHandler.handleResult(resultContext);
+			return null;
+		}).when(tIntelligibilityMapper).findIntelligibilitySource(anyShort(), any());
+
+		assertTrue(intelligibilityRollupService.rebuild());
+
+		IntelligibilityRollupDto first = getRollup(null, "2024/4/1", "2024/4/1").get(0);
+		assertEquals(2L, first.getCount());
+		assertEquals(5L, first.getSum());
+		assertEquals(0L, first.getHistogram().get(5));
+		assertEquals(1L, first.getHistogram().get(1));
+		assertEquals(1L, first.getHistogram().get(4));
+	}
+
+	private List<IntelligibilityRollupDto> getRollup(Integer lmsUserId, String dateFrom, String dateTo)
+			throws Exception {
+		IntelligibilityRollupForm form = new IntelligibilityRollupForm();
+		form.setCourseId(COURSE_ID);
+		form.setLmsUserId(lmsUserId);
+		form.setDateFrom(dateFrom);
+		form.setDateTo(dateTo);
+		return intelligibilityRollupService.getIntelligibilityRollupDtoList(form);
+	}
+
+	private IntelligibilitySourceDto source(int dailyReportSubmitId, int lmsUserId, String date,
+			int fieldNum, short fieldValue) throws Exception {
+		IntelligibilitySourceDto dto = new IntelligibilitySourceDto();
+		dto.setDailyReportSubmitId(dailyReportSubmitId);
+		dto.setLmsUserId(lmsUserId);
+		dto.setAccountId(ACCOUNT_ID);
+		dto.setCourseId(COURSE_ID);
+		dto.setDate(dateUtil.parse(date));
+		dto.setLastModifiedDate(LAST_MODIFIED);
+		dto.setFieldNum(fieldNum);
+		dto.setFieldName("理解度" + fieldNum);
+		dto.setFieldValue(fieldValue);
+		return dto;
+	}
+
+	private TDailyReportSubmit submit(int dailyReportSubmitId, int lmsUserId, String date)
+			throws Exception {
+		TDailyReportSubmit entity = new TDailyReportSubmit();
+		entity.setDailyReportSubmitId(dailyReportSubmitId);
+		entity.setLmsUserId(lmsUserId);
+		entity.setAccountId(ACCOUNT_ID);
+		entity.setDate(dateUtil.parse(date));
+		entity.setLastModifiedDate(LAST_MODIFIED);
+		return entity;
+	}
+
+	private TIntelligibility intelligibility(int dailyReportSubmitId, int fieldNum, short fieldValue) {
+		TIntelligibility entity = new TIntelligibility();
+		entity.setDailyReportSubmitId(dailyReportSubmitId);
+		entity.setFieldNum(fieldNum);
+		entity.setFieldName("理解度" + fieldNum);
+		entity.setFieldValue(fieldValue);
+		entity.setDeleteFlg(Constants.DB_FLG_FALSE);
+		return entity;
+	}
+
+}
@@ -0,0 +1,216 @@
+package jp.co.sss.lms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jp.co.sss.lms.dto.ExamQuestionDto;
+import jp.co.sss.lms.dto.ExamQuestionSetDto;
+import jp.co.sss.lms.dto.ItemAnalysisDto;
+import jp.co.sss.lms.dto.ItemAnalysisSourceDto;
+import jp.co.sss.lms.dto.QuestionDto;
+import jp.co.sss.lms.entity.TExamResult;
+import jp.co.sss.lms.mapper.MExamMapper;
+import jp.co.sss.lms.mapper.TExamResultDetailMapper;
+import jp.co.sss.lms.util.IncrementalAggregateUtil;
+import jp.co.sss.lms.util.ParallelQueryUtil;
+
+/**
+ * 項目分析サービス試験<br>
+ * 問題ごとの正答率・識別指数・選択肢ごとの回答数の構築・反映を試験する。<br>
+ *
+ * */
+@SpringBootTest
+public class ItemAnalysisServiceTest {
+
+	/** 試験ID */
+	private static final int EXAM_ID = 1;
+	/** 正答(問題4は上位者ほど誤答する問題) */
+	private static final short[] ANSWER_KEY = { 1, 2, 3, 4 };
+
+	@Mock
+	private MExamMapper mExamMapper;
+	@Mock
+	private TExamResultDetailMapper tExamResultDetailMapper;
+	@Mock
+	private ExamDefinitionService examDefinitionService;
+	@Mock
+	private IncrementalAggregateUtil incrementalAggregateUtil;
+
+	@InjectMocks
+	private ItemAnalysisService itemAnalysisService;
+
+	private ParallelQueryUtil parallelQueryUtil;
+
+	@BeforeEach
+	public void setup() {
+		MockitoAnnotations.openMocks(this);
+		parallelQueryUtil = new ParallelQueryUtil();
+		ReflectionTestUtils.setField(parallelQueryUtil, "parallelMax", 2);
+		parallelQueryUtil.init();
+		ReflectionTestUtils.setField(itemAnalysisService, "parallelQueryUtil", parallelQueryUtil);
+		ReflectionTestUtils.setField(itemAnalysisService, "difficultyMax", 0.9);
+		ReflectionTestUtils.setField(itemAnalysisService, "difficultyMin", 0.2);
+		ReflectionTestUtils.setField(itemAnalysisService, "discriminationMin", 0.2);
+		itemAnalysisService.init();
+
+		when(examDefinitionService.getExamQuestionSet(EXAM_ID)).thenReturn(questionSet("v1"));
+		when(mExamMapper.findExamIdList(anyShort())).thenReturn(List.of(EXAM_ID));
+
+		// 得点3点×3名、2点×3名、1点×2名、0点×2名
+		List<ItemAnalysisSourceDto> sourceList = new ArrayList<>();
+		int examResultId = 0;
+		for (int i = 0; i < 3; i++) {
+			addSource(sourceList, ++examResultId, 1, 2, 3, 1);
+		}
+		for (int i = 0; i < 3; i++) {
+			addSource(sourceList, ++examResultId, 1, 2, 0, 1);
+		}
+		for (int i = 0; i < 2; i++) {
+			addSource(sourceList, ++examResultId, 0, 0, 0, 4);
+		}
+		for (int i = 0; i < 2; i++) {
+			addSource(sourceList, ++examResultId, 0, 0, 0, 0);
+		}
+		doAnswer(invocation -> {
+			ResultHandler<ItemAnalysisSourceDto> resultHandler = invocation.getArgument(2);
+			DefaultResultContext<ItemAnalysisSourceDto> resultContext = new DefaultResultContext<>();
+			for (ItemAnalysisSourceDto source : sourceList) {
+				resultContext.nextResultObject(source);
+				resultHandler.handleResult(resultContext);
+			}
+			return null;
+		}).when(tExamResultDetailMapper).findItemAnalysisSource(eq(EXAM_ID), anyShort(), any());
+
+		itemAnalysisService.rebuildAll();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		parallelQueryUtil.destroy();
+	}
+
+	/**
+	 * Case.1_1 項目分析取得試験<br>
+	 * <br>
+	 * ■対象メソッド：rebuildAll()、getItemAnalysisDtoList()<br>
+	 * ■試験観点：<br>
+	 * 　・問題ごとの正答率・選択肢ごとの回答数が取得できること<br>
+	 * 　・上位27%・下位27%の正答率の差が識別指数となること(境界の得点は按分)<br>
+	 * 　・上位者ほど誤答する問題は識別指数・点双列相関係数が負となること<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_1() {
+
+		List<ItemAnalysisDto> list = itemAnalysisService.getItemAnalysisDtoList(EXAM_ID);
+		assertEquals(4, list.size());
+
+		ItemAnalysisDto first = list.get(0);
+		assertEquals(1, first.getQuestionNum());
+		assertEquals(101, first.getQuestionId());
+		assertEquals((short) 1, first.getAnswerNum());
+		assertEquals(10L, first.getAttemptCount());
+		assertEquals(6L, first.getCorrectCount());
+		assertEquals(0.6, first.getDifficulty(), 1e-9);
+		assertEquals(1.0, first.getDiscrimination(), 1e-9);
+		assertTrue(first.getPointBiserial() > 0);
+		assertFalse(first.isTooEasy() || first.isTooHard() || first.isLowDiscrimination());
+
+		ItemAnalysisDto fourth = list.get(3);
+		assertEquals(0.2, fourth.getDifficulty(), 1e-9);
+		assertEquals(-0.7 / 2.7, fourth.getDiscrimination(), 1e-9);
+		assertTrue(fourth.getPointBiserial() < 0);
+		assertEquals(List.of(2L, 6L, 0L, 0L, 2L), fourth.getChoiceCountList());
+		assertTrue(fourth.isTooHard());
+		assertTrue(fourth.isLowDiscrimination());
+		assertTrue(fourth.isNegativeDiscrimination());
+	}
+
+	/**
+	 * Case.1_2 項目分析反映試験<br>
+	 * <br>
+	 * ■対象メソッド：update()<br>
+	 * ■試験観点：<br>
+	 * 　・採点対象の試験結果のみ加算されること<br>
+	 * 　・問題セットが変更された場合は要求元のスレッドで構築せず、再構築を1回のみ予約すること<br>
+	 * 　・再構築の完了後は変更後の問題セットの項目分析を返すこと<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_2() {
+
+		ExamQuestionSetDto examQuestionSetDto = questionSet("v1");
+		itemAnalysisService.update(result(11, (short) 1), examQuestionSetDto,
+				new Short[] { 1, 2, 3, 4 });
+		itemAnalysisService.update(result(12, (short) 0), examQuestionSetDto,
+				new Short[] { 1, 2, 3, 4 });
+
+		ItemAnalysisDto fourth = itemAnalysisService.getItemAnalysisDtoList(EXAM_ID).get(3);
+		assertEquals(11L, fourth.getAttemptCount());
+		assertEquals(3L, fourth.getCorrectCount());
+		verify(tExamResultDetailMapper, times(1)).findItemAnalysisSource(eq(EXAM_ID), anyShort(), any());
+
+		when(examDefinitionService.getExamQuestionSet(EXAM_ID)).thenReturn(questionSet("v2"));
+		assertEquals(11L, itemAnalysisService.getItemAnalysisDtoList(EXAM_ID).get(3).getAttemptCount());
+		assertEquals(11L, itemAnalysisService.getItemAnalysisDtoList(EXAM_ID).get(3).getAttemptCount());
+		verify(tExamResultDetailMapper, times(1)).findItemAnalysisSource(eq(EXAM_ID), anyShort(), any());
+		ArgumentCaptor<Runnable> taskCaptor = ArgumentCaptor.forClass(Runnable.class);
+		verify(incrementalAggregateUtil, times(1)).execute(taskCaptor.capture());
+
+		taskCaptor.getValue().run();
+		fourth = itemAnalysisService.getItemAnalysisDtoList(EXAM_ID).get(3);
+		assertEquals(10L, fourth.getAttemptCount());
+		verify(tExamResultDetailMapper, times(2)).findItemAnalysisSource(eq(EXAM_ID), anyShort(), any());
+		verify(incrementalAggregateUtil, times(1)).execute(any());
+	}
+
+	private void addSource(List<ItemAnalysisSourceDto> sourceList, int examResultId, int... replies) {
+		for (int i = 0; i < replies.length; i++) {
+			ItemAnalysisSourceDto dto = new ItemAnalysisSourceDto();
+			dto.setExamResultId(examResultId);
+			dto.setQuestionId(101 + i);
+			dto.setReply((short) replies[i]);
+			sourceList.add(dto);
+		}
+	}
+
+	private ExamQuestionSetDto questionSet(String version) {
+		ExamQuestionDto examQuestionDto = new ExamQuestionDto();
+		examQuestionDto.setExamId(EXAM_ID);
+		examQuestionDto.setExamName("試験");
+		List<QuestionDto> questionDtoList = new ArrayList<>();
+		for (int i = 0; i < ANSWER_KEY.length; i++) {
+			QuestionDto questionDto = new QuestionDto();
+			questionDto.setQuestionId(101 + i);
+			questionDto.setQuestion("問題" + (i + 1));
+			questionDto.setAnswerNum(ANSWER_KEY[i]);
+			questionDtoList.add(questionDto);
+		}
+		examQuestionDto.setQuestionDtoList(questionDtoList);
+		return new ExamQuestionSetDto(examQuestionDto, version);
+	}
+
+	private TExamResult result(int examResultId, short markFlg) {
+		TExamResult tExamResult = new TExamResult();
+		tExamResult.setExamResultId(examResultId);
+		tExamResult.setMarkFlg(markFlg);
+		return tExamResult;
+	}
+
+}
@@ -0,0 +1,333 @@
+package jp.co.sss.lms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jp.co.sss.lms.dto.MailQueDto;
+import jp.co.sss.lms.dto.MailQueFileDto;
+import jp.co.sss.lms.dto.MailQueMetricsDto;
+import jp.co.sss.lms.entity.TMailQue;
+import jp.co.sss.lms.mapper.TMailQueMapper;
+import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.MessageUtil;
+
+/**
+ * メール送信サービス試験<br>
+ * ローカルのSMTPサーバ(試験用の簡易実装)に対して、一括送信・添付ファイル・再送・送信失敗の通知・
+ * 送信対象の確保・送信状況を試験する。<br>
+ *
+ * */
+@SpringBootTest
+public class MailDispatchServiceTest {
+
+	@Mock
+	private TMailQueMapper tMailQueMapper;
+	@Mock
+	private MessageUtil messageUtil;
+
+	@InjectMocks
+	private MailDispatchService mailDispatchService;
+
+	@TempDir
+	private Path dir;
+
+	private SmtpStandIn smtp;
+	/** 送信状態の更新内容 */
+	private List<TMailQue> updatedList;
+
+	@BeforeEach
+	public void setup() throws Exception {
+		MockitoAnnotations.openMocks(this);
+		smtp = new SmtpStandIn();
+		JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+		mailSender.setHost("localhost");
+		mailSender.setPort(smtp.getPort());
+		ReflectionTestUtils.setField(mailDispatchService, "mailSender", mailSender);
+		ReflectionTestUtils.setField(mailDispatchService, "batchSize", 10);
+		ReflectionTestUtils.setField(mailDispatchService, "workerCount", 2);
+		ReflectionTestUtils.setField(mailDispatchService, "leaseSecond", 900);
+		ReflectionTestUtils.setField(mailDispatchService, "backoffSecond", 60);
+		ReflectionTestUtils.setField(mailDispatchService, "backoffMaxSecond", 3600);
+		ReflectionTestUtils.setField(mailDispatchService, "attachmentDir", dir.toString());
+		ReflectionTestUtils.setField(mailDispatchService, "senderName", "LMS");
+		ReflectionTestUtils.setField(mailDispatchService, "senderAddress", "lms@example.com");
+		ReflectionTestUtils.setField(mailDispatchService, "sendWait", 0);
+		ReflectionTestUtils.setField(mailDispatchService, "failCount", 3);
+		ReflectionTestUtils.setField(mailDispatchService, "tisMail", "admin@example.com");
+
+		updatedList = new ArrayList<>();
+		when(tMailQueMapper.updateSendStatus(any())).then(invocation -> {
+			updatedList.add(invocation.getArgument(0));
+			return true;
+		});
+		when(messageUtil.getMessage(Constants.PROP_KEY_MAIL_MAILFAILED_SUBJECT)).thenReturn("送信失敗");
+		when(messageUtil.getMessage(Constants.PROP_KEY_MAIL_MAILFAILED_BODY))
+				.thenReturn("メールアドレス：:mail_address:\n件名：:subject:");
+	}
+
+	@AfterEach
+	public void tearDown() throws Exception {
+		smtp.close();
+	}
+
+	/**
+	 * Case.1_1 一括送信試験<br>
+	 * <br>
+	 * ■対象メソッド：dispatch()<br>
+	 * ■試験観点：<br>
+	 * 　・送信対象のメールが1件分のSMTP接続で送信されること<br>
+	 * 　・添付ファイルが添付されること<br>
+	 * 　・送信済みが1通ずつ記録されること<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_1() throws Exception {
+
+		Files.writeString(dir.resolve("report.txt"), "attachment-body");
+		MailQueDto withFile = mail(2, "bbb@example.com", 0);
+		MailQueFileDto fileDto = new MailQueFileDto();
+		fileDto.setFileId(1);
+		fileDto.setFileName("report.txt");
+		fileDto.setFilePath("report.txt");
+		withFile.setFileDtoList(List.of(fileDto));
+		claim(List.of(mail(1, "aaa@example.com", 0), withFile));
+
+		mailDispatchService.dispatch();
+
+		assertEquals(1, smtp.getConnectionCount());
+		assertEquals(2, smtp.getMessageList().size());
+		assertTrue(smtp.getMessageList().get(0).contains("To: aaa@example.com"));
+		assertTrue(smtp.getMessageList().get(1).contains("filename=report.txt"));
+		assertEquals(2, updatedList.size());
+		assertEquals(Constants.MAIL_SEND_STATUS_SENT, updatedList.get(1).getSendStatus());
+		assertNotNull(updatedList.get(1).getSendDate());
+	}
+
+	/**
+	 * Case.1_2 再送・送信失敗試験<br>
+	 * <br>
+	 * ■対象メソッド：dispatch()<br>
+	 * ■試験観点：<br>
+	 * 　・受信を拒否されたメールは再送回数に応じた待ち時間の後に再送されること<br>
+	 * 　・再送回数が上限に達したメールは送信失敗となり、管理者への通知が登録されること<br>
+	 * 　・添付ファイルがない場合も送信失敗とし、他のメールは送信されること<br>
+	 * 　・SMTPサーバに接続できない場合は全て再送対象となること<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_2() throws Exception {
+
+		MailQueDto missingFile = mail(3, "ccc@example.com", 0);
+		MailQueFileDto fileDto = new MailQueFileDto();
+		fileDto.setFileName("none.txt");
+		fileDto.setFilePath("none.txt");
+		missingFile.setFileDtoList(List.of(fileDto));
+		claim(List.of(mail(1, "reject@example.com", 1), mail(2, "reject@example.com", 2), missingFile,
+				mail(4, "ddd@example.com", 0)));
+
+		long now = System.currentTimeMillis();
+		mailDispatchService.dispatch();
+
+		assertEquals(1, smtp.getMessageList().size());
+		assertEquals(4, updatedList.size());
+		TMailQue retry = updatedList.get(0);
+		assertEquals(Constants.MAIL_SEND_STATUS_UNSENT, retry.getSendStatus());
+		assertEquals(2, retry.getRetryCount());
+		long delay = retry.getNextSendDate().getTime() - now;
+		assertTrue(delay >= 120_000 && delay < 125_000);
+		assertEquals(Constants.MAIL_SEND_STATUS_FAILED, updatedList.get(1).getSendStatus());
+		assertEquals(Constants.MAIL_SEND_STATUS_UNSENT, updatedList.get(2).getSendStatus());
+		assertTrue(updatedList.get(2).getErrorMessage().contains("none.txt"));
+		assertEquals(Constants.MAIL_SEND_STATUS_SENT, updatedList.get(3).getSendStatus());
+
+		ArgumentCaptor<TMailQue> captor = ArgumentCaptor.forClass(TMailQue.class);
+		verify(tMailQueMapper).insert(captor.capture());
+		assertEquals("admin@example.com", captor.getValue().getMailAddressTo());
+		assertTrue(captor.getValue().getBody().contains("reject@example.com"));
+
+		// SMTPサーバ停止
+		smtp.close();
+		updatedList.clear();
+		claim(List.of(mail(5, "eee@example.com", 0), mail(6, "fff@example.com", 0)));
+		mailDispatchService.dispatch();
+		assertEquals(2, updatedList.size());
+		assertEquals(Constants.MAIL_SEND_STATUS_UNSENT, updatedList.get(1).getSendStatus());
+		assertEquals(1, updatedList.get(1).getRetryCount());
+	}
+
+	/**
+	 * Case.1_3 送信対象の確保・送信状況試験<br>
+	 * <br>
+	 * ■対象メソッド：dispatch()、getMetrics()<br>
+	 * ■試験観点：<br>
+	 * 　・確保は未送信と期限切れの送信中を対象とし、期限が設定されること<br>
+	 * 　・確保した識別子で送信状態が更新されること<br>
+	 * 　・期限切れにより他で確保し直されたメールは送信失敗の通知をしないこと<br>
+	 * 　・送信状況に未送信件数・最も古いメールの経過秒数・送信数が含まれること<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_3() throws Exception {
+
+		claim(List.of(mail(1, "aaa@example.com", 0), mail(2, "reject@example.com", 2)));
+		doReturn(false).when(tMailQueMapper).updateSendStatus(argThat(tMailQue -> tMailQue.getMailQueId() == 2));
+
+		long now = System.currentTimeMillis();
+		mailDispatchService.dispatch();
+
+		ArgumentCaptor<String> claimToken = ArgumentCaptor.forClass(String.class);
+		ArgumentCaptor<Date> leaseExpireDate = ArgumentCaptor.forClass(Date.class);
+		verify(tMailQueMapper).claimSendTarget(claimToken.capture(), eq(Constants.MAIL_SEND_STATUS_UNSENT),
+				eq(Constants.MAIL_SEND_STATUS_SENDING), eq(Constants.DB_FLG_FALSE), any(), leaseExpireDate.capture(),
+				eq(10));
+		long lease = leaseExpireDate.getValue().getTime() - now;
+		assertTrue(lease >= 900_000 && lease < 905_000);
+		verify(tMailQueMapper).findClaimedList(claimToken.getValue(), Constants.MAIL_SEND_STATUS_SENDING,
+				Constants.DB_FLG_FALSE);
+		assertEquals(1, updatedList.size());
+		assertEquals(claimToken.getValue(), updatedList.get(0).getClaimToken());
+		verify(tMailQueMapper, never()).insert(any());
+
+		MailQueMetricsDto mailQueMetricsDto = new MailQueMetricsDto();
+		mailQueMetricsDto.setQueueDepth(5);
+		mailQueMetricsDto.setSendingCount(2);
+		mailQueMetricsDto.setOldestCreateDate(new Date(now - 120_000));
+		when(tMailQueMapper.getQueueMetrics(Constants.MAIL_SEND_STATUS_UNSENT, Constants.MAIL_SEND_STATUS_SENDING,
+				Constants.DB_FLG_FALSE)).thenReturn(mailQueMetricsDto);
+		MailQueMetricsDto metrics = mailDispatchService.getMetrics();
+		assertEquals(5, metrics.getQueueDepth());
+		assertTrue(metrics.getOldestAgeSecond() >= 120);
+		assertEquals(1.0 / 60, metrics.getSendsPerSecond(), 0.0001);
+		assertEquals(0, metrics.getWorkerCount());
+	}
+
+	/**
+	 * 送信対象の確保結果の設定
+	 *
+	 * @param mailQueDtoList 1回目に確保するメール(2回目は確保なし)
+	 */
+	private void claim(List<MailQueDto> mailQueDtoList) {
+		when(tMailQueMapper.claimSendTarget(anyString(), anyShort(), anyShort(), anyShort(), any(), any(), eq(10)))
+				.thenReturn(mailQueDtoList.size(), 0);
+		when(tMailQueMapper.findClaimedList(anyString(), anyShort(), anyShort())).thenReturn(mailQueDtoList);
+	}
+
+	private MailQueDto mail(int mailQueId, String to, int retryCount) {
+		MailQueDto mailQueDto = new MailQueDto();
+		mailQueDto.setMailQueId(mailQueId);
+		mailQueDto.setMailAddressTo(to);
+		mailQueDto.setSubject("件名" + mailQueId);
+		mailQueDto.setBody("本文" + mailQueId);
+		mailQueDto.setRetryCount(retryCount);
+		mailQueDto.setFirstCreateDate(new Date());
+		mailQueDto.setFileDtoList(List.of());
+		return mailQueDto;
+	}
+
+	/**
+	 * 試験用SMTPサーバ<br>
+	 * 受信したメッセージを保持する。宛先に「reject」を含む場合は受信を拒否する
+	 */
+	private static final class SmtpStandIn implements AutoCloseable {
+
+		private final ServerSocket serverSocket;
+		private final AtomicInteger connectionCount = new AtomicInteger();
+		private final List<String> messageList = Collections.synchronizedList(new ArrayList<>());
+
+		SmtpStandIn() throws IOException {
+			serverSocket = new ServerSocket(0);
+			Thread thread = new Thread(this::accept, "smtp-stand-in");
+			thread.setDaemon(true);
+			thread.start();
+		}
+
+		int getPort() {
+			return serverSocket.getLocalPort();
+		}
+
+		int getConnectionCount() {
+			return connectionCount.get();
+		}
+
+		List<String> getMessageList() {
+			return messageList;
+		}
+
+		@Override
+		public void close() throws IOException {
+			serverSocket.close();
+		}
+
+		private void accept() {
+			while (!serverSocket.isClosed()) {
+				try (Socket socket = serverSocket.accept()) {
+					connectionCount.incrementAndGet();
+					session(socket);
+				} catch (IOException e) {
+					// 停止
+				}
+			}
+		}
+
+		private void session(Socket socket) throws IOException {
+			BufferedReader reader = new BufferedReader(
+					new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+			PrintWriter writer = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.ISO_8859_1);
+			reply(writer, "220 localhost");
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String command = line.toUpperCase();
+				if (command.startsWith("RCPT") && command.contains("REJECT")) {
+					reply(writer, "550 rejected");
+				} else if (command.startsWith("DATA")) {
+					reply(writer, "354 end with .");
+					StringBuilder data = new StringBuilder();
+					while ((line = reader.readLine()) != null && !line.equals(".")) {
+						data.append(line).append("\n");
+					}
+					messageList.add(data.toString());
+					reply(writer, "250 queued");
+				} else if (command.startsWith("QUIT")) {
+					reply(writer, "221 bye");
+					return;
+				} else {
+					reply(writer, "250 OK");
+				}
+			}
+		}
+
+		private void reply(PrintWriter writer, String message) {
+			writer.print(message + "\r\n");
+			writer.flush();
+		}
+	}
+
+}
@@ -0,0 +1,182 @@
+package jp.co.sss.lms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import jp.co.sss.lms.controller.NotificationController;
+import jp.co.sss.lms.dto.FeedbackNotificationDto;
+import jp.co.sss.lms.dto.InfoDto;
+import jp.co.sss.lms.dto.LoginUserDto;
+import jp.co.sss.lms.dto.NotificationDto;
+import jp.co.sss.lms.mapper.TDailyReportFbMapper;
+
+/**
+ * 通知サービス試験<br>
+ * Server-Sent Eventsによる通知の配信・お知らせとフィードバックの確認を試験する。<br>
+ *
+ * */
+@SpringBootTest
+public class NotificationServiceTest {
+
+	@Mock
+	private InfoService infoService;
+	@Mock
+	private TDailyReportFbMapper tDailyReportFbMapper;
+	@Mock
+	private ApplicationEventPublisher applicationEventPublisher;
+
+	@InjectMocks
+	private NotificationService notificationService;
+
+	private NotificationController notificationController;
+	private MockMvc mockMvc;
+	private LoginUserDto loginUserDto;
+
+	@BeforeEach
+	public void setup() {
+		MockitoAnnotations.openMocks(this);
+		ReflectionTestUtils.setField(notificationService, "timeoutMillis", 60_000L);
+		// ハートビート・確認は試験中に動かさない
+		ReflectionTestUtils.setField(notificationService, "heartbeatSecond", 3600);
+		ReflectionTestUtils.setField(notificationService, "pollSecond", 3600);
+		notificationService.init();
+
+		notificationController = new NotificationController();
+		loginUserDto = new LoginUserDto();
+		ReflectionTestUtils.setField(notificationController, "notificationService", notificationService);
+		ReflectionTestUtils.setField(notificationController, "loginUserDto", loginUserDto);
+		mockMvc = MockMvcBuilders.standaloneSetup(notificationController).build();
+
+		// 発行した通知DTOはそのまま配信する
+		doAnswer(invocation -> {
+			notificationService.onNotification(invocation.getArgument(0));
+			return null;
+		}).when(applicationEventPublisher).publishEvent(any(Object.class));
+	}
+
+	@AfterEach
+	public void tearDown() {
+		notificationService.destroy();
+	}
+
+	/**
+	 * Case.1_1 通知配信試験<br>
+	 * <br>
+	 * ■対象メソッド：subscribe()、onNotification()、heartbeat()<br>
+	 * ■試験観点：<br>
+	 * 　・通知先を指定した通知は該当ユーザの接続のみに配信されること<br>
+	 * 　・通知先を指定しない通知は全ての接続に配信されること<br>
+	 * 　・ハートビートがコメント行として送信されること<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_1() throws Exception {
+
+		MockHttpServletResponse first = subscribe(1);
+		MockHttpServletResponse second = subscribe(2);
+		assertEquals(2, notificationService.getConnectionCount());
+
+		NotificationDto notificationDto = new NotificationDto();
+		notificationDto.setLmsUserId(1);
+		notificationDto.setName(NotificationService.EVENT_FEEDBACK);
+		notificationDto.setData(List.of(10));
+		notificationService.onNotification(notificationDto);
+		notificationDto = new NotificationDto();
+		notificationDto.setName(NotificationService.EVENT_INFO);
+		notificationDto.setData("お知らせ");
+		notificationService.onNotification(notificationDto);
+		notificationService.heartbeat();
+
+		String firstContent = awaitContent(first, "event:feedback", "event:info", ":heartbeat");
+		String secondContent = awaitContent(second, "event:info", ":heartbeat");
+		assertTrue(firstContent.contains("event:feedback\ndata:[10]\n\n"));
+		assertTrue(firstContent.contains("event:info\n"));
+		assertFalse(secondContent.contains("event:feedback"));
+		assertTrue(secondContent.contains("event:info\n"));
+	}
+
+	/**
+	 * Case.1_2 通知の確認試験<br>
+	 * <br>
+	 * ■対象メソッド：poll()<br>
+	 * ■試験観点：<br>
+	 * 　・接続がない場合は確認しないこと<br>
+	 * 　・初回は現在の状態を通知済みとし、以降のお知らせの更新を全員に通知すること<br>
+	 * 　・新しいフィードバックを日報の提出者に通知し、通知済みのIDから次回を確認すること<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_2() throws Exception {
+
+		notificationService.poll();
+		verify(infoService, never()).getInfo();
+
+		MockHttpServletResponse response = subscribe(1);
+		when(infoService.getInfo()).thenReturn(info(new Date(0)));
+		when(tDailyReportFbMapper.getMaxDailyReportFbId()).thenReturn(5);
+		notificationService.poll();
+		verify(applicationEventPublisher, never()).publishEvent(any(Object.class));
+
+		FeedbackNotificationDto feedbackNotificationDto = new FeedbackNotificationDto();
+		feedbackNotificationDto.setDailyReportFbId(6);
+		feedbackNotificationDto.setLmsUserId(1);
+		when(tDailyReportFbMapper.findFeedbackNotificationDtoList(eq(5), anyShort(), anyInt()))
+				.thenReturn(List.of(feedbackNotificationDto));
+		when(infoService.getInfo()).thenReturn(info(new Date(1000)));
+		notificationService.poll();
+		verify(applicationEventPublisher, times(2)).publishEvent(any(Object.class));
+
+		notificationService.poll();
+		verify(tDailyReportFbMapper).findFeedbackNotificationDtoList(eq(6), anyShort(), anyInt());
+		notificationService.heartbeat();
+		String content = awaitContent(response, "event:info", "event:feedback", ":heartbeat");
+		assertTrue(content.contains("data:{\"dailyReportFbId\":6"));
+	}
+
+	private MockHttpServletResponse subscribe(int lmsUserId) throws Exception {
+		loginUserDto.setLmsUserId(lmsUserId);
+		return mockMvc.perform(get("/notification")).andExpect(request().asyncStarted()).andReturn()
+				.getResponse();
+	}
+
+	private String awaitContent(MockHttpServletResponse response, String... expected) throws Exception {
+		// 配信は仮想スレッドで行うため、全て到着するまで待つ
+		for (int i = 0; i < 100; i++) {
+			String content = response.getContentAsString();
+			if (Arrays.stream(expected).allMatch(content::contains)) {
+				return content;
+			}
+			Thread.sleep(50);
+		}
+		fail("通知が配信されませんでした：" + response.getContentAsString());
+		return null;
+	}
+
+	private InfoDto info(Date lastModifiedDate) {
+		InfoDto infoDto = new InfoDto();
+		infoDto.setInfoId(1);
+		infoDto.setLastModifiedDate(lastModifiedDate);
+		return infoDto;
+	}
+
+}
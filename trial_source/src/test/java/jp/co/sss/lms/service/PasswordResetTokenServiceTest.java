@@ -0,0 +1,151 @@
+package jp.co.sss.lms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jp.co.sss.lms.entity.TPasswordResetToken;
+import jp.co.sss.lms.entity.TTemporaryPassStorage;
+import jp.co.sss.lms.mapper.TPasswordResetTokenMapper;
+import jp.co.sss.lms.mapper.TTemporaryPassStorageMapper;
+import jp.co.sss.lms.util.DateUtil;
+import jp.co.sss.lms.util.MessageUtil;
+import jp.co.sss.lms.util.PasswordUtil;
+
+/**
+ * パスワード再設定トークンサービス試験<br>
+ * トークンの発行・照合・期限切れと使用済みのトークンの削除・移行前のリンクの照合を試験する。<br>
+ *
+ * */
+@SpringBootTest
+public class PasswordResetTokenServiceTest {
+
+	@Mock
+	private TPasswordResetTokenMapper tPasswordResetTokenMapper;
+	@Mock
+	private TTemporaryPassStorageMapper tTemporaryPassStorageMapper;
+	@Mock
+	private MessageUtil messageUtil;
+
+	@InjectMocks
+	private PasswordResetTokenService passwordResetTokenService;
+
+	private PasswordUtil passwordUtil;
+
+	@BeforeEach
+	public void setup() {
+		MockitoAnnotations.openMocks(this);
+		passwordUtil = new PasswordUtil();
+		ReflectionTestUtils.setField(passwordResetTokenService, "passwordUtil", passwordUtil);
+		ReflectionTestUtils.setField(passwordResetTokenService, "dateUtil", new DateUtil());
+		ReflectionTestUtils.setField(passwordResetTokenService, "purgeBatchSize", 100);
+		when(messageUtil.getMessage("setting.timelimit.hour")).thenReturn("1");
+	}
+
+	/**
+	 * Case.1_1 トークン発行・照合試験<br>
+	 * <br>
+	 * ■対象メソッド：issue()、findUserId()<br>
+	 * ■試験観点：<br>
+	 * 　・発行済みのトークンを使用済みにし、移行前のリンクを削除してから新しいトークンを登録すること<br>
+	 * 　・固定長のトークンを返却し、テーブルにはハッシュ値のみを登録すること<br>
+	 * 　・照合はトークンのハッシュ値で行い、該当がない場合はnullとなること<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_1() {
+
+		long now = System.currentTimeMillis();
+		String token = passwordResetTokenService.issue(10);
+		assertEquals(43, token.length());
+		assertTrue(token.matches("[0-9A-Za-z_\\-]+"));
+		assertNotEquals(token, passwordResetTokenService.issue(10));
+
+		InOrder inOrder = inOrder(tPasswordResetTokenMapper, tTemporaryPassStorageMapper);
+		inOrder.verify(tPasswordResetTokenMapper).updateUsedByUserId(eq(10), any(), eq(10));
+		inOrder.verify(tTemporaryPassStorageMapper).deleteUpdateByUserId(eq(10), eq(10), any());
+		ArgumentCaptor<TPasswordResetToken> captor = ArgumentCaptor.forClass(TPasswordResetToken.class);
+		inOrder.verify(tPasswordResetTokenMapper).insert(captor.capture());
+		TPasswordResetToken tPasswordResetToken = captor.getValue();
+		assertEquals(passwordUtil.getTokenHash(token), tPasswordResetToken.getTokenHash());
+		assertFalse(tPasswordResetToken.getTokenHash().contains(token));
+		long timeLimit = tPasswordResetToken.getTimeLimit().getTime() - now;
+		assertTrue(timeLimit >= 3_600_000 && timeLimit < 3_605_000);
+
+		when(tPasswordResetTokenMapper.findValidByTokenHash(eq(passwordUtil.getTokenHash(token)), any()))
+				.thenReturn(tPasswordResetToken);
+		assertEquals(10, passwordResetTokenService.findUserId(token));
+		assertNull(passwordResetTokenService.findUserId(token + "x"));
+		assertNull(passwordResetTokenService.findUserId(""));
+		verify(tPasswordResetTokenMapper, times(2)).findValidByTokenHash(anyString(), any());
+	}
+
+	/**
+	 * Case.1_2 トークン削除試験<br>
+	 * <br>
+	 * ■対象メソッド：purge()<br>
+	 * ■試験観点：<br>
+	 * 　・削除件数が一定件数に達する間は繰り返し削除すること<br>
+	 * 　・全ての削除で同じ基準日時を使用すること<br>
+	 * 　・削除に失敗しても例外を送出しないこと<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_2() {
+
+		when(tPasswordResetTokenMapper.deleteExpired(any(), eq(100))).thenReturn(100, 100, 30);
+		passwordResetTokenService.purge();
+		ArgumentCaptor<Date> captor = ArgumentCaptor.forClass(Date.class);
+		verify(tPasswordResetTokenMapper, times(3)).deleteExpired(captor.capture(), eq(100));
+		assertEquals(1, captor.getAllValues().stream().distinct().count());
+
+		when(tPasswordResetTokenMapper.deleteExpired(any(), eq(100))).thenThrow(new RuntimeException());
+		assertDoesNotThrow(() -> passwordResetTokenService.purge());
+	}
+
+	/**
+	 * Case.1_3 移行前のリンクの照合試験<br>
+	 * <br>
+	 * ■対象メソッド：findUserId()、use()<br>
+	 * ■試験観点：<br>
+	 * 　・トークンに該当がない場合は変更キーとして照合すること<br>
+	 * 　・トークンに該当がある場合は変更キーを照合しないこと<br>
+	 * 　・使用時に移行前のリンクも削除すること<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_3() {
+
+		TTemporaryPassStorage tTemporaryPassStorage = new TTemporaryPassStorage();
+		tTemporaryPassStorage.setUserId(20);
+		when(tTemporaryPassStorageMapper.findValidByChangeKey(eq("aB3dEf9hXy7KmN2p"), any(), eq((short) 0)))
+				.thenReturn(tTemporaryPassStorage);
+		assertEquals(20, passwordResetTokenService.findUserId("aB3dEf9hXy7KmN2p"));
+		assertNull(passwordResetTokenService.findUserId("other"));
+
+		String token = passwordResetTokenService.issue(10);
+		TPasswordResetToken tPasswordResetToken = new TPasswordResetToken();
+		tPasswordResetToken.setUserId(10);
+		when(tPasswordResetTokenMapper.findValidByTokenHash(eq(passwordUtil.getTokenHash(token)), any()))
+				.thenReturn(tPasswordResetToken);
+		assertEquals(10, passwordResetTokenService.findUserId(token));
+		verify(tTemporaryPassStorageMapper, never()).findValidByChangeKey(eq(token), any(), anyShort());
+
+		passwordResetTokenService.use(20, 20);
+		verify(tPasswordResetTokenMapper).updateUsedByUserId(eq(20), any(), eq(20));
+		verify(tTemporaryPassStorageMapper).deleteUpdateByUserId(eq(20), eq(20), any());
+	}
+
+}
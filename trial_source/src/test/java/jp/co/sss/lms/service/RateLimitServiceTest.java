@@ -0,0 +1,173 @@
+package jp.co.sss.lms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import jp.co.sss.lms.controller.PasswordController;
+import jp.co.sss.lms.util.MessageUtil;
+
+/**
+ * 要求回数制限サービス試験<br>
+ * IPアドレスごと・対象ごとのトークンバケットによる制限・バケットの破棄を試験する。<br>
+ *
+ * */
+@SpringBootTest
+public class RateLimitServiceTest {
+
+	private RateLimitService rateLimitService;
+
+	@BeforeEach
+	public void setup() {
+		rateLimitService = new RateLimitService();
+		ReflectionTestUtils.setField(rateLimitService, "ipCapacity", 5);
+		ReflectionTestUtils.setField(rateLimitService, "ipRefillSecond", 3600);
+		ReflectionTestUtils.setField(rateLimitService, "targetCapacity", 2);
+		ReflectionTestUtils.setField(rateLimitService, "targetRefillSecond", 3600);
+		ReflectionTestUtils.setField(rateLimitService, "maxKeys", 100);
+		ReflectionTestUtils.setField(rateLimitService, "evictSecond", 3600);
+		rateLimitService.init();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		rateLimitService.destroy();
+	}
+
+	/**
+	 * Case.1_1 要求の許可判定試験<br>
+	 * <br>
+	 * ■対象メソッド：tryAcquire()<br>
+	 * ■試験観点：<br>
+	 * 　・同じ対象への要求は容量を超えると拒否されること(大文字・小文字、前後の空白は区別しない)<br>
+	 * 　・同じIPアドレスからの要求は対象が異なっても容量を超えると拒否されること<br>
+	 * 　・並行した要求でも容量を超えて許可しないこと<br>
+	 * 　・対象のバケットで拒否した場合はIPアドレスのトークンを消費しないこと<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_1() throws Exception {
+
+		assertTrue(rateLimitService.tryAcquire("10.0.0.1", "aaa@example.com"));
+		assertTrue(rateLimitService.tryAcquire("10.0.0.2", " AAA@example.com"));
+		assertFalse(rateLimitService.tryAcquire("10.0.0.3", "aaa@example.com"));
+
+		assertTrue(rateLimitService.tryAcquire("10.0.0.1", "bbb@example.com"));
+		assertTrue(rateLimitService.tryAcquire("10.0.0.1", "ccc@example.com"));
+		assertTrue(rateLimitService.tryAcquire("10.0.0.1", null));
+		assertTrue(rateLimitService.tryAcquire("10.0.0.1", "ddd@example.com"));
+		assertFalse(rateLimitService.tryAcquire("10.0.0.1", "eee@example.com"));
+
+		for (int i = 0; i < 10; i++) {
+			assertFalse(rateLimitService.tryAcquire("10.0.0.4", "aaa@example.com"));
+		}
+		assertTrue(rateLimitService.tryAcquire("10.0.0.4", "fff@example.com"));
+
+		// 同じIPアドレスから8スレッドで並行して要求
+		ReflectionTestUtils.setField(rateLimitService, "ipCapacity", 50);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Integer>> futureList = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				Callable<Integer> task = () -> {
+					int count = 0;
+					for (int j = 0; j < 100; j++) {
+						if (rateLimitService.tryAcquire("10.0.0.9", null)) {
+							count++;
+						}
+					}
+					return count;
+				};
+				futureList.add(executor.submit(task));
+			}
+			int total = 0;
+			for (Future<Integer> future : futureList) {
+				total += future.get();
+			}
+			assertEquals(50, total);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Case.1_2 バケットの破棄試験<br>
+	 * <br>
+	 * ■対象メソッド：evict()、tryAcquire()<br>
+	 * ■試験観点：<br>
+	 * 　・満杯に戻ったバケットのみ破棄されること<br>
+	 * 　・バケット数が上限に達した場合は満杯に最も近いバケットを破棄して新しいキーを受け付けること<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_2() {
+
+		// 補充間隔0秒のバケットは常に満杯
+		ReflectionTestUtils.setField(rateLimitService, "targetRefillSecond", 0);
+		rateLimitService.tryAcquire("10.0.0.1", "aaa@example.com");
+		rateLimitService.tryAcquire("10.0.0.1", "bbb@example.com");
+		assertEquals(3, rateLimitService.getBucketCount());
+		rateLimitService.evict();
+		assertEquals(1, rateLimitService.getBucketCount());
+
+		ReflectionTestUtils.setField(rateLimitService, "targetRefillSecond", 3600);
+		ReflectionTestUtils.setField(rateLimitService, "maxKeys", 2);
+		assertTrue(rateLimitService.tryAcquire("10.0.0.1", "aaa@example.com"));
+		assertTrue(rateLimitService.tryAcquire("10.0.0.1", "aaa@example.com"));
+		assertFalse(rateLimitService.tryAcquire("10.0.0.1", "aaa@example.com"));
+		assertEquals(2, rateLimitService.getBucketCount());
+
+		// 満杯に最も近い対象のバケット(2時間後)を破棄し、IPアドレスのバケット(4時間後)は残る
+		assertTrue(rateLimitService.tryAcquire("10.0.0.2", null));
+		assertEquals(2, rateLimitService.getBucketCount());
+		assertTrue(rateLimitService.tryAcquire("10.0.0.1", null));
+		assertFalse(rateLimitService.tryAcquire("10.0.0.1", null));
+	}
+
+	/**
+	 * Case.1_3 パスワード再設定の要求回数制限試験<br>
+	 * <br>
+	 * ■対象メソッド：PasswordController.complete()<br>
+	 * ■試験観点：<br>
+	 * 　・容量を超えた要求は429となり、パスワード情報サービス(DBアクセス)を呼び出さないこと<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_3() throws Exception {
+
+		PasswordService passwordService = mock(PasswordService.class);
+		MessageUtil messageUtil = mock(MessageUtil.class);
+		when(messageUtil.getMessage(anyString())).thenReturn("0");
+		PasswordController passwordController = new PasswordController();
+		ReflectionTestUtils.setField(passwordController, "passwordService", passwordService);
+		ReflectionTestUtils.setField(passwordController, "messageUtil", messageUtil);
+		ReflectionTestUtils.setField(passwordController, "rateLimitService", rateLimitService);
+		MockMvc mockMvc = MockMvcBuilders.standaloneSetup(passwordController).build();
+
+		for (int i = 0; i < 2; i++) {
+			mockMvc.perform(post("/password/resetPassword/complete").param("mailAddress", "aaa@example.com"))
+					.andExpect(status().isOk());
+		}
+		mockMvc.perform(post("/password/resetPassword/complete").param("mailAddress", "aaa@example.com"))
+				.andExpect(status().isTooManyRequests()).andExpect(model().attributeExists("error"));
+		verify(passwordService, times(2)).registPasswordResetToken(any());
+	}
+
+}
@@ -0,0 +1,203 @@
+package jp.co.sss.lms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jp.co.sss.lms.dto.LoginUserDto;
+import jp.co.sss.lms.dto.ReportSearchDto;
+import jp.co.sss.lms.dto.ReportSearchSourceDto;
+import jp.co.sss.lms.entity.TDailyReportSubmit;
+import jp.co.sss.lms.form.ReportSearchForm;
+import jp.co.sss.lms.mapper.TCourseUserMapper;
+import jp.co.sss.lms.mapper.TDailyReportSubmitDetailMapper;
+import jp.co.sss.lms.util.DateUtil;
+import jp.co.sss.lms.util.IncrementalAggregateUtil;
+
+/**
+ * レポート検索サービス試験<br>
+ * 検索インデックスの一括構築・レポート登録時の差分反映・構築中の登録の再適用を試験する。<br>
+ *
+ * */
+@SpringBootTest
+public class ReportSearchServiceTest {
+
+	/** 企業アカウントID */
+	private static final int ACCOUNT_ID = 1;
+	/** 日報提出の最終更新日時 */
+	private static final Date LAST_MODIFIED = new Date(1711929600000L);
+
+	@TempDir
+	private Path tempDir;
+
+	@Autowired
+	private DateUtil dateUtil;
+
+	@Mock
+	private TDailyReportSubmitDetailMapper tDailyReportSubmitDetailMapper;
+	@Mock
+	private TCourseUserMapper tCourseUserMapper;
+	@Mock
+	private IncrementalAggregateUtil incrementalAggregateUtil;
+
+	@InjectMocks
+	private ReportSearchService reportSearchService;
+
+	/* 一括構築で読込む内容 */
+	private List<ReportSearchSourceDto> sourceList;
+
+	@BeforeEach
+	public void setup() throws Exception {
+		MockitoAnnotations.openMocks(this);
+		LoginUserDto loginUserDto = new LoginUserDto();
+		loginUserDto.setAccountId(ACCOUNT_ID);
+		ReflectionTestUtils.setField(reportSearchService, "loginUserDto", loginUserDto);
+		ReflectionTestUtils.setField(reportSearchService, "dateUtil", dateUtil);
+		ReflectionTestUtils.setField(reportSearchService, "indexDir", tempDir.toString());
+		ReflectionTestUtils.setField(reportSearchService, "mergeThreshold", 500);
+		ReflectionTestUtils.setField(reportSearchService, "resultMax", 100);
+
+		sourceList = new ArrayList<>();
+		sourceList.add(source(1, 100, "2024/4/1", 1, "例外処理を学びました。"));
+		sourceList.add(source(2, 101, "2024/4/2", 1, "配列とリストの違い"));
+		sourceList.add(source(2, 101, "2024/4/2", 2, "例外処理の復習"));
+		doAnswer(invocation -> {
+			ResultHandler<ReportSearchSourceDto> resultHandler = invocation.getArgument(1);
+			DefaultResultContext<ReportSearchSourceDto> resultContext = new DefaultResultContext<>();
+			for (ReportSearchSourceDto source : sourceList) {
+				resultContext.nextResultObject(source);
+				resultHandler.handleResult(resultContext);
+			}
+			return null;
+		}).when(tDailyReportSubmitDetailMapper).findReportSearchSource(anyShort(), any());
+
+		reportSearchService.init();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		reportSearchService.destroy();
+	}
+
+	/**
+	 * Case.1_1 レポート検索試験<br>
+	 * <br>
+	 * ■対象メソッド：rebuild()、update()、search()<br>
+	 * ■試験観点：<br>
+	 * 　・一括構築した内容が日付の新しい順に検索されること<br>
+	 * 　・登録した内容が反映され、登録前の内容では一致しないこと<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_1() throws Exception {
+
+		assertTrue(reportSearchService.rebuild());
+		List<ReportSearchDto> list = search("例外処理");
+		assertEquals(2, list.size());
+		assertEquals(2, list.get(0).getDailyReportSubmitId());
+		assertEquals(List.of(2), list.get(0).getFieldNumList());
+		assertEquals(1, list.get(1).getDailyReportSubmitId());
+
+		TDailyReportSubmit newer = submit(1, 100, "2024/4/1");
+		newer.setLastModifiedDate(new Date(LAST_MODIFIED.getTime() + 1000));
+		reportSearchService.update(newer, new String[] { "ラムダ式を学びました。" });
+
+		assertEquals(1, search("例外処理").size());
+		assertEquals(1, search("ラムダ").get(0).getDailyReportSubmitId());
+	}
+
+	/**
+	 * Case.1_2 インデックス構築試験(構築中のレポート登録)<br>
+	 * <br>
+	 * ■対象メソッド：rebuild()、update()<br>
+	 * ■試験観点：<br>
+	 * 　・構築前に登録した差分は、構築で読込んだ内容に置き換えられること<br>
+	 * 　・構築で読込んだ内容より新しい登録は、構築後のインデックスに再適用されること<br>
+	 * 　・構築で読込み済みの登録(最終更新日時が同じもの)は再適用されないこと<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_2() throws Exception {
+
+		assertTrue(reportSearchService.rebuild());
+		// 構築前の差分(他のサーバーで更新され、構築で新しい内容を読込む)
+		reportSearchService.update(submit(2, 101, "2024/4/2"), new String[] { "継承の書き方" });
+		sourceList.set(1, source(2, 101, "2024/4/2", 1, "インターフェースの書き方"));
+
+		doAnswer(invocation -> {
+			ResultHandler<ReportSearchSourceDto> resultHandler = invocation.getArgument(1);
+			DefaultResultContext<ReportSearchSourceDto> resultContext = new DefaultResultContext<>();
+			resultContext.nextResultObject(sourceList.get(0));
+			resultHandler.handleResult(resultContext);
+			// 読込み中に提出1(読込み済みより新しい)・提出2(読込み済みと同じ)が登録された
+			TDailyReportSubmit newer = submit(1, 100, "2024/4/1");
+			newer.setLastModifiedDate(new Date(LAST_MODIFIED.getTime() + 1000));
+			reportSearchService.update(newer, new String[] { "ラムダ式を学びました。" });
+			reportSearchService.update(submit(2, 101, "2024/4/2"), new String[] { "SQLの基礎" });
+			for (ReportSearchSourceDto source : sourceList.subList(1, sourceList.size())) {
+				resultContext.nextResultObject(source);
+				resultHandler.handleResult(resultContext);
+			}
+			return null;
+		}).when(tDailyReportSubmitDetailMapper).findReportSearchSource(anyShort(), any());
+
+		assertTrue(reportSearchService.rebuild());
+
+		assertEquals(0, search("継承").size());
+		assertEquals(0, search("sql").size());
+		assertEquals(2, search("インターフェース").get(0).getDailyReportSubmitId());
+		assertEquals(1, search("ラムダ").get(0).getDailyReportSubmitId());
+		assertEquals(List.of(2), search("例外処理").stream().map(ReportSearchDto::getDailyReportSubmitId).toList());
+	}
+
+	private List<ReportSearchDto> search(String keyword) throws Exception {
+		ReportSearchForm form = new ReportSearchForm();
+		form.setKeyword(keyword);
+		return reportSearchService.search(form);
+	}
+
+	private ReportSearchSourceDto source(int dailyReportSubmitId, int lmsUserId, String date,
+			int fieldNum, String content) throws Exception {
+		ReportSearchSourceDto dto = new ReportSearchSourceDto();
+		dto.setDailyReportSubmitId(dailyReportSubmitId);
+		dto.setDailyReportId(1);
+		dto.setLmsUserId(lmsUserId);
+		dto.setAccountId(ACCOUNT_ID);
+		dto.setDate(dateUtil.parse(date));
+		dto.setLastModifiedDate(LAST_MODIFIED);
+		dto.setFieldNum(fieldNum);
+		dto.setContent(content);
+		return dto;
+	}
+
+	private TDailyReportSubmit submit(int dailyReportSubmitId, int lmsUserId, String date)
+			throws Exception {
+		TDailyReportSubmit entity = new TDailyReportSubmit();
+		entity.setDailyReportSubmitId(dailyReportSubmitId);
+		entity.setDailyReportId(1);
+		entity.setLmsUserId(lmsUserId);
+		entity.setAccountId(ACCOUNT_ID);
+		entity.setDate(dateUtil.parse(date));
+		entity.setLastModifiedDate(LAST_MODIFIED);
+		return entity;
+	}
+
+}
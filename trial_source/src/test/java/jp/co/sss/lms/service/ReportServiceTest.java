@@ -0,0 +1,529 @@
+package jp.co.sss.lms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jp.co.sss.lms.dto.DailyReportDetailDto;
+import jp.co.sss.lms.dto.DailyReportDownloadDto;
+import jp.co.sss.lms.dto.DailyReportFbDto;
+import jp.co.sss.lms.dto.DailyReportVersionDto;
+import jp.co.sss.lms.dto.IntelligibilityDto;
+import jp.co.sss.lms.dto.LoginUserDto;
+import jp.co.sss.lms.entity.TDailyReportSubmit;
+import jp.co.sss.lms.entity.TDailyReportSubmitDetail;
+import jp.co.sss.lms.entity.TIntelligibility;
+import jp.co.sss.lms.form.DailyReportSubmitForm;
+import jp.co.sss.lms.mapper.TCourseUserMapper;
+import jp.co.sss.lms.mapper.TDailyReportFbMapper;
+import jp.co.sss.lms.mapper.TDailyReportSubmitDetailMapper;
+import jp.co.sss.lms.mapper.TDailyReportSubmitMapper;
+import jp.co.sss.lms.mapper.TIntelligibilityMapper;
+import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.DateUtil;
+import jp.co.sss.lms.util.LoginUserUtil;
+import jp.co.sss.lms.util.MessageUtil;
+import jp.co.sss.lms.util.OutputCacheUtil;
+import jp.co.sss.lms.util.ParallelQueryUtil;
+
+/**
+ * レポート情報サービス試験<br>
+ * レポート登録時の登録・更新内容と、レポートダウンロード時の検索・出力内容を試験する。<br>
+ *
+ * */
+@SpringBootTest
+public class ReportServiceTest {
+
+	/** コースID */
+	private static final int COURSE_ID = 5;
+	/** 項目数 */
+	private static final int FIELD_NUM = 10;
+	/** 理解度項目数 */
+	private static final int INTELLIGIBILITY_NUM = 5;
+	/** フィードバックコメント数 */
+	private static final int FB_NUM = 10;
+
+	@Autowired
+	private MessageUtil messageUtil;
+	@Autowired
+	private DateUtil dateUtil;
+	@Autowired
+	private ParallelQueryUtil parallelQueryUtil;
+	@Autowired
+	private OutputCacheUtil outputCacheUtil;
+
+	@Mock
+	private TDailyReportSubmitMapper tDailyReportSubmitMapper;
+	@Mock
+	private TDailyReportSubmitDetailMapper tDailyReportSubmitDetailMapper;
+	@Mock
+	private TIntelligibilityMapper tIntelligibilityMapper;
+	@Mock
+	private TDailyReportFbMapper tDailyReportFbMapper;
+	@Mock
+	private TCourseUserMapper tCourseUserMapper;
+	@Mock
+	private LoginUserUtil loginUserUtil;
+	@Mock
+	private ReportSearchService reportSearchService;
+	@Mock
+	private IntelligibilityRollupService intelligibilityRollupService;
+
+	@InjectMocks
+	private ReportService reportService;
+
+	/** レポートのバージョン */
+	private DailyReportVersionDto dailyReportVersionDto;
+
+	@BeforeEach
+	public void setup() {
+		MockitoAnnotations.openMocks(this);
+		ReflectionTestUtils.setField(reportService, "messageUtil", messageUtil);
+		ReflectionTestUtils.setField(reportService, "dateUtil", dateUtil);
+		ReflectionTestUtils.setField(reportService, "parallelQueryUtil", parallelQueryUtil);
+		ReflectionTestUtils.setField(reportService, "outputCacheUtil", outputCacheUtil);
+		outputCacheUtil.clear();
+
+		LoginUserDto loginUserDto = new LoginUserDto();
+		loginUserDto.setLmsUserId(10);
+		loginUserDto.setAccountId(1);
+		loginUserDto.setCourseId(COURSE_ID);
+		ReflectionTestUtils.setField(reportService, "loginUserDto", loginUserDto);
+		when(loginUserUtil.isStudent()).thenReturn(true);
+
+		dailyReportVersionDto = new DailyReportVersionDto();
+		dailyReportVersionDto.setDailyReportSubmitId(1);
+		dailyReportVersionDto.setDailyReportId(1);
+		dailyReportVersionDto.setLastModifiedDate(new Date());
+		dailyReportVersionDto.setFbCount(FB_NUM);
+		when(tDailyReportSubmitMapper.getDailyReportVersionDto(eq(1), eq(1), anyShort()))
+				.thenReturn(dailyReportVersionDto);
+
+		DailyReportDownloadDto dailyReportDownloadDto = new DailyReportDownloadDto();
+		dailyReportDownloadDto.setDailyReportSubmitId(1);
+		dailyReportDownloadDto.setDailyReportId(1);
+		dailyReportDownloadDto.setFileName("日報_テンプレート.xlsx");
+		dailyReportDownloadDto.setSheetName("日間研修報告書");
+		dailyReportDownloadDto.setCompanyName("株式会社　テスト");
+		dailyReportDownloadDto.setRowCompany(5);
+		dailyReportDownloadDto.setClmCompany(2);
+		dailyReportDownloadDto.setUserName("受講生　太郎");
+		dailyReportDownloadDto.setRowUser(6);
+		dailyReportDownloadDto.setClmUser(2);
+		dailyReportDownloadDto.setDate(new Date());
+		dailyReportDownloadDto.setRowDate(7);
+		dailyReportDownloadDto.setClmDate(2);
+		dailyReportDownloadDto.setRowIntelFld(41);
+		dailyReportDownloadDto.setClmIntelFld(2);
+		dailyReportDownloadDto.setRowIntel(41);
+		dailyReportDownloadDto.setClmIntel(3);
+		when(tDailyReportSubmitMapper.getDailyReportDownloadDto(eq(1), eq(1), anyShort()))
+				.thenReturn(dailyReportDownloadDto);
+
+		List<DailyReportDetailDto> dailyReportDetailDtoList = new ArrayList<>();
+		for (int i = 0; i < FIELD_NUM; i++) {
+			DailyReportDetailDto dailyReportDetailDto = new DailyReportDetailDto();
+			dailyReportDetailDto.setDailyReportSubmitId(1);
+			dailyReportDetailDto.setFieldNum(i + 1);
+			dailyReportDetailDto.setRow(21 + i);
+			dailyReportDetailDto.setClm(2);
+			dailyReportDetailDto.setContent("内容" + (i + 1));
+			dailyReportDetailDtoList.add(dailyReportDetailDto);
+		}
+		when(tDailyReportSubmitDetailMapper.getDailyReportDetailDtoList(eq(1), eq(1), anyShort()))
+				.thenReturn(dailyReportDetailDtoList);
+
+		List<IntelligibilityDto> intelligibilityDtoList = new ArrayList<>();
+		for (int i = 0; i < INTELLIGIBILITY_NUM; i++) {
+			IntelligibilityDto intelligibilityDto = new IntelligibilityDto();
+			intelligibilityDto.setIntelligibilityId(i + 1);
+			intelligibilityDto.setDailyReportSubmitId(1);
+			intelligibilityDto.setFieldNum(i + 1);
+			intelligibilityDto.setFieldName("理解度項目" + (i + 1));
+			intelligibilityDto.setFieldValue((short) (i % 5 + 1));
+			intelligibilityDtoList.add(intelligibilityDto);
+		}
+		when(tIntelligibilityMapper.getIntelligibilityDtoList(eq(1), anyShort()))
+				.thenReturn(intelligibilityDtoList);
+
+		List<DailyReportFbDto> dailyReportFbDtoList = new ArrayList<>();
+		for (int i = 0; i < FB_NUM; i++) {
+			DailyReportFbDto dailyReportFbDto = new DailyReportFbDto();
+			dailyReportFbDto.setDailyReportFbId(i + 1);
+			dailyReportFbDto.setUserName("講師" + (i + 1));
+			dailyReportFbDto.setContent("コメント" + (i + 1));
+			dailyReportFbDto.setDate(new Date());
+			dailyReportFbDtoList.add(dailyReportFbDto);
+		}
+		when(tDailyReportFbMapper.getDailyReportFbDtoList(eq(1), anyShort())).thenReturn(dailyReportFbDtoList);
+	}
+
+	/**
+	 * Case.1_1 レポートダウンロード試験(項目10件・理解度5件・コメント10件)<br>
+	 * <br>
+	 * ■対象メソッド：download()<br>
+	 * ■試験観点：<br>
+	 * 　・ヘッダー・項目・理解度・フィードバックの各検索が1回ずつ実行されること<br>
+	 * 　・項目、理解度、フィードバックコメントが出力されること<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_1() throws Exception {
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		reportService.download(1, 1, new MockHttpServletRequest(), response);
+
+		verify(tDailyReportSubmitMapper, times(1)).getDailyReportDownloadDto(eq(1), eq(1), anyShort());
+		verify(tDailyReportSubmitDetailMapper, times(1)).getDailyReportDetailDtoList(eq(1), eq(1),
+				anyShort());
+		verify(tIntelligibilityMapper, times(1)).getIntelligibilityDtoList(eq(1), anyShort());
+		verify(tDailyReportFbMapper, times(1)).getDailyReportFbDtoList(eq(1), anyShort());
+
+		Workbook wb = WorkbookFactory.create(new ByteArrayInputStream(response.getContentAsByteArray()));
+		Sheet reportSheet = wb.getSheet("日間研修報告書");
+		for (int i = 0; i < FIELD_NUM; i++) {
+			assertEquals("内容" + (i + 1),
+					reportSheet.getRow(20 + i).getCell(1).getStringCellValue());
+		}
+		for (int i = 0; i < INTELLIGIBILITY_NUM; i++) {
+			assertEquals("理解度項目" + (i + 1),
+					reportSheet.getRow(40 + i).getCell(1).getStringCellValue());
+		}
+		Sheet fbSheet = wb.getSheet("フィードバックコメント");
+		for (int i = 0; i < FB_NUM; i++) {
+			assertEquals("講師" + (i + 1), fbSheet.getRow(6 + (i * 2)).getCell(0).getStringCellValue());
+			assertEquals("コメント" + (i + 1),
+					fbSheet.getRow(7 + (i * 2)).getCell(10).getStringCellValue());
+		}
+	}
+
+	/**
+	 * Case.1_2 レポートダウンロード試験(並列検索)<br>
+	 * <br>
+	 * ■対象メソッド：download()<br>
+	 * ■試験パラメータ：項目・理解度・フィードバックの各検索は、3件の検索が揃うまで待機する<br>
+	 * ■試験観点：<br>
+	 * 　・項目・理解度・フィードバックの検索が同時に実行されること<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_2() throws Exception {
+
+		CountDownLatch latch = new CountDownLatch(3);
+		List<Boolean> awaitedList = Collections.synchronizedList(new ArrayList<>());
+		List<DailyReportDetailDto> dailyReportDetailDtoList = tDailyReportSubmitDetailMapper
+				.getDailyReportDetailDtoList(1, 1, Constants.DB_FLG_FALSE);
+		List<IntelligibilityDto> intelligibilityDtoList = tIntelligibilityMapper.getIntelligibilityDtoList(1,
+				Constants.DB_FLG_FALSE);
+		List<DailyReportFbDto> dailyReportFbDtoList = tDailyReportFbMapper.getDailyReportFbDtoList(1,
+				Constants.DB_FLG_FALSE);
+		when(tDailyReportSubmitDetailMapper.getDailyReportDetailDtoList(eq(1), eq(1), anyShort()))
+				.then(awaitThen(latch, awaitedList, dailyReportDetailDtoList));
+		when(tIntelligibilityMapper.getIntelligibilityDtoList(eq(1), anyShort()))
+				.then(awaitThen(latch, awaitedList, intelligibilityDtoList));
+		when(tDailyReportFbMapper.getDailyReportFbDtoList(eq(1), anyShort()))
+				.then(awaitThen(latch, awaitedList, dailyReportFbDtoList));
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		reportService.download(1, 1, new MockHttpServletRequest(), response);
+
+		assertEquals(200, response.getStatus());
+		assertEquals(List.of(true, true, true), awaitedList);
+	}
+
+	/**
+	 * Case.1_3 レポートダウンロード試験(出力ファイルキャッシュ)<br>
+	 * <br>
+	 * ■対象メソッド：download()<br>
+	 * ■試験観点：<br>
+	 * 　・同じバージョンの2回目以降のダウンロードでは検索・出力を行わず、同じ内容を返すこと<br>
+	 * 　・If-None-MatchがETagと一致する場合は304を返すこと<br>
+	 * 　・提出内容が更新された場合は再出力し、ETagが変わること<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_3() throws Exception {
+
+		MockHttpServletResponse first = new MockHttpServletResponse();
+		reportService.download(1, 1, new MockHttpServletRequest(), first);
+		String eTag = first.getHeader("ETag");
+		assertNotNull(eTag);
+
+		MockHttpServletResponse second = new MockHttpServletResponse();
+		reportService.download(1, 1, new MockHttpServletRequest(), second);
+		assertEquals(eTag, second.getHeader("ETag"));
+		assertArrayEquals(first.getContentAsByteArray(), second.getContentAsByteArray());
+		verify(tDailyReportSubmitMapper, times(1)).getDailyReportDownloadDto(eq(1), eq(1), anyShort());
+
+		MockHttpServletRequest conditional = new MockHttpServletRequest("GET", "/report/download");
+		conditional.addHeader("If-None-Match", eTag);
+		MockHttpServletResponse notModified = new MockHttpServletResponse();
+		reportService.download(1, 1, conditional, notModified);
+		assertEquals(304, notModified.getStatus());
+		assertEquals(0, notModified.getContentAsByteArray().length);
+
+		dailyReportVersionDto.setLastModifiedDate(new Date(dailyReportVersionDto.getLastModifiedDate().getTime() + 1000));
+		MockHttpServletResponse modified = new MockHttpServletResponse();
+		reportService.download(1, 1, conditional, modified);
+		assertEquals(200, modified.getStatus());
+		assertNotEquals(eTag, modified.getHeader("ETag"));
+		verify(tDailyReportSubmitMapper, times(2)).getDailyReportDownloadDto(eq(1), eq(1), anyShort());
+	}
+
+	/**
+	 * Case.2_1 レポート登録試験(新規提出)<br>
+	 * <br>
+	 * ■対象メソッド：submit()<br>
+	 * ■試験パラメータ：日報提出ID：null、項目3件、理解度2件<br>
+	 * ■試験観点：<br>
+	 * 　・日報提出を登録し、採番された日報提出IDで項目・理解度を1回ずつ一括登録すること<br>
+	 * 　・登録済みの内容の検索・更新・削除を行わないこと<br>
+	 * 　・検索インデックス・理解度集計に反映すること<br>
+	 * 　・理解度集計にはログイン時のコースを使用し、コースを検索しないこと<br>
+	 *
+	 * */
+	@Test
+	public void testCase2_1() throws Exception {
+
+		DailyReportSubmitForm form = new DailyReportSubmitForm();
+		form.setDailyReportId(1);
+		form.setDate(new Date());
+		form.setContentArray(new String[] { "内容1", "内容2", "内容3" });
+		form.setIntFieldNameArray(new String[] { "理解度項目1", "理解度項目2" });
+		form.setIntFieldValueArray(new Short[] { 3, 5 });
+		doAnswer(invocation -> {
+			invocation.<TDailyReportSubmit> getArgument(0).setDailyReportSubmitId(100);
+			return true;
+		}).when(tDailyReportSubmitMapper).insert(any(TDailyReportSubmit.class));
+
+		reportService.submit(form);
+
+		ArgumentCaptor<TDailyReportSubmit> submitCaptor = ArgumentCaptor.forClass(TDailyReportSubmit.class);
+		verify(tDailyReportSubmitMapper).insert(submitCaptor.capture());
+		assertEquals(10, submitCaptor.getValue().getLmsUserId());
+		assertEquals(10, submitCaptor.getValue().getFirstCreateUser());
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<TDailyReportSubmitDetail>> detailCaptor = ArgumentCaptor.forClass(List.class);
+		verify(tDailyReportSubmitDetailMapper, times(1)).insertBulk(detailCaptor.capture());
+		List<TDailyReportSubmitDetail> detailList = detailCaptor.getValue();
+		assertEquals(3, detailList.size());
+		for (int i = 0; i < detailList.size(); i++) {
+			assertEquals(100, detailList.get(i).getDailyReportSubmitId());
+			assertEquals(i + 1, detailList.get(i).getFieldNum());
+			assertEquals("内容" + (i + 1), detailList.get(i).getContent());
+			assertEquals(Constants.DB_FLG_FALSE, detailList.get(i).getDeleteFlg());
+		}
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<TIntelligibility>> intelligibilityCaptor = ArgumentCaptor.forClass(List.class);
+		verify(tIntelligibilityMapper, times(1)).insertBulk(intelligibilityCaptor.capture());
+		List<TIntelligibility> intelligibilityList = intelligibilityCaptor.getValue();
+		assertEquals(2, intelligibilityList.size());
+		assertEquals(100, intelligibilityList.get(1).getDailyReportSubmitId());
+		assertEquals(2, intelligibilityList.get(1).getFieldNum());
+		assertEquals("理解度項目2", intelligibilityList.get(1).getFieldName());
+		assertEquals((short) 5, intelligibilityList.get(1).getFieldValue());
+
+		verify(tDailyReportSubmitMapper, never()).update(any());
+		verify(tDailyReportSubmitDetailMapper, never()).findByDailyReportSubmitId(any());
+		verify(tDailyReportSubmitDetailMapper, never()).update(any());
+		verify(tDailyReportSubmitDetailMapper, never()).deleteOverFieldNum(any(), any());
+		verify(tIntelligibilityMapper, never()).update(any());
+		verify(reportSearchService).update(submitCaptor.getValue(), form.getContentArray());
+		verify(intelligibilityRollupService).update(submitCaptor.getValue(), COURSE_ID, new ArrayList<>(),
+				form.getIntFieldNameArray(), form.getIntFieldValueArray());
+		verify(tCourseUserMapper, never()).findCourseId(any(), any(), any());
+	}
+
+	/**
+	 * Case.2_2 レポート登録試験(再提出)<br>
+	 * <br>
+	 * ■対象メソッド：submit()<br>
+	 * ■試験パラメータ：<br>
+	 * 　・登録済みの項目3件(内容1〜内容3)に対し、項目2件(内容1・変更後の内容2)を提出<br>
+	 * 　・登録済みの理解度1件に対し、同じ値の理解度1件と新しい理解度1件を提出<br>
+	 * ■試験観点：<br>
+	 * 　・内容が変わった項目のみ更新し、変わらない項目は更新しないこと<br>
+	 * 　・提出しなかった3件目の項目を削除すること<br>
+	 * 　・新しい理解度のみを一括登録し、登録済みの理解度は更新しないこと<br>
+	 *
+	 * */
+	@Test
+	public void testCase2_2() throws Exception {
+
+		DailyReportSubmitForm form = new DailyReportSubmitForm();
+		form.setDailyReportSubmitId(100);
+		form.setDailyReportId(1);
+		form.setDate(new Date());
+		form.setContentArray(new String[] { "内容1", "変更後の内容2" });
+		form.setIntFieldNameArray(new String[] { "理解度項目1", "理解度項目2" });
+		form.setIntFieldValueArray(new Short[] { 3, 5 });
+
+		List<TDailyReportSubmitDetail> registeredDetailList = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			TDailyReportSubmitDetail registeredDetail = new TDailyReportSubmitDetail();
+			registeredDetail.setDailyReportSubmitDetailId(200 + i);
+			registeredDetail.setDailyReportSubmitId(100);
+			registeredDetail.setFieldNum(i + 1);
+			registeredDetail.setContent("内容" + (i + 1));
+			registeredDetail.setDeleteFlg(Constants.DB_FLG_FALSE);
+			registeredDetailList.add(registeredDetail);
+		}
+		TIntelligibility registeredIntelligibility = new TIntelligibility();
+		registeredIntelligibility.setIntelligibilityId(300);
+		registeredIntelligibility.setDailyReportSubmitId(100);
+		registeredIntelligibility.setFieldNum(1);
+		registeredIntelligibility.setFieldName("理解度項目1");
+		registeredIntelligibility.setFieldValue((short) 3);
+		registeredIntelligibility.setDeleteFlg(Constants.DB_FLG_FALSE);
+		when(tDailyReportSubmitDetailMapper.findByDailyReportSubmitId(100)).thenReturn(registeredDetailList);
+		when(tIntelligibilityMapper.findByDailyReportSubmitId(100))
+				.thenReturn(new ArrayList<>(List.of(registeredIntelligibility)));
+
+		reportService.submit(form);
+
+		ArgumentCaptor<TDailyReportSubmit> submitCaptor = ArgumentCaptor.forClass(TDailyReportSubmit.class);
+		verify(tDailyReportSubmitMapper).update(submitCaptor.capture());
+		assertEquals(100, submitCaptor.getValue().getDailyReportSubmitId());
+		verify(tDailyReportSubmitMapper, never()).insert(any());
+
+		ArgumentCaptor<TDailyReportSubmitDetail> detailCaptor = ArgumentCaptor
+				.forClass(TDailyReportSubmitDetail.class);
+		verify(tDailyReportSubmitDetailMapper, times(1)).update(detailCaptor.capture());
+		assertEquals(201, detailCaptor.getValue().getDailyReportSubmitDetailId());
+		assertEquals("変更後の内容2", detailCaptor.getValue().getContent());
+		verify(tDailyReportSubmitDetailMapper).deleteOverFieldNum(100, 2);
+		verify(tDailyReportSubmitDetailMapper, never()).insertBulk(any());
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<TIntelligibility>> intelligibilityCaptor = ArgumentCaptor.forClass(List.class);
+		verify(tIntelligibilityMapper, times(1)).insertBulk(intelligibilityCaptor.capture());
+		assertEquals(1, intelligibilityCaptor.getValue().size());
+		assertEquals(2, intelligibilityCaptor.getValue().get(0).getFieldNum());
+		assertEquals(100, intelligibilityCaptor.getValue().get(0).getDailyReportSubmitId());
+		verify(tIntelligibilityMapper, never()).update(any());
+		verify(tIntelligibilityMapper, never()).deleteOverFieldNum(any(), any());
+	}
+
+	/**
+	 * Case.1_4 レポートダウンロード試験(提出済みレポートなし)<br>
+	 * <br>
+	 * ■対象メソッド：download()<br>
+	 * ■試験パラメータ：ヘッダーの検索結果：なし<br>
+	 * ■試験観点：<br>
+	 * 　・IllegalArgumentExceptionが発生すること<br>
+	 * 　・項目・理解度・フィードバックの検索を実行しないこと<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_4() {
+
+		when(tDailyReportSubmitMapper.getDailyReportVersionDto(eq(1), eq(2), anyShort())).thenReturn(null);
+		when(tDailyReportSubmitMapper.getDailyReportDownloadDto(eq(1), eq(2), anyShort())).thenReturn(null);
+
+		assertThrows(IllegalArgumentException.class,
+				() -> reportService.download(2, 1, new MockHttpServletRequest(), new MockHttpServletResponse()));
+
+		verify(tDailyReportSubmitDetailMapper, never()).getDailyReportDetailDtoList(any(), any(), any());
+		verify(tIntelligibilityMapper, never()).getIntelligibilityDtoList(any(), any());
+		verify(tDailyReportFbMapper, never()).getDailyReportFbDtoList(any(), any());
+	}
+
+	/**
+	 * Case.1_5 レポートダウンロード試験(If-None-Match・ETagの構成要素)<br>
+	 * <br>
+	 * ■対象メソッド：download()<br>
+	 * ■試験観点：<br>
+	 * 　・If-None-Matchに複数のETag・弱いETag(W/)を指定した場合も304を返すこと<br>
+	 * 　・受講生名・企業名・日報詳細マスタが変わった場合はETagが変わり、再出力すること<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_5() throws Exception {
+
+		dailyReportVersionDto.setUserName("受講生　太郎");
+		dailyReportVersionDto.setCompanyName("株式会社　テスト");
+		dailyReportVersionDto.setReportDetailCount(FIELD_NUM);
+		MockHttpServletResponse first = new MockHttpServletResponse();
+		reportService.download(1, 1, new MockHttpServletRequest("GET", "/report/download"), first);
+		String eTag = first.getHeader("ETag");
+
+		MockHttpServletRequest list = new MockHttpServletRequest("GET", "/report/download");
+		list.addHeader("If-None-Match", "\"other\", " + eTag);
+		MockHttpServletResponse listResponse = new MockHttpServletResponse();
+		reportService.download(1, 1, list, listResponse);
+		assertEquals(304, listResponse.getStatus());
+
+		MockHttpServletRequest weak = new MockHttpServletRequest("GET", "/report/download");
+		weak.addHeader("If-None-Match", "W/" + eTag);
+		MockHttpServletResponse weakResponse = new MockHttpServletResponse();
+		reportService.download(1, 1, weak, weakResponse);
+		assertEquals(304, weakResponse.getStatus());
+
+		List<String> eTagList = new ArrayList<>();
+		eTagList.add(eTag);
+		dailyReportVersionDto.setUserName("受講生　次郎");
+		eTagList.add(downloadETag());
+		dailyReportVersionDto.setCompanyName("株式会社　テスト２");
+		eTagList.add(downloadETag());
+		dailyReportVersionDto.setReportDetailCount(FIELD_NUM - 1);
+		eTagList.add(downloadETag());
+		assertEquals(eTagList.size(), eTagList.stream().distinct().count());
+		verify(tDailyReportSubmitMapper, times(4)).getDailyReportDownloadDto(eq(1), eq(1), anyShort());
+	}
+
+	/**
+	 * ダウンロードして返されたETagを取得する
+	 *
+	 * @return ETag
+	 * @throws Exception
+	 */
+	private String downloadETag() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		reportService.download(1, 1, new MockHttpServletRequest("GET", "/report/download"), response);
+		assertEquals(200, response.getStatus());
+		return response.getHeader("ETag");
+	}
+
+	/**
+	 * 他の検索が揃うまで待機してから結果を返す
+	 *
+	 * @param latch 検索の到着数
+	 * @param awaitedList 待機結果(時間内に揃った場合true)
+	 * @param result 検索結果
+	 * @return 検索処理
+	 */
+	private Answer<Object> awaitThen(CountDownLatch latch, List<Boolean> awaitedList, Object result) {
+		return invocation -> {
+			latch.countDown();
+			awaitedList.add(latch.await(10, TimeUnit.SECONDS));
+			return result;
+		};
+	}
+
+}
@@ -0,0 +1,194 @@
+package jp.co.sss.lms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jp.co.sss.lms.dto.LoginUserDto;
+import jp.co.sss.lms.dto.SectionServiceDailyReportDto;
+import jp.co.sss.lms.dto.SectionServiceExamDto;
+import jp.co.sss.lms.dto.SectionServiceFileDto;
+import jp.co.sss.lms.dto.SectionServiceSectionDto;
+import jp.co.sss.lms.form.SectionDetailForm;
+import jp.co.sss.lms.mapper.MSectionMapper;
+import jp.co.sss.lms.mapper.TSectionDailyReportMapper;
+import jp.co.sss.lms.util.ParallelQueryUtil;
+import jp.co.sss.lms.util.PasswordUtil;
+
+/**
+ * セクション情報サービス試験<br>
+ * セクション詳細の並列取得とセクション定義のキャッシュを試験する。<br>
+ *
+ * */
+@SpringBootTest
+public class SectionServiceTest {
+
+	/** セクションID */
+	private static final int SECTION_ID = 1;
+	/** アカウントID */
+	private static final int ACCOUNT_ID = 1;
+
+	@Mock
+	private MSectionMapper mSectionMapper;
+	@Mock
+	private TSectionDailyReportMapper tSectionDailyReportMapper;
+	@Mock
+	private PasswordUtil passwordUtil;
+
+	@InjectMocks
+	private SectionDefinitionService sectionDefinitionService;
+	@InjectMocks
+	private SectionService sectionService;
+
+	private ParallelQueryUtil parallelQueryUtil;
+	private LoginUserDto loginUserDto;
+
+	@BeforeEach
+	public void setup() {
+		MockitoAnnotations.openMocks(this);
+		parallelQueryUtil = new ParallelQueryUtil();
+		ReflectionTestUtils.setField(parallelQueryUtil, "parallelMax", 2);
+		parallelQueryUtil.init();
+		ReflectionTestUtils.setField(sectionDefinitionService, "parallelQueryUtil", parallelQueryUtil);
+		ReflectionTestUtils.setField(sectionDefinitionService, "revalidateSecond", 0);
+		ReflectionTestUtils.setField(sectionService, "parallelQueryUtil", parallelQueryUtil);
+		ReflectionTestUtils.setField(sectionService, "sectionDefinitionService", sectionDefinitionService);
+		loginUserDto = new LoginUserDto();
+		loginUserDto.setAccountId(ACCOUNT_ID);
+		loginUserDto.setLmsUserId(10);
+		loginUserDto.setUserId(100);
+		ReflectionTestUtils.setField(sectionService, "loginUserDto", loginUserDto);
+
+		when(mSectionMapper.getSectionDefinitionVersion(eq(SECTION_ID), eq(ACCOUNT_ID), anyShort()))
+				.thenReturn("v1");
+		when(mSectionMapper.getSectionServiceSectionDto(eq(SECTION_ID), eq(ACCOUNT_ID), anyShort()))
+				.then(invocation -> {
+					SectionServiceSectionDto sectionServiceSectionDto = new SectionServiceSectionDto();
+					sectionServiceSectionDto.setSectionId(SECTION_ID);
+					sectionServiceSectionDto.setSectionName("Java基礎");
+					sectionServiceSectionDto.setCourseId(1);
+					return sectionServiceSectionDto;
+				});
+		SectionServiceFileDto fileDto = new SectionServiceFileDto();
+		fileDto.setFileId("5");
+		fileDto.setFileName("資料.pdf");
+		when(mSectionMapper.findSectionServiceFileDtoList(SECTION_ID)).thenReturn(List.of(fileDto));
+		when(mSectionMapper.findSectionServiceExamDtoList(eq(SECTION_ID), anyShort())).thenReturn(List.of(
+				exam(1, System.currentTimeMillis() - 60_000), exam(2, System.currentTimeMillis() + 60_000)));
+		when(mSectionMapper.findSectionServiceDeliverablesSectionDtoList(eq(SECTION_ID), anyShort()))
+				.thenReturn(List.of());
+		when(mSectionMapper.findCourseDailyReportDtoList(eq(SECTION_ID), eq(ACCOUNT_ID), anyInt(), anyShort()))
+				.then(invocation -> new ArrayList<>(List.of(report(1))));
+		when(tSectionDailyReportMapper.getSectionServiceDailyReportDto(eq(SECTION_ID), anyInt(), anyShort()))
+				.then(invocation -> new ArrayList<>(List.of(report(2))));
+		when(passwordUtil.getSaltedAndStrechedPassword(anyString(), anyString()))
+				.then(invocation -> invocation.getArgument(0) + ":" + invocation.getArgument(1));
+	}
+
+	@AfterEach
+	public void tearDown() {
+		parallelQueryUtil.destroy();
+	}
+
+	/**
+	 * Case.1_1 セクション詳細取得試験<br>
+	 * <br>
+	 * ■対象メソッド：getSectionDetail()<br>
+	 * ■試験観点：<br>
+	 * 　・セクション定義とコース・セクションに紐付く日報が組み立てられること<br>
+	 * 　・試験の公開状態が取得時点で判定されること<br>
+	 * 　・ファイルIDは受講生ごとにハッシュ化され、キャッシュしたセクション定義は変更されないこと<br>
+	 * 　・セクション定義の読込みは1回のみで、日報は受講生ごとに取得すること<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_1() {
+
+		SectionDetailForm first = new SectionDetailForm();
+		first.setSectionId(SECTION_ID);
+		sectionService.getSectionDetail(first);
+		assertEquals("Java基礎", first.getSectionName());
+		assertEquals(2, first.getReportDtoList().size());
+		assertEquals(1, first.getReportDtoList().get(0).getDailyReportId());
+		assertEquals(2, first.getReportDtoList().get(1).getDailyReportId());
+		assertTrue(first.getExamDtoList().get(0).isPublicFlg());
+		assertFalse(first.getExamDtoList().get(1).isPublicFlg());
+		assertEquals("5:100", first.getFileDtoList().get(0).getFileId());
+		assertEquals("1000", first.getMaxFileSize());
+
+		loginUserDto.setLmsUserId(11);
+		loginUserDto.setUserId(101);
+		SectionDetailForm second = new SectionDetailForm();
+		second.setSectionId(SECTION_ID);
+		sectionService.getSectionDetail(second);
+		assertEquals("5:101", second.getFileDtoList().get(0).getFileId());
+		assertEquals("5", sectionDefinitionService.getSectionDefinition(SECTION_ID, ACCOUNT_ID)
+				.getFileDtoList().get(0).getFileId());
+
+		verify(mSectionMapper, times(1)).getSectionServiceSectionDto(eq(SECTION_ID), eq(ACCOUNT_ID), anyShort());
+		verify(mSectionMapper, times(1)).findSectionServiceFileDtoList(SECTION_ID);
+		verify(mSectionMapper, times(2)).findCourseDailyReportDtoList(eq(SECTION_ID), eq(ACCOUNT_ID), anyInt(),
+				anyShort());
+	}
+
+	/**
+	 * Case.1_2 セクション定義キャッシュ試験<br>
+	 * <br>
+	 * ■対象メソッド：getSectionDefinition()<br>
+	 * ■試験観点：<br>
+	 * 　・バージョンが変わった場合は再読込みすること<br>
+	 * 　・確認間隔内はバージョンが変わっても再読込みしないこと<br>
+	 * 　・存在しないセクションはnullとなり、詳細を検索しないこと<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_2() {
+
+		SectionServiceSectionDto first = sectionDefinitionService.getSectionDefinition(SECTION_ID, ACCOUNT_ID);
+		assertSame(first, sectionDefinitionService.getSectionDefinition(SECTION_ID, ACCOUNT_ID));
+
+		when(mSectionMapper.getSectionDefinitionVersion(eq(SECTION_ID), eq(ACCOUNT_ID), anyShort()))
+				.thenReturn("v2");
+		SectionServiceSectionDto second = sectionDefinitionService.getSectionDefinition(SECTION_ID, ACCOUNT_ID);
+		assertNotSame(first, second);
+
+		ReflectionTestUtils.setField(sectionDefinitionService, "revalidateSecond", 60);
+		when(mSectionMapper.getSectionDefinitionVersion(eq(SECTION_ID), eq(ACCOUNT_ID), anyShort()))
+				.thenReturn("v3");
+		assertSame(second, sectionDefinitionService.getSectionDefinition(SECTION_ID, ACCOUNT_ID));
+		verify(mSectionMapper, times(2)).getSectionServiceSectionDto(eq(SECTION_ID), eq(ACCOUNT_ID), anyShort());
+
+		assertNull(sectionDefinitionService.getSectionDefinition(99, ACCOUNT_ID));
+		verify(mSectionMapper, never()).findSectionServiceExamDtoList(eq(99), anyShort());
+	}
+
+	private SectionServiceExamDto exam(int examId, long publicDate) {
+		SectionServiceExamDto sectionServiceExamDto = new SectionServiceExamDto();
+		sectionServiceExamDto.setExamSectionId(examId);
+		sectionServiceExamDto.setExamId(examId);
+		sectionServiceExamDto.setExamName("試験" + examId);
+		sectionServiceExamDto.setPublicDate(new Timestamp(publicDate));
+		return sectionServiceExamDto;
+	}
+
+	private SectionServiceDailyReportDto report(int dailyReportId) {
+		SectionServiceDailyReportDto sectionServiceDailyReportDto = new SectionServiceDailyReportDto();
+		sectionServiceDailyReportDto.setDailyReportId(dailyReportId);
+		sectionServiceDailyReportDto.setReportName("日報" + dailyReportId);
+		return sectionServiceDailyReportDto;
+	}
+
+}
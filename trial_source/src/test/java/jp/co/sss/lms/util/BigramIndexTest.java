@@ -0,0 +1,148 @@
+package jp.co.sss.lms.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * BigramIndex試験<br>
+ * 日報内容の全文検索インデックスの構築・更新・検索を試験する。<br>
+ *
+ * */
+public class BigramIndexTest {
+
+	/** 企業アカウントID */
+	private static final int ACCOUNT_ID = 1;
+
+	@TempDir
+	private Path tempDir;
+
+	private BigramIndex bigramIndex;
+
+	@BeforeEach
+	public void setup() throws Exception {
+		bigramIndex = new BigramIndex(tempDir);
+		BigramIndex.Builder builder = bigramIndex.newBuilder();
+		builder.add(doc(1, 10, 100), 1, "例外処理の書き方を学びました。");
+		builder.add(doc(1, 10, 100), 2, "明日はＪＡＶＡの復習をします。");
+		builder.add(doc(2, 11, 100), 1, "配列とリストの違いを理解した");
+		builder.add(doc(3, 10, 101), 1, "例外の種類と処理の流れ");
+		builder.add(new BigramIndex.Doc(4, 1, 12, 2, 100), 1, "例外処理(別企業)");
+		bigramIndex.load(builder);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		bigramIndex.close();
+	}
+
+	/**
+	 * Case.1_1 検索試験<br>
+	 * <br>
+	 * ■対象メソッド：search()<br>
+	 * ■試験観点：<br>
+	 * 　・連続した文字列を含む文書のみ一致すること(バイグラムが離れている文書は一致しないこと)<br>
+	 * 　・全角・半角、大文字・小文字を区別しないこと<br>
+	 * 　・1文字、空白区切りの複数語で検索できること<br>
+	 * 　・絞込み条件が適用されること<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_1() {
+
+		assertEquals(Map.of(1, List.of(1)), search("例外処理", doc -> doc.accountId == ACCOUNT_ID));
+		assertEquals(Map.of(1, List.of(2)), search("java", doc -> true));
+		assertEquals(Map.of(1, List.of(1), 3, List.of(1)), search("例外 処理", doc -> doc.accountId == ACCOUNT_ID));
+		assertEquals(Map.of(2, List.of(1)), search("配", doc -> true));
+		assertEquals(Map.of(), search("例外処理", doc -> doc.userId == 11));
+		assertEquals(Map.of(3, List.of(1)), search("例外", doc -> doc.epochDay > 100));
+		assertEquals(Map.of(), search("復習をしない", doc -> true));
+		assertEquals(Map.of(), search(" ", doc -> true));
+	}
+
+	/**
+	 * Case.1_2 更新・統合試験<br>
+	 * <br>
+	 * ■対象メソッド：put()、merge()<br>
+	 * ■試験観点：<br>
+	 * 　・更新した文書は更新後の内容でのみ一致すること<br>
+	 * 　・統合後も同じ検索結果となり、差分が空になること<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_2() throws Exception {
+
+		bigramIndex.put(doc(1, 10, 100), Map.of(1, "ラムダ式を学びました。", 2, "例外処理の復習"));
+		bigramIndex.put(doc(5, 10, 102), Map.of(1, "例外処理の続き"));
+
+		assertEquals(Map.of(1, List.of(2), 5, List.of(1)), search("例外処理", doc -> doc.accountId == ACCOUNT_ID));
+		assertEquals(Map.of(), search("書き方", doc -> true));
+		assertEquals(5, bigramIndex.size());
+
+		bigramIndex.merge();
+		assertEquals(0, bigramIndex.deltaSize());
+		assertEquals(Map.of(1, List.of(2), 5, List.of(1)), search("例外処理", doc -> doc.accountId == ACCOUNT_ID));
+		assertEquals(Map.of(1, List.of(1)), search("ラムダ", doc -> true));
+		assertEquals(5, bigramIndex.size());
+	}
+
+	/**
+	 * Case.1_3 検索試験(大量文書)<br>
+	 * <br>
+	 * ■対象メソッド：search()<br>
+	 * ■試験パラメータ：文書数：20000件、項目数：5件<br>
+	 * ■試験観点：<br>
+	 * 　・絞込み条件付きの複数語検索で、全ての語を含む文書のみが一致すること<br>
+	 * 　・一致した項目番号が昇順で返ること<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_3() throws Exception {
+
+		String[] phrases = { "例外処理", "配列", "リスト", "継承", "インターフェース", "データベース", "SQL", "画面遷移" };
+		Predicate<BigramIndex.Doc> filter = doc -> doc.epochDay >= 300 && doc.userId < 150;
+		Map<Integer, List<Integer>> expected = new HashMap<>();
+		BigramIndex.Builder builder = bigramIndex.newBuilder();
+		for (int docId = 1; docId <= 20000; docId++) {
+			BigramIndex.Doc doc = doc(docId, docId % 300, docId % 365);
+			boolean match = false;
+			for (int fieldNum = 1; fieldNum <= 5; fieldNum++) {
+				String content = "本日は" + phrases[(docId + fieldNum) % phrases.length] + "について学習しました。"
+						+ "明日は" + phrases[(docId * fieldNum) % phrases.length] + "を復習します。";
+				builder.add(doc, fieldNum, content);
+				match |= content.contains("例外処理");
+			}
+			// 「復習」は全ての項目に含まれるため、一致した文書は全ての項目番号を返す
+			if (match && filter.test(doc)) {
+				expected.put(docId, List.of(1, 2, 3, 4, 5));
+			}
+		}
+		bigramIndex.load(builder);
+
+		Map<Integer, List<Integer>> result = search("例外処理 復習", filter);
+
+		assertFalse(expected.isEmpty());
+		assertEquals(expected, result);
+	}
+
+	private BigramIndex.Doc doc(int docId, int userId, int epochDay) {
+		return new BigramIndex.Doc(docId, 1, userId, ACCOUNT_ID, epochDay);
+	}
+
+	private Map<Integer, List<Integer>> search(String keyword,
+			Predicate<BigramIndex.Doc> filter) {
+		return bigramIndex.search(keyword, filter).stream().collect(Collectors
+				.toMap(hit -> hit.doc.docId, hit -> List.copyOf(hit.fieldNumSet)));
+	}
+
+}
@@ -0,0 +1,183 @@
+package jp.co.sss.lms.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * ExcelUtil試験<br>
+ * フィードバックコメント欄の複製処理を試験する。<br>
+ *
+ * */
+public class ExcelUtilTest {
+
+	/** 日報テンプレート */
+	private static final String TEMPLATE_PATH = "static/template/日報_テンプレート.xlsx";
+	/** フィードバックコメントシート */
+	private static final String SHEET_NAME = "フィードバックコメント";
+	/** フィードバックコメント欄の開始行 */
+	private static final int BLOCK_START = 6;
+	/** フィードバックコメント欄の最終行 */
+	private static final int BLOCK_END = 8;
+
+	private ExcelUtil excelUtil;
+
+	private int templateMergedRegionNum;
+
+	@BeforeEach
+	public void setup() {
+		excelUtil = new ExcelUtil(TEMPLATE_PATH);
+		templateMergedRegionNum = excelUtil.getWb().getSheet(SHEET_NAME).getNumMergedRegions();
+	}
+
+	/**
+	 * Case.1_1 フィードバックコメント欄複製試験(150件)<br>
+	 * <br>
+	 * ■対象メソッド：blockCopy()<br>
+	 * ■試験観点：<br>
+	 * 　・行の高さ、スタイル、値が複製されていること<br>
+	 * 　・結合状態が件数分のみ追加され、重複していないこと<br>
+	 * 　・複製後のワークブックが書き出し・読込みできること<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_1() throws Exception {
+
+		int fbCount = 150;
+		excelUtil.blockCopy(SHEET_NAME, BLOCK_START, BLOCK_END, fbCount - 1);
+		for (int i = 0; i < fbCount; i++) {
+			excelUtil.setVal(SHEET_NAME, BLOCK_START + (i * 2), 0, "ユーザー" + i);
+			excelUtil.setVal(SHEET_NAME, BLOCK_START + 1 + (i * 2), 10, "コメント" + i);
+		}
+
+		Sheet sheet = excelUtil.getWb().getSheet(SHEET_NAME);
+		int blockMergedRegionNum = countBlockMergedRegion(sheet);
+		assertEquals(templateMergedRegionNum + blockMergedRegionNum * (fbCount - 1),
+				sheet.getNumMergedRegions());
+		assertNoDuplicateMergedRegion(sheet);
+
+		int lastIndex = fbCount - 1;
+		assertEquals(sheet.getRow(BLOCK_START).getHeight(),
+				sheet.getRow(BLOCK_START + (lastIndex * 2)).getHeight());
+		assertEquals(sheet.getRow(BLOCK_START + 1).getHeight(),
+				sheet.getRow(BLOCK_START + 1 + (lastIndex * 2)).getHeight());
+		assertEquals(sheet.getRow(BLOCK_START).getCell(0).getCellStyle().getIndex(),
+				sheet.getRow(BLOCK_START + (lastIndex * 2)).getCell(0).getCellStyle().getIndex());
+		assertEquals("コメント" + lastIndex,
+				excelUtil.getCellValue(SHEET_NAME, BLOCK_START + 1 + (lastIndex * 2), 10));
+
+		Workbook reloaded = reload(excelUtil.getWb());
+		assertEquals(sheet.getNumMergedRegions(), reloaded.getSheet(SHEET_NAME).getNumMergedRegions());
+	}
+
+	/**
+	 * Case.1_2 フィードバックコメント欄複製試験(従来の1件ずつの複製との比較)<br>
+	 * <br>
+	 * ■対象メソッド：sheetCopy()<br>
+	 * ■試験観点：<br>
+	 * 　・1件ずつ複製した場合も結合状態が重複しないこと<br>
+	 * 　・blockCopy()と同じ結合状態となること<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_2() {
+
+		int fbCount = 120;
+		for (int i = 1; i < fbCount; i++) {
+			excelUtil.sheetCopy(SHEET_NAME, BLOCK_START, BLOCK_END, i);
+		}
+		ExcelUtil expected = new ExcelUtil(TEMPLATE_PATH);
+		expected.blockCopy(SHEET_NAME, BLOCK_START, BLOCK_END, fbCount - 1);
+
+		Sheet sheet = excelUtil.getWb().getSheet(SHEET_NAME);
+		assertNoDuplicateMergedRegion(sheet);
+		assertEquals(expected.getWb().getSheet(SHEET_NAME).getNumMergedRegions(),
+				sheet.getNumMergedRegions());
+	}
+
+	/**
+	 * Case.1_3 フィードバックコメント欄複製試験(複製内容)<br>
+	 * <br>
+	 * ■対象メソッド：blockCopy()<br>
+	 * ■試験観点：<br>
+	 * 　・複製元に設定済みの値・スタイルが全ての複製先に複製されていること<br>
+	 * 　・複製後に複製元を更新しても、複製先の値が変わらないこと<br>
+	 *
+	 * */
+	@Test
+	public void testCase1_3() {
+
+		int copyNum = 199;
+		excelUtil.setVal(SHEET_NAME, BLOCK_START, 0, "ユーザー");
+		excelUtil.setVal(SHEET_NAME, BLOCK_START + 1, 10, "コメント");
+		excelUtil.blockCopy(SHEET_NAME, BLOCK_START, BLOCK_END, copyNum);
+		excelUtil.setVal(SHEET_NAME, BLOCK_START, 0, "更新後のユーザー");
+		excelUtil.setVal(SHEET_NAME, BLOCK_START + 1, 10, "更新後のコメント");
+
+		Sheet sheet = excelUtil.getWb().getSheet(SHEET_NAME);
+		short styleIndex = sheet.getRow(BLOCK_START + 1).getCell(10).getCellStyle().getIndex();
+		for (int i = 1; i <= copyNum; i++) {
+			int offset = (BLOCK_END - BLOCK_START) * i;
+			assertEquals("ユーザー", excelUtil.getCellValue(SHEET_NAME, BLOCK_START + offset, 0));
+			assertEquals("コメント", excelUtil.getCellValue(SHEET_NAME, BLOCK_START + 1 + offset, 10));
+			assertEquals(styleIndex, sheet.getRow(BLOCK_START + 1 + offset).getCell(10).getCellStyle().getIndex());
+		}
+		assertEquals("更新後のコメント", excelUtil.getCellValue(SHEET_NAME, BLOCK_START + 1, 10));
+	}
+
+	/**
+	 * 複製元の行範囲に収まる結合状態の件数を取得
+	 *
+	 * @param sheet
+	 * @return 件数
+	 */
+	private int countBlockMergedRegion(Sheet sheet) {
+		Workbook template = new ExcelUtil(TEMPLATE_PATH).getWb();
+		Sheet templateSheet = template.getSheet(sheet.getSheetName());
+		int count = 0;
+		for (int i = 0; i < templateSheet.getNumMergedRegions(); i++) {
+			CellRangeAddress cra = templateSheet.getMergedRegion(i);
+			if (cra.getFirstRow() >= BLOCK_START && cra.getLastRow() < BLOCK_END) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * 結合状態の重複が無いことを検証
+	 *
+	 * @param sheet
+	 */
+	private void assertNoDuplicateMergedRegion(Sheet sheet) {
+		Set<String> refs = new HashSet<String>();
+		for (int i = 0; i < sheet.getNumMergedRegions(); i++) {
+			String ref = sheet.getMergedRegion(i).formatAsString();
+			assertTrue(refs.add(ref), "結合状態が重複しています：" + ref);
+		}
+	}
+
+	/**
+	 * ワークブックを書き出して再読込み
+	 *
+	 * @param wb
+	 * @return ワークブック
+	 */
+	private Workbook reload(Workbook wb) throws IOException, Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		wb.write(out);
+		return WorkbookFactory.create(new ByteArrayInputStream(out.toByteArray()));
+	}
+
+}